@@ -1442,8 +1442,11 @@ public class ObservableListTests {
 
 	@Test
 	public void sort() {
-		assumeTrue("Skip for all except ObservableListWrapperEx", observable
-				.getClass().getSimpleName().equals("ObservableListWrapperEx"));
+		assumeTrue(
+				"Skip for all except ObservableListWrapperEx and ReadOnlyListWrapperEx",
+				observable.getClass().getSimpleName()
+						.equals("ObservableListWrapperEx")
+						|| observable instanceof ReadOnlyListWrapperEx);
 
 		// initialize list with some values
 		observable.add(3);
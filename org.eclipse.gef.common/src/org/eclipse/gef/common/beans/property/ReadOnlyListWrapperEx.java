@@ -12,6 +12,8 @@
  *******************************************************************************/
 package org.eclipse.gef.common.beans.property;
 
+import java.util.Comparator;
+
 import org.eclipse.gef.common.beans.binding.ListExpressionHelperEx;
 
 import javafx.beans.InvalidationListener;
@@ -132,6 +134,11 @@ public class ReadOnlyListWrapperEx<E> extends ReadOnlyListWrapper<E> {
 		public ReadOnlyIntegerProperty sizeProperty() {
 			return ReadOnlyListWrapperEx.this.sizeProperty();
 		}
+
+		@Override
+		public void sort(Comparator<? super E> c) {
+			ReadOnlyListWrapperEx.this.sort(c);
+		}
 	}
 
 	private ReadOnlyPropertyImpl readOnlyProperty = null;
@@ -273,6 +280,15 @@ public class ReadOnlyListWrapperEx<E> extends ReadOnlyListWrapper<E> {
 		}
 	}
 
-	// TODO: overwrite sort(Comparator) and replaceAll(UnaryOperator) as well,
-	// as soon as we drop JavaSE-1.7 support.
+	@Override
+	public void sort(Comparator<? super E> c) {
+		// forward to the wrapped list, so that it may report a permutation
+		// (rather than a change per element)
+		ObservableList<E> list = get();
+		if (list != null) {
+			list.sort(c);
+		}
+	}
+
+	// TODO: overwrite replaceAll(UnaryOperator) as well.
 }
@@ -159,12 +159,12 @@ public class Dot2ZestGraphCopier extends GraphCopier {
 		for (Node n : subgraph.getNodes()) {
 			// 'unfold' all incoming and outgoing edges (they have
 			// to refer to the nested nodes)
-			for (Edge e : zestNode.getIncomingEdges()) {
+			for (Edge e : new ArrayList<>(zestNode.getIncomingEdges())) {
 				Edge edgeCopy = copyEdge(e);
 				edgeCopy.setTarget(n);
 				zestGraph.getEdges().add(edgeCopy);
 			}
-			for (Edge e : zestNode.getOutgoingEdges()) {
+			for (Edge e : new ArrayList<>(zestNode.getOutgoingEdges())) {
 				Edge edgeCopy = copyEdge(e);
 				edgeCopy.setSource(n);
 				zestGraph.getEdges().add(edgeCopy);
@@ -17,6 +17,8 @@ import org.junit.runners.Suite;
 import org.junit.runners.Suite.SuiteClasses;
 
 @RunWith(Suite.class)
-@SuiteClasses({ GraphBuilderTests.class, GraphCopierTests.class })
+@SuiteClasses({ BinaryGraphTests.class, GraphAlgorithmsTests.class,
+		GraphBuilderTests.class, GraphCopierTests.class,
+		GraphDifferTests.class, GraphTests.class })
 public class AllTests {
 }
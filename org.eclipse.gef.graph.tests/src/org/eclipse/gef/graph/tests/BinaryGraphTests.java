@@ -0,0 +1,149 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+
+import org.eclipse.gef.graph.BinaryGraphReader;
+import org.eclipse.gef.graph.BinaryGraphWriter;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.junit.Test;
+
+public class BinaryGraphTests {
+
+	@Test
+	public void classFilter() throws IOException {
+		Date date = new Date(0);
+		Node n = new Node.Builder().attr("date", date)
+				.attr("dates", new Date[] { date }).buildNode();
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new BinaryGraphWriter().write(new Graph(Arrays.asList(n),
+				new ArrayList<Edge>()), bytes);
+
+		// not accepted by the default filter
+		BinaryGraphReader reader = new BinaryGraphReader(
+				ByteBuffer.wrap(bytes.toByteArray()));
+		try {
+			reader.getGraph();
+			fail("Expected an InvalidClassException");
+		} catch (InvalidClassException e) {
+			assertEquals(Date.class.getName(), e.classname);
+		}
+
+		reader = new BinaryGraphReader(ByteBuffer.wrap(bytes.toByteArray()));
+		reader.setClassFilter(BinaryGraphReader.DEFAULT_CLASS_FILTER
+				.or(type -> type == Date.class));
+		Node read = reader.getGraph().getNodes().get(0);
+		assertEquals(date, read.getAttributes().get("date"));
+		assertEquals(date, ((Date[]) read.getAttributes().get("dates"))[0]);
+	}
+
+	@Test(expected = IOException.class)
+	public void invalidData() throws IOException {
+		new BinaryGraphReader(ByteBuffer.wrap(new byte[32]));
+	}
+
+	@Test
+	public void lazyNodes() throws IOException {
+		Node n1 = new Node.Builder().attr("id", "n1").buildNode();
+		Node n2 = new Node.Builder().attr("id", "n2").buildNode();
+		Graph graph = new Graph(Arrays.asList(n1, n2),
+				Arrays.asList(new Edge(n1, n2)));
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		new BinaryGraphWriter().write(graph, bytes);
+
+		BinaryGraphReader reader = new BinaryGraphReader(
+				ByteBuffer.wrap(bytes.toByteArray()));
+		assertEquals(2, reader.getNodeCount());
+		Node node = reader.getNode(1);
+		assertEquals("n2", node.getAttributes().get("id"));
+		assertNull(node.getGraph());
+		// materializing the graph reuses the node
+		Graph read = reader.getGraph();
+		assertSame(node, read.getNodes().get(1));
+		assertSame(read, node.getGraph());
+		assertSame(read, reader.getGraph());
+	}
+
+	@Test
+	public void writeAndRead() throws IOException {
+		ArrayList<String> list = new ArrayList<>(Arrays.asList("a", "b"));
+		Node n = new Node.Builder().attr("id", "n").attr("weight", 2.5)
+				.attr("count", 3).attr("flag", true).attr("list", list)
+				.attr("none", null).buildNode();
+		Node m = new Node.Builder().attr("id", "m").buildNode();
+		Node ma = new Node.Builder().attr("id", "ma").buildNode();
+		Node mb = new Node.Builder().attr("id", "mb").buildNode();
+		Edge mab = new Edge(ma, mb);
+		mab.getAttributes().put("label", "äöü");
+		Graph nested = new Graph(Arrays.asList(ma, mb), Arrays.asList(mab));
+		m.setNestedGraph(nested);
+		Edge nm = new Edge(n, m);
+		nm.getAttributes().put("id", 7L);
+		// an edge leading into the nested graph
+		Edge nma = new Edge(n, ma);
+		Graph graph = new Graph.Builder().attr("name", "root").build();
+		graph.getNodes().addAll(n, m);
+		graph.getEdges().addAll(nm, nma);
+
+		Path file = Files.createTempFile("graph", ".bin");
+		try {
+			new BinaryGraphWriter().write(graph, file);
+			Graph read = new BinaryGraphReader(file).getGraph();
+
+			assertEquals("root", read.getAttributes().get("name"));
+			assertEquals(2, read.getNodes().size());
+			assertEquals(2, read.getEdges().size());
+			Node readN = read.getNodes().get(0);
+			Node readM = read.getNodes().get(1);
+			assertEquals(n.getAttributes(), readN.getAttributes());
+			assertEquals(list, readN.getAttributes().get("list"));
+			assertEquals(m.getAttributes(), readM.getAttributes());
+			assertSame(readN, read.getEdges().get(0).getSource());
+			assertSame(readM, read.getEdges().get(0).getTarget());
+			assertEquals(7L, read.getEdges().get(0).getAttributes().get("id"));
+
+			Graph readNested = readM.getNestedGraph();
+			assertSame(readM, readNested.getNestingNode());
+			assertEquals(2, readNested.getNodes().size());
+			assertEquals(1, readNested.getEdges().size());
+			assertEquals("äöü",
+					readNested.getEdges().get(0).getAttributes().get("label"));
+			assertSame(readNested.getNodes().get(0),
+					read.getEdges().get(1).getTarget());
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void unsupportedValue() throws IOException {
+		Graph graph = new Graph.Builder().attr("value", new Object()).build();
+		new BinaryGraphWriter().write(graph, new ByteArrayOutputStream());
+	}
+
+}
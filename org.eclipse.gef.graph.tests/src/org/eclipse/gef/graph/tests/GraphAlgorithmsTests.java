@@ -0,0 +1,134 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.algorithms.GraphAlgorithms;
+import org.junit.Test;
+
+public class GraphAlgorithmsTests {
+
+	/**
+	 * Creates a snapshot of a graph with nodes <code>0..n-1</code> and the
+	 * given edges (pairs of source and target index).
+	 */
+	private static GraphSnapshot snapshot(int n, int... edges) {
+		Graph.BulkBuilder builder = new Graph.BulkBuilder();
+		for (int i = 0; i < n; i++) {
+			builder.node(i);
+		}
+		for (int i = 0; i < edges.length; i += 2) {
+			builder.edge(edges[i], edges[i + 1]);
+		}
+		return new GraphSnapshot(builder.build());
+	}
+
+	@Test
+	public void connectedComponents() {
+		// 0 - 1 - 2, 3 - 4, 5
+		GraphSnapshot snapshot = snapshot(6, 0, 1, 2, 1, 4, 3);
+		int[] components = GraphAlgorithms
+				.computeConnectedComponents(snapshot);
+		assertArrayEquals(new int[] { 0, 0, 0, 1, 1, 2 }, components);
+		int[][] groups = GraphAlgorithms.groupByComponent(components);
+		assertEquals(3, groups.length);
+		assertArrayEquals(new int[] { 3, 4 }, groups[1]);
+
+		List<Integer> sizes = GraphAlgorithms.mapComponents(snapshot,
+				nodes -> nodes.length, null);
+		assertEquals(3, sizes.size());
+		assertEquals(3, sizes.get(0).intValue());
+		assertEquals(1, sizes.get(2).intValue());
+	}
+
+	@Test
+	public void reachable() {
+		GraphSnapshot snapshot = snapshot(4, 0, 1, 1, 2, 3, 2);
+		boolean[] reachable = GraphAlgorithms.computeReachable(snapshot, 1);
+		assertFalse(reachable[0]);
+		assertTrue(reachable[1]);
+		assertTrue(reachable[2]);
+		assertFalse(reachable[3]);
+
+		boolean[][] all = GraphAlgorithms.computeReachable(snapshot,
+				new int[] { 0, 3 }, null);
+		assertTrue(all[0][2]);
+		assertFalse(all[0][3]);
+		assertTrue(all[1][2]);
+		assertFalse(all[1][1]);
+	}
+
+	@Test
+	public void roots() {
+		// 0 -> 1, cycle 2 -> 3 -> 2 without entry, cycle 4 <-> 5 entered
+		// from 0, 6 with self-loop
+		GraphSnapshot snapshot = snapshot(7, 0, 1, 2, 3, 3, 2, 4, 5, 5, 4,
+				0, 4, 6, 6);
+		assertArrayEquals(new int[] { 0, 2, 6 },
+				GraphAlgorithms.computeRoots(snapshot));
+	}
+
+	@Test
+	public void shortestPaths() {
+		Graph.BulkBuilder builder = new Graph.BulkBuilder();
+		for (int i = 0; i < 4; i++) {
+			builder.node(i);
+		}
+		builder.edge(0, 1).getAttributes().put("w", 4d);
+		builder.edge(0, 2).getAttributes().put("w", 1d);
+		builder.edge(2, 1).getAttributes().put("w", 2d);
+		Graph graph = builder.build();
+		GraphSnapshot snapshot = new GraphSnapshot(graph.getNodes(),
+				graph.getEdges(), e -> (Double) e.getAttributes().get("w"));
+
+		double[] distances = GraphAlgorithms.computeShortestPaths(snapshot,
+				0);
+		assertEquals(0, distances[0], 0);
+		assertEquals(3, distances[1], 0);
+		assertEquals(1, distances[2], 0);
+		assertEquals(Double.POSITIVE_INFINITY, distances[3], 0);
+
+		double[][] all = GraphAlgorithms.computeShortestPaths(snapshot,
+				new int[] { 0, 2 }, null);
+		assertArrayEquals(distances, all[0], 0);
+		assertEquals(2, all[1][1], 0);
+		assertEquals(Double.POSITIVE_INFINITY, all[1][0], 0);
+	}
+
+	@Test
+	public void stronglyConnectedComponents() {
+		// 0 -> {1, 2} (cycle) -> 3
+		GraphSnapshot snapshot = snapshot(4, 0, 1, 1, 2, 2, 1, 2, 3);
+		int[] components = GraphAlgorithms
+				.computeStronglyConnectedComponents(snapshot);
+		assertArrayEquals(new int[] { 0, 1, 1, 2 }, components);
+	}
+
+	@Test
+	public void topologicalOrder() {
+		GraphSnapshot snapshot = snapshot(4, 3, 1, 1, 0, 2, 0);
+		assertArrayEquals(new int[] { 2, 3, 1, 0 },
+				GraphAlgorithms.computeTopologicalOrder(snapshot));
+		assertNull(GraphAlgorithms
+				.computeTopologicalOrder(snapshot(2, 0, 1, 1, 0)));
+	}
+
+}
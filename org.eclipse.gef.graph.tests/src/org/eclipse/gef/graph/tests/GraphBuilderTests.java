@@ -12,6 +12,7 @@
 package org.eclipse.gef.graph.tests;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
 
 import java.util.ArrayList;
 import java.util.Collections;
@@ -127,6 +128,36 @@ public class GraphBuilderTests {
 				"n3");
 	}
 
+	@Test
+	public void bulkBuildGraph() {
+		Graph.BulkBuilder builder = new Graph.BulkBuilder(3, 3);
+		builder.attr("graph_attr", "graph_attr_value");
+		builder.node("n1").getAttributes().put("label", "n1");
+		builder.node("n2").getAttributes().put("label", "n2");
+		builder.edge("n1", "n2").getAttributes().put("label", "n1->n2");
+		// unknown keys result in new nodes
+		builder.edge("n2", "n3");
+		Node n4 = builder.node();
+		builder.edge(n4, "n1");
+		Graph graph = builder.build();
+
+		assertEquals("graph_attr_value",
+				graph.getAttributes().get("graph_attr"));
+		assertEquals(4, graph.getNodes().size());
+		assertEquals(3, graph.getEdges().size());
+		Node n1 = graph.getNodes().get(0);
+		Node n2 = graph.getNodes().get(1);
+		assertEquals("n1", n1.getAttributes().get("label"));
+		assertEquals("n2", n2.getAttributes().get("label"));
+		assertSame(n4, graph.getNodes().get(3));
+		assertSame(n1, graph.getEdges().get(0).getSource());
+		assertSame(n2, graph.getEdges().get(0).getTarget());
+		assertSame(graph.getNodes().get(2), graph.getEdges().get(1).getTarget());
+		assertSame(n4, graph.getEdges().get(2).getSource());
+		assertEquals(1, n1.getIncomingEdges().size());
+		assertSame(graph, n4.getGraph());
+	}
+
 	@Test
 	public void buildSemanticTwice() {
 		Builder b = new Graph.Builder();
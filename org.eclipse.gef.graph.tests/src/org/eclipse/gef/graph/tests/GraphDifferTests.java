@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphDiffer;
+import org.eclipse.gef.graph.Node;
+import org.junit.Test;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.MapChangeListener;
+
+public class GraphDifferTests {
+
+	private static final String ID = "id";
+
+	private static Graph graph(String... nodesAndEdges) {
+		Graph.Builder builder = new Graph.Builder();
+		for (String s : nodesAndEdges) {
+			if (s.contains("->")) {
+				String[] endPoints = s.split("->");
+				builder.edge(endPoints[0], endPoints[1]);
+			} else {
+				builder.node(s).attr(ID, s);
+			}
+		}
+		return builder.build();
+	}
+
+	@Test
+	public void diffAndApply() {
+		Graph oldGraph = graph("a", "b", "c", "a->b", "b->c");
+		Graph newGraph = graph("a", "b", "d", "a->b", "b->d");
+		newGraph.getNodes().get(1).getAttributes().put("label", "B");
+		Node a = oldGraph.getNodes().get(0);
+		Node b = oldGraph.getNodes().get(1);
+		Edge ab = oldGraph.getEdges().get(0);
+
+		final List<ListChangeListener.Change<? extends Node>> nodeChanges = new ArrayList<>();
+		oldGraph.getNodes().addListener(
+				(ListChangeListener<Node>) c -> nodeChanges.add(c));
+		final List<MapChangeListener.Change<? extends String, ? extends Object>> attributeChanges = new ArrayList<>();
+		a.getAttributes().addListener(
+				(MapChangeListener<String, Object>) c -> attributeChanges
+						.add(c));
+		b.getAttributes().addListener(
+				(MapChangeListener<String, Object>) c -> attributeChanges
+						.add(c));
+
+		GraphDiffer.Patch patch = new GraphDiffer(ID).diff(oldGraph,
+				newGraph);
+		assertFalse(patch.isEmpty());
+		assertEquals(1, patch.getAddedNodes().size());
+		assertEquals(1, patch.getRemovedNodes().size());
+		assertEquals(1, patch.getAddedEdges().size());
+		assertEquals(1, patch.getRemovedEdges().size());
+		// the old graph is not modified before the patch is applied
+		assertEquals(3, oldGraph.getNodes().size());
+		assertEquals("c", oldGraph.getNodes().get(2).getAttributes().get(ID));
+
+		patch.apply();
+		assertEquals(1, nodeChanges.size());
+		assertEquals(1, attributeChanges.size());
+		assertEquals("B", b.getAttributes().get("label"));
+		// matched elements are retained
+		assertSame(a, oldGraph.getNodes().get(0));
+		assertSame(b, oldGraph.getNodes().get(1));
+		assertSame(ab, oldGraph.getEdges().get(0));
+		Node d = oldGraph.getNodes().get(2);
+		assertEquals("d", d.getAttributes().get(ID));
+		assertSame(oldGraph, d.getGraph());
+		assertEquals(2, oldGraph.getEdges().size());
+		assertSame(b, oldGraph.getEdges().get(1).getSource());
+		assertSame(d, oldGraph.getEdges().get(1).getTarget());
+		assertTrue(b.getSuccessorNodes().contains(d));
+
+		// nothing left to do
+		assertTrue(new GraphDiffer(ID).diff(oldGraph, newGraph).isEmpty());
+	}
+
+	@Test
+	public void diffNested() {
+		Graph oldGraph = graph("a", "b");
+		Graph newGraph = graph("a", "b");
+		Graph nested = graph("x", "y", "x->y");
+		newGraph.getNodes().get(0).setNestedGraph(nested);
+		newGraph.getEdges()
+				.add(new Edge(newGraph.getNodes().get(1), nested.getNodes()
+						.get(0)));
+		Node a = oldGraph.getNodes().get(0);
+
+		new GraphDiffer(ID).diff(oldGraph, newGraph).apply();
+		Graph oldNested = a.getNestedGraph();
+		assertEquals(2, oldNested.getNodes().size());
+		assertEquals(1, oldNested.getEdges().size());
+		assertSame(oldNested.getNodes().get(0),
+				oldGraph.getEdges().get(0).getTarget());
+		assertTrue(new GraphDiffer(ID).diff(oldGraph, newGraph).isEmpty());
+
+		// removing the nested graph
+		newGraph.getNodes().get(0).setNestedGraph(null);
+		newGraph.getEdges().clear();
+		new GraphDiffer(ID).diff(oldGraph, newGraph).apply();
+		assertNull(a.getNestedGraph());
+		assertTrue(oldGraph.getEdges().isEmpty());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void applyTwice() {
+		GraphDiffer.Patch patch = new GraphDiffer(ID).diff(graph("a"),
+				graph("b"));
+		patch.apply();
+		patch.apply();
+	}
+
+}
@@ -0,0 +1,444 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.Node;
+import org.junit.Test;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.MapChangeListener;
+
+public class GraphTests {
+
+	@Test
+	public void adjacency() {
+		Node n1 = new Node();
+		Node n2 = new Node();
+		Node n3 = new Node();
+		Edge e12 = new Edge(n1, n2);
+		Edge e13 = new Edge(n1, n3);
+		Edge e32 = new Edge(n3, n2);
+		Graph graph = new Graph(Arrays.asList(n1, n2, n3),
+				Arrays.asList(e12, e13, e32));
+
+		assertEquals(0, n1.getIncomingEdges().size());
+		assertEquals(2, n1.getOutgoingEdges().size());
+		assertTrue(n1.getOutgoingEdges().contains(e12));
+		assertTrue(n1.getOutgoingEdges().contains(e13));
+		assertEquals(2, n2.getIncomingEdges().size());
+		assertEquals(0, n2.getOutgoingEdges().size());
+		assertEquals(2, n2.getPredecessorNodes().size());
+		assertTrue(n2.getPredecessorNodes().contains(n1));
+		assertTrue(n2.getPredecessorNodes().contains(n3));
+		assertEquals(2, n3.getNeighbors().size());
+
+		// removing an edge updates the index
+		graph.getEdges().remove(e13);
+		assertEquals(1, n1.getOutgoingEdges().size());
+		assertEquals(0, n3.getIncomingEdges().size());
+		assertEquals(1, n3.getNeighbors().size());
+	}
+
+	@Test
+	public void adjacencyIsLiveView() {
+		Node n1 = new Node();
+		Node n2 = new Node();
+		Graph graph = new Graph(Arrays.asList(n1, n2), Arrays.<Edge> asList());
+		Set<Edge> outgoing = n1.getOutgoingEdges();
+		Set<Edge> incoming = n2.getIncomingEdges();
+		assertTrue(outgoing.isEmpty());
+		assertTrue(incoming.isEmpty());
+
+		Edge e = new Edge(n1, n2);
+		graph.getEdges().add(e);
+		assertEquals(1, outgoing.size());
+		assertEquals(1, incoming.size());
+
+		graph.getEdges().clear();
+		assertTrue(outgoing.isEmpty());
+		assertTrue(incoming.isEmpty());
+
+		// views survive that the index entries are discarded and re-created
+		graph.getNodes().remove(n1);
+		graph.getNodes().add(n1);
+		graph.getEdges().add(e);
+		assertEquals(1, outgoing.size());
+		assertTrue(incoming.contains(e));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void adjacencyIsUnmodifiable() {
+		Node n1 = new Node();
+		Node n2 = new Node();
+		Edge e = new Edge(n1, n2);
+		new Graph(Arrays.asList(n1, n2), Arrays.asList(e));
+		n1.getOutgoingEdges().remove(e);
+	}
+
+	@Test
+	public void adjacencyFollowsEdgeRewiring() {
+		Node n1 = new Node();
+		Node n2 = new Node();
+		Node n3 = new Node();
+		Edge e = new Edge(n1, n2);
+		new Graph(Arrays.asList(n1, n2, n3), Arrays.asList(e));
+
+		e.setTarget(n3);
+		assertTrue(n2.getIncomingEdges().isEmpty());
+		assertEquals(1, n3.getIncomingEdges().size());
+
+		e.setSource(n2);
+		assertTrue(n1.getOutgoingEdges().isEmpty());
+		assertEquals(1, n2.getOutgoingEdges().size());
+		assertEquals(1, n2.getSuccessorNodes().size());
+		assertTrue(n2.getSuccessorNodes().contains(n3));
+	}
+
+	@Test
+	public void attributes() {
+		Node n = new Node();
+		final List<MapChangeListener.Change<? extends String, ? extends Object>> changes = new ArrayList<>();
+		n.getAttributes().addListener(
+				(MapChangeListener<String, Object>) c -> changes.add(c));
+		n.getAttributes().put("a", 1);
+		n.getAttributes().put(new String("b"), 2);
+		n.getAttributes().put("a", 1);
+		n.getAttributes().put("a", 3);
+		n.getAttributes().remove("b");
+		assertEquals(4, changes.size());
+		assertTrue(changes.get(0).wasAdded());
+		assertTrue(changes.get(2).wasAdded());
+		assertTrue(changes.get(2).wasRemoved());
+		assertEquals(1, changes.get(2).getValueRemoved());
+		assertEquals(3, changes.get(2).getValueAdded());
+		assertTrue(changes.get(3).wasRemoved());
+		assertEquals(2, changes.get(3).getValueRemoved());
+		assertEquals(Collections.singletonMap("a", 3), n.getAttributes());
+
+		// keys are compared by equality
+		Edge e = new Edge(n, n);
+		e.getAttributes().put(new String("key"), 1);
+		assertEquals(1, e.getAttributes().get("key"));
+
+		// the property reflects changes applied to the map
+		final List<MapChangeListener.Change<? extends String, ? extends Object>> propertyChanges = new ArrayList<>();
+		e.attributesProperty().addListener(
+				(MapChangeListener<String, Object>) c -> propertyChanges
+						.add(c));
+		e.getAttributes().keySet().remove("key");
+		assertTrue(e.getAttributes().isEmpty());
+		assertEquals(1, propertyChanges.size());
+		assertTrue(propertyChanges.get(0).wasRemoved());
+	}
+
+	@Test
+	public void attributesBeyondIndexThreshold() {
+		Node n = new Node();
+		Map<String, Object> expected = new LinkedHashMap<>();
+		for (int i = 0; i < 100; i++) {
+			n.getAttributes().put("key" + i, i);
+			expected.put("key" + i, i);
+		}
+		assertEquals(expected, n.getAttributes());
+		assertEquals(expected.keySet(),
+				new LinkedHashSet<>(n.getAttributes().keySet()));
+		assertNull(n.getAttributes().get("missing"));
+		assertFalse(n.getAttributes().containsKey("missing"));
+
+		// remove every other entry, which shifts the remaining ones
+		for (int i = 0; i < 100; i += 2) {
+			assertEquals(i, n.getAttributes().remove("key" + i));
+			expected.remove("key" + i);
+		}
+		assertEquals(expected, n.getAttributes());
+		for (int i = 1; i < 100; i += 2) {
+			assertEquals(i, n.getAttributes().get(new String("key" + i)));
+		}
+		n.getAttributes().put("key0", 0);
+		expected.put("key0", 0);
+		assertEquals(expected, n.getAttributes());
+
+		// removal through the iterator
+		Iterator<String> keys = n.getAttributes().keySet().iterator();
+		while (keys.hasNext()) {
+			if (keys.next().endsWith("1")) {
+				keys.remove();
+			}
+		}
+		expected.keySet().removeIf(k -> k.endsWith("1"));
+		assertEquals(expected, n.getAttributes());
+		assertNull(n.getAttributes().get("key1"));
+		assertEquals(3, n.getAttributes().get("key3"));
+	}
+
+	@Test
+	public void hierarchyAdjacency() {
+		Node a = new Node();
+		Node b = new Node();
+		Node c = new Node();
+		Edge ab = new Edge(a, b);
+		Graph root = new Graph(Arrays.asList(a, b, c), Arrays.asList(ab));
+		Node x = new Node();
+		Node y = new Node();
+		Edge xy = new Edge(x, y);
+		Graph nested = new Graph(Arrays.asList(x, y), Arrays.asList(xy));
+		b.setNestedGraph(nested);
+
+		// nested nodes inherit the adjacency of the nesting node
+		assertEquals(2, y.getAllIncomingEdges().size());
+		assertTrue(y.getAllIncomingEdges().contains(ab));
+		assertTrue(y.getAllPredecessorNodes().contains(a));
+		assertTrue(y.getAllPredecessorNodes().contains(x));
+		assertSame(y.getAllIncomingEdges(), y.getAllIncomingEdges());
+
+		// structural changes invalidate the cached results
+		Edge cb = new Edge(c, b);
+		root.getEdges().add(cb);
+		assertEquals(3, y.getAllIncomingEdges().size());
+		assertTrue(x.getAllNeighbors().contains(c));
+		cb.setSource(a);
+		assertTrue(x.getAllPredecessorNodes().contains(a));
+		assertFalse(x.getAllPredecessorNodes().contains(c));
+		b.setNestedGraph(null);
+		assertEquals(1, y.getAllIncomingEdges().size());
+		c.setNestedGraph(nested);
+		assertEquals(1, y.getAllIncomingEdges().size());
+		assertTrue(y.getAllOutgoingEdges().isEmpty());
+		root.getEdges().add(new Edge(c, a));
+		assertEquals(1, y.getAllOutgoingEdges().size());
+		assertTrue(y.getAllSuccessorNodes().contains(a));
+
+		// the nesting node is not contained in a graph
+		root.getNodes().remove(c);
+		assertTrue(y.getAllSuccessorNodes().isEmpty());
+		root.getNodes().add(c);
+		assertTrue(y.getAllSuccessorNodes().contains(a));
+	}
+
+	@Test
+	public void batchUpdate() {
+		Graph graph = new Graph();
+		final List<ListChangeListener.Change<? extends Node>> nodeChanges = new ArrayList<>();
+		final List<ListChangeListener.Change<? extends Edge>> edgeChanges = new ArrayList<>();
+		graph.getNodes().addListener(
+				(ListChangeListener<Node>) c -> nodeChanges.add(c));
+		graph.getEdges().addListener(
+				(ListChangeListener<Edge>) c -> edgeChanges.add(c));
+
+		List<Node> nodes = new ArrayList<>();
+		graph.beginUpdate();
+		try {
+			for (int i = 0; i < 100; i++) {
+				Node n = new Node();
+				nodes.add(n);
+				graph.getNodes().add(n);
+				if (i > 0) {
+					graph.getEdges().add(new Edge(nodes.get(i - 1), n));
+				}
+			}
+			// associations are established when the update ends
+			assertNull(nodes.get(0).getGraph());
+			assertEquals(0, nodeChanges.size());
+			assertEquals(0, edgeChanges.size());
+		} finally {
+			graph.endUpdate();
+		}
+
+		// a single aggregated change per list
+		assertEquals(1, nodeChanges.size());
+		assertEquals(1, edgeChanges.size());
+		ListChangeListener.Change<? extends Node> c = nodeChanges.get(0);
+		c.reset();
+		assertTrue(c.next());
+		assertTrue(c.wasAdded());
+		assertEquals(100, c.getAddedSize());
+		assertSame(graph, nodes.get(0).getGraph());
+		assertEquals(1, nodes.get(0).getOutgoingEdges().size());
+		assertEquals(1, nodes.get(99).getIncomingEdges().size());
+		assertSame(graph, nodes.get(0).getOutgoingEdges().iterator().next()
+				.getGraph());
+
+		// removal within a batch is reported as well
+		graph.beginUpdate();
+		graph.getEdges().clear();
+		graph.getNodes().remove(nodes.get(50));
+		graph.endUpdate();
+		assertEquals(2, nodeChanges.size());
+		assertEquals(2, edgeChanges.size());
+		assertNull(nodes.get(50).getGraph());
+		assertTrue(nodes.get(0).getOutgoingEdges().isEmpty());
+	}
+
+	@Test
+	public void batchUpdateWithFailingListener() {
+		Graph graph = new Graph();
+		final List<ListChangeListener.Change<? extends Edge>> edgeChanges = new ArrayList<>();
+		graph.getNodes().addListener((ListChangeListener<Node>) c -> {
+			throw new IllegalStateException("failing listener");
+		});
+		graph.getEdges().addListener(
+				(ListChangeListener<Edge>) c -> edgeChanges.add(c));
+		Node n1 = new Node();
+		Node n2 = new Node();
+
+		// propagate the listener failure to the caller
+		Thread thread = Thread.currentThread();
+		Thread.UncaughtExceptionHandler handler = thread
+				.getUncaughtExceptionHandler();
+		thread.setUncaughtExceptionHandler((t, e) -> {
+			throw (RuntimeException) e;
+		});
+		try {
+			graph.beginUpdate();
+			graph.getNodes().addAll(n1, n2);
+			graph.endUpdate();
+			fail("Listener failure expected");
+		} catch (IllegalStateException e) {
+			// expected
+		} finally {
+			thread.setUncaughtExceptionHandler(handler);
+		}
+
+		// the edges list is no longer in batch mode
+		graph.getEdges().add(new Edge(n1, n2));
+		assertEquals(1, edgeChanges.size());
+	}
+
+	@Test
+	public void batchUpdateWithoutModification() {
+		Graph graph = new Graph();
+		final List<ListChangeListener.Change<? extends Node>> nodeChanges = new ArrayList<>();
+		graph.getNodes().addListener(
+				(ListChangeListener<Node>) c -> nodeChanges.add(c));
+		graph.beginUpdate();
+		graph.endUpdate();
+		assertEquals(0, nodeChanges.size());
+	}
+
+	@Test
+	public void setAll() {
+		Graph graph = new Graph();
+		Node n1 = new Node();
+		Node n2 = new Node();
+		final List<ListChangeListener.Change<? extends Node>> nodeChanges = new ArrayList<>();
+		graph.getNodes().addListener(
+				(ListChangeListener<Node>) c -> nodeChanges.add(c));
+		assertFalse(graph.getNodes().setAll());
+		assertTrue(graph.getNodes().setAll(n1, n2));
+		assertFalse(graph.getNodes().setAll(n1, n2));
+		assertTrue(graph.getNodes().setAll(n2));
+		// clearing with an empty collection changes the contents
+		assertTrue(graph.getNodes().setAll(Collections.<Node> emptyList()));
+		assertTrue(graph.getNodes().isEmpty());
+		assertEquals(3, nodeChanges.size());
+	}
+
+	@Test
+	public void sort() {
+		Graph graph = new Graph();
+		List<Node> nodes = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			Node n = new Node();
+			n.getAttributes().put("index", i);
+			nodes.add(n);
+		}
+		graph.getNodes().setAll(nodes.get(2), nodes.get(0), nodes.get(3),
+				nodes.get(1));
+		final List<ListChangeListener.Change<? extends Node>> nodeChanges = new ArrayList<>();
+		graph.getNodes().addListener(
+				(ListChangeListener<Node>) c -> nodeChanges.add(c));
+		Comparator<Node> byIndex = Comparator
+				.comparing(n -> (Integer) n.getAttributes().get("index"));
+
+		// sorting is reported as a single permutation
+		graph.getNodes().sort(byIndex);
+		assertEquals(nodes, graph.getNodes());
+		assertEquals(1, nodeChanges.size());
+		ListChangeListener.Change<? extends Node> c = nodeChanges.get(0);
+		c.reset();
+		assertTrue(c.next());
+		assertTrue(c.wasPermutated());
+		assertFalse(c.wasAdded());
+		assertFalse(c.wasRemoved());
+		assertEquals(2, c.getPermutation(0));
+		assertEquals(0, c.getPermutation(1));
+		assertEquals(3, c.getPermutation(2));
+		assertEquals(1, c.getPermutation(3));
+		assertFalse(c.next());
+		assertSame(graph, nodes.get(0).getGraph());
+
+		// sorting a sorted list does not cause a notification
+		graph.getNodes().sort(byIndex);
+		assertEquals(1, nodeChanges.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void endUpdateWithoutBegin() {
+		new Graph().endUpdate();
+	}
+
+	@Test
+	public void snapshot() {
+		Node n1 = new Node();
+		Node n2 = new Node();
+		Node n3 = new Node();
+		Node outside = new Node();
+		Edge e12 = new Edge(n1, n2);
+		Edge e13 = new Edge(n1, n3);
+		Edge e32 = new Edge(n3, n2);
+		Edge eOutside = new Edge(n1, outside);
+		e13.getAttributes().put("weight", 5d);
+		GraphSnapshot snapshot = new GraphSnapshot(Arrays.asList(n1, n2, n3),
+				Arrays.asList(e12, e13, e32, eOutside),
+				e -> e.getAttributes().containsKey("weight")
+						? (Double) e.getAttributes().get("weight")
+						: 1d);
+
+		assertEquals(3, snapshot.getNodeCount());
+		// edges leading out of the node set are ignored
+		assertEquals(3, snapshot.getEdgeCount());
+		assertEquals(-1, snapshot.indexOf(outside));
+		assertEquals(2, snapshot.indexOf(n3));
+
+		assertEquals(2, snapshot.getOutDegree(0));
+		assertEquals(1, snapshot.getSuccessor(0, 0));
+		assertEquals(2, snapshot.getSuccessor(0, 1));
+		assertEquals(5d, snapshot.getWeight(snapshot.getOutEdge(0, 1)), 0);
+		assertEquals(0, snapshot.getInDegree(0));
+		assertEquals(2, snapshot.getInDegree(1));
+		assertEquals(0, snapshot.getPredecessor(1, 0));
+		assertEquals(2, snapshot.getPredecessor(1, 1));
+		assertEquals(e32, snapshot.getEdge(snapshot.getInEdge(1, 1)));
+	}
+
+}
@@ -0,0 +1,347 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+
+import org.eclipse.gef.common.collections.ListListenerHelperEx;
+import org.eclipse.gef.common.collections.ListListenerHelperEx.ElementarySubChange;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+/**
+ * An {@link ObservableList} backed by an {@link ArrayList}, which supports to
+ * coalesce the change notifications of several modifications into a single
+ * notification. All modifications applied between {@link #beginBatch()} and
+ * the matching {@link #endBatch()} are reported as one change, which
+ * describes the (contiguous) range in which the list contents differ from
+ * those at the beginning of the batch.
+ * <p>
+ * Each modifying operation forms an implicit batch of its own, so that bulk
+ * operations like {@link #addAll(Collection)} result in a single notification
+ * as well. Sorting outside of a batch is reported as a permutation.
+ *
+ * @param <E>
+ *            The element type of the list.
+ */
+class BatchableObservableList<E> extends AbstractList<E>
+		implements ObservableList<E>, RandomAccess {
+
+	private final List<E> backingList = new ArrayList<>();
+	private final ListListenerHelperEx<E> helper = new ListListenerHelperEx<>(
+			this);
+	private int batchDepth = 0;
+	private List<E> batchPreviousContents;
+
+	@Override
+	public void add(int index, E element) {
+		beginBatch();
+		try {
+			backingList.add(index, element);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends E> c) {
+		beginBatch();
+		try {
+			return backingList.addAll(c);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean addAll(E... elements) {
+		return addAll(Arrays.asList(elements));
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends E> c) {
+		beginBatch();
+		try {
+			return backingList.addAll(index, c);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public void addListener(InvalidationListener listener) {
+		helper.addListener(listener);
+	}
+
+	@Override
+	public void addListener(ListChangeListener<? super E> listener) {
+		helper.addListener(listener);
+	}
+
+	/**
+	 * Starts a batch, i.e. defers change notifications until the matching
+	 * call to {@link #endBatch()}. Batches may be nested, in which case the
+	 * notification is fired when the outermost batch ends.
+	 */
+	void beginBatch() {
+		if (batchDepth++ == 0) {
+			batchPreviousContents = new ArrayList<>(backingList);
+		}
+	}
+
+	@Override
+	public void clear() {
+		beginBatch();
+		try {
+			backingList.clear();
+		} finally {
+			endBatch();
+		}
+	}
+
+	/**
+	 * Ends a batch that was started via {@link #beginBatch()}. When the
+	 * outermost batch ends, a single change notification is fired (provided
+	 * the contents have changed).
+	 */
+	void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("No batch has been started.");
+		}
+		if (--batchDepth == 0) {
+			List<E> previousContents = batchPreviousContents;
+			batchPreviousContents = null;
+			fireChange(previousContents);
+		}
+	}
+
+	private void fireChange(List<E> previousContents) {
+		int previousSize = previousContents.size();
+		int currentSize = backingList.size();
+		// determine common prefix and suffix (by identity)
+		int prefix = 0;
+		int min = Math.min(previousSize, currentSize);
+		while (prefix < min
+				&& previousContents.get(prefix) == backingList.get(prefix)) {
+			prefix++;
+		}
+		int suffix = 0;
+		while (suffix < min - prefix
+				&& previousContents.get(previousSize - 1 - suffix) == backingList
+						.get(currentSize - 1 - suffix)) {
+			suffix++;
+		}
+		List<E> removed = new ArrayList<>(
+				previousContents.subList(prefix, previousSize - suffix));
+		List<E> added = new ArrayList<>(
+				backingList.subList(prefix, currentSize - suffix));
+		ElementarySubChange<E> elementaryChange;
+		if (removed.isEmpty() && added.isEmpty()) {
+			return;
+		} else if (removed.isEmpty()) {
+			elementaryChange = ElementarySubChange.added(added, prefix,
+					prefix + added.size());
+		} else if (added.isEmpty()) {
+			elementaryChange = ElementarySubChange.removed(removed, prefix,
+					prefix);
+		} else {
+			elementaryChange = ElementarySubChange.replaced(removed, added,
+					prefix, prefix + added.size());
+		}
+		helper.fireValueChangedEvent(new ListListenerHelperEx.AtomicChange<>(
+				this, previousContents, elementaryChange));
+	}
+
+	@Override
+	public E get(int index) {
+		return backingList.get(index);
+	}
+
+	/**
+	 * Returns <code>true</code> if this list contains the elements of the
+	 * given {@link Collection} (compared by identity) in the same order.
+	 */
+	private boolean hasContents(Collection<? extends E> c) {
+		if (c.size() != backingList.size()) {
+			return false;
+		}
+		int i = 0;
+		for (E e : c) {
+			if (backingList.get(i++) != e) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public E remove(int index) {
+		beginBatch();
+		try {
+			return backingList.remove(index);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public void remove(int from, int to) {
+		removeRange(from, to);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		beginBatch();
+		try {
+			return backingList.remove(o);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		beginBatch();
+		try {
+			return backingList.removeAll(c);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean removeAll(E... elements) {
+		return removeAll(Arrays.asList(elements));
+	}
+
+	@Override
+	public void removeListener(InvalidationListener listener) {
+		helper.removeListener(listener);
+	}
+
+	@Override
+	public void removeListener(ListChangeListener<? super E> listener) {
+		helper.removeListener(listener);
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		beginBatch();
+		try {
+			backingList.subList(fromIndex, toIndex).clear();
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		beginBatch();
+		try {
+			return backingList.retainAll(c);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean retainAll(E... elements) {
+		return retainAll(Arrays.asList(elements));
+	}
+
+	@Override
+	public E set(int index, E element) {
+		beginBatch();
+		try {
+			return backingList.set(index, element);
+		} finally {
+			endBatch();
+		}
+	}
+
+	@Override
+	public boolean setAll(Collection<? extends E> col) {
+		beginBatch();
+		try {
+			if (hasContents(col)) {
+				return false;
+			}
+			backingList.clear();
+			backingList.addAll(col);
+			return true;
+		} finally {
+			endBatch();
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public boolean setAll(E... elements) {
+		return setAll(Arrays.asList(elements));
+	}
+
+	@Override
+	public int size() {
+		return backingList.size();
+	}
+
+	/**
+	 * Sorts this list and reports the change as a permutation (rather than a
+	 * replacement of the sorted range), unless a batch is active.
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public void sort(Comparator<? super E> c) {
+		if (batchDepth > 0) {
+			backingList.sort(c);
+			return;
+		}
+		final Comparator<? super E> comparator = c != null ? c
+				: (Comparator<? super E>) Comparator.naturalOrder();
+		// sort the indexes (stable, like List#sort()), so that the
+		// permutation does not depend on the identity of the elements
+		Integer[] previousIndexes = new Integer[backingList.size()];
+		for (int i = 0; i < previousIndexes.length; i++) {
+			previousIndexes[i] = i;
+		}
+		Arrays.sort(previousIndexes, (i, j) -> comparator
+				.compare(backingList.get(i), backingList.get(j)));
+		List<E> previousContents = new ArrayList<>(backingList);
+		int[] permutation = new int[previousIndexes.length];
+		boolean changed = false;
+		for (int i = 0; i < previousIndexes.length; i++) {
+			backingList.set(i, previousContents.get(previousIndexes[i]));
+			permutation[previousIndexes[i]] = i;
+			changed |= previousIndexes[i] != i;
+		}
+		if (changed) {
+			helper.fireValueChangedEvent(
+					new ListListenerHelperEx.AtomicChange<>(this,
+							previousContents,
+							ElementarySubChange.<E> permutated(permutation, 0,
+									permutation.length)));
+		}
+	}
+
+}
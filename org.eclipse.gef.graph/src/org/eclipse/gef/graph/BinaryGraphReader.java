@@ -0,0 +1,378 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Reads {@link Graph}s that were written by a {@link BinaryGraphWriter}. The
+ * file is memory-mapped, and {@link Node}s, {@link Edge}s, and {@link Graph}s
+ * are only materialized when they are requested. Each {@link Node} and
+ * {@link Graph} is materialized at most once, i.e. subsequent requests return
+ * the same instance.
+ * <p>
+ * Values that were encoded using Java serialization are resolved using the
+ * context class loader of the current thread (if set), falling back to the
+ * class loader of this bundle. As deserializing arbitrary classes from
+ * untrusted data allows to execute code (via so called gadget classes), only
+ * the classes accepted by the {@link #setClassFilter(Predicate) class filter}
+ * are deserialized. By default, these are the classes accepted by the
+ * {@link #DEFAULT_CLASS_FILTER}.
+ * <p>
+ * A {@link BinaryGraphReader} is not thread-safe.
+ *
+ * @since 5.1
+ */
+public class BinaryGraphReader {
+
+	private static class ContextClassLoaderObjectInputStream
+			extends ObjectInputStream {
+
+		private final Predicate<Class<?>> classFilter;
+
+		public ContextClassLoaderObjectInputStream(InputStream in,
+				Predicate<Class<?>> classFilter) throws IOException {
+			super(in);
+			this.classFilter = classFilter;
+		}
+
+		private Class<?> resolve(ObjectStreamClass desc)
+				throws IOException, ClassNotFoundException {
+			ClassLoader classLoader = Thread.currentThread()
+					.getContextClassLoader();
+			if (classLoader != null) {
+				try {
+					return Class.forName(desc.getName(), false, classLoader);
+				} catch (ClassNotFoundException e) {
+					// fall back to default resolution
+				}
+			}
+			return super.resolveClass(desc);
+		}
+
+		@Override
+		protected Class<?> resolveClass(ObjectStreamClass desc)
+				throws IOException, ClassNotFoundException {
+			// classes are loaded without being initialized, and rejected
+			// before any instance is created
+			Class<?> type = resolve(desc);
+			Class<?> elementType = type;
+			while (elementType.isArray()) {
+				elementType = elementType.getComponentType();
+			}
+			if (!elementType.isPrimitive() && !classFilter.test(elementType)) {
+				throw new InvalidClassException(desc.getName(),
+						"The class is not accepted by the class filter.");
+			}
+			return type;
+		}
+
+		@Override
+		protected Class<?> resolveProxyClass(String[] interfaces)
+				throws IOException, ClassNotFoundException {
+			throw new InvalidClassException(Arrays.toString(interfaces),
+					"Proxy classes are not supported.");
+		}
+	}
+
+	private static final Set<Class<?>> DEFAULT_CLASSES = new HashSet<>(
+			Arrays.<Class<?>> asList(String.class, Boolean.class, Byte.class,
+					Short.class, Character.class, Integer.class, Long.class,
+					Float.class, Double.class, Number.class, Enum.class,
+					BigInteger.class, BigDecimal.class, ArrayList.class,
+					LinkedList.class, HashMap.class, LinkedHashMap.class,
+					HashSet.class, LinkedHashSet.class));
+
+	/**
+	 * The default class filter, which accepts the classes of the values that
+	 * are encoded natively, {@link BigInteger}, {@link BigDecimal}, enums,
+	 * the common list, set, and map implementations of
+	 * <code>java.util</code> (<code>ArrayList</code>, <code>LinkedList</code>,
+	 * <code>HashSet</code>, <code>LinkedHashSet</code>, <code>HashMap</code>,
+	 * and <code>LinkedHashMap</code>), and the classes of the
+	 * <code>org.eclipse.gef.geometry</code> packages. Arrays are accepted if
+	 * their element type is accepted. It can be combined with further
+	 * classes via {@link Predicate#or(Predicate)}.
+	 */
+	public static final Predicate<Class<?>> DEFAULT_CLASS_FILTER = (
+			type) -> DEFAULT_CLASSES.contains(type) || type.isEnum()
+					|| type.getName().startsWith("org.eclipse.gef.geometry.");
+
+	private static ByteBuffer map(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.READ)) {
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException("The file " + file
+						+ " is too large for the binary graph format.");
+			}
+			return channel.map(MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private final ByteBuffer buffer;
+	private final String[] keys;
+	private final int[] nodeOffsets;
+	private final Node[] nodes;
+	private final int rootGraphOffset;
+	private final Map<Integer, Graph> graphs = new HashMap<>();
+	private Predicate<Class<?>> classFilter = DEFAULT_CLASS_FILTER;
+
+	/**
+	 * Creates a new {@link BinaryGraphReader} for the given buffer, which has
+	 * to contain the complete binary data (starting at position
+	 * <code>0</code>).
+	 *
+	 * @param buffer
+	 *            The {@link ByteBuffer} to read from.
+	 * @throws IOException
+	 *             If the buffer does not contain data in the expected format.
+	 */
+	public BinaryGraphReader(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer.duplicate();
+		int limit = this.buffer.limit();
+		if (limit < 20 || this.buffer.getInt(0) != BinaryGraphWriter.MAGIC
+				|| this.buffer.getInt(limit - 4) != BinaryGraphWriter.MAGIC) {
+			throw new IOException("Not a binary graph.");
+		}
+		int version = this.buffer.getInt(4);
+		if (version != BinaryGraphWriter.VERSION) {
+			throw new IOException(
+					"Unsupported binary graph version " + version + ".");
+		}
+		rootGraphOffset = this.buffer.getInt(limit - 8);
+
+		ByteBuffer in = cursor(this.buffer.getInt(limit - 12));
+		keys = new String[in.getInt()];
+		for (int i = 0; i < keys.length; i++) {
+			String key = readString(in);
+			keys[i] = key == null ? null : key.intern();
+		}
+		nodeOffsets = new int[in.getInt()];
+		in.asIntBuffer().get(nodeOffsets);
+		nodes = new Node[nodeOffsets.length];
+	}
+
+	/**
+	 * Creates a new {@link BinaryGraphReader} for the given file, which is
+	 * memory-mapped.
+	 *
+	 * @param file
+	 *            The {@link Path} of the file to read.
+	 * @throws IOException
+	 *             If the file cannot be mapped or does not contain data in the
+	 *             expected format.
+	 */
+	public BinaryGraphReader(Path file) throws IOException {
+		this(map(file));
+	}
+
+	private ByteBuffer cursor(int offset) {
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset);
+		return in;
+	}
+
+	/**
+	 * Returns the filter that decides which classes may be deserialized for
+	 * values that were encoded using Java serialization.
+	 *
+	 * @return The class filter.
+	 */
+	public Predicate<Class<?>> getClassFilter() {
+		return classFilter;
+	}
+
+	/**
+	 * Returns the root {@link Graph}, which is materialized (completely) upon
+	 * the first call.
+	 *
+	 * @return The root {@link Graph}.
+	 * @throws IOException
+	 *             If an attribute value cannot be decoded.
+	 */
+	public Graph getGraph() throws IOException {
+		return getGraph(rootGraphOffset);
+	}
+
+	private Graph getGraph(int offset) throws IOException {
+		Graph graph = graphs.get(offset);
+		if (graph != null) {
+			return graph;
+		}
+		graph = new Graph();
+		graphs.put(offset, graph);
+		ByteBuffer in = cursor(offset);
+		readAttributes(in, graph.getAttributes());
+		int firstNode = in.getInt();
+		int nodeCount = in.getInt();
+		List<Node> graphNodes = new ArrayList<>(nodeCount);
+		for (int i = 0; i < nodeCount; i++) {
+			graphNodes.add(getNode(firstNode + i));
+		}
+		int edgeCount = in.getInt();
+		List<Edge> graphEdges = new ArrayList<>(edgeCount);
+		for (int i = 0; i < edgeCount; i++) {
+			Node source = getNode(in.getInt());
+			Node target = getNode(in.getInt());
+			Edge edge = new Edge(source, target);
+			readAttributes(in, edge.getAttributes());
+			graphEdges.add(edge);
+		}
+		graph.getNodes().addAll(graphNodes);
+		graph.getEdges().addAll(graphEdges);
+		return graph;
+	}
+
+	/**
+	 * Returns the {@link Node} with the given number, which is materialized
+	 * upon the first call. Nodes are numbered consecutively across all graphs
+	 * of the hierarchy, nested graphs first. If the {@link Node} has a nested
+	 * {@link Graph}, it is materialized as well. The {@link Node} is only
+	 * associated with the {@link Graph} that contains it, when that graph is
+	 * materialized.
+	 *
+	 * @param index
+	 *            The number of the {@link Node}, in the range
+	 *            <code>[0, getNodeCount())</code>.
+	 * @return The {@link Node} with the given number.
+	 * @throws IOException
+	 *             If an attribute value cannot be decoded.
+	 */
+	public Node getNode(int index) throws IOException {
+		Node node = nodes[index];
+		if (node != null) {
+			return node;
+		}
+		node = new Node();
+		nodes[index] = node;
+		ByteBuffer in = cursor(nodeOffsets[index]);
+		int nestedGraphOffset = in.getInt();
+		readAttributes(in, node.getAttributes());
+		if (nestedGraphOffset >= 0) {
+			node.setNestedGraph(getGraph(nestedGraphOffset));
+		}
+		return node;
+	}
+
+	/**
+	 * Returns the total number of {@link Node}s within the graph hierarchy.
+	 *
+	 * @return The number of {@link Node}s.
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	private void readAttributes(ByteBuffer in, Map<String, Object> attributes)
+			throws IOException {
+		int count = in.getInt();
+		for (int i = 0; i < count; i++) {
+			String key = keys[in.getInt()];
+			attributes.put(key, readValue(in));
+		}
+	}
+
+	/**
+	 * Sets the filter that decides which classes may be deserialized for
+	 * values that were encoded using Java serialization. The filter is
+	 * applied to every class within the serialized data (including super
+	 * classes, and the element types of arrays), before any instance of it is
+	 * created. If a class is not accepted, reading the value fails with an
+	 * {@link InvalidClassException}. The default value is the
+	 * {@link #DEFAULT_CLASS_FILTER}. Only classes that are trusted not to
+	 * execute code upon deserialization should be accepted, if the data stems
+	 * from an untrusted source.
+	 *
+	 * @param classFilter
+	 *            The class filter.
+	 */
+	public void setClassFilter(Predicate<Class<?>> classFilter) {
+		if (classFilter == null) {
+			throw new IllegalArgumentException(
+					"Class filter may not be null.");
+		}
+		this.classFilter = classFilter;
+	}
+
+	private String readString(ByteBuffer in) {
+		int length = in.getInt();
+		if (length < 0) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	private Object readValue(ByteBuffer in) throws IOException {
+		byte type = in.get();
+		switch (type) {
+		case BinaryGraphWriter.NULL:
+			return null;
+		case BinaryGraphWriter.STRING:
+			return readString(in);
+		case BinaryGraphWriter.BOOLEAN:
+			return in.get() != 0;
+		case BinaryGraphWriter.BYTE:
+			return in.get();
+		case BinaryGraphWriter.SHORT:
+			return in.getShort();
+		case BinaryGraphWriter.CHARACTER:
+			return in.getChar();
+		case BinaryGraphWriter.INTEGER:
+			return in.getInt();
+		case BinaryGraphWriter.LONG:
+			return in.getLong();
+		case BinaryGraphWriter.FLOAT:
+			return in.getFloat();
+		case BinaryGraphWriter.DOUBLE:
+			return in.getDouble();
+		case BinaryGraphWriter.SERIALIZABLE:
+			byte[] bytes = new byte[in.getInt()];
+			in.get(bytes);
+			try (ObjectInputStream objectIn = new ContextClassLoaderObjectInputStream(
+					new ByteArrayInputStream(bytes), classFilter)) {
+				return objectIn.readObject();
+			} catch (ClassNotFoundException e) {
+				throw new IOException(e);
+			}
+		default:
+			throw new IOException("Unknown value type " + type + ".");
+		}
+	}
+
+}
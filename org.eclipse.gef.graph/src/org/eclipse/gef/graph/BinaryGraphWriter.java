@@ -0,0 +1,298 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+/**
+ * Writes a {@link Graph}, including all nested {@link Graph}s, in a compact
+ * binary format, which can be read by a {@link BinaryGraphReader}.
+ * <p>
+ * Attribute values of type {@link String}, {@link Boolean}, {@link Character}
+ * , and of the primitive wrapper types are encoded natively. Other values have
+ * to be {@link Serializable}; they are encoded using Java serialization (and
+ * are only read back if their classes are accepted by the class filter of the
+ * {@link BinaryGraphReader}). The file layout is as follows (all numbers in
+ * big-endian byte order, offsets relative to the start of the file):
+ *
+ * <pre>
+ * file     := MAGIC VERSION graph* trailer
+ * graph    := attrs firstNode:int nodeCount:int edgeCount:int edge* node*
+ * edge     := source:int target:int attrs
+ * node     := nestedGraphOffset:int attrs
+ * attrs    := count:int (keyIndex:int value)*
+ * trailer  := keyCount:int string* nodeCount:int nodeOffset:int*
+ *             trailerOffset:int rootGraphOffset:int MAGIC
+ * </pre>
+ *
+ * Nested graphs are written before the graph they are nested in, and nodes
+ * are numbered consecutively across all graphs in the order they are written,
+ * so that edges can refer to their source and target nodes by number. The
+ * node offset table in the trailer allows to locate each node without reading
+ * the preceding data.
+ * <p>
+ * A {@link BinaryGraphWriter} is a stateful utility that may be reused, but
+ * that may not be used concurrently.
+ *
+ * @since 5.1
+ */
+public class BinaryGraphWriter {
+
+	/**
+	 * The magic number, which marks the start and end of the binary format.
+	 */
+	static final int MAGIC = 0x47454647; // "GEFG"
+
+	/**
+	 * The version of the binary format.
+	 */
+	static final int VERSION = 1;
+
+	static final byte NULL = 0;
+	static final byte STRING = 1;
+	static final byte BOOLEAN = 2;
+	static final byte BYTE = 3;
+	static final byte SHORT = 4;
+	static final byte CHARACTER = 5;
+	static final byte INTEGER = 6;
+	static final byte LONG = 7;
+	static final byte FLOAT = 8;
+	static final byte DOUBLE = 9;
+	static final byte SERIALIZABLE = 10;
+
+	private DataOutputStream out;
+	private Map<String, Integer> keyIndices;
+	private List<String> keys;
+	private Map<Node, Integer> nodeIndices;
+	private int[] nodeOffsets;
+	private Map<Graph, Integer> graphOffsets;
+
+	private void checkSize() throws IOException {
+		// offsets are stored as int (and files are mapped as a whole)
+		if (out.size() == Integer.MAX_VALUE) {
+			throw new IOException(
+					"The graph is too large for the binary format.");
+		}
+	}
+
+	private void collectGraphs(Graph graph, List<Graph> graphs) {
+		for (Node n : graph.getNodes()) {
+			if (n.getNestedGraph() != null) {
+				collectGraphs(n.getNestedGraph(), graphs);
+			}
+		}
+		graphs.add(graph);
+	}
+
+	private int getNodeIndex(Node node) {
+		Integer index = nodeIndices.get(node);
+		if (index == null) {
+			throw new IllegalArgumentException("The node " + node
+					+ " is not contained in the graph hierarchy.");
+		}
+		return index;
+	}
+
+	/**
+	 * Writes the given {@link Graph} (including all nested {@link Graph}s) to
+	 * the given {@link OutputStream}. The stream is flushed but not closed.
+	 *
+	 * @param graph
+	 *            The {@link Graph} to write.
+	 * @param outputStream
+	 *            The {@link OutputStream} to write to.
+	 * @throws IOException
+	 *             If writing to the stream fails.
+	 * @throws IllegalArgumentException
+	 *             If an attribute value cannot be encoded, or if an
+	 *             {@link Edge} refers to a {@link Node} outside of the graph
+	 *             hierarchy.
+	 */
+	public void write(Graph graph, OutputStream outputStream)
+			throws IOException {
+		// number all nodes, so edges can refer to nodes of any graph
+		List<Graph> graphs = new ArrayList<>();
+		collectGraphs(graph, graphs);
+		nodeIndices = new IdentityHashMap<>();
+		for (Graph g : graphs) {
+			for (Node n : g.getNodes()) {
+				nodeIndices.put(n, nodeIndices.size());
+			}
+		}
+		nodeOffsets = new int[nodeIndices.size()];
+		graphOffsets = new IdentityHashMap<>();
+		keyIndices = new HashMap<>();
+		keys = new ArrayList<>();
+		out = new DataOutputStream(
+				new BufferedOutputStream(outputStream, 1 << 16));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			int firstNode = 0;
+			for (Graph g : graphs) {
+				writeGraph(g, firstNode);
+				firstNode += g.getNodes().size();
+			}
+			int trailerOffset = out.size();
+			out.writeInt(keys.size());
+			for (String key : keys) {
+				writeString(key);
+			}
+			out.writeInt(nodeOffsets.length);
+			for (int offset : nodeOffsets) {
+				out.writeInt(offset);
+			}
+			out.writeInt(trailerOffset);
+			out.writeInt(graphOffsets.get(graph));
+			out.writeInt(MAGIC);
+			checkSize();
+			out.flush();
+		} finally {
+			out = null;
+			nodeIndices = null;
+			nodeOffsets = null;
+			graphOffsets = null;
+			keyIndices = null;
+			keys = null;
+		}
+	}
+
+	/**
+	 * Writes the given {@link Graph} (including all nested {@link Graph}s) to
+	 * the given file, replacing its contents.
+	 *
+	 * @param graph
+	 *            The {@link Graph} to write.
+	 * @param file
+	 *            The {@link Path} of the file to write to.
+	 * @throws IOException
+	 *             If writing to the file fails.
+	 * @see #write(Graph, OutputStream)
+	 */
+	public void write(Graph graph, Path file) throws IOException {
+		try (OutputStream outputStream = Files.newOutputStream(file)) {
+			write(graph, outputStream);
+		}
+	}
+
+	private void writeAttributes(Map<String, Object> attributes)
+			throws IOException {
+		out.writeInt(attributes.size());
+		for (Entry<String, Object> attribute : attributes.entrySet()) {
+			String key = attribute.getKey();
+			Integer keyIndex = keyIndices.get(key);
+			if (keyIndex == null) {
+				keyIndex = keys.size();
+				keyIndices.put(key, keyIndex);
+				keys.add(key);
+			}
+			out.writeInt(keyIndex);
+			writeValue(key, attribute.getValue());
+		}
+	}
+
+	private void writeGraph(Graph graph, int firstNode) throws IOException {
+		graphOffsets.put(graph, out.size());
+		writeAttributes(graph.getAttributes());
+		out.writeInt(firstNode);
+		out.writeInt(graph.getNodes().size());
+		out.writeInt(graph.getEdges().size());
+		for (Edge e : graph.getEdges()) {
+			out.writeInt(getNodeIndex(e.getSource()));
+			out.writeInt(getNodeIndex(e.getTarget()));
+			writeAttributes(e.getAttributes());
+		}
+		int nodeIndex = firstNode;
+		for (Node n : graph.getNodes()) {
+			checkSize();
+			nodeOffsets[nodeIndex++] = out.size();
+			Graph nestedGraph = n.getNestedGraph();
+			out.writeInt(nestedGraph == null ? -1
+					: graphOffsets.get(nestedGraph));
+			writeAttributes(n.getAttributes());
+		}
+		checkSize();
+	}
+
+	private void writeString(String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	private void writeValue(String key, Object value) throws IOException {
+		if (value == null) {
+			out.writeByte(NULL);
+		} else if (value instanceof String) {
+			out.writeByte(STRING);
+			writeString((String) value);
+		} else if (value instanceof Boolean) {
+			out.writeByte(BOOLEAN);
+			out.writeBoolean((Boolean) value);
+		} else if (value instanceof Byte) {
+			out.writeByte(BYTE);
+			out.writeByte((Byte) value);
+		} else if (value instanceof Short) {
+			out.writeByte(SHORT);
+			out.writeShort((Short) value);
+		} else if (value instanceof Character) {
+			out.writeByte(CHARACTER);
+			out.writeChar((Character) value);
+		} else if (value instanceof Integer) {
+			out.writeByte(INTEGER);
+			out.writeInt((Integer) value);
+		} else if (value instanceof Long) {
+			out.writeByte(LONG);
+			out.writeLong((Long) value);
+		} else if (value instanceof Float) {
+			out.writeByte(FLOAT);
+			out.writeFloat((Float) value);
+		} else if (value instanceof Double) {
+			out.writeByte(DOUBLE);
+			out.writeDouble((Double) value);
+		} else if (value instanceof Serializable) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (ObjectOutputStream objectOut = new ObjectOutputStream(
+					bytes)) {
+				objectOut.writeObject(value);
+			}
+			out.writeByte(SERIALIZABLE);
+			out.writeInt(bytes.size());
+			bytes.writeTo(out);
+		} else {
+			throw new IllegalArgumentException("The value of attribute '"
+					+ key + "' (" + value.getClass().getName()
+					+ ") cannot be encoded.");
+		}
+	}
+
+}
@@ -0,0 +1,288 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+
+import org.eclipse.gef.common.collections.MapListenerHelperEx;
+
+import javafx.beans.InvalidationListener;
+import javafx.collections.MapChangeListener;
+import javafx.collections.ObservableMap;
+
+/**
+ * A compact {@link ObservableMap} for the attributes of {@link Graph}s,
+ * {@link Node}s, and {@link Edge}s. Keys and values are stored inline within
+ * a single array, in insertion order. Up to {@link #INDEX_THRESHOLD} entries,
+ * this array is searched linearly. Beyond that, an open-addressing hash index
+ * over the array is maintained, so that lookups remain constant-time for
+ * elements with many attributes (e.g. DOT elements).
+ * <p>
+ * This is considerably smaller than a hash map for the few attributes a graph
+ * element usually has. Listener support is only allocated once a listener is
+ * registered.
+ */
+class CompactObservableMap extends AbstractMap<String, Object>
+		implements ObservableMap<String, Object> {
+
+	private class EntryIterator implements Iterator<Map.Entry<String, Object>> {
+
+		private int next = 0;
+		private int current = -1;
+
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		@Override
+		public Map.Entry<String, Object> next() {
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			current = next++;
+			final String key = (String) table[2 * current];
+			return new AbstractMap.SimpleEntry<String, Object>(key,
+					table[2 * current + 1]) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				public Object setValue(Object value) {
+					super.setValue(value);
+					return put(key, value);
+				}
+			};
+		}
+
+		@Override
+		public void remove() {
+			if (current < 0) {
+				throw new IllegalStateException();
+			}
+			removeAt(current);
+			next = current;
+			current = -1;
+		}
+	}
+
+	/**
+	 * The number of entries up to which no hash index is maintained.
+	 */
+	static final int INDEX_THRESHOLD = 8;
+
+	private static final Object[] EMPTY_TABLE = new Object[0];
+
+	private static int hash(Object key) {
+		int h = key == null ? 0 : key.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+	private Object[] table = EMPTY_TABLE;
+	private int size = 0;
+	// entry positions + 1 (0 marks a free slot); lazily (re-)built
+	private int[] hashIndex;
+	private MapListenerHelperEx<String, Object> helper;
+
+	private final Set<Map.Entry<String, Object>> entrySet = new AbstractSet<Map.Entry<String, Object>>() {
+
+		@Override
+		public void clear() {
+			CompactObservableMap.this.clear();
+		}
+
+		@Override
+		public Iterator<Map.Entry<String, Object>> iterator() {
+			return new EntryIterator();
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+	};
+
+	@Override
+	public void addListener(InvalidationListener listener) {
+		getHelper().addListener(listener);
+	}
+
+	@Override
+	public void addListener(
+			MapChangeListener<? super String, ? super Object> listener) {
+		getHelper().addListener(listener);
+	}
+
+	@Override
+	public void clear() {
+		while (size > 0) {
+			removeAt(size - 1);
+		}
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return indexOf(key) >= 0;
+	}
+
+	@Override
+	public Set<Map.Entry<String, Object>> entrySet() {
+		return entrySet;
+	}
+
+	private void fireChange(String key, Object removedValue,
+			Object addedValue) {
+		if (helper != null) {
+			helper.fireValueChangedEvent(new MapListenerHelperEx.AtomicChange<>(
+					this, key, removedValue, addedValue));
+		}
+	}
+
+	@Override
+	public Object get(Object key) {
+		int index = indexOf(key);
+		return index < 0 ? null : table[2 * index + 1];
+	}
+
+	private MapListenerHelperEx<String, Object> getHelper() {
+		if (helper == null) {
+			helper = new MapListenerHelperEx<>(this);
+		}
+		return helper;
+	}
+
+	private int indexOf(Object key) {
+		if (size > INDEX_THRESHOLD) {
+			if (hashIndex == null) {
+				rebuildIndex();
+			}
+			int mask = hashIndex.length - 1;
+			for (int i = hash(key) & mask;; i = (i + 1) & mask) {
+				int slot = hashIndex[i];
+				if (slot == 0) {
+					return -1;
+				}
+				Object k = table[2 * (slot - 1)];
+				if (k == key || key != null && key.equals(k)) {
+					return slot - 1;
+				}
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			Object k = table[2 * i];
+			if (k == key || key != null && key.equals(k)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private void insertIntoIndex(int entry) {
+		int mask = hashIndex.length - 1;
+		int i = hash(table[2 * entry]) & mask;
+		while (hashIndex[i] != 0) {
+			i = (i + 1) & mask;
+		}
+		hashIndex[i] = entry + 1;
+	}
+
+	@Override
+	public Object put(String key, Object value) {
+		int index = indexOf(key);
+		if (index >= 0) {
+			Object oldValue = table[2 * index + 1];
+			table[2 * index + 1] = value;
+			if (!Objects.equals(oldValue, value)) {
+				fireChange((String) table[2 * index], oldValue, value);
+			}
+			return oldValue;
+		}
+		if (2 * size == table.length) {
+			Object[] newTable = new Object[table.length == 0 ? 4
+					: table.length * 2];
+			System.arraycopy(table, 0, newTable, 0, table.length);
+			table = newTable;
+		}
+		table[2 * size] = key;
+		table[2 * size + 1] = value;
+		size++;
+		if (size > INDEX_THRESHOLD) {
+			// keep the load factor of the index at or below 1/2
+			if (hashIndex == null || 2 * size > hashIndex.length) {
+				rebuildIndex();
+			} else {
+				insertIntoIndex(size - 1);
+			}
+		}
+		fireChange(key, null, value);
+		return null;
+	}
+
+	@Override
+	public Object remove(Object key) {
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+		return removeAt(index);
+	}
+
+	private void rebuildIndex() {
+		hashIndex = new int[Integer.highestOneBit(size) << 2];
+		for (int i = 0; i < size; i++) {
+			insertIntoIndex(i);
+		}
+	}
+
+	private Object removeAt(int index) {
+		String key = (String) table[2 * index];
+		Object value = table[2 * index + 1];
+		int moved = 2 * (size - index - 1);
+		if (moved > 0) {
+			System.arraycopy(table, 2 * index + 2, table, 2 * index, moved);
+		}
+		size--;
+		table[2 * size] = null;
+		table[2 * size + 1] = null;
+		// positions have shifted; the index is rebuilt on the next lookup
+		hashIndex = null;
+		fireChange(key, value, null);
+		return value;
+	}
+
+	@Override
+	public void removeListener(InvalidationListener listener) {
+		if (helper != null) {
+			helper.removeListener(listener);
+		}
+	}
+
+	@Override
+	public void removeListener(
+			MapChangeListener<? super String, ? super Object> listener) {
+		if (helper != null) {
+			helper.removeListener(listener);
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+}
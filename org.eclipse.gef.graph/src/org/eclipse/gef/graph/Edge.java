@@ -28,7 +28,6 @@ import org.eclipse.gef.graph.Graph.Builder.Context;
 
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.beans.property.ReadOnlyMapWrapper;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
 /**
@@ -158,7 +157,7 @@ public class Edge implements IAttributeStore {
 			Edge e = new Edge(sourceNode, targetNode);
 			for (Entry<Object, Object> s : attr) {
 				if (s.getKey() instanceof String) {
-					e.attributesProperty().put((String) s.getKey(), s.getValue());
+					e.getAttributes().put((String) s.getKey(), s.getValue());
 				} else {
 					((BiConsumer) s.getKey()).accept(e, s.getValue());
 				}
@@ -211,8 +210,8 @@ public class Edge implements IAttributeStore {
 		}
 	}
 
-	private final ReadOnlyMapWrapper<String, Object> attributesProperty = new ReadOnlyMapWrapperEx<>(this,
-			ATTRIBUTES_PROPERTY, FXCollections.<String, Object>observableHashMap());
+	private final ObservableMap<String, Object> attributes = new CompactObservableMap();
+	private ReadOnlyMapWrapper<String, Object> attributesProperty; // lazily created
 	private Node source;
 	private Node target;
 	private Graph graph; // associated graph
@@ -234,7 +233,7 @@ public class Edge implements IAttributeStore {
 	 *            The target {@link Node} for this {@link Edge}.
 	 */
 	public Edge(Map<String, Object> attributes, Node source, Node target) {
-		this.attributesProperty.putAll(attributes);
+		this.attributes.putAll(attributes);
 		this.source = source;
 		this.target = target;
 	}
@@ -254,12 +253,16 @@ public class Edge implements IAttributeStore {
 
 	@Override
 	public ReadOnlyMapProperty<String, Object> attributesProperty() {
+		if (attributesProperty == null) {
+			attributesProperty = new ReadOnlyMapWrapperEx<>(this,
+					ATTRIBUTES_PROPERTY, attributes);
+		}
 		return attributesProperty.getReadOnlyProperty();
 	}
 
 	@Override
 	public ObservableMap<String, Object> getAttributes() {
-		return attributesProperty.get();
+		return attributes;
 	}
 
 	/**
@@ -297,9 +300,6 @@ public class Edge implements IAttributeStore {
 	 *            The new {@link Graph} for this {@link Edge}.
 	 */
 	void setGraph(Graph graph) {
-		if (graph != null && !graph.getEdges().contains(this)) {
-			throw new IllegalArgumentException("Edge is not contained in graph " + graph);
-		}
 		this.graph = graph;
 	}
 
@@ -310,7 +310,13 @@ public class Edge implements IAttributeStore {
 	 *            The new source {@link Node} for this {@link Edge}.
 	 */
 	public void setSource(Node source) {
+		if (graph != null) {
+			graph.unindexEdge(this);
+		}
 		this.source = source;
+		if (graph != null) {
+			graph.indexEdge(this);
+		}
 	}
 
 	/**
@@ -320,7 +326,13 @@ public class Edge implements IAttributeStore {
 	 *            The new target {@link Node} for this {@link Edge}.
 	 */
 	public void setTarget(Node target) {
+		if (graph != null) {
+			graph.unindexEdge(this);
+		}
 		this.target = target;
+		if (graph != null) {
+			graph.indexEdge(this);
+		}
 	}
 
 	@Override
@@ -329,14 +341,14 @@ public class Edge implements IAttributeStore {
 		sb.append("Edge {");
 		boolean separator = false;
 		TreeMap<String, Object> sortedAttrs = new TreeMap<>();
-		sortedAttrs.putAll(attributesProperty);
+		sortedAttrs.putAll(attributes);
 		for (Object attrKey : sortedAttrs.keySet()) {
 			if (separator) {
 				sb.append(", ");
 			} else {
 				separator = true;
 			}
-			sb.append(attrKey.toString() + " : " + attributesProperty.get(attrKey));
+			sb.append(attrKey.toString() + " : " + attributes.get(attrKey));
 		}
 		sb.append("} from " + getSource() + " to " + getTarget());
 		return sb.toString();
@@ -14,13 +14,19 @@
 package org.eclipse.gef.graph;
 
 import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.function.BiConsumer;
@@ -28,13 +34,11 @@ import java.util.function.BiConsumer;
 import org.eclipse.gef.common.attributes.IAttributeStore;
 import org.eclipse.gef.common.beans.property.ReadOnlyListWrapperEx;
 import org.eclipse.gef.common.beans.property.ReadOnlyMapWrapperEx;
-import org.eclipse.gef.common.collections.CollectionUtils;
 
 import javafx.beans.property.ReadOnlyListProperty;
 import javafx.beans.property.ReadOnlyListWrapper;
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.beans.property.ReadOnlyMapWrapper;
-import javafx.collections.FXCollections;
 import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 import javafx.collections.ObservableMap;
@@ -49,6 +53,43 @@ import javafx.collections.ObservableMap;
  */
 public final class Graph implements IAttributeStore {
 
+	/**
+	 * An unmodifiable live view on the entry of an adjacency index for a
+	 * {@link Node}, which reads the index on each access, so that it neither
+	 * creates an entry for a {@link Node} without {@link Edge}s nor loses
+	 * track of entries that are created or discarded later.
+	 */
+	private static final class AdjacencyView extends AbstractSet<Edge> {
+
+		private final Map<Node, Set<Edge>> index;
+		private final Node node;
+
+		AdjacencyView(Map<Node, Set<Edge>> index, Node node) {
+			this.index = index;
+			this.node = node;
+		}
+
+		@Override
+		public boolean contains(Object o) {
+			return getEdges().contains(o);
+		}
+
+		private Set<Edge> getEdges() {
+			Set<Edge> edges = index.get(node);
+			return edges == null ? Collections.<Edge> emptySet() : edges;
+		}
+
+		@Override
+		public Iterator<Edge> iterator() {
+			return Collections.unmodifiableSet(getEdges()).iterator();
+		}
+
+		@Override
+		public int size() {
+			return getEdges().size();
+		}
+	}
+
 	/**
 	 * The {@link Builder} can be used to construct a new {@link Graph} little
 	 * by little.
@@ -154,7 +195,7 @@ public final class Graph implements IAttributeStore {
 			Graph g = new Graph(nodeList, edges);
 			for (Entry<Object, Object> s : attr) {
 				if (s.getKey() instanceof String) {
-					g.attributesProperty().put((String) s.getKey(), s.getValue());
+					g.getAttributes().put((String) s.getKey(), s.getValue());
 				} else {
 					((BiConsumer) s.getKey()).accept(g, s.getValue());
 				}
@@ -297,6 +338,136 @@ public final class Graph implements IAttributeStore {
 		}
 	}
 
+	/**
+	 * The {@link BulkBuilder} can be used to construct very large {@link Graph}
+	 * s with a low memory footprint. In contrast to the {@link Builder}, it
+	 * does not record builders for the individual {@link Node}s and
+	 * {@link Edge}s, but creates them directly, resolving node keys on the
+	 * fly. The created {@link Node}s and {@link Edge}s are inserted into the
+	 * {@link Graph} in bulk when {@link #build()} is called, so that only a
+	 * single change notification is fired per list.
+	 * <p>
+	 * Attributes of the created {@link Node}s and {@link Edge}s can be set
+	 * directly on the returned elements.
+	 *
+	 * @since 5.1
+	 */
+	public static class BulkBuilder {
+
+		private final Map<String, Object> attributes = new HashMap<>();
+		private final Map<Object, Node> keysToNodes;
+		private final List<Node> nodes;
+		private final List<Edge> edges;
+
+		/**
+		 * Constructs a new {@link BulkBuilder} without size hints.
+		 */
+		public BulkBuilder() {
+			this(16, 16);
+		}
+
+		/**
+		 * Constructs a new {@link BulkBuilder}, which is prepared to hold the
+		 * given number of {@link Node}s and {@link Edge}s without any
+		 * reallocation.
+		 *
+		 * @param expectedNodeCount
+		 *            The expected number of {@link Node}s.
+		 * @param expectedEdgeCount
+		 *            The expected number of {@link Edge}s.
+		 */
+		public BulkBuilder(int expectedNodeCount, int expectedEdgeCount) {
+			if (expectedNodeCount < 0 || expectedEdgeCount < 0) {
+				throw new IllegalArgumentException("Expected sizes may not be negative.");
+			}
+			// ensure the expected number of keys fits without rehashing
+			keysToNodes = new HashMap<>((int) (expectedNodeCount / 0.75f) + 1);
+			nodes = new ArrayList<>(expectedNodeCount);
+			edges = new ArrayList<>(expectedEdgeCount);
+		}
+
+		/**
+		 * Puts the given <i>key</i>-<i>value</i>-pair into the
+		 * {@link Graph#attributesProperty() attributes map} of the
+		 * {@link Graph} which is constructed by this {@link BulkBuilder}.
+		 *
+		 * @param key
+		 *            The attribute name which is inserted.
+		 * @param value
+		 *            The attribute value which is inserted.
+		 * @return <code>this</code> for convenience.
+		 */
+		public Graph.BulkBuilder attr(String key, Object value) {
+			attributes.put(key, value);
+			return this;
+		}
+
+		/**
+		 * Constructs a new {@link Graph} containing all {@link Node}s and
+		 * {@link Edge}s created by this {@link BulkBuilder}. The builder should
+		 * not be used any further afterwards.
+		 *
+		 * @return A new {@link Graph}.
+		 */
+		public Graph build() {
+			Graph g = new Graph(attributes, nodes, edges);
+			keysToNodes.clear();
+			return g;
+		}
+
+		/**
+		 * Creates a new {@link Edge} between the given source and target. In
+		 * case a key is given that does not identify a {@link Node} yet, a new
+		 * {@link Node} is created for it.
+		 *
+		 * @param sourceNodeOrKey
+		 *            The source {@link Node} or a key to identify it.
+		 * @param targetNodeOrKey
+		 *            The target {@link Node} or a key to identify it.
+		 * @return The newly created {@link Edge}.
+		 */
+		public Edge edge(Object sourceNodeOrKey, Object targetNodeOrKey) {
+			Edge e = new Edge(resolve(sourceNodeOrKey), resolve(targetNodeOrKey));
+			edges.add(e);
+			return e;
+		}
+
+		/**
+		 * Creates a new (anonymous) {@link Node}.
+		 *
+		 * @return The newly created {@link Node}.
+		 */
+		public Node node() {
+			Node n = new Node();
+			nodes.add(n);
+			return n;
+		}
+
+		/**
+		 * Returns the {@link Node} identified by the given key, creating it if
+		 * necessary.
+		 *
+		 * @param key
+		 *            The key to identify the {@link Node}.
+		 * @return The existing or newly created {@link Node}.
+		 */
+		public Node node(Object key) {
+			Node n = keysToNodes.get(key);
+			if (n == null) {
+				n = node();
+				keysToNodes.put(key, n);
+			}
+			return n;
+		}
+
+		private Node resolve(Object nodeOrKey) {
+			if (nodeOrKey instanceof Node) {
+				return (Node) nodeOrKey;
+			}
+			return node(nodeOrKey);
+		}
+	}
+
 	/**
 	 * The name of the {@link #getNodes() nodes property}.
 	 */
@@ -310,21 +481,29 @@ public final class Graph implements IAttributeStore {
 	/**
 	 * {@link Node}s directly contained by this {@link Graph}.
 	 */
-	private final ReadOnlyListWrapper<Node> nodesProperty = new ReadOnlyListWrapperEx<>(this, NODES_PROPERTY,
-			CollectionUtils.<Node>observableArrayList());
+	private final BatchableObservableList<Node> nodes = new BatchableObservableList<>();
+
+	/**
+	 * Property wrapping the {@link #nodes} of this {@link Graph}.
+	 */
+	private final ReadOnlyListWrapper<Node> nodesProperty = new ReadOnlyListWrapperEx<>(this, NODES_PROPERTY, nodes);
 
 	/**
 	 * {@link Edge}s for which this {@link Graph} is a common ancestor for
 	 * {@link Edge#getSource() source} and {@link Edge#getTarget() target}.
 	 */
-	private final ReadOnlyListWrapper<Edge> edgesProperty = new ReadOnlyListWrapperEx<>(this, EDGES_PROPERTY,
-			CollectionUtils.<Edge>observableArrayList());
+	private final BatchableObservableList<Edge> edges = new BatchableObservableList<>();
+
+	/**
+	 * Property wrapping the {@link #edges} of this {@link Graph}.
+	 */
+	private final ReadOnlyListWrapper<Edge> edgesProperty = new ReadOnlyListWrapperEx<>(this, EDGES_PROPERTY, edges);
 
 	/**
 	 * Attributes of this {@link Graph}.
 	 */
-	private final ReadOnlyMapWrapper<String, Object> attributesProperty = new ReadOnlyMapWrapperEx<>(this,
-			ATTRIBUTES_PROPERTY, FXCollections.<String, Object>observableHashMap());
+	private final ObservableMap<String, Object> attributes = new CompactObservableMap();
+	private ReadOnlyMapWrapper<String, Object> attributesProperty; // lazily created
 
 	/**
 	 * {@link Node} which contains this {@link Graph}. May be <code>null</code>
@@ -332,6 +511,34 @@ public final class Graph implements IAttributeStore {
 	 */
 	private Node nestingNode; // when contained as a nested graph within a node
 
+	/**
+	 * {@link Edge}s of this {@link Graph} indexed by their {@link Edge#getTarget()
+	 * target} {@link Node}.
+	 */
+	private final Map<Node, Set<Edge>> incomingEdgesIndex = new IdentityHashMap<>();
+
+	/**
+	 * {@link Edge}s of this {@link Graph} indexed by their {@link Edge#getSource()
+	 * source} {@link Node}.
+	 */
+	private final Map<Node, Set<Edge>> outgoingEdgesIndex = new IdentityHashMap<>();
+
+	/**
+	 * Hierarchy-wide adjacency of the {@link Node}s within the graph hierarchy,
+	 * indexed by the kind of adjacency. Only maintained on the root of the
+	 * hierarchy, and discarded upon any structural change within it. Like the
+	 * other indices of a {@link Graph}, it is not thread-safe, i.e. the graph
+	 * hierarchy has to be accessed from a single thread (or externally
+	 * synchronized) while it is computed on demand.
+	 */
+	private Map<Node, Set<?>[]> hierarchyAdjacency;
+
+	private static final int ALL_INCOMING_EDGES = 0;
+	private static final int ALL_OUTGOING_EDGES = 1;
+	private static final int ALL_PREDECESSOR_NODES = 2;
+	private static final int ALL_SUCCESSOR_NODES = 3;
+	private static final int ALL_NEIGHBORS = 4;
+
 	/**
 	 * Default constructor, using empty collections for attributes, nodes, and
 	 * edges.
@@ -367,29 +574,35 @@ public final class Graph implements IAttributeStore {
 	 *            List of {@link Edge}s.
 	 */
 	public Graph(Map<String, Object> attributes, Collection<? extends Node> nodes, Collection<? extends Edge> edges) {
-		this.attributesProperty.putAll(attributes);
+		this.attributes.putAll(attributes);
 		this.nodesProperty.addListener(new ListChangeListener<Node>() {
 			@Override
 			public void onChanged(ListChangeListener.Change<? extends Node> c) {
 				while (c.next()) {
+					for (Node n : c.getRemoved()) {
+						n.setGraph(null);
+					}
 					for (Node n : c.getAddedSubList()) {
 						n.setGraph(Graph.this);
 					}
 					for (Node n : c.getRemoved()) {
-						n.setGraph(null);
+						pruneAdjacency(n);
 					}
 				}
+				invalidateHierarchyAdjacency();
 			}
 		});
 		this.edgesProperty.addListener(new ListChangeListener<Edge>() {
 			@Override
 			public void onChanged(ListChangeListener.Change<? extends Edge> c) {
 				while (c.next()) {
-					for (Edge e : c.getAddedSubList()) {
-						e.setGraph(Graph.this);
-					}
 					for (Edge e : c.getRemoved()) {
 						e.setGraph(null);
+						unindexEdge(e);
+					}
+					for (Edge e : c.getAddedSubList()) {
+						e.setGraph(Graph.this);
+						indexEdge(e);
 					}
 				}
 			}
@@ -400,9 +613,118 @@ public final class Graph implements IAttributeStore {
 
 	@Override
 	public ReadOnlyMapProperty<String, Object> attributesProperty() {
+		if (attributesProperty == null) {
+			attributesProperty = new ReadOnlyMapWrapperEx<>(this,
+					ATTRIBUTES_PROPERTY, attributes);
+		}
 		return attributesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Returns the (modifiable) entry of the given adjacency index for the given
+	 * {@link Node}, which is created if it does not exist yet. Only used when
+	 * indexing an {@link Edge}, so that reading adjacency does not modify the
+	 * indices.
+	 */
+	private Set<Edge> getOrCreateAdjacency(Map<Node, Set<Edge>> index, Node node) {
+		Set<Edge> edges = index.get(node);
+		if (edges == null) {
+			edges = new LinkedHashSet<>();
+			index.put(node, edges);
+		}
+		return edges;
+	}
+
+	/**
+	 * Returns the hierarchy-wide adjacency of the given kind for the given
+	 * {@link Node}, which has to be contained in this {@link Graph}. The
+	 * result is computed on demand and cached on the root of the hierarchy.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> Set<T> getHierarchyAdjacency(Node node, int kind) {
+		Graph root = getHierarchyRoot();
+		if (root.hierarchyAdjacency == null) {
+			root.hierarchyAdjacency = new IdentityHashMap<>();
+		}
+		Set<?>[] adjacency = root.hierarchyAdjacency.get(node);
+		if (adjacency == null) {
+			adjacency = new Set<?>[ALL_NEIGHBORS + 1];
+			root.hierarchyAdjacency.put(node, adjacency);
+		}
+		if (adjacency[kind] == null) {
+			Set<Object> result = Collections
+					.newSetFromMap(new IdentityHashMap<Object, Boolean>());
+			switch (kind) {
+			case ALL_INCOMING_EDGES:
+				result.addAll(getIncomingEdges(node));
+				if (nestingNode != null) {
+					result.addAll(nestingNode.getAllIncomingEdges());
+				}
+				break;
+			case ALL_OUTGOING_EDGES:
+				result.addAll(getOutgoingEdges(node));
+				if (nestingNode != null) {
+					result.addAll(nestingNode.getAllOutgoingEdges());
+				}
+				break;
+			case ALL_PREDECESSOR_NODES:
+				for (Edge e : getAllIncomingEdges(node)) {
+					result.add(e.getSource());
+				}
+				break;
+			case ALL_SUCCESSOR_NODES:
+				for (Edge e : getAllOutgoingEdges(node)) {
+					result.add(e.getTarget());
+				}
+				break;
+			default:
+				result.addAll(getAllPredecessorNodes(node));
+				result.addAll(getAllSuccessorNodes(node));
+			}
+			adjacency[kind] = Collections.unmodifiableSet(result);
+		}
+		return (Set<T>) adjacency[kind];
+	}
+
+	/**
+	 * Returns the root of the graph hierarchy that is used to cache the
+	 * hierarchy-wide adjacency. In contrast to {@link #getRootGraph()}, the
+	 * nesting chain may end at a nesting {@link Node} that is not (yet)
+	 * contained in a {@link Graph}.
+	 */
+	private Graph getHierarchyRoot() {
+		Graph root = this;
+		while (root.nestingNode != null
+				&& root.nestingNode.getGraph() != null) {
+			root = root.nestingNode.getGraph();
+		}
+		return root;
+	}
+
+	/**
+	 * Starts a batch update of this {@link Graph}. Until the matching call to
+	 * {@link #endUpdate()}, modifications of the {@link #getNodes() nodes} and
+	 * {@link #getEdges() edges} lists do not result in change notifications.
+	 * Instead, when the update ends, a single change is fired for each of both
+	 * lists that summarizes all modifications applied during the update.
+	 * <p>
+	 * As the {@link Graph} itself relies on these notifications, the
+	 * {@link Node#getGraph() graph} of added or removed {@link Node}s and
+	 * {@link Edge}s, as well as the adjacency information provided by
+	 * {@link Node#getIncomingEdges()} and {@link Node#getOutgoingEdges()}, is
+	 * only updated when the update ends.
+	 * <p>
+	 * Batch updates may be nested, in which case notifications are fired when
+	 * the outermost update ends. Clients should always call
+	 * {@link #endUpdate()} in a <code>finally</code> block.
+	 *
+	 * @since 5.1
+	 */
+	public void beginUpdate() {
+		nodes.beginBatch();
+		edges.beginBatch();
+	}
+
 	/**
 	 * Returns a read-only list property containing the {@link Edge}s of this
 	 * {@link Graph}.
@@ -413,9 +735,30 @@ public final class Graph implements IAttributeStore {
 		return edgesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Ends a batch update that was started via {@link #beginUpdate()}. If this
+	 * ends the outermost update, a single change notification is fired for
+	 * the {@link #getNodes() nodes} and {@link #getEdges() edges} lists,
+	 * respectively, provided they were modified during the update.
+	 *
+	 * @throws IllegalStateException
+	 *             if no update was started.
+	 * @since 5.1
+	 */
+	public void endUpdate() {
+		// notify about node changes first, so nodes are associated with this
+		// graph when edge listeners are notified
+		try {
+			nodes.endBatch();
+		} finally {
+			// end the edges batch even if a node listener fails
+			edges.endBatch();
+		}
+	}
+
 	@Override
 	public ObservableMap<String, Object> getAttributes() {
-		return attributesProperty.get();
+		return attributes;
 	}
 
 	/**
@@ -427,6 +770,79 @@ public final class Graph implements IAttributeStore {
 		return edgesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Returns an unmodifiable live view on the {@link Edge}s of this
+	 * {@link Graph} that have the given {@link Node} as their
+	 * {@link Edge#getTarget() target}.
+	 *
+	 * @param node
+	 *            The {@link Node} whose incoming {@link Edge}s are requested.
+	 * @return An unmodifiable live view on the incoming {@link Edge}s.
+	 */
+	Set<Edge> getIncomingEdges(Node node) {
+		return new AdjacencyView(incomingEdgesIndex, node);
+	}
+
+	/**
+	 * Returns the (cached) incoming {@link Edge}s of the given {@link Node}
+	 * within the full graph hierarchy.
+	 *
+	 * @param node
+	 *            A {@link Node} of this {@link Graph}.
+	 * @return An unmodifiable set of the incoming {@link Edge}s.
+	 */
+	Set<Edge> getAllIncomingEdges(Node node) {
+		return getHierarchyAdjacency(node, ALL_INCOMING_EDGES);
+	}
+
+	/**
+	 * Returns the (cached) neighbors of the given {@link Node} within the full
+	 * graph hierarchy.
+	 *
+	 * @param node
+	 *            A {@link Node} of this {@link Graph}.
+	 * @return An unmodifiable set of the neighbor {@link Node}s.
+	 */
+	Set<Node> getAllNeighbors(Node node) {
+		return getHierarchyAdjacency(node, ALL_NEIGHBORS);
+	}
+
+	/**
+	 * Returns the (cached) outgoing {@link Edge}s of the given {@link Node}
+	 * within the full graph hierarchy.
+	 *
+	 * @param node
+	 *            A {@link Node} of this {@link Graph}.
+	 * @return An unmodifiable set of the outgoing {@link Edge}s.
+	 */
+	Set<Edge> getAllOutgoingEdges(Node node) {
+		return getHierarchyAdjacency(node, ALL_OUTGOING_EDGES);
+	}
+
+	/**
+	 * Returns the (cached) predecessors of the given {@link Node} within the
+	 * full graph hierarchy.
+	 *
+	 * @param node
+	 *            A {@link Node} of this {@link Graph}.
+	 * @return An unmodifiable set of the predecessor {@link Node}s.
+	 */
+	Set<Node> getAllPredecessorNodes(Node node) {
+		return getHierarchyAdjacency(node, ALL_PREDECESSOR_NODES);
+	}
+
+	/**
+	 * Returns the (cached) successors of the given {@link Node} within the
+	 * full graph hierarchy.
+	 *
+	 * @param node
+	 *            A {@link Node} of this {@link Graph}.
+	 * @return An unmodifiable set of the successor {@link Node}s.
+	 */
+	Set<Node> getAllSuccessorNodes(Node node) {
+		return getHierarchyAdjacency(node, ALL_SUCCESSOR_NODES);
+	}
+
 	/**
 	 * Returns the {@link Node} in which this {@link Graph} is nested. Returns
 	 * <code>null</code> when this {@link Graph} is not nested.
@@ -447,6 +863,19 @@ public final class Graph implements IAttributeStore {
 		return nodesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Returns an unmodifiable live view on the {@link Edge}s of this
+	 * {@link Graph} that have the given {@link Node} as their
+	 * {@link Edge#getSource() source}.
+	 *
+	 * @param node
+	 *            The {@link Node} whose outgoing {@link Edge}s are requested.
+	 * @return An unmodifiable live view on the outgoing {@link Edge}s.
+	 */
+	Set<Edge> getOutgoingEdges(Node node) {
+		return new AdjacencyView(outgoingEdgesIndex, node);
+	}
+
 	/**
 	 * Returns the root graph of this Graph.
 	 *
@@ -460,6 +889,40 @@ public final class Graph implements IAttributeStore {
 		}
 	}
 
+	/**
+	 * Registers the given {@link Edge} within the adjacency indices of this
+	 * {@link Graph}, so that it is reported as incoming edge of its target and
+	 * as outgoing edge of its source {@link Node}.
+	 *
+	 * @param edge
+	 *            The {@link Edge} to index.
+	 */
+	void indexEdge(Edge edge) {
+		invalidateHierarchyAdjacency();
+		if (edge.getSource() != null) {
+			getOrCreateAdjacency(outgoingEdgesIndex, edge.getSource()).add(edge);
+		}
+		if (edge.getTarget() != null) {
+			getOrCreateAdjacency(incomingEdgesIndex, edge.getTarget()).add(edge);
+		}
+	}
+
+	/**
+	 * Discards the cached hierarchy-wide adjacency of the graph hierarchy this
+	 * {@link Graph} belongs to.
+	 */
+	void invalidateHierarchyAdjacency() {
+		getHierarchyRoot().hierarchyAdjacency = null;
+	}
+
+	/**
+	 * Discards the cached hierarchy-wide adjacency of this {@link Graph}
+	 * (regardless of whether it is the root of its hierarchy).
+	 */
+	void invalidateOwnHierarchyAdjacency() {
+		hierarchyAdjacency = null;
+	}
+
 	/**
 	 * Returns a read-only list property containing the {@link Node}s of this
 	 * {@link Graph}.
@@ -470,6 +933,28 @@ public final class Graph implements IAttributeStore {
 		return nodesProperty.getReadOnlyProperty();
 	}
 
+	/**
+	 * Discards the adjacency index entries of the given {@link Node}, provided
+	 * that the {@link Node} is not contained in this {@link Graph} and no
+	 * {@link Edge} of this {@link Graph} refers to it any longer.
+	 *
+	 * @param node
+	 *            The {@link Node} whose index entries may be discarded.
+	 */
+	private void pruneAdjacency(Node node) {
+		if (node == null || node.getGraph() == this) {
+			return;
+		}
+		Set<Edge> incoming = incomingEdgesIndex.get(node);
+		if (incoming != null && incoming.isEmpty()) {
+			incomingEdgesIndex.remove(node);
+		}
+		Set<Edge> outgoing = outgoingEdgesIndex.get(node);
+		if (outgoing != null && outgoing.isEmpty()) {
+			outgoingEdgesIndex.remove(node);
+		}
+	}
+
 	/**
 	 * Sets the nesting {@link Node} of this {@link Graph}.
 	 *
@@ -478,7 +963,15 @@ public final class Graph implements IAttributeStore {
 	 */
 	public void setNestingNode(Node nestingNode) {
 		Node oldNestingNode = this.nestingNode;
+		if (oldNestingNode != nestingNode) {
+			// the hierarchy changes for the old and new root
+			invalidateHierarchyAdjacency();
+			invalidateOwnHierarchyAdjacency();
+		}
 		this.nestingNode = nestingNode;
+		if (oldNestingNode != nestingNode) {
+			invalidateHierarchyAdjacency();
+		}
 		if (oldNestingNode != null && oldNestingNode != nestingNode) {
 			oldNestingNode.setNestedGraph(null);
 		}
@@ -487,6 +980,27 @@ public final class Graph implements IAttributeStore {
 		}
 	}
 
+	/**
+	 * Removes the given {@link Edge} from the adjacency indices of this
+	 * {@link Graph}.
+	 *
+	 * @param edge
+	 *            The {@link Edge} to remove from the indices.
+	 */
+	void unindexEdge(Edge edge) {
+		invalidateHierarchyAdjacency();
+		Set<Edge> outgoing = outgoingEdgesIndex.get(edge.getSource());
+		if (outgoing != null) {
+			outgoing.remove(edge);
+		}
+		Set<Edge> incoming = incomingEdgesIndex.get(edge.getTarget());
+		if (incoming != null) {
+			incoming.remove(edge);
+		}
+		pruneAdjacency(edge.getSource());
+		pruneAdjacency(edge.getTarget());
+	}
+
 	@Override
 	public String toString() {
 		StringBuilder sb = new StringBuilder();
@@ -495,14 +1009,14 @@ public final class Graph implements IAttributeStore {
 		boolean separator = false;
 
 		TreeMap<String, Object> sortedAttrs = new TreeMap<>();
-		sortedAttrs.putAll(attributesProperty);
+		sortedAttrs.putAll(attributes);
 		for (Object attrKey : sortedAttrs.keySet()) {
 			if (separator) {
 				sb.append(", ");
 			} else {
 				separator = true;
 			}
-			sb.append(attrKey.toString() + " : " + attributesProperty.get(attrKey));
+			sb.append(attrKey.toString() + " : " + attributes.get(attrKey));
 		}
 		sb.append("}");
 		sb.append(".nodes {");
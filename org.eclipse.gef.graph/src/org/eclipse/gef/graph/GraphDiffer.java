@@ -0,0 +1,414 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * A differ for {@link Graph graphs}, which computes the differences between
+ * an old and a new version of a {@link Graph} as a {@link Patch}, which can
+ * then be applied to update the old {@link Graph} in place.
+ * <p>
+ * {@link Node}s are matched by the value of a key attribute within each graph
+ * of the hierarchy. {@link Edge}s are matched by the value of the key
+ * attribute as well, or, if they do not provide a value for it, by their
+ * (matched) source and target {@link Node}s. {@link Node}s without a key are
+ * never matched, i.e. they are replaced. For matched elements, only the
+ * attribute values that differ (in terms of {@link Object#equals(Object)}) are
+ * updated; unmatched elements are removed from the old graph, and copies of
+ * the unmatched elements of the new graph are added.
+ * <p>
+ * When the {@link Patch} is applied, the modifications of each {@link Graph}
+ * are performed within a single {@link Graph#beginUpdate() update}, so that
+ * observers are notified at most once per list.
+ *
+ * @since 5.1
+ */
+public class GraphDiffer {
+
+	/**
+	 * The modifications needed to turn an old version of a {@link Graph} into
+	 * a new one, as computed by {@link GraphDiffer#diff(Graph, Graph)}.
+	 */
+	public static class Patch {
+
+		private final Map<Graph, List<Node>> addedNodes = new LinkedHashMap<>();
+		private final Map<Graph, List<Node>> removedNodes = new LinkedHashMap<>();
+		private final Map<Graph, List<Edge>> addedEdges = new LinkedHashMap<>();
+		private final Map<Graph, List<Edge>> removedEdges = new LinkedHashMap<>();
+		private final Map<Map<String, Object>, Map<String, Object>> changedAttributes = new IdentityHashMap<>();
+		private final Map<Node, Graph> changedNestedGraphs = new IdentityHashMap<>();
+		private final Map<Edge, Node[]> changedEndPoints = new IdentityHashMap<>();
+		private boolean applied = false;
+
+		private Patch() {
+		}
+
+		private static <T> void add(Map<Graph, List<T>> map, Graph graph,
+				T element) {
+			List<T> elements = map.get(graph);
+			if (elements == null) {
+				elements = new ArrayList<>();
+				map.put(graph, elements);
+			}
+			elements.add(element);
+		}
+
+		private static <T> List<T> flatten(Map<Graph, List<T>> map) {
+			List<T> elements = new ArrayList<>();
+			for (List<T> value : map.values()) {
+				elements.addAll(value);
+			}
+			return Collections.unmodifiableList(elements);
+		}
+
+		private static <T> List<T> get(Map<Graph, List<T>> map, Graph graph) {
+			List<T> elements = map.get(graph);
+			return elements == null ? Collections.<T> emptyList() : elements;
+		}
+
+		/**
+		 * Applies this {@link Patch} to the old {@link Graph}.
+		 *
+		 * @throws IllegalStateException
+		 *             If this {@link Patch} has already been applied.
+		 */
+		public void apply() {
+			if (applied) {
+				throw new IllegalStateException(
+						"The patch has already been applied.");
+			}
+			applied = true;
+			for (Entry<Map<String, Object>, Map<String, Object>> e : changedAttributes
+					.entrySet()) {
+				Map<String, Object> attributes = e.getKey();
+				for (Entry<String, Object> change : e.getValue().entrySet()) {
+					if (change.getValue() == REMOVED) {
+						attributes.remove(change.getKey());
+					} else {
+						attributes.put(change.getKey(), change.getValue());
+					}
+				}
+			}
+			for (Entry<Node, Graph> e : changedNestedGraphs.entrySet()) {
+				e.getKey().setNestedGraph(e.getValue());
+			}
+			for (Entry<Edge, Node[]> e : changedEndPoints.entrySet()) {
+				e.getKey().setSource(e.getValue()[0]);
+				e.getKey().setTarget(e.getValue()[1]);
+			}
+			Set<Graph> graphs = new LinkedHashSet<>();
+			graphs.addAll(removedEdges.keySet());
+			graphs.addAll(removedNodes.keySet());
+			graphs.addAll(addedNodes.keySet());
+			graphs.addAll(addedEdges.keySet());
+			for (Graph graph : graphs) {
+				graph.beginUpdate();
+				try {
+					graph.getEdges().removeAll(get(removedEdges, graph));
+					graph.getNodes().removeAll(get(removedNodes, graph));
+					graph.getNodes().addAll(get(addedNodes, graph));
+					graph.getEdges().addAll(get(addedEdges, graph));
+				} finally {
+					graph.endUpdate();
+				}
+			}
+		}
+
+		/**
+		 * Returns the {@link Edge}s that are added to the old graph hierarchy
+		 * when this {@link Patch} is applied. These are copies of the
+		 * unmatched {@link Edge}s of the new graph hierarchy.
+		 *
+		 * @return An unmodifiable list of the added {@link Edge}s.
+		 */
+		public List<Edge> getAddedEdges() {
+			return flatten(addedEdges);
+		}
+
+		/**
+		 * Returns the {@link Node}s that are added to the old graph hierarchy
+		 * when this {@link Patch} is applied. These are copies of the
+		 * unmatched {@link Node}s of the new graph hierarchy.
+		 *
+		 * @return An unmodifiable list of the added {@link Node}s.
+		 */
+		public List<Node> getAddedNodes() {
+			return flatten(addedNodes);
+		}
+
+		/**
+		 * Returns the {@link Edge}s that are removed from the old graph
+		 * hierarchy when this {@link Patch} is applied.
+		 *
+		 * @return An unmodifiable list of the removed {@link Edge}s.
+		 */
+		public List<Edge> getRemovedEdges() {
+			return flatten(removedEdges);
+		}
+
+		/**
+		 * Returns the {@link Node}s that are removed from the old graph
+		 * hierarchy when this {@link Patch} is applied.
+		 *
+		 * @return An unmodifiable list of the removed {@link Node}s.
+		 */
+		public List<Node> getRemovedNodes() {
+			return flatten(removedNodes);
+		}
+
+		/**
+		 * Returns whether this {@link Patch} does not contain any
+		 * modifications, i.e. whether the old and new graph are equivalent.
+		 *
+		 * @return <code>true</code> if this {@link Patch} is empty, otherwise
+		 *         <code>false</code>.
+		 */
+		public boolean isEmpty() {
+			return addedNodes.isEmpty() && removedNodes.isEmpty()
+					&& addedEdges.isEmpty() && removedEdges.isEmpty()
+					&& changedAttributes.isEmpty()
+					&& changedNestedGraphs.isEmpty()
+					&& changedEndPoints.isEmpty();
+		}
+	}
+
+	/**
+	 * Key for {@link Edge}s that do not provide a value for the key attribute.
+	 */
+	private static class EndPoints {
+		private final Node source;
+		private final Node target;
+
+		public EndPoints(Node source, Node target) {
+			this.source = source;
+			this.target = target;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof EndPoints)) {
+				return false;
+			}
+			EndPoints other = (EndPoints) obj;
+			return source == other.source && target == other.target;
+		}
+
+		@Override
+		public int hashCode() {
+			return 31 * System.identityHashCode(source)
+					+ System.identityHashCode(target);
+		}
+	}
+
+	/**
+	 * Marker value for removed attributes.
+	 */
+	private static final Object REMOVED = new Object();
+
+	private final String keyAttribute;
+	private Map<Node, Node> newToOldNodes;
+	private List<Graph[]> graphPairs;
+	private Patch patch;
+
+	/**
+	 * Creates a new {@link GraphDiffer} that matches {@link Node}s and
+	 * {@link Edge}s by the given key attribute.
+	 *
+	 * @param keyAttribute
+	 *            The name of the attribute whose value identifies a
+	 *            {@link Node} or {@link Edge}.
+	 */
+	public GraphDiffer(String keyAttribute) {
+		if (keyAttribute == null) {
+			throw new IllegalArgumentException(
+					"The key attribute may not be null.");
+		}
+		this.keyAttribute = keyAttribute;
+	}
+
+	private void diffAttributes(Map<String, Object> oldAttributes,
+			Map<String, Object> newAttributes) {
+		Map<String, Object> changes = new LinkedHashMap<>();
+		for (String key : oldAttributes.keySet()) {
+			if (!newAttributes.containsKey(key)) {
+				changes.put(key, REMOVED);
+			}
+		}
+		for (Entry<String, Object> e : newAttributes.entrySet()) {
+			if (!oldAttributes.containsKey(e.getKey())
+					|| !Objects.equals(oldAttributes.get(e.getKey()),
+							e.getValue())) {
+				changes.put(e.getKey(), e.getValue());
+			}
+		}
+		if (!changes.isEmpty()) {
+			patch.changedAttributes.put(oldAttributes, changes);
+		}
+	}
+
+	/**
+	 * Computes the {@link Patch} that transforms the given old {@link Graph}
+	 * (including its nested graphs) into the given new {@link Graph}. Neither
+	 * graph is modified.
+	 *
+	 * @param oldGraph
+	 *            The old {@link Graph}, which is updated when the
+	 *            {@link Patch} is applied.
+	 * @param newGraph
+	 *            The new {@link Graph}.
+	 * @return The {@link Patch} to update the old {@link Graph}.
+	 * @throws IllegalArgumentException
+	 *             If an {@link Edge} of the new graph refers to a {@link Node}
+	 *             outside of the new graph hierarchy.
+	 */
+	public Patch diff(Graph oldGraph, Graph newGraph) {
+		patch = new Patch();
+		newToOldNodes = new IdentityHashMap<>();
+		graphPairs = new ArrayList<>();
+		try {
+			// match nodes of all graphs first, so that edges can refer to
+			// nodes of other graphs within the hierarchy
+			diffNodes(oldGraph, newGraph);
+			for (Graph[] graphPair : graphPairs) {
+				diffEdges(graphPair[0], graphPair[1]);
+			}
+			return patch;
+		} finally {
+			patch = null;
+			newToOldNodes = null;
+			graphPairs = null;
+		}
+	}
+
+	private void diffEdges(Graph oldGraph, Graph newGraph) {
+		Map<Object, Deque<Edge>> oldEdges = new HashMap<>();
+		for (Edge oldEdge : oldGraph.getEdges()) {
+			Object key = getEdgeKey(oldEdge, oldEdge.getSource(),
+					oldEdge.getTarget());
+			Deque<Edge> edges = oldEdges.get(key);
+			if (edges == null) {
+				edges = new ArrayDeque<>(1);
+				oldEdges.put(key, edges);
+			}
+			edges.add(oldEdge);
+		}
+		for (Edge newEdge : newGraph.getEdges()) {
+			Node source = getOldNode(newEdge.getSource());
+			Node target = getOldNode(newEdge.getTarget());
+			Deque<Edge> candidates = oldEdges.get(
+					getEdgeKey(newEdge, source, target));
+			Edge oldEdge = candidates == null ? null : candidates.poll();
+			if (oldEdge == null) {
+				Patch.add(patch.addedEdges, oldGraph,
+						new Edge(newEdge.getAttributes(), source, target));
+			} else {
+				if (oldEdge.getSource() != source
+						|| oldEdge.getTarget() != target) {
+					patch.changedEndPoints.put(oldEdge,
+							new Node[] { source, target });
+				}
+				diffAttributes(oldEdge.getAttributes(),
+						newEdge.getAttributes());
+			}
+		}
+		for (Deque<Edge> unmatched : oldEdges.values()) {
+			for (Edge oldEdge : unmatched) {
+				Patch.add(patch.removedEdges, oldGraph, oldEdge);
+			}
+		}
+	}
+
+	private void diffNodes(Graph oldGraph, Graph newGraph) {
+		graphPairs.add(new Graph[] { oldGraph, newGraph });
+		diffAttributes(oldGraph.getAttributes(), newGraph.getAttributes());
+		Map<Object, Node> oldNodes = new HashMap<>();
+		for (Node oldNode : oldGraph.getNodes()) {
+			Object key = oldNode.getAttributes().get(keyAttribute);
+			if (key != null && !oldNodes.containsKey(key)) {
+				oldNodes.put(key, oldNode);
+			}
+		}
+		Set<Node> matched = Collections
+				.newSetFromMap(new IdentityHashMap<Node, Boolean>());
+		for (Node newNode : newGraph.getNodes()) {
+			Object key = newNode.getAttributes().get(keyAttribute);
+			Node oldNode = key == null ? null : oldNodes.remove(key);
+			if (oldNode == null) {
+				oldNode = new Node(newNode.getAttributes());
+				Patch.add(patch.addedNodes, oldGraph, oldNode);
+			} else {
+				matched.add(oldNode);
+				diffAttributes(oldNode.getAttributes(),
+						newNode.getAttributes());
+			}
+			newToOldNodes.put(newNode, oldNode);
+
+			Graph oldNested = oldNode.getNestedGraph();
+			Graph newNested = newNode.getNestedGraph();
+			if (newNested == null) {
+				if (oldNested != null) {
+					patch.changedNestedGraphs.put(oldNode, null);
+				}
+			} else {
+				if (oldNested == null) {
+					oldNested = new Graph();
+					patch.changedNestedGraphs.put(oldNode, oldNested);
+				}
+				diffNodes(oldNested, newNested);
+			}
+		}
+		for (Node oldNode : oldGraph.getNodes()) {
+			if (!matched.contains(oldNode)) {
+				Patch.add(patch.removedNodes, oldGraph, oldNode);
+			}
+		}
+	}
+
+	private Object getEdgeKey(Edge edge, Node source, Node target) {
+		Object key = edge.getAttributes().get(keyAttribute);
+		return key != null ? key : new EndPoints(source, target);
+	}
+
+	/**
+	 * Returns the name of the attribute that is used to match {@link Node}s
+	 * and {@link Edge}s.
+	 *
+	 * @return The name of the key attribute.
+	 */
+	public String getKeyAttribute() {
+		return keyAttribute;
+	}
+
+	private Node getOldNode(Node newNode) {
+		Node oldNode = newToOldNodes.get(newNode);
+		if (oldNode == null) {
+			throw new IllegalArgumentException("The node " + newNode
+					+ " is not contained in the new graph hierarchy.");
+		}
+		return oldNode;
+	}
+
+}
@@ -0,0 +1,335 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * A {@link GraphSnapshot} is an immutable, int-indexed representation of the
+ * structure of a {@link Graph}. Nodes and edges are identified by their index,
+ * and adjacency is stored in compressed sparse row (CSR) format, i.e. the
+ * outgoing (incoming) edges of a node are stored consecutively within a
+ * single int array, delimited by an offsets array.
+ * <p>
+ * A {@link GraphSnapshot} is meant to be created once per algorithm pass, so
+ * that the algorithm can iterate the graph structure without boxing, hashing,
+ * or allocation. It does not reflect any changes that are applied to the
+ * {@link Graph}, its {@link Node}s, or its {@link Edge}s after its creation.
+ * <p>
+ * Only those {@link Edge}s are included, whose source and target
+ * {@link Node}s are both part of the snapshot.
+ *
+ * @since 5.1
+ */
+public final class GraphSnapshot {
+
+	private final Node[] nodes;
+	private final Edge[] edges;
+	private final Map<Node, Integer> nodeIndices;
+
+	private final int[] edgeSources;
+	private final int[] edgeTargets;
+	private final double[] edgeWeights;
+
+	// outgoing adjacency in CSR format
+	private final int[] outOffsets;
+	private final int[] outEdges;
+
+	// incoming adjacency in CSR format
+	private final int[] inOffsets;
+	private final int[] inEdges;
+
+	/**
+	 * Creates a new {@link GraphSnapshot} for the {@link Node}s and
+	 * {@link Edge}s of the given {@link Graph}. All edges are assigned a
+	 * weight of <code>1</code>.
+	 *
+	 * @param graph
+	 *            The {@link Graph} to create a snapshot of.
+	 */
+	public GraphSnapshot(Graph graph) {
+		this(graph.getNodes(), graph.getEdges(), null);
+	}
+
+	/**
+	 * Creates a new {@link GraphSnapshot} for the given {@link Node}s and
+	 * {@link Edge}s. The weight of each edge is determined by the given weight
+	 * function. If no weight function is given, all edges are assigned a
+	 * weight of <code>1</code>.
+	 *
+	 * @param nodes
+	 *            The {@link Node}s to include. The iteration order determines
+	 *            the node indices.
+	 * @param edges
+	 *            The {@link Edge}s to include. {@link Edge}s whose source or
+	 *            target is not contained in the given {@link Node}s are
+	 *            ignored.
+	 * @param weightFunction
+	 *            The function to determine the weight of an {@link Edge}, or
+	 *            <code>null</code>.
+	 */
+	public GraphSnapshot(Collection<? extends Node> nodes,
+			Collection<? extends Edge> edges,
+			ToDoubleFunction<? super Edge> weightFunction) {
+		this.nodes = nodes.toArray(new Node[nodes.size()]);
+		nodeIndices = new IdentityHashMap<>(this.nodes.length);
+		for (int i = 0; i < this.nodes.length; i++) {
+			nodeIndices.put(this.nodes[i], i);
+		}
+
+		// determine edges whose end points are both contained
+		Edge[] includedEdges = new Edge[edges.size()];
+		int[] sources = new int[edges.size()];
+		int[] targets = new int[edges.size()];
+		int m = 0;
+		for (Edge e : edges) {
+			Integer source = nodeIndices.get(e.getSource());
+			Integer target = nodeIndices.get(e.getTarget());
+			if (source == null || target == null) {
+				continue;
+			}
+			includedEdges[m] = e;
+			sources[m] = source;
+			targets[m] = target;
+			m++;
+		}
+		if (m < includedEdges.length) {
+			this.edges = new Edge[m];
+			System.arraycopy(includedEdges, 0, this.edges, 0, m);
+			edgeSources = new int[m];
+			System.arraycopy(sources, 0, edgeSources, 0, m);
+			edgeTargets = new int[m];
+			System.arraycopy(targets, 0, edgeTargets, 0, m);
+		} else {
+			this.edges = includedEdges;
+			edgeSources = sources;
+			edgeTargets = targets;
+		}
+
+		edgeWeights = new double[m];
+		for (int i = 0; i < m; i++) {
+			edgeWeights[i] = weightFunction == null ? 1
+					: weightFunction.applyAsDouble(this.edges[i]);
+		}
+
+		int n = this.nodes.length;
+		outOffsets = new int[n + 1];
+		outEdges = new int[m];
+		inOffsets = new int[n + 1];
+		inEdges = new int[m];
+		fillAdjacency(edgeSources, outOffsets, outEdges);
+		fillAdjacency(edgeTargets, inOffsets, inEdges);
+	}
+
+	/**
+	 * Fills the given offsets and adjacency arrays (counting sort by end
+	 * point), so that the edges of each node are stored in edge index order.
+	 */
+	private static void fillAdjacency(int[] endPoints, int[] offsets,
+			int[] adjacency) {
+		for (int i = 0; i < endPoints.length; i++) {
+			offsets[endPoints[i] + 1]++;
+		}
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+		int[] positions = new int[offsets.length - 1];
+		System.arraycopy(offsets, 0, positions, 0, positions.length);
+		for (int i = 0; i < endPoints.length; i++) {
+			adjacency[positions[endPoints[i]]++] = i;
+		}
+	}
+
+	/**
+	 * Returns the {@link Edge} with the given index.
+	 *
+	 * @param edgeIndex
+	 *            The index of the {@link Edge}.
+	 * @return The {@link Edge} with the given index.
+	 */
+	public Edge getEdge(int edgeIndex) {
+		return edges[edgeIndex];
+	}
+
+	/**
+	 * Returns the number of edges contained in this {@link GraphSnapshot}.
+	 *
+	 * @return The number of edges.
+	 */
+	public int getEdgeCount() {
+		return edges.length;
+	}
+
+	/**
+	 * Returns the index of the <i>i</i>-th incoming edge of the node with the
+	 * given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @param i
+	 *            The position within the incoming edges of the node, in the
+	 *            range <code>[0, getInDegree(nodeIndex))</code>.
+	 * @return The index of the respective incoming edge.
+	 */
+	public int getInEdge(int nodeIndex, int i) {
+		return inEdges[inOffsets[nodeIndex] + i];
+	}
+
+	/**
+	 * Returns the number of incoming edges of the node with the given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @return The in-degree of the node.
+	 */
+	public int getInDegree(int nodeIndex) {
+		return inOffsets[nodeIndex + 1] - inOffsets[nodeIndex];
+	}
+
+	/**
+	 * Returns the {@link Node} with the given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the {@link Node}.
+	 * @return The {@link Node} with the given index.
+	 */
+	public Node getNode(int nodeIndex) {
+		return nodes[nodeIndex];
+	}
+
+	/**
+	 * Returns the number of nodes contained in this {@link GraphSnapshot}.
+	 *
+	 * @return The number of nodes.
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns a copy of the array of {@link Node}s contained in this
+	 * {@link GraphSnapshot}, ordered by their indices.
+	 *
+	 * @return The {@link Node}s of this {@link GraphSnapshot}.
+	 */
+	public Node[] getNodes() {
+		return nodes.clone();
+	}
+
+	/**
+	 * Returns the index of the <i>i</i>-th outgoing edge of the node with the
+	 * given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @param i
+	 *            The position within the outgoing edges of the node, in the
+	 *            range <code>[0, getOutDegree(nodeIndex))</code>.
+	 * @return The index of the respective outgoing edge.
+	 */
+	public int getOutEdge(int nodeIndex, int i) {
+		return outEdges[outOffsets[nodeIndex] + i];
+	}
+
+	/**
+	 * Returns the number of outgoing edges of the node with the given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @return The out-degree of the node.
+	 */
+	public int getOutDegree(int nodeIndex) {
+		return outOffsets[nodeIndex + 1] - outOffsets[nodeIndex];
+	}
+
+	/**
+	 * Returns the index of the source node of the <i>i</i>-th incoming edge of
+	 * the node with the given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @param i
+	 *            The position within the incoming edges of the node, in the
+	 *            range <code>[0, getInDegree(nodeIndex))</code>.
+	 * @return The index of the respective predecessor node.
+	 */
+	public int getPredecessor(int nodeIndex, int i) {
+		return edgeSources[inEdges[inOffsets[nodeIndex] + i]];
+	}
+
+	/**
+	 * Returns the index of the source node of the edge with the given index.
+	 *
+	 * @param edgeIndex
+	 *            The index of the edge.
+	 * @return The index of the source node.
+	 */
+	public int getSource(int edgeIndex) {
+		return edgeSources[edgeIndex];
+	}
+
+	/**
+	 * Returns the index of the target node of the <i>i</i>-th outgoing edge of
+	 * the node with the given index.
+	 *
+	 * @param nodeIndex
+	 *            The index of the node.
+	 * @param i
+	 *            The position within the outgoing edges of the node, in the
+	 *            range <code>[0, getOutDegree(nodeIndex))</code>.
+	 * @return The index of the respective successor node.
+	 */
+	public int getSuccessor(int nodeIndex, int i) {
+		return edgeTargets[outEdges[outOffsets[nodeIndex] + i]];
+	}
+
+	/**
+	 * Returns the index of the target node of the edge with the given index.
+	 *
+	 * @param edgeIndex
+	 *            The index of the edge.
+	 * @return The index of the target node.
+	 */
+	public int getTarget(int edgeIndex) {
+		return edgeTargets[edgeIndex];
+	}
+
+	/**
+	 * Returns the weight of the edge with the given index.
+	 *
+	 * @param edgeIndex
+	 *            The index of the edge.
+	 * @return The weight of the edge.
+	 */
+	public double getWeight(int edgeIndex) {
+		return edgeWeights[edgeIndex];
+	}
+
+	/**
+	 * Returns the index of the given {@link Node} within this
+	 * {@link GraphSnapshot}, or <code>-1</code> if the {@link Node} is not
+	 * contained.
+	 *
+	 * @param node
+	 *            The {@link Node} whose index is requested.
+	 * @return The index of the given {@link Node}, or <code>-1</code>.
+	 */
+	public int indexOf(Node node) {
+		Integer index = nodeIndices.get(node);
+		return index == null ? -1 : index;
+	}
+
+}
@@ -32,7 +32,6 @@ import org.eclipse.gef.graph.Graph.Builder.Context;
 
 import javafx.beans.property.ReadOnlyMapProperty;
 import javafx.beans.property.ReadOnlyMapWrapper;
-import javafx.collections.FXCollections;
 import javafx.collections.ObservableMap;
 
 /**
@@ -145,7 +144,7 @@ public class Node implements IAttributeStore {
 			Node n = new Node();
 			for (Entry<Object, Object> s : attr) {
 				if (s.getKey() instanceof String) {
-					n.attributesProperty().put((String) s.getKey(), s.getValue());
+					n.getAttributes().put((String) s.getKey(), s.getValue());
 				} else {
 					((BiConsumer) s.getKey()).accept(n, s.getValue());
 				}
@@ -209,8 +208,8 @@ public class Node implements IAttributeStore {
 
 	}
 
-	private final ReadOnlyMapWrapper<String, Object> attributesProperty = new ReadOnlyMapWrapperEx<>(this,
-			ATTRIBUTES_PROPERTY, FXCollections.<String, Object>observableHashMap());
+	private final ObservableMap<String, Object> attributes = new CompactObservableMap();
+	private ReadOnlyMapWrapper<String, Object> attributesProperty; // lazily created
 
 	/**
 	 * The {@link Graph} which this {@link Node} belongs to.
@@ -239,31 +238,32 @@ public class Node implements IAttributeStore {
 	 *            attributesProperty map} of this {@link Node}.
 	 */
 	public Node(Map<String, Object> attributes) {
-		this.attributesProperty.putAll(attributes);
+		this.attributes.putAll(attributes);
 	}
 
 	@Override
 	public ReadOnlyMapProperty<String, Object> attributesProperty() {
+		if (attributesProperty == null) {
+			attributesProperty = new ReadOnlyMapWrapperEx<>(this,
+					ATTRIBUTES_PROPERTY, attributes);
+		}
 		return attributesProperty.getReadOnlyProperty();
 	}
 
 	/**
 	 * Returns all incoming {@link Edge}s of this {@link Node}. The full graph
 	 * hierarchy is scanned for incoming edges, and not just the
-	 * {@link #getGraph() associated graph}.
+	 * {@link #getGraph() associated graph}. The results of this and the other
+	 * hierarchy-wide queries are cached on the root graph until the structure
+	 * of the hierarchy changes.
 	 *
-	 * @return All incoming {@link Edge}s.
+	 * @return An unmodifiable set of all incoming {@link Edge}s.
 	 */
 	public Set<Edge> getAllIncomingEdges() {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Edge> incoming = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		incoming.addAll(getIncomingEdges());
-		if (graph.getNestingNode() != null) {
-			incoming.addAll(graph.getNestingNode().getAllIncomingEdges());
-		}
-		return incoming;
+		return graph.getAllIncomingEdges(this);
 	}
 
 	/**
@@ -271,13 +271,13 @@ public class Node implements IAttributeStore {
 	 * scanned for neighbors, and not just the {@link #getGraph() associated
 	 * graph}.
 	 *
-	 * @return All neighbors.
+	 * @return An unmodifiable set of all neighbors.
 	 */
 	public Set<Node> getAllNeighbors() {
-		Set<Node> neighbors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		neighbors.addAll(getAllPredecessorNodes());
-		neighbors.addAll(getAllSuccessorNodes());
-		return neighbors;
+		if (graph == null) {
+			return Collections.emptySet();
+		}
+		return graph.getAllNeighbors(this);
 	}
 
 	/**
@@ -285,18 +285,13 @@ public class Node implements IAttributeStore {
 	 * hierarchy is scanned for outgoing edges, and not just the
 	 * {@link #getGraph() associated graph}.
 	 *
-	 * @return All outgoing {@link Edge}s.
+	 * @return An unmodifiable set of all outgoing {@link Edge}s.
 	 */
 	public Set<Edge> getAllOutgoingEdges() {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Edge> outgoing = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		outgoing.addAll(getOutgoingEdges());
-		if (graph.getNestingNode() != null) {
-			outgoing.addAll(graph.getNestingNode().getAllOutgoingEdges());
-		}
-		return outgoing;
+		return graph.getAllOutgoingEdges(this);
 	}
 
 	/**
@@ -304,18 +299,13 @@ public class Node implements IAttributeStore {
 	 * graph hierarchy is scanned for predecessor nodes, and not just the
 	 * {@link #getGraph() associated graph}.
 	 *
-	 * @return All predecessor {@link Node}s.
+	 * @return An unmodifiable set of all predecessor {@link Node}s.
 	 */
 	public Set<Node> getAllPredecessorNodes() {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Node> predecessors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		predecessors.addAll(getPredecessorNodes());
-		if (graph.getNestingNode() != null) {
-			predecessors.addAll(graph.getNestingNode().getAllPredecessorNodes());
-		}
-		return predecessors;
+		return graph.getAllPredecessorNodes(this);
 	}
 
 	/**
@@ -323,23 +313,18 @@ public class Node implements IAttributeStore {
 	 * hierarchy is scanned for successor nodes, and not just the
 	 * {@link #getGraph() associated graph}.
 	 *
-	 * @return All successor {@link Node}s.
+	 * @return An unmodifiable set of all successor {@link Node}s.
 	 */
 	public Set<Node> getAllSuccessorNodes() {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Node> successors = Collections.newSetFromMap(new IdentityHashMap<Node, Boolean>());
-		successors.addAll(getSuccessorNodes());
-		if (graph.getNestingNode() != null) {
-			successors.addAll(graph.getNestingNode().getAllSuccessorNodes());
-		}
-		return successors;
+		return graph.getAllSuccessorNodes(this);
 	}
 
 	@Override
 	public ObservableMap<String, Object> getAttributes() {
-		return attributesProperty.get();
+		return attributes;
 	}
 
 	/**
@@ -353,8 +338,10 @@ public class Node implements IAttributeStore {
 
 	/**
 	 * Returns the local incoming {@link Edge}s of this {@link Node}. Only the
-	 * {@link #getGraph() associated graph} is scanned for incoming edges, and
-	 * not the whole graph hierarchy.
+	 * {@link #getGraph() associated graph} is considered for incoming edges,
+	 * and not the whole graph hierarchy. The returned {@link Set} is an
+	 * unmodifiable live view on the adjacency index maintained by the
+	 * {@link #getGraph() associated graph}.
 	 *
 	 * @return The local incoming {@link Edge}s.
 	 */
@@ -362,13 +349,7 @@ public class Node implements IAttributeStore {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Edge> incoming = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getTarget() == this) {
-				incoming.add(e);
-			}
-		}
-		return incoming;
+		return graph.getIncomingEdges(this);
 	}
 
 	/**
@@ -397,8 +378,10 @@ public class Node implements IAttributeStore {
 
 	/**
 	 * Returns the local outgoing {@link Edge}s of this {@link Node}. Only the
-	 * {@link #getGraph() associated graph} is scanned for outgoing edges, and
-	 * not the whole graph hierarchy.
+	 * {@link #getGraph() associated graph} is considered for outgoing edges,
+	 * and not the whole graph hierarchy. The returned {@link Set} is an
+	 * unmodifiable live view on the adjacency index maintained by the
+	 * {@link #getGraph() associated graph}.
 	 *
 	 * @return The local outgoing {@link Edge}s.
 	 */
@@ -406,13 +389,7 @@ public class Node implements IAttributeStore {
 		if (graph == null) {
 			return Collections.emptySet();
 		}
-		Set<Edge> outgoing = Collections.newSetFromMap(new IdentityHashMap<Edge, Boolean>());
-		for (Edge e : graph.getEdges()) {
-			if (e.getSource() == this) {
-				outgoing.add(e);
-			}
-		}
-		return outgoing;
+		return graph.getOutgoingEdges(this);
 	}
 
 	/**
@@ -453,10 +430,11 @@ public class Node implements IAttributeStore {
 	 *            The new {@link Graph} for this {@link Node}.
 	 */
 	void setGraph(Graph graph) {
-		if (graph != null && !graph.getNodes().contains(this)) {
-			throw new IllegalArgumentException("Node is not contained in graph " + graph);
-		}
 		this.graph = graph;
+		if (nestedGraph != null) {
+			// the nested graph may have been the root of its hierarchy
+			nestedGraph.invalidateOwnHierarchyAdjacency();
+		}
 	}
 
 	/**
@@ -483,14 +461,14 @@ public class Node implements IAttributeStore {
 		sb.append("Node {");
 		boolean separator = false;
 		TreeMap<String, Object> sortedAttrs = new TreeMap<>();
-		sortedAttrs.putAll(attributesProperty);
+		sortedAttrs.putAll(attributes);
 		for (Object attrKey : sortedAttrs.keySet()) {
 			if (separator) {
 				sb.append(", ");
 			} else {
 				separator = true;
 			}
-			sb.append(attrKey.toString() + " : " + attributesProperty.get(attrKey));
+			sb.append(attrKey.toString() + " : " + attributes.get(attrKey));
 		}
 		sb.append("}");
 		return sb.toString();
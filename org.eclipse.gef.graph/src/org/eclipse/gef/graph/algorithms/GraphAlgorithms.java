@@ -0,0 +1,547 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ *
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.graph.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+import org.eclipse.gef.graph.GraphSnapshot;
+
+/**
+ * The {@link GraphAlgorithms} class provides linear-time (respectively
+ * <code>O(m log n)</code> for shortest paths) implementations of common graph
+ * algorithms, which operate on the int-indexed structure of a
+ * {@link GraphSnapshot}. All results refer to nodes by their index within the
+ * {@link GraphSnapshot}.
+ * <p>
+ * As a {@link GraphSnapshot} is immutable, it can be shared between threads.
+ * The parallel variants, which accept a {@link ForkJoinPool}, make use of
+ * this to process several sources or components concurrently. If no
+ * {@link ForkJoinPool} is given, the {@link ForkJoinPool#commonPool() common
+ * pool} is used.
+ *
+ * @since 5.1
+ */
+public final class GraphAlgorithms {
+
+	private static class ForEachAction extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int from;
+		private final int to;
+		private final IntConsumer action;
+
+		public ForEachAction(int from, int to, IntConsumer action) {
+			this.from = from;
+			this.to = to;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from == 1) {
+				action.accept(from);
+			} else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ForEachAction(from, middle, action),
+						new ForEachAction(middle, to, action));
+			}
+		}
+	}
+
+	/**
+	 * Computes the weakly connected components of the given
+	 * {@link GraphSnapshot}, i.e. edge directions are ignored. Components are
+	 * numbered consecutively, in the order of their smallest node index.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @return An array that contains the component number of each node.
+	 */
+	public static int[] computeConnectedComponents(GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] components = new int[n];
+		Arrays.fill(components, -1);
+		int[] stack = new int[n];
+		int componentCount = 0;
+		for (int root = 0; root < n; root++) {
+			if (components[root] >= 0) {
+				continue;
+			}
+			int size = 0;
+			stack[size++] = root;
+			components[root] = componentCount;
+			while (size > 0) {
+				int v = stack[--size];
+				for (int i = 0, d = snapshot.getOutDegree(v); i < d; i++) {
+					int w = snapshot.getSuccessor(v, i);
+					if (components[w] < 0) {
+						components[w] = componentCount;
+						stack[size++] = w;
+					}
+				}
+				for (int i = 0, d = snapshot.getInDegree(v); i < d; i++) {
+					int w = snapshot.getPredecessor(v, i);
+					if (components[w] < 0) {
+						components[w] = componentCount;
+						stack[size++] = w;
+					}
+				}
+			}
+			componentCount++;
+		}
+		return components;
+	}
+
+	/**
+	 * Determines the nodes that are reachable from the given source node(s)
+	 * by following edges in their direction. The source nodes are reachable
+	 * by definition.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @param sources
+	 *            The indices of the source nodes.
+	 * @return An array that indicates for each node whether it is reachable.
+	 */
+	public static boolean[] computeReachable(GraphSnapshot snapshot,
+			int... sources) {
+		int n = snapshot.getNodeCount();
+		boolean[] reachable = new boolean[n];
+		int[] queue = new int[n];
+		int head = 0;
+		int tail = 0;
+		for (int source : sources) {
+			if (!reachable[source]) {
+				reachable[source] = true;
+				queue[tail++] = source;
+			}
+		}
+		while (head < tail) {
+			int v = queue[head++];
+			for (int i = 0, d = snapshot.getOutDegree(v); i < d; i++) {
+				int w = snapshot.getSuccessor(v, i);
+				if (!reachable[w]) {
+					reachable[w] = true;
+					queue[tail++] = w;
+				}
+			}
+		}
+		return reachable;
+	}
+
+	/**
+	 * Determines the nodes that are reachable from each of the given source
+	 * nodes, processing the sources in parallel.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @param sources
+	 *            The indices of the source nodes.
+	 * @param pool
+	 *            The {@link ForkJoinPool} to use, or <code>null</code> to use
+	 *            the common pool.
+	 * @return An array that contains the result of
+	 *         {@link #computeReachable(GraphSnapshot, int...)} for each source
+	 *         node.
+	 */
+	public static boolean[][] computeReachable(final GraphSnapshot snapshot,
+			final int[] sources, ForkJoinPool pool) {
+		final boolean[][] reachable = new boolean[sources.length][];
+		forEach(pool, sources.length, new IntConsumer() {
+			@Override
+			public void accept(int i) {
+				reachable[i] = computeReachable(snapshot, sources[i]);
+			}
+		});
+		return reachable;
+	}
+
+	/**
+	 * Determines a set of root nodes from which all nodes are reachable. These
+	 * are all nodes without incoming edges (self-loops are not taken into
+	 * account), complemented by the node with the smallest index of each
+	 * strongly connected component that cannot be reached from outside (i.e.
+	 * each cycle without entry).
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @return The indices of the root nodes in ascending order.
+	 */
+	public static int[] computeRoots(GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] components = computeStronglyConnectedComponents(snapshot);
+		int componentCount = 0;
+		for (int c : components) {
+			componentCount = Math.max(componentCount, c + 1);
+		}
+		boolean[] hasEntry = new boolean[componentCount];
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			int source = components[snapshot.getSource(e)];
+			int target = components[snapshot.getTarget(e)];
+			if (source != target) {
+				hasEntry[target] = true;
+			}
+		}
+		int[] roots = new int[n];
+		int rootCount = 0;
+		for (int v = 0; v < n; v++) {
+			int c = components[v];
+			if (!hasEntry[c]) {
+				// select first node of each component without entry
+				hasEntry[c] = true;
+				roots[rootCount++] = v;
+			}
+		}
+		return Arrays.copyOf(roots, rootCount);
+	}
+
+	/**
+	 * Computes the lengths of the shortest paths from the given source node to
+	 * all other nodes using Dijkstra's algorithm, interpreting the
+	 * {@link GraphSnapshot#getWeight(int) edge weights} as lengths.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @param source
+	 *            The index of the source node.
+	 * @return An array that contains the distance of each node from the
+	 *         source node, or {@link Double#POSITIVE_INFINITY} if a node is
+	 *         not reachable.
+	 * @throws IllegalArgumentException
+	 *             If an edge with a negative weight is encountered.
+	 */
+	public static double[] computeShortestPaths(GraphSnapshot snapshot,
+			int source) {
+		int n = snapshot.getNodeCount();
+		double[] distances = new double[n];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		// binary min-heap of node indices, with positions for decrease-key
+		int[] heap = new int[n];
+		int[] positions = new int[n];
+		Arrays.fill(positions, -1);
+		int size = 0;
+		distances[source] = 0;
+		heap[size] = source;
+		positions[source] = size++;
+		while (size > 0) {
+			int v = heap[0];
+			positions[v] = -2; // settled
+			int last = heap[--size];
+			if (size > 0) {
+				siftDown(heap, positions, distances, size, last, 0);
+			}
+			for (int i = 0, d = snapshot.getOutDegree(v); i < d; i++) {
+				int e = snapshot.getOutEdge(v, i);
+				double weight = snapshot.getWeight(e);
+				if (weight < 0) {
+					throw new IllegalArgumentException(
+							"Negative edge weight " + weight + ".");
+				}
+				int w = snapshot.getTarget(e);
+				double distance = distances[v] + weight;
+				if (positions[w] != -2 && distance < distances[w]) {
+					distances[w] = distance;
+					if (positions[w] == -1) {
+						positions[w] = size++;
+					}
+					siftUp(heap, positions, distances, w, positions[w]);
+				}
+			}
+		}
+		return distances;
+	}
+
+	/**
+	 * Computes the lengths of the shortest paths from each of the given source
+	 * nodes, processing the sources in parallel.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @param sources
+	 *            The indices of the source nodes.
+	 * @param pool
+	 *            The {@link ForkJoinPool} to use, or <code>null</code> to use
+	 *            the common pool.
+	 * @return An array that contains the result of
+	 *         {@link #computeShortestPaths(GraphSnapshot, int)} for each source
+	 *         node.
+	 */
+	public static double[][] computeShortestPaths(final GraphSnapshot snapshot,
+			final int[] sources, ForkJoinPool pool) {
+		final double[][] distances = new double[sources.length][];
+		forEach(pool, sources.length, new IntConsumer() {
+			@Override
+			public void accept(int i) {
+				distances[i] = computeShortestPaths(snapshot, sources[i]);
+			}
+		});
+		return distances;
+	}
+
+	/**
+	 * Computes the strongly connected components of the given
+	 * {@link GraphSnapshot} using (an iterative variant of) Tarjan's
+	 * algorithm. Components are numbered in topological order of the
+	 * condensed graph, i.e. if there is an edge from component <i>a</i> to a
+	 * different component <i>b</i>, then <i>a &lt; b</i>.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @return An array that contains the component number of each node.
+	 */
+	public static int[] computeStronglyConnectedComponents(
+			GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] indices = new int[n];
+		Arrays.fill(indices, -1);
+		int[] lowLinks = new int[n];
+		int[] components = new int[n];
+		boolean[] onStack = new boolean[n];
+		int[] stack = new int[n];
+		int stackSize = 0;
+		// explicit call stack: node and position within its successors
+		int[] callNodes = new int[n];
+		int[] callPositions = new int[n];
+		int callSize = 0;
+		int index = 0;
+		int componentCount = 0;
+		for (int root = 0; root < n; root++) {
+			if (indices[root] >= 0) {
+				continue;
+			}
+			indices[root] = lowLinks[root] = index++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+			callNodes[callSize] = root;
+			callPositions[callSize++] = 0;
+			while (callSize > 0) {
+				int v = callNodes[callSize - 1];
+				int position = callPositions[callSize - 1];
+				if (position < snapshot.getOutDegree(v)) {
+					callPositions[callSize - 1]++;
+					int w = snapshot.getSuccessor(v, position);
+					if (indices[w] < 0) {
+						indices[w] = lowLinks[w] = index++;
+						stack[stackSize++] = w;
+						onStack[w] = true;
+						callNodes[callSize] = w;
+						callPositions[callSize++] = 0;
+					} else if (onStack[w]) {
+						lowLinks[v] = Math.min(lowLinks[v], indices[w]);
+					}
+				} else {
+					if (lowLinks[v] == indices[v]) {
+						int w;
+						do {
+							w = stack[--stackSize];
+							onStack[w] = false;
+							components[w] = componentCount;
+						} while (w != v);
+						componentCount++;
+					}
+					callSize--;
+					if (callSize > 0) {
+						int u = callNodes[callSize - 1];
+						lowLinks[u] = Math.min(lowLinks[u], lowLinks[v]);
+					}
+				}
+			}
+		}
+		// Tarjan's algorithm finds components in reverse topological order
+		for (int v = 0; v < n; v++) {
+			components[v] = componentCount - 1 - components[v];
+		}
+		return components;
+	}
+
+	/**
+	 * Computes a topological order of the nodes of the given
+	 * {@link GraphSnapshot} using Kahn's algorithm. The nodes that are ready to
+	 * be placed are placed in FIFO order, i.e. the nodes without incoming
+	 * edges in the order of their indices, followed by the other nodes in the
+	 * order in which their last predecessor is placed.
+	 *
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @return The indices of all nodes in topological order, or
+	 *         <code>null</code> if the graph contains a cycle.
+	 */
+	public static int[] computeTopologicalOrder(GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] inDegrees = new int[n];
+		int[] order = new int[n];
+		int head = 0;
+		int tail = 0;
+		for (int v = 0; v < n; v++) {
+			inDegrees[v] = snapshot.getInDegree(v);
+			if (inDegrees[v] == 0) {
+				order[tail++] = v;
+			}
+		}
+		while (head < tail) {
+			int v = order[head++];
+			for (int i = 0, d = snapshot.getOutDegree(v); i < d; i++) {
+				int w = snapshot.getSuccessor(v, i);
+				if (--inDegrees[w] == 0) {
+					order[tail++] = w;
+				}
+			}
+		}
+		return tail == n ? order : null;
+	}
+
+	/**
+	 * Executes the given action for each index in <code>[0, count)</code> in
+	 * parallel, and returns when all indices have been processed. The indices
+	 * are split recursively, so that each one forms a task of its own; callers
+	 * that process many small items should therefore group them into blocks.
+	 *
+	 * @param pool
+	 *            The {@link ForkJoinPool} to use, or <code>null</code> to use
+	 *            the common pool.
+	 * @param count
+	 *            The number of indices.
+	 * @param action
+	 *            The action to execute for each index.
+	 */
+	public static void forEach(ForkJoinPool pool, int count,
+			IntConsumer action) {
+		if (count <= 0) {
+			return;
+		} else if (count == 1) {
+			action.accept(0);
+			return;
+		}
+		(pool == null ? ForkJoinPool.commonPool() : pool)
+				.invoke(new ForEachAction(0, count, action));
+	}
+
+	/**
+	 * Groups the nodes by the given component numbers, as computed by
+	 * {@link #computeConnectedComponents(GraphSnapshot)} or
+	 * {@link #computeStronglyConnectedComponents(GraphSnapshot)}.
+	 *
+	 * @param components
+	 *            The component number of each node. Component numbers have
+	 *            to be consecutive, starting at <code>0</code>.
+	 * @return An array that contains the indices of the nodes of each
+	 *         component, in ascending order.
+	 */
+	public static int[][] groupByComponent(int[] components) {
+		int componentCount = 0;
+		for (int c : components) {
+			componentCount = Math.max(componentCount, c + 1);
+		}
+		int[] sizes = new int[componentCount];
+		for (int c : components) {
+			sizes[c]++;
+		}
+		int[][] groups = new int[componentCount][];
+		for (int c = 0; c < componentCount; c++) {
+			groups[c] = new int[sizes[c]];
+			sizes[c] = 0;
+		}
+		for (int v = 0; v < components.length; v++) {
+			int c = components[v];
+			groups[c][sizes[c]++] = v;
+		}
+		return groups;
+	}
+
+	/**
+	 * Applies the given function to each weakly connected component of the
+	 * given {@link GraphSnapshot}, processing the components in parallel.
+	 *
+	 * @param <R>
+	 *            The result type of the function.
+	 * @param snapshot
+	 *            The {@link GraphSnapshot} to process.
+	 * @param function
+	 *            The function to apply, which is passed the indices of the
+	 *            nodes of a component (in ascending order). It may be called
+	 *            concurrently.
+	 * @param pool
+	 *            The {@link ForkJoinPool} to use, or <code>null</code> to use
+	 *            the common pool.
+	 * @return The results of the function, ordered by component number (see
+	 *         {@link #computeConnectedComponents(GraphSnapshot)}).
+	 */
+	public static <R> List<R> mapComponents(GraphSnapshot snapshot,
+			final Function<int[], R> function, ForkJoinPool pool) {
+		final int[][] groups = groupByComponent(
+				computeConnectedComponents(snapshot));
+		final Object[] results = new Object[groups.length];
+		forEach(pool, groups.length, new IntConsumer() {
+			@Override
+			public void accept(int i) {
+				results[i] = function.apply(groups[i]);
+			}
+		});
+		List<R> list = new ArrayList<>(results.length);
+		for (Object result : results) {
+			@SuppressWarnings("unchecked")
+			R r = (R) result;
+			list.add(r);
+		}
+		return list;
+	}
+
+	private static void siftDown(int[] heap, int[] positions,
+			double[] distances, int size, int v, int position) {
+		while (true) {
+			int child = 2 * position + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size
+					&& distances[heap[child + 1]] < distances[heap[child]]) {
+				child++;
+			}
+			if (distances[heap[child]] >= distances[v]) {
+				break;
+			}
+			heap[position] = heap[child];
+			positions[heap[position]] = position;
+			position = child;
+		}
+		heap[position] = v;
+		positions[v] = position;
+	}
+
+	private static void siftUp(int[] heap, int[] positions, double[] distances,
+			int v, int position) {
+		while (position > 0) {
+			int parent = (position - 1) >>> 1;
+			if (distances[heap[parent]] <= distances[v]) {
+				break;
+			}
+			heap[position] = heap[parent];
+			positions[heap[position]] = position;
+			position = parent;
+		}
+		heap[position] = v;
+		positions[v] = position;
+	}
+
+	private GraphAlgorithms() {
+		// utility class
+	}
+
+}
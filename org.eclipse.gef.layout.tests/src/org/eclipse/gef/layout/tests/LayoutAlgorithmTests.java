@@ -10,7 +10,37 @@
  *******************************************************************************/
 package org.eclipse.gef.layout.tests;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ILayoutFilter;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutCache;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.layout.algorithms.ComponentLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.MultilevelLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.OverlapRemovalAlgorithm;
+import org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.StressLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.CoordinateAssignment;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.Direction;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.LayerSweepCrossingReducer;
+import org.eclipse.gef.layout.algorithms.SugiyamaLayoutAlgorithm.LongestPathLayerProvider;
+import org.eclipse.gef.layout.algorithms.TidyTreeLayoutAlgorithm;
 import org.eclipse.gef.layout.algorithms.TreeLayoutHelper;
 import org.junit.Assert;
 import org.junit.Test;
@@ -40,6 +70,822 @@ public class LayoutAlgorithmTests {
 		}
 	}
 
+	/**
+	 * Creates a {@link LayoutContext} for a grid graph with the given number
+	 * of rows and columns, where each node is connected to its right and
+	 * bottom neighbor.
+	 */
+	private static LayoutContext createGridContext(int rows, int columns) {
+		Graph.Builder builder = new Graph.Builder();
+		for (int r = 0; r < rows; r++) {
+			for (int c = 0; c < columns; c++) {
+				builder.node(r * columns + c)
+						.attr(LayoutProperties.LOCATION_PROPERTY,
+								new Point(c * 10, r * 10))
+						.attr(LayoutProperties.SIZE_PROPERTY,
+								new Dimension(10, 10));
+				if (c > 0) {
+					builder.edge(r * columns + c - 1, r * columns + c);
+				}
+				if (r > 0) {
+					builder.edge((r - 1) * columns + c, r * columns + c);
+				}
+			}
+		}
+		Graph graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		return context;
+	}
+
+	/**
+	 * Returns the average distance between adjacent nodes of the given graph
+	 * divided by the average distance between all nodes.
+	 */
+	private static double getRelativeEdgeLength(Graph graph) {
+		double edgeLengths = 0;
+		for (Edge edge : graph.getEdges()) {
+			edgeLengths += LayoutProperties.getLocation(edge.getSource())
+					.getDistance(
+							LayoutProperties.getLocation(edge.getTarget()));
+		}
+		double distances = 0;
+		int pairs = 0;
+		for (Node n : graph.getNodes()) {
+			for (Node m : graph.getNodes()) {
+				distances += LayoutProperties.getLocation(n)
+						.getDistance(LayoutProperties.getLocation(m));
+				pairs++;
+			}
+		}
+		return (edgeLengths / graph.getEdges().size()) / (distances / pairs);
+	}
+
+	@Test
+	public void sugiyamaLayerSweepCrossingReducer() {
+		// a tree whose nodes are inserted in an order that results in
+		// crossings
+		Graph.Builder builder = new Graph.Builder();
+		String[] nodes = { "r", "c", "a", "b", "b2", "c1", "a2", "b1", "c2",
+				"a1" };
+		for (String n : nodes) {
+			builder.node(n).attr(LayoutProperties.SIZE_PROPERTY,
+					new Dimension(10, 10));
+		}
+		builder.edge("r", "a").edge("r", "b").edge("r", "c");
+		for (String n : new String[] { "a", "b", "c" }) {
+			builder.edge(n, n + "1").edge(n, n + "2");
+		}
+		Graph graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new SugiyamaLayoutAlgorithm(
+				Direction.VERTICAL, new LayerSweepCrossingReducer()));
+		context.applyLayout(true);
+
+		List<Edge> edges = graph.getEdges();
+		for (Edge e : edges) {
+			for (Edge f : edges) {
+				Point s1 = LayoutProperties.getLocation(e.getSource());
+				Point t1 = LayoutProperties.getLocation(e.getTarget());
+				Point s2 = LayoutProperties.getLocation(f.getSource());
+				Point t2 = LayoutProperties.getLocation(f.getTarget());
+				if (s1.y == s2.y) {
+					Assert.assertFalse((s1.x - s2.x) * (t1.x - t2.x) < 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void sugiyamaLongestPathLayerProvider() {
+		// a chain of 20 nodes (deeper than supported by the
+		// SimpleLayerProvider), a cycle 20 -> 21 -> 22 -> 20 entered from the
+		// chain, and a source 23 next to the end of the chain
+		Graph.Builder builder = new Graph.Builder();
+		for (int i = 0; i < 24; i++) {
+			builder.node(i).attr(LayoutProperties.SIZE_PROPERTY,
+					new Dimension(10, 10));
+		}
+		for (int i = 0; i < 19; i++) {
+			builder.edge(i, i + 1);
+		}
+		builder.edge(10, 20).edge(20, 21).edge(21, 22).edge(22, 20);
+		builder.edge(23, 19).edge(23, 19);
+		Graph graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(
+				new SugiyamaLayoutAlgorithm(Direction.VERTICAL,
+						new LongestPathLayerProvider(),
+						new LayerSweepCrossingReducer()));
+		context.applyLayout(true);
+
+		int upwards = 0;
+		for (Edge e : graph.getEdges()) {
+			double dy = LayoutProperties.getLocation(e.getTarget()).y
+					- LayoutProperties.getLocation(e.getSource()).y;
+			Assert.assertTrue(dy != 0);
+			if (dy < 0) {
+				upwards++;
+			}
+		}
+		// only one edge of the cycle is reversed
+		Assert.assertEquals(1, upwards);
+		// the source is placed right above its successor
+		Node source = graph.getNodes().get(23);
+		Node end = graph.getNodes().get(19);
+		Node previous = graph.getNodes().get(18);
+		Assert.assertEquals(LayoutProperties.getLocation(previous).y,
+				LayoutProperties.getLocation(source).y, 1e-9);
+		Assert.assertTrue(LayoutProperties.getLocation(end).y > LayoutProperties
+				.getLocation(source).y);
+	}
+
+	@Test
+	public void sugiyamaBrandesKoepf() {
+		// a random layered graph with nodes of different widths
+		Random random = new Random(0);
+		Graph.Builder builder = new Graph.Builder();
+		for (int i = 0; i < 60; i++) {
+			builder.node(i).attr(LayoutProperties.SIZE_PROPERTY,
+					new Dimension(10 + random.nextInt(90), 20));
+			if (i >= 6) {
+				builder.edge(random.nextInt(i - i % 6), i);
+			}
+		}
+		// a chain whose nodes are aligned
+		builder.node("a").attr(LayoutProperties.SIZE_PROPERTY,
+				new Dimension(100, 20));
+		builder.node("b").attr(LayoutProperties.SIZE_PROPERTY,
+				new Dimension(20, 20));
+		builder.edge("a", "b");
+		Graph graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		SugiyamaLayoutAlgorithm algorithm = new SugiyamaLayoutAlgorithm(
+				Direction.VERTICAL, new LongestPathLayerProvider(),
+				new LayerSweepCrossingReducer());
+		Assert.assertEquals(CoordinateAssignment.GRID,
+				algorithm.getCoordinateAssignment());
+		algorithm.setCoordinateAssignment(CoordinateAssignment.BRANDES_KOEPF);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+
+		List<Node> nodes = graph.getNodes();
+		for (Node n : nodes) {
+			Point p = LayoutProperties.getLocation(n);
+			Dimension s = LayoutProperties.getSize(n);
+			Assert.assertTrue(p.x - s.width / 2 >= -1e-9);
+			for (Node m : nodes) {
+				Point q = LayoutProperties.getLocation(m);
+				if (n != m && p.y == q.y) {
+					// nodes of the same layer do not overlap
+					Assert.assertTrue(Math.abs(p.x - q.x) >= (s.width
+							+ LayoutProperties.getSize(m).width) / 2);
+				}
+			}
+		}
+		for (Edge e : graph.getEdges()) {
+			Assert.assertTrue(LayoutProperties.getLocation(e.getSource()).y
+					< LayoutProperties.getLocation(e.getTarget()).y);
+		}
+		Node a = nodes.get(60);
+		Node b = nodes.get(61);
+		Assert.assertEquals(LayoutProperties.getLocation(a).x,
+				LayoutProperties.getLocation(b).x, 1e-9);
+		// layers are separated by the node heights plus a gap
+		Assert.assertTrue(LayoutProperties.getLocation(b).y
+				- LayoutProperties.getLocation(a).y >= 20);
+	}
+
+	/**
+	 * Creates a {@link SpringLayoutAlgorithm} whose results do not depend on
+	 * chance or timing.
+	 */
+	private static SpringLayoutAlgorithm createReproducibleSpringLayout() {
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setRandom(false);
+		algorithm.setIterations(20);
+		// do not skip iterations based on the elapsed time
+		algorithm.setSpringTimeout(0);
+		return algorithm;
+	}
+
+	@Test
+	public void anytimeLayout() throws Exception {
+		LayoutContext context = createGridContext(8, 8);
+		Graph graph = context.getGraph();
+		SpringLayoutAlgorithm algorithm = createReproducibleSpringLayout();
+		algorithm.setIterations(1000000);
+		context.setLayoutAlgorithm(algorithm);
+		context.setFrameRate(1000);
+		// the post layout pass runs for every intermediate result
+		final int[] frames = new int[1];
+		context.schedulePostLayoutPass(() -> frames[0]++);
+		BlockingQueue<Runnable> ui = new LinkedBlockingQueue<>();
+		List<Double> progress = new ArrayList<>();
+		CompletableFuture<Void> future = context.applyLayoutAsync(true,
+				ui::add, progress::add);
+		while (!future.isDone()) {
+			Runnable runnable = ui.poll(30, TimeUnit.SECONDS);
+			Assert.assertNotNull(runnable);
+			runnable.run();
+			if (frames[0] >= 3) {
+				// the result is good enough
+				context.stopLayout();
+			}
+		}
+
+		// the stopped layout is applied
+		future.get();
+		Assert.assertTrue(frames[0] > 3);
+		Assert.assertTrue(progress.get(progress.size() - 1) < 0.5);
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		for (Node node : graph.getNodes()) {
+			Assert.assertTrue(bounds.contains(LayoutProperties.getLocation(node)));
+		}
+	}
+
+	@Test
+	public void cancelledLayout() {
+		// iterative algorithms commit their current result when cancelled
+		for (ILayoutAlgorithm algorithm : new ILayoutAlgorithm[] {
+				new StressLayoutAlgorithm(), new MultilevelLayoutAlgorithm(),
+				new OverlapRemovalAlgorithm() }) {
+			Graph graph = createGridContext(8, 8).getGraph();
+			LayoutContext context = new LayoutContext() {
+				@Override
+				public boolean isLayoutCancelled() {
+					return true;
+				}
+			};
+			context.setGraph(graph);
+			context.setLayoutAlgorithm(algorithm);
+			context.applyLayout(true);
+			Assert.assertNotEquals(new Point(10, 10),
+					LayoutProperties.getLocation(graph.getNodes().get(9)));
+		}
+	}
+
+	@Test
+	public void asyncLayout() throws Exception {
+		LayoutContext expected = createGridContext(8, 8);
+		expected.setLayoutAlgorithm(createReproducibleSpringLayout());
+		expected.applyLayout(true);
+
+		LayoutContext context = createGridContext(8, 8);
+		Graph graph = context.getGraph();
+		// the queue represents the UI thread
+		BlockingQueue<Runnable> ui = new LinkedBlockingQueue<>();
+		List<Double> progress = new ArrayList<>();
+		context.setLayoutAlgorithm(createReproducibleSpringLayout());
+		CompletableFuture<Void> first = context.applyLayoutAsync(true,
+				ui::add, null);
+		context.setLayoutAlgorithm(createReproducibleSpringLayout());
+		CompletableFuture<Void> second = context.applyLayoutAsync(true,
+				ui::add, progress::add);
+		// the newer layout cancels the older one
+		Assert.assertTrue(first.isCancelled());
+		// nothing is applied before the UI thread runs
+		Assert.assertEquals(new Point(10, 10),
+				LayoutProperties.getLocation(graph.getNodes().get(9)));
+
+		while (!second.isDone()) {
+			Runnable runnable = ui.poll(30, TimeUnit.SECONDS);
+			Assert.assertNotNull(runnable);
+			runnable.run();
+		}
+		second.get();
+		Assert.assertFalse(progress.isEmpty());
+		for (int i = 0; i < graph.getNodes().size(); i++) {
+			Assert.assertEquals(
+					LayoutProperties.getLocation(
+							expected.getGraph().getNodes().get(i)),
+					LayoutProperties.getLocation(graph.getNodes().get(i)));
+		}
+	}
+
+	@Test
+	public void computeLayoutAsync() throws Exception {
+		LayoutContext expected = createGridContext(8, 8);
+		expected.setLayoutAlgorithm(createReproducibleSpringLayout());
+		expected.applyLayout(true);
+
+		LayoutContext context = createGridContext(8, 8);
+		Graph graph = context.getGraph();
+		// intermediate results are not published
+		context.setFrameRate(1000);
+		final int[] postLayouts = new int[1];
+		context.schedulePostLayoutPass(() -> postLayouts[0]++);
+		// the first layout does not complete before it is cancelled
+		context.setLayoutAlgorithm((c, clean) -> {
+			while (!c.isLayoutCancelled()) {
+				Thread.yield();
+			}
+		});
+		CompletableFuture<Runnable> first = context.computeLayoutAsync(true);
+		context.setLayoutAlgorithm(createReproducibleSpringLayout());
+		CompletableFuture<Runnable> second = context.computeLayoutAsync(true);
+		// the newer layout cancels the older one
+		Assert.assertTrue(first.isCancelled());
+
+		Runnable apply = second.get(30, TimeUnit.SECONDS);
+		// nothing is applied before the task is run
+		Assert.assertEquals(0, postLayouts[0]);
+		Assert.assertEquals(new Point(10, 10),
+				LayoutProperties.getLocation(graph.getNodes().get(9)));
+		apply.run();
+		Assert.assertEquals(1, postLayouts[0]);
+		for (int i = 0; i < graph.getNodes().size(); i++) {
+			Assert.assertEquals(
+					LayoutProperties.getLocation(
+							expected.getGraph().getNodes().get(i)),
+					LayoutProperties.getLocation(graph.getNodes().get(i)));
+		}
+
+		// the task of a layout that is cancelled in the meantime has no effect
+		apply = context.computeLayoutAsync(false).get(30, TimeUnit.SECONDS);
+		context.computeLayoutAsync(true).cancel(false);
+		apply.run();
+		Assert.assertEquals(1, postLayouts[0]);
+	}
+
+	@Test
+	public void componentLayout() {
+		// 40 paths of different lengths, and a fixed node
+		Graph.Builder builder = new Graph.Builder();
+		int n = 0;
+		List<int[]> components = new ArrayList<>();
+		for (int c = 0; c < 40; c++) {
+			int[] component = new int[1 + c % 7];
+			for (int k = 0; k < component.length; k++) {
+				component[k] = n;
+				builder.node(n).attr(LayoutProperties.SIZE_PROPERTY,
+						new Dimension(10, 10));
+				if (k > 0) {
+					builder.edge(n - 1, n);
+				}
+				n++;
+			}
+			components.add(component);
+		}
+		builder.node(n).attr(LayoutProperties.SIZE_PROPERTY,
+				new Dimension(10, 10));
+		Graph graph = builder.build();
+		Node fixed = graph.getNodes().get(n);
+		fixed.getAttributes().put(LayoutProperties.MOVABLE_PROPERTY, false);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new ComponentLayoutAlgorithm(
+				() -> createReproducibleSpringLayout()));
+
+		// a small fixed node in the corner, and large ones in the corner
+		// and in the center of the bounds
+		for (Rectangle fixedBox : new Rectangle[] {
+				new Rectangle(0, 0, 10, 10), new Rectangle(0, 0, 300, 200),
+				new Rectangle(250, 200, 300, 200) }) {
+			LayoutProperties.setSize(fixed, fixedBox.getSize());
+			LayoutProperties.setLocation(fixed, fixedBox.getCenter());
+			context.applyLayout(true);
+
+			Assert.assertEquals(fixedBox.getCenter(),
+					LayoutProperties.getLocation(fixed));
+			Rectangle bounds = LayoutProperties.getBounds(graph);
+			List<Rectangle> boxes = new ArrayList<>();
+			for (int[] component : components) {
+				Rectangle box = null;
+				for (int i : component) {
+					Node node = graph.getNodes().get(i);
+					Point location = LayoutProperties.getLocation(node);
+					Rectangle nodeBox = new Rectangle(location.x - 5,
+							location.y - 5, 10, 10);
+					Assert.assertTrue(bounds.contains(nodeBox));
+					box = box == null ? nodeBox : box.getUnioned(nodeBox);
+				}
+				// the packed components overlap neither each other nor the
+				// fixed component
+				Assert.assertFalse(box.getShrinked(0.5, 0.5)
+						.touches(fixedBox.getShrinked(0.5, 0.5)));
+				for (Rectangle other : boxes) {
+					Assert.assertFalse(box.getShrinked(0.5, 0.5)
+							.touches(other.getShrinked(0.5, 0.5)));
+				}
+				boxes.add(box);
+			}
+		}
+	}
+
+	@Test
+	public void tidyTreeLayout() {
+		// a root with three children of different widths, the first of
+		// which has two children
+		Graph.Builder builder = new Graph.Builder();
+		double[] widths = { 10, 10, 30, 10, 10, 10 };
+		for (int i = 0; i < widths.length; i++) {
+			builder.node(i).attr(LayoutProperties.SIZE_PROPERTY,
+					new Dimension(widths[i], 10));
+		}
+		builder.edge(0, 1).edge(0, 2).edge(0, 3).edge(1, 4).edge(1, 5);
+		Graph graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		LayoutContext context = new LayoutContext();
+		context.setGraph(graph);
+		context.setLayoutAlgorithm(new TidyTreeLayoutAlgorithm());
+		context.applyLayout(true);
+
+		Point[] locations = new Point[widths.length];
+		for (int i = 0; i < widths.length; i++) {
+			locations[i] = LayoutProperties
+					.getLocation(graph.getNodes().get(i));
+		}
+		// the leaves 4 and 5 are placed side by side at the left border
+		Assert.assertEquals(new Point(5, 105), locations[4]);
+		Assert.assertEquals(new Point(25, 105), locations[5]);
+		// 1 is centered above them, followed by 2 and 3
+		Assert.assertEquals(new Point(15, 55), locations[1]);
+		Assert.assertEquals(new Point(45, 55), locations[2]);
+		Assert.assertEquals(new Point(75, 55), locations[3]);
+		// the root is centered above its children
+		Assert.assertEquals(new Point(45, 5), locations[0]);
+
+		// the direction is read from the graph
+		graph.getAttributes().put(LayoutProperties.DIRECTION_PROPERTY,
+				LayoutProperties.DIRECTION_RIGHT_LEFT);
+		context.applyLayout(true);
+		Assert.assertEquals(new Point(125, 35),
+				LayoutProperties.getLocation(graph.getNodes().get(0)));
+		Assert.assertEquals(new Point(5, 5),
+				LayoutProperties.getLocation(graph.getNodes().get(4)));
+
+		// deep chains do not overflow the stack
+		builder = new Graph.Builder();
+		for (int i = 0; i < 100000; i++) {
+			builder.node(i).attr(LayoutProperties.SIZE_PROPERTY,
+					new Dimension(10, 10));
+			if (i > 0) {
+				builder.edge(i - 1, i);
+			}
+		}
+		graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		context.setGraph(graph);
+		context.applyLayout(true);
+		Assert.assertEquals(new Point(5, 99999 * 50 + 5), LayoutProperties
+				.getLocation(graph.getNodes().get(99999)));
+	}
+
+	@Test
+	public void layoutCache() {
+		LayoutContext context = createGridContext(6, 6);
+		Graph graph = context.getGraph();
+		final int[] runs = new int[1];
+		StressLayoutAlgorithm algorithm = new StressLayoutAlgorithm() {
+			@Override
+			public void applyLayout(LayoutContext layoutContext,
+					boolean clean) {
+				runs[0]++;
+				super.applyLayout(layoutContext, clean);
+			}
+		};
+		context.setLayoutAlgorithm(algorithm);
+		LayoutCache cache = new LayoutCache(2);
+		context.setLayoutCache(cache);
+		context.applyLayout(true);
+		Point[] locations = graph.getNodes().stream()
+				.map(n -> LayoutProperties.getLocation(n))
+				.toArray(Point[]::new);
+
+		// hide a node and show it again
+		final Node hidden = graph.getNodes().get(0);
+		ILayoutFilter filter = new ILayoutFilter() {
+			@Override
+			public boolean isLayoutIrrelevant(Edge edge) {
+				return edge.getSource() == hidden
+						|| edge.getTarget() == hidden;
+			}
+
+			@Override
+			public boolean isLayoutIrrelevant(Node node) {
+				return node == hidden;
+			}
+		};
+		context.addLayoutFilter(filter);
+		context.applyLayout(true);
+		context.removeLayoutFilter(filter);
+		context.applyLayout(true);
+		Assert.assertEquals(2, runs[0]);
+		Assert.assertEquals(1, cache.getHitCount());
+		Assert.assertEquals(2, cache.getMissCount());
+		for (int i = 0; i < locations.length; i++) {
+			Assert.assertEquals(locations[i], LayoutProperties
+					.getLocation(graph.getNodes().get(i)));
+		}
+
+		// incremental passes are not cached
+		context.applyLayout(false);
+		Assert.assertEquals(3, runs[0]);
+		Assert.assertEquals(3, cache.getHitCount() + cache.getMissCount());
+
+		// parameters, sizes and bounds are part of the fingerprint
+		algorithm.setIterations(10);
+		context.applyLayout(true);
+		LayoutProperties.setSize(graph.getNodes().get(1),
+				new Dimension(20, 20));
+		context.applyLayout(true);
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 400, 300));
+		context.applyLayout(true);
+		Assert.assertEquals(6, runs[0]);
+		Assert.assertEquals(5, cache.getMissCount());
+		// the least recently used results are evicted
+		Assert.assertEquals(2, cache.getSize());
+		algorithm.setIterations(100);
+		LayoutProperties.setSize(graph.getNodes().get(1),
+				new Dimension(10, 10));
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 800, 600));
+		context.applyLayout(true);
+		Assert.assertEquals(7, runs[0]);
+
+		// the results of algorithms without a cache key are not cached
+		long lookups = cache.getHitCount() + cache.getMissCount();
+		context.setLayoutAlgorithm(new ILayoutAlgorithm() {
+			@Override
+			public void applyLayout(LayoutContext layoutContext,
+					boolean clean) {
+				runs[0]++;
+			}
+		});
+		context.applyLayout(true);
+		context.applyLayout(true);
+		Assert.assertEquals(9, runs[0]);
+		Assert.assertEquals(lookups,
+				cache.getHitCount() + cache.getMissCount());
+	}
+
+	@Test
+	public void layoutBuffer() {
+		LayoutContext context = createGridContext(2, 2);
+		List<Node> nodes = context.getGraph().getNodes();
+		nodes.get(1).getAttributes().put(LayoutProperties.MOVABLE_PROPERTY,
+				false);
+		nodes.get(2).getAttributes().put(LayoutProperties.RESIZABLE_PROPERTY,
+				false);
+		Point unchangedLocation = LayoutProperties.getLocation(nodes.get(3));
+		Dimension unchangedSize = LayoutProperties.getSize(nodes.get(3));
+
+		LayoutBuffer buffer = context.createLayoutBuffer();
+		Assert.assertEquals(4, buffer.getNodeCount());
+		Assert.assertSame(nodes.get(1), buffer.getNode(1));
+		Assert.assertEquals(10, buffer.getX()[1], 0);
+		Assert.assertFalse(buffer.getMovable()[1]);
+		Assert.assertFalse(buffer.getResizable()[2]);
+		for (int i = 0; i < 3; i++) {
+			buffer.getX()[i] += 5;
+			buffer.getWidth()[i] = 20;
+		}
+		// nothing is written before the commit
+		Assert.assertEquals(new Point(0, 0),
+				LayoutProperties.getLocation(nodes.get(0)));
+		buffer.commit();
+
+		Assert.assertEquals(new Point(5, 0),
+				LayoutProperties.getLocation(nodes.get(0)));
+		Assert.assertEquals(new Dimension(20, 10),
+				LayoutProperties.getSize(nodes.get(0)));
+		// locations of nodes that are not movable are not written
+		Assert.assertEquals(new Point(10, 0),
+				LayoutProperties.getLocation(nodes.get(1)));
+		Assert.assertEquals(new Dimension(20, 10),
+				LayoutProperties.getSize(nodes.get(1)));
+		// sizes of nodes that are not resizable are not written
+		Assert.assertEquals(new Point(5, 10),
+				LayoutProperties.getLocation(nodes.get(2)));
+		Assert.assertEquals(new Dimension(10, 10),
+				LayoutProperties.getSize(nodes.get(2)));
+		// unchanged values are not written
+		Assert.assertSame(unchangedLocation,
+				LayoutProperties.getLocation(nodes.get(3)));
+		Assert.assertSame(unchangedSize,
+				LayoutProperties.getSize(nodes.get(3)));
+
+		// only the changes since the last commit are written
+		Point committed = LayoutProperties.getLocation(nodes.get(0));
+		buffer.getY()[2] = 15;
+		buffer.commit();
+		Assert.assertSame(committed,
+				LayoutProperties.getLocation(nodes.get(0)));
+		Assert.assertEquals(new Point(5, 15),
+				LayoutProperties.getLocation(nodes.get(2)));
+	}
+
+	@Test
+	public void multilevelLayout() {
+		LayoutContext context = createGridContext(20, 20);
+		Graph graph = context.getGraph();
+		// a fixed node in the center of the bounds
+		Node fixed = graph.getNodes().get(0);
+		LayoutProperties.setLocation(fixed, new Point(400, 300));
+		fixed.getAttributes().put(LayoutProperties.MOVABLE_PROPERTY, false);
+		context.setLayoutAlgorithm(new MultilevelLayoutAlgorithm());
+		context.applyLayout(true);
+
+		Assert.assertEquals(new Point(400, 300),
+				LayoutProperties.getLocation(fixed));
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		for (Node node : graph.getNodes()) {
+			Assert.assertTrue(bounds.contains(LayoutProperties.getLocation(node)));
+		}
+		Assert.assertTrue(getRelativeEdgeLength(graph) < 0.2);
+
+		// the layout is deterministic
+		Point[] locations = graph.getNodes().stream()
+				.map(n -> LayoutProperties.getLocation(n))
+				.toArray(Point[]::new);
+		context.applyLayout(true);
+		for (int i = 0; i < locations.length; i++) {
+			Assert.assertEquals(locations[i], LayoutProperties
+					.getLocation(graph.getNodes().get(i)));
+		}
+	}
+
+	@Test
+	public void stressLayout() {
+		LayoutContext context = createGridContext(20, 20);
+		Graph graph = context.getGraph();
+		context.setLayoutAlgorithm(new StressLayoutAlgorithm());
+		context.applyLayout(true);
+
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		for (Node node : graph.getNodes()) {
+			Assert.assertTrue(bounds.contains(LayoutProperties.getLocation(node)));
+		}
+		Assert.assertTrue(getRelativeEdgeLength(graph) < 0.2);
+
+		// the layout is deterministic
+		Point[] locations = graph.getNodes().stream()
+				.map(n -> LayoutProperties.getLocation(n))
+				.toArray(Point[]::new);
+		context.applyLayout(true);
+		for (int i = 0; i < locations.length; i++) {
+			Assert.assertEquals(locations[i], LayoutProperties
+					.getLocation(graph.getNodes().get(i)));
+		}
+
+		// the weights are used as edge lengths
+		Graph.Builder builder = new Graph.Builder();
+		for (int i = 0; i < 4; i++) {
+			builder.node(i).attr(LayoutProperties.LOCATION_PROPERTY,
+					new Point());
+		}
+		builder.edge(0, 1).attr(LayoutProperties.WEIGHT_PROPERTY, 1d);
+		builder.edge(1, 2).attr(LayoutProperties.WEIGHT_PROPERTY, 3d);
+		builder.edge(2, 3).attr(LayoutProperties.WEIGHT_PROPERTY, 1d);
+		graph = builder.build();
+		LayoutProperties.setBounds(graph, new Rectangle(0, 0, 500, 500));
+		context.setGraph(graph);
+		context.applyLayout(true);
+		List<Node> nodes = graph.getNodes();
+		double shortLength = LayoutProperties.getLocation(nodes.get(0))
+				.getDistance(LayoutProperties.getLocation(nodes.get(1)));
+		double longLength = LayoutProperties.getLocation(nodes.get(1))
+				.getDistance(LayoutProperties.getLocation(nodes.get(2)));
+		Assert.assertEquals(3, longLength / shortLength, 0.01);
+	}
+
+	@Test
+	public void overlapRemoval() {
+		// adjacent nodes of the grid overlap when considering the spacing
+		LayoutContext context = createGridContext(8, 8);
+		Graph graph = context.getGraph();
+		List<Node> nodes = graph.getNodes();
+		Node fixed = nodes.get(9);
+		fixed.getAttributes().put(LayoutProperties.MOVABLE_PROPERTY, false);
+		// a node that coincides with another one
+		LayoutProperties.setLocation(nodes.get(20), new Point(20, 10));
+		OverlapRemovalAlgorithm algorithm = new OverlapRemovalAlgorithm();
+		Assert.assertEquals(5, algorithm.getNodeSpacing(), 0);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+
+		Assert.assertEquals(new Point(10, 10),
+				LayoutProperties.getLocation(fixed));
+		for (Node n : nodes) {
+			for (Node m : nodes) {
+				if (n != m) {
+					Point p = LayoutProperties.getLocation(n);
+					Point q = LayoutProperties.getLocation(m);
+					Assert.assertTrue(Math.abs(p.x - q.x) >= 15
+							|| Math.abs(p.y - q.y) >= 15);
+				}
+			}
+		}
+		// the order within the first row is preserved
+		for (int c = 1; c < 8; c++) {
+			Assert.assertTrue(LayoutProperties.getLocation(nodes.get(c - 1)).x
+					< LayoutProperties.getLocation(nodes.get(c)).x);
+		}
+
+		// nothing changes if there are no overlaps
+		Point location = LayoutProperties.getLocation(nodes.get(0));
+		context.applyLayout(true);
+		Assert.assertSame(location, LayoutProperties.getLocation(nodes.get(0)));
+	}
+
+	@Test
+	public void springLayoutBarnesHut() {
+		LayoutContext context = createGridContext(10, 10);
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		Assert.assertEquals(0, algorithm.getBarnesHutTheta(), 0);
+		algorithm.setBarnesHutTheta(0.8);
+		algorithm.setRandom(false);
+		algorithm.setIterations(200);
+		algorithm.setSpringTimeout(0);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+
+		Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
+		for (Node node : context.getGraph().getNodes()) {
+			Point location = LayoutProperties.getLocation(node);
+			Assert.assertFalse(Double.isNaN(location.x));
+			Assert.assertTrue(bounds.getExpanded(1, 1).contains(location));
+		}
+		// adjacent nodes are placed close to each other
+		Assert.assertTrue(
+				getRelativeEdgeLength(context.getGraph()) < 0.5);
+	}
+
+	@Test
+	public void springLayoutParallel() {
+		Point[][] results = new Point[2][];
+		for (int run = 0; run < 2; run++) {
+			LayoutContext context = createGridContext(16, 16);
+			SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+			algorithm.setParallel(true);
+			algorithm.setRandom(false);
+			algorithm.setIterations(20);
+			// do not skip iterations based on the elapsed time
+			algorithm.setSpringTimeout(0);
+			context.setLayoutAlgorithm(algorithm);
+			context.applyLayout(true);
+			results[run] = context.getGraph().getNodes().stream()
+					.map(n -> LayoutProperties.getLocation(n))
+					.toArray(Point[]::new);
+		}
+		// the results are reproducible
+		Assert.assertArrayEquals(results[0], results[1]);
+	}
+
+	@Test
+	public void springLayoutIncremental() {
+		LayoutContext context = createGridContext(8, 8);
+		Graph graph = context.getGraph();
+		SpringLayoutAlgorithm algorithm = new SpringLayoutAlgorithm();
+		algorithm.setIncremental(true);
+		algorithm.setRandom(false);
+		algorithm.setIterations(50);
+		algorithm.setSpringTimeout(0);
+		context.setLayoutAlgorithm(algorithm);
+		context.applyLayout(true);
+		Point[] locations = graph.getNodes().stream()
+				.map(n -> LayoutProperties.getLocation(n).getCopy())
+				.toArray(Point[]::new);
+
+		// add a node next to the top left corner of the grid
+		Node node = new Node.Builder()
+				.attr(LayoutProperties.SIZE_PROPERTY, new Dimension(10, 10))
+				.buildNode();
+		graph.getNodes().add(node);
+		graph.getEdges().add(new Edge(graph.getNodes().get(0), node));
+		context.applyLayout(false);
+
+		Point location = LayoutProperties.getLocation(node);
+		Assert.assertNotNull(location);
+		Assert.assertTrue(LayoutProperties.getBounds(graph).getExpanded(1, 1)
+				.contains(location));
+		// only the neighborhood of the changed nodes is moved
+		Assert.assertNotEquals(locations[0],
+				LayoutProperties.getLocation(graph.getNodes().get(0)));
+		for (int r = 0; r < 8; r++) {
+			for (int c = 0; c < 8; c++) {
+				if (r + c > 2) {
+					Assert.assertEquals(locations[r * 8 + c],
+							LayoutProperties
+									.getLocation(graph.getNodes().get(r * 8 + c)));
+				}
+			}
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void springLayoutNegativeTheta() {
+		new SpringLayoutAlgorithm().setBarnesHutTheta(-1);
+	}
+
 	/**
 	 * Test issues with TreeLayoutObserver.TreeNode#isAncestorOf for tree nodes
 	 * that are their own descendants, using the protected addChild() method
@@ -0,0 +1,35 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+/**
+ * An {@link ICacheableLayoutAlgorithm} is an {@link ILayoutAlgorithm} whose
+ * results may be stored in a {@link LayoutCache}. The results of other
+ * algorithms are never cached.
+ *
+ * @since 5.1
+ */
+public interface ICacheableLayoutAlgorithm extends ILayoutAlgorithm {
+
+	/**
+	 * Returns an object that captures the current values of all parameters
+	 * of this algorithm that influence its result, and that implements
+	 * {@link Object#equals(Object)} and {@link Object#hashCode()} based on
+	 * them (e.g. a {@link java.util.List} of the values). Subclasses that add
+	 * parameters have to extend the key accordingly. If <code>null</code> is
+	 * returned, the current result is not cached.
+	 *
+	 * @return The cache key for the current parameters, or <code>null</code>.
+	 */
+	public Object getCacheKey();
+
+}
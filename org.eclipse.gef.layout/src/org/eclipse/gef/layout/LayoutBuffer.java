@@ -0,0 +1,187 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * A {@link LayoutBuffer} holds the layout data of a fixed sequence of
+ * {@link Node}s in primitive arrays: the coordinates of their centers, their
+ * sizes, and whether they are movable and resizable. It allows layout
+ * algorithms to read and write this data without accessing the attribute maps
+ * of the {@link Node}s, which would allocate {@link Point}s and
+ * {@link Dimension}s and notify map listeners for every write.
+ * <p>
+ * The arrays are read from the {@link LayoutProperties} of the {@link Node}s
+ * when the buffer is created, and are written back by {@link #commit()}.
+ * Missing locations and sizes are read as <code>0</code>.
+ *
+ * @since 5.1
+ */
+public final class LayoutBuffer {
+
+	private final Node[] nodes;
+	private final double[] x;
+	private final double[] y;
+	private final double[] width;
+	private final double[] height;
+	private final boolean[] movable;
+	private final boolean[] resizable;
+
+	// the values of the last commit, to detect changes
+	private final double[] committedX;
+	private final double[] committedY;
+	private final double[] committedWidth;
+	private final double[] committedHeight;
+
+	/**
+	 * Creates a new {@link LayoutBuffer} for the given {@link Node}s, reading
+	 * their current layout data.
+	 *
+	 * @param nodes
+	 *            The {@link Node}s whose layout data is buffered. The index of
+	 *            a {@link Node} within this array is its index within the
+	 *            buffer.
+	 */
+	public LayoutBuffer(Node[] nodes) {
+		this.nodes = nodes;
+		int n = nodes.length;
+		x = new double[n];
+		y = new double[n];
+		width = new double[n];
+		height = new double[n];
+		movable = new boolean[n];
+		resizable = new boolean[n];
+		for (int i = 0; i < n; i++) {
+			Point location = LayoutProperties.getLocation(nodes[i]);
+			if (location != null) {
+				x[i] = location.x;
+				y[i] = location.y;
+			}
+			Dimension size = LayoutProperties.getSize(nodes[i]);
+			if (size != null) {
+				width[i] = size.width;
+				height[i] = size.height;
+			}
+			movable[i] = LayoutProperties.isMovable(nodes[i]);
+			resizable[i] = LayoutProperties.isResizable(nodes[i]);
+		}
+		committedX = x.clone();
+		committedY = y.clone();
+		committedWidth = width.clone();
+		committedHeight = height.clone();
+	}
+
+	/**
+	 * Writes the locations and sizes that changed since the creation of this
+	 * buffer (or since the last commit) to the {@link LayoutProperties} of the
+	 * {@link Node}s. Locations of nodes that are not movable and sizes of
+	 * nodes that are not resizable are not written.
+	 */
+	public void commit() {
+		for (int i = 0; i < nodes.length; i++) {
+			if (movable[i] && (x[i] != committedX[i] || y[i] != committedY[i])) {
+				LayoutProperties.setLocation(nodes[i], new Point(x[i], y[i]));
+				committedX[i] = x[i];
+				committedY[i] = y[i];
+			}
+			if (resizable[i] && (width[i] != committedWidth[i]
+					|| height[i] != committedHeight[i])) {
+				LayoutProperties.setSize(nodes[i],
+						new Dimension(width[i], height[i]));
+				committedWidth[i] = width[i];
+				committedHeight[i] = height[i];
+			}
+		}
+	}
+
+	/**
+	 * Returns the heights of the {@link Node}s, which may be modified.
+	 *
+	 * @return The heights of the {@link Node}s.
+	 */
+	public double[] getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns whether the {@link Node}s are movable (see
+	 * {@link LayoutProperties#isMovable(Node)}).
+	 *
+	 * @return Whether the {@link Node}s are movable.
+	 */
+	public boolean[] getMovable() {
+		return movable;
+	}
+
+	/**
+	 * Returns the {@link Node} at the given index.
+	 *
+	 * @param index
+	 *            The index of the {@link Node}.
+	 * @return The {@link Node} at the given index.
+	 */
+	public Node getNode(int index) {
+		return nodes[index];
+	}
+
+	/**
+	 * Returns the number of {@link Node}s within this buffer.
+	 *
+	 * @return The number of {@link Node}s.
+	 */
+	public int getNodeCount() {
+		return nodes.length;
+	}
+
+	/**
+	 * Returns whether the {@link Node}s are resizable (see
+	 * {@link LayoutProperties#isResizable(Node)}).
+	 *
+	 * @return Whether the {@link Node}s are resizable.
+	 */
+	public boolean[] getResizable() {
+		return resizable;
+	}
+
+	/**
+	 * Returns the widths of the {@link Node}s, which may be modified.
+	 *
+	 * @return The widths of the {@link Node}s.
+	 */
+	public double[] getWidth() {
+		return width;
+	}
+
+	/**
+	 * Returns the x coordinates of the centers of the {@link Node}s, which
+	 * may be modified.
+	 *
+	 * @return The x coordinates of the {@link Node}s.
+	 */
+	public double[] getX() {
+		return x;
+	}
+
+	/**
+	 * Returns the y coordinates of the centers of the {@link Node}s, which
+	 * may be modified.
+	 *
+	 * @return The y coordinates of the {@link Node}s.
+	 */
+	public double[] getY() {
+		return y;
+	}
+
+}
@@ -0,0 +1,364 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Node;
+
+/**
+ * A {@link LayoutCache} stores the results of the clean layout passes of the
+ * {@link LayoutContext}s it is set on (see
+ * {@link LayoutContext#setLayoutCache(LayoutCache)}), so that the layout of a
+ * graph state that was laid out before is restored instead of being computed
+ * again, e.g. when hiding and showing a node.
+ * <p>
+ * The results are keyed by a fingerprint of all that determines the layout:
+ * the layout relevant {@link Node}s (by identity) with their sizes, whether
+ * they are movable and resizable, their preferred aspect ratios, and the
+ * locations of the nodes that are not movable; the layout relevant
+ * {@link Edge}s with their weights; the bounds and the layout direction of the
+ * graph; and the {@link ILayoutAlgorithm} (by identity) with its parameters,
+ * as captured by its {@link ICacheableLayoutAlgorithm#getCacheKey() cache
+ * key}. The results of algorithms that do not implement
+ * {@link ICacheableLayoutAlgorithm} (or do not provide a cache key) are not
+ * cached. The initial locations of movable nodes are not part of the
+ * fingerprint, so that a cached result is also used for algorithms that
+ * consider them.
+ * <p>
+ * The cache holds a bounded number of results, evicting the least recently
+ * used one, and counts the hits and misses of lookups. The {@link Node}s of
+ * the cached results are only weakly referenced, so that the cache does not
+ * keep removed graphs alive.
+ *
+ * @since 5.1
+ */
+public class LayoutCache {
+
+	/**
+	 * The fingerprint of a layout relevant graph state, which compares the
+	 * {@link Node}s and the {@link ILayoutAlgorithm} by identity. The
+	 * fingerprints that are stored in the cache reference the {@link Node}s
+	 * and the {@link ILayoutAlgorithm} weakly.
+	 */
+	static final class Fingerprint {
+
+		// strong references of the fingerprints that are looked up, and weak
+		// references of the stored ones
+		private final Node[] nodes;
+		private final ILayoutAlgorithm algorithm;
+		private final WeakReference<Node>[] nodeReferences;
+		private final WeakReference<ILayoutAlgorithm> algorithmReference;
+		private final int[] edges;
+		private final double[] values;
+		private final Object parameters;
+		private final int hashCode;
+
+		Fingerprint(Node[] nodes, ILayoutAlgorithm algorithm, int[] edges,
+				double[] values, Object parameters) {
+			this.nodes = nodes;
+			this.algorithm = algorithm;
+			this.nodeReferences = null;
+			this.algorithmReference = null;
+			this.edges = edges;
+			this.values = values;
+			this.parameters = parameters;
+			int hash = System.identityHashCode(algorithm);
+			for (Node node : nodes) {
+				hash = 31 * hash + System.identityHashCode(node);
+			}
+			hash = 31 * hash + Arrays.hashCode(edges);
+			hash = 31 * hash + Arrays.hashCode(values);
+			hashCode = 31 * hash + parameters.hashCode();
+		}
+
+		@SuppressWarnings("unchecked")
+		private Fingerprint(Fingerprint fingerprint) {
+			nodes = null;
+			algorithm = null;
+			nodeReferences = new WeakReference[fingerprint.nodes.length];
+			for (int i = 0; i < nodeReferences.length; i++) {
+				nodeReferences[i] = new WeakReference<>(fingerprint.nodes[i]);
+			}
+			algorithmReference = new WeakReference<>(fingerprint.algorithm);
+			edges = fingerprint.edges;
+			values = fingerprint.values;
+			parameters = fingerprint.parameters;
+			hashCode = fingerprint.hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this) {
+				return true;
+			}
+			if (!(obj instanceof Fingerprint)) {
+				return false;
+			}
+			Fingerprint other = (Fingerprint) obj;
+			if (hashCode != other.hashCode || getNodeCount() != other
+					.getNodeCount()) {
+				return false;
+			}
+			// cleared references do not match
+			ILayoutAlgorithm algorithm = getAlgorithm();
+			if (algorithm == null || algorithm != other.getAlgorithm()) {
+				return false;
+			}
+			for (int i = 0; i < getNodeCount(); i++) {
+				Node node = getNode(i);
+				if (node == null || node != other.getNode(i)) {
+					return false;
+				}
+			}
+			return Arrays.equals(edges, other.edges)
+					&& Arrays.equals(values, other.values)
+					&& parameters.equals(other.parameters);
+		}
+
+		private ILayoutAlgorithm getAlgorithm() {
+			return algorithm != null ? algorithm : algorithmReference.get();
+		}
+
+		private Node getNode(int i) {
+			return nodes != null ? nodes[i] : nodeReferences[i].get();
+		}
+
+		private int getNodeCount() {
+			return nodes != null ? nodes.length : nodeReferences.length;
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+	}
+
+	/**
+	 * The locations and sizes of the nodes of a fingerprint.
+	 */
+	private static final class Result {
+		double[] x;
+		double[] y;
+		double[] width;
+		double[] height;
+	}
+
+	private final int capacity;
+	private final Map<Fingerprint, Result> results;
+	private long hitCount;
+	private long missCount;
+
+	/**
+	 * Creates a new {@link LayoutCache} that holds the given number of
+	 * results.
+	 *
+	 * @param capacity
+	 *            The maximum number of results, which has to be positive.
+	 */
+	public LayoutCache(final int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity has to be positive: " + capacity);
+		}
+		this.capacity = capacity;
+		results = new LinkedHashMap<Fingerprint, Result>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(
+					Map.Entry<Fingerprint, Result> eldest) {
+				return size() > capacity;
+			}
+		};
+	}
+
+	/**
+	 * Removes all results from this {@link LayoutCache}. The hit and miss
+	 * counts are not reset.
+	 */
+	public synchronized void clear() {
+		results.clear();
+	}
+
+	/**
+	 * Computes the fingerprint of the current state of the given
+	 * {@link LayoutContext}, which is to be passed into
+	 * {@link #restore(Fingerprint)} and {@link #store(Fingerprint)}. The
+	 * fingerprint has to be computed before the layout is applied (and after
+	 * the pre layout pass), because applying the layout changes the state.
+	 *
+	 * @param context
+	 *            The {@link LayoutContext} for which to compute the
+	 *            fingerprint.
+	 * @return The fingerprint of the given {@link LayoutContext}, or
+	 *         <code>null</code> if it does not have a graph or an algorithm,
+	 *         or the result of its algorithm may not be cached.
+	 */
+	Fingerprint createFingerprint(LayoutContext context) {
+		ILayoutAlgorithm algorithm = context.getLayoutAlgorithm();
+		if (context.getGraph() == null
+				|| !(algorithm instanceof ICacheableLayoutAlgorithm)) {
+			return null;
+		}
+		Object parameters = ((ICacheableLayoutAlgorithm) algorithm)
+				.getCacheKey();
+		if (parameters == null) {
+			return null;
+		}
+		Node[] nodes = context.getNodes();
+		Map<Node, Integer> indices = new IdentityHashMap<>();
+		for (int i = 0; i < nodes.length; i++) {
+			indices.put(nodes[i], i);
+		}
+		Edge[] edges = context.getEdges();
+		int[] endpoints = new int[2 * edges.length];
+		double[] values = new double[6 * nodes.length + edges.length + 5];
+		int v = 0;
+		for (int e = 0; e < edges.length; e++) {
+			Integer source = indices.get(edges[e].getSource());
+			Integer target = indices.get(edges[e].getTarget());
+			endpoints[2 * e] = source == null ? -1 : source;
+			endpoints[2 * e + 1] = target == null ? -1 : target;
+			values[v++] = LayoutProperties.getWeight(edges[e]);
+		}
+		for (Node node : nodes) {
+			Dimension size = LayoutProperties.getSize(node);
+			values[v++] = size == null ? Double.NaN : size.width;
+			values[v++] = size == null ? Double.NaN : size.height;
+			values[v++] = LayoutProperties.getPreferredAspectRatio(node);
+			values[v++] = (LayoutProperties.isMovable(node) ? 2 : 0)
+					+ (LayoutProperties.isResizable(node) ? 1 : 0);
+			Point location = LayoutProperties.isMovable(node) ? null
+					: LayoutProperties.getLocation(node);
+			values[v++] = location == null ? Double.NaN : location.x;
+			values[v++] = location == null ? Double.NaN : location.y;
+		}
+		Rectangle bounds = LayoutProperties.getBounds(context.getGraph());
+		if (bounds != null) {
+			values[v++] = bounds.getX();
+			values[v++] = bounds.getY();
+			values[v++] = bounds.getWidth();
+			values[v++] = bounds.getHeight();
+		}
+		Object direction = context.getGraph().getAttributes()
+				.get(LayoutProperties.DIRECTION_PROPERTY);
+		values[v++] = direction instanceof Number
+				? ((Number) direction).doubleValue() : Double.NaN;
+		return new Fingerprint(nodes, algorithm, endpoints, values,
+				parameters);
+	}
+
+	/**
+	 * Returns the maximum number of results of this {@link LayoutCache}.
+	 *
+	 * @return The maximum number of results.
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of lookups that found a result.
+	 *
+	 * @return The number of lookups that found a result.
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+	/**
+	 * Returns the number of lookups that did not find a result.
+	 *
+	 * @return The number of lookups that did not find a result.
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+	/**
+	 * Returns the number of results that are currently held by this
+	 * {@link LayoutCache}.
+	 *
+	 * @return The number of results.
+	 */
+	public synchronized int getSize() {
+		return results.size();
+	}
+
+	/**
+	 * Looks up the result for the given fingerprint, and writes the cached
+	 * locations and sizes to its {@link Node}s if it is found.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint of a {@link LayoutContext}, see
+	 *            {@link #createFingerprint(LayoutContext)}.
+	 * @return <code>true</code> if a result was found and restored, otherwise
+	 *         <code>false</code>.
+	 */
+	boolean restore(Fingerprint fingerprint) {
+		if (fingerprint == null) {
+			// not cacheable, which does not count as a lookup
+			return false;
+		}
+		Result result;
+		synchronized (this) {
+			result = results.get(fingerprint);
+			if (result == null) {
+				missCount++;
+				return false;
+			}
+			hitCount++;
+		}
+		LayoutBuffer buffer = new LayoutBuffer(fingerprint.nodes);
+		System.arraycopy(result.x, 0, buffer.getX(), 0, result.x.length);
+		System.arraycopy(result.y, 0, buffer.getY(), 0, result.y.length);
+		System.arraycopy(result.width, 0, buffer.getWidth(), 0,
+				result.width.length);
+		System.arraycopy(result.height, 0, buffer.getHeight(), 0,
+				result.height.length);
+		buffer.commit();
+		return true;
+	}
+
+	/**
+	 * Stores the current locations and sizes of the nodes of the given
+	 * fingerprint as its result.
+	 *
+	 * @param fingerprint
+	 *            The fingerprint that was computed before the layout was
+	 *            applied, see {@link #createFingerprint(LayoutContext)}.
+	 */
+	void store(Fingerprint fingerprint) {
+		if (fingerprint == null) {
+			return;
+		}
+		LayoutBuffer buffer = new LayoutBuffer(fingerprint.nodes);
+		Result result = new Result();
+		result.x = buffer.getX();
+		result.y = buffer.getY();
+		result.width = buffer.getWidth();
+		result.height = buffer.getHeight();
+		synchronized (this) {
+			results.put(new Fingerprint(fingerprint), result);
+		}
+	}
+
+}
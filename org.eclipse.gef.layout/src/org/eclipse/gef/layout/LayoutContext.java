@@ -13,10 +13,21 @@
 package org.eclipse.gef.layout;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.DoubleConsumer;
 
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphSnapshot;
 import org.eclipse.gef.graph.Node;
 
 import javafx.beans.property.ObjectProperty;
@@ -47,6 +58,26 @@ public class LayoutContext {
 	private final List<Runnable> postLayoutPass = new ArrayList<>();
 	private final List<Runnable> preLayoutPass = new ArrayList<>();
 	private final List<ILayoutFilter> layoutFilters = new ArrayList<>();
+	private LayoutCache layoutCache;
+
+	// the pending asynchronous layout, and the worker that runs the last
+	// requested one (workers run one after the other, because they share
+	// the layout algorithm)
+	private CompletableFuture<Void> asyncLayout;
+	private LayoutContext asyncLayoutContext;
+	private CompletableFuture<Void> asyncWorker = CompletableFuture
+			.completedFuture(null);
+	private double frameRate;
+
+	// set on the copies that are laid out asynchronously
+	private volatile boolean layoutCancelled;
+	private volatile boolean layoutStopped;
+	private DoubleConsumer progressListener;
+	private Runnable intermediateLayoutPublisher;
+	// the earliest time (see System#nanoTime()) of the next intermediate
+	// layout, and whether the last one is not yet applied
+	private volatile long nextFrameTime;
+	private volatile boolean framePending;
 
 	/**
 	 * Adds the given ILayoutFilter to this {@link LayoutContext}.
@@ -61,7 +92,9 @@ public class LayoutContext {
 	/**
 	 * Applies the layout algorithm of this LayoutContext. The clean flag is
 	 * passed-in to the layout algorithm to indicate whether the context changed
-	 * significantly since the last layout pass.
+	 * significantly since the last layout pass. If a {@link LayoutCache} is
+	 * set, the result of a clean layout pass is restored from the cache if
+	 * possible, instead of applying the layout algorithm.
 	 * 
 	 * @param clear
 	 *            <code>true</code> to indicate that the algorithm has to fully
@@ -71,11 +104,404 @@ public class LayoutContext {
 		ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty.get();
 		if (layoutAlgorithm != null) {
 			preLayout();
-			layoutAlgorithm.applyLayout(this, clear);
+			LayoutCache cache = clear ? layoutCache : null;
+			if (cache == null) {
+				layoutAlgorithm.applyLayout(this, clear);
+			} else {
+				LayoutCache.Fingerprint fingerprint = cache
+						.createFingerprint(this);
+				if (!cache.restore(fingerprint)) {
+					layoutAlgorithm.applyLayout(this, clear);
+					cache.store(fingerprint);
+				}
+			}
 			postLayout();
 		}
 	}
 
+	/**
+	 * Applies the layout algorithm of this {@link LayoutContext} on a worker
+	 * thread. The pre layout pass is executed immediately. Afterwards, the
+	 * layout relevant {@link Node}s and {@link Edge}s are copied (together
+	 * with their attributes), and the copies are laid out by the worker, so
+	 * that the {@link #getGraph() graph} is not accessed concurrently. The
+	 * resulting locations and sizes are then written back to the original
+	 * {@link Node}s in a single task that is passed to the given
+	 * {@link Executor} (e.g. <code>Platform::runLater</code>), which also runs
+	 * the post layout pass.
+	 * <p>
+	 * A subsequent call (or cancelling the returned future) cancels the
+	 * layout, i.e. its results are discarded, and the layout algorithm is
+	 * notified via {@link #isLayoutCancelled()}. As the layout algorithm is
+	 * shared, the worker of a new layout does not start before the worker of
+	 * a cancelled one has finished. Algorithms that keep track of
+	 * {@link Node}s between passes (e.g. for incremental layout) will see new
+	 * copies in every asynchronous pass.
+	 * <p>
+	 * If a {@link #setFrameRate(double) frame rate} is set, the intermediate
+	 * results published by the layout algorithm (see
+	 * {@link #publishIntermediateLayout()}) are applied in the same way,
+	 * followed by the post layout pass, so that the convergence of the layout
+	 * can be shown. The layout may be {@link #stopLayout() stopped} once its
+	 * intermediate result is good enough.
+	 * <p>
+	 * If the result of a clean layout pass
+	 * is found in the {@link #getLayoutCache() layout cache}, it is restored
+	 * immediately (after the pre layout pass), and only the post layout pass
+	 * is passed to the {@link Executor}.
+	 *
+	 * @param clear
+	 *            <code>true</code> to indicate that the algorithm has to fully
+	 *            re-compute the layout, otherwise <code>false</code>.
+	 * @param applyExecutor
+	 *            The {@link Executor} that is used to apply the results and
+	 *            notify the progress listener, e.g. on the UI thread.
+	 * @param progressListener
+	 *            A listener that is notified (using the given
+	 *            {@link Executor}) about the progress reported by the layout
+	 *            algorithm (see {@link #reportLayoutProgress(double)}), or
+	 *            <code>null</code>.
+	 * @return A {@link CompletableFuture} that is completed once the results
+	 *         are applied, or completed exceptionally if the layout algorithm
+	 *         fails.
+	 * @since 5.1
+	 */
+	public CompletableFuture<Void> applyLayoutAsync(boolean clear,
+			Executor applyExecutor, DoubleConsumer progressListener) {
+		if (applyExecutor == null) {
+			throw new IllegalArgumentException(
+					"Executor may not be null.");
+		}
+		CompletableFuture<Void> result = new CompletableFuture<>();
+		layoutAsync(clear, applyExecutor, progressListener, applyExecutor,
+				result);
+		return result;
+	}
+
+	/**
+	 * Computes the layout of this {@link LayoutContext} on a worker thread,
+	 * like {@link #applyLayoutAsync(boolean, Executor, DoubleConsumer)}, but
+	 * does not apply the result. Instead, the returned future is completed
+	 * with a task that applies the result (followed by the post layout pass)
+	 * when it is run, so that the caller can decide when (and on which
+	 * thread) to apply it, e.g. together with the results of other layouts.
+	 * The task has no effect if the layout has been cancelled in the
+	 * meantime, and rethrows (wrapped into a
+	 * {@link java.util.concurrent.CompletionException}) an exception that
+	 * occurs while applying the result. Intermediate results are not
+	 * published, independent of the {@link #setFrameRate(double) frame rate}.
+	 * <p>
+	 * A subsequent call (or cancelling the returned future) cancels the
+	 * layout. As layout algorithms keep state during a layout pass, a layout
+	 * algorithm that is shared by several {@link LayoutContext}s must not be
+	 * used by them concurrently, i.e. the next layout of the other contexts
+	 * has to be started after the returned future is completed.
+	 *
+	 * @param clear
+	 *            <code>true</code> to indicate that the algorithm has to fully
+	 *            re-compute the layout, otherwise <code>false</code>.
+	 * @return A {@link CompletableFuture} that is completed with the task that
+	 *         applies the result once it is computed, or completed
+	 *         exceptionally if the layout algorithm fails.
+	 * @since 5.1
+	 */
+	public CompletableFuture<Runnable> computeLayoutAsync(boolean clear) {
+		final CompletableFuture<Runnable> computed = new CompletableFuture<>();
+		final CompletableFuture<Void> applied = new CompletableFuture<>();
+		// the task that applies the result is handed out instead of being
+		// executed
+		layoutAsync(clear, null, null, task -> computed.complete(() -> {
+			task.run();
+			if (applied.isCompletedExceptionally() && !applied.isCancelled()) {
+				applied.join();
+			}
+		}), applied);
+		applied.whenComplete((r, t) -> {
+			if (t != null) {
+				computed.completeExceptionally(t);
+			} else {
+				// no layout algorithm is set
+				computed.complete(() -> {
+				});
+			}
+		});
+		computed.whenComplete((r, t) -> {
+			if (computed.isCancelled()) {
+				applied.cancel(false);
+			}
+		});
+		return computed;
+	}
+
+	/**
+	 * Performs an asynchronous layout, whose final result is applied using
+	 * the given apply {@link Executor}. Intermediate results and progress are
+	 * only published if a frame {@link Executor} is given.
+	 */
+	private void layoutAsync(boolean clear, Executor frameExecutor,
+			DoubleConsumer progressListener, Executor applyExecutor,
+			CompletableFuture<Void> result) {
+		if (asyncLayout != null) {
+			asyncLayout.cancel(false);
+		}
+		asyncLayoutContext = null;
+		asyncLayout = result;
+		final ILayoutAlgorithm layoutAlgorithm = layoutAlgorithmProperty
+				.get();
+		if (layoutAlgorithm == null) {
+			result.complete(null);
+			return;
+		}
+		preLayout();
+		final LayoutCache cache = clear ? layoutCache : null;
+		final LayoutCache.Fingerprint fingerprint = cache == null ? null
+				: cache.createFingerprint(this);
+		if (cache != null && cache.restore(fingerprint)) {
+			applyExecutor.execute(() -> {
+				if (result.isDone()) {
+					return;
+				}
+				try {
+					postLayout();
+					result.complete(null);
+				} catch (Throwable t) {
+					result.completeExceptionally(t);
+				}
+			});
+			return;
+		}
+
+		// copy the layout relevant part of the graph
+		final Node[] nodes = getNodes();
+		final Node[] copies = new Node[nodes.length];
+		Map<Node, Node> copiesByNode = new IdentityHashMap<>();
+		for (int i = 0; i < nodes.length; i++) {
+			copies[i] = new Node(nodes[i].getAttributes());
+			Point location = LayoutProperties.getLocation(nodes[i]);
+			if (location != null) {
+				LayoutProperties.setLocation(copies[i], location.getCopy());
+			}
+			Dimension size = LayoutProperties.getSize(nodes[i]);
+			if (size != null) {
+				LayoutProperties.setSize(copies[i], size.getCopy());
+			}
+			copiesByNode.put(nodes[i], copies[i]);
+		}
+		List<Edge> edgeCopies = new ArrayList<>();
+		for (Edge e : getEdges()) {
+			Node source = copiesByNode.get(e.getSource());
+			Node target = copiesByNode.get(e.getTarget());
+			if (source != null && target != null) {
+				edgeCopies.add(new Edge(e.getAttributes(), source, target));
+			}
+		}
+		Graph graphCopy = new Graph(graph.getAttributes(),
+				Arrays.asList(copies), edgeCopies);
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		if (bounds != null) {
+			LayoutProperties.setBounds(graphCopy, bounds.getCopy());
+		}
+		final LayoutContext worker = new LayoutContext();
+		worker.setGraph(graphCopy);
+		worker.setLayoutAlgorithm(layoutAlgorithm);
+		asyncLayoutContext = worker;
+		if (frameExecutor != null && frameRate > 0) {
+			final long frameInterval = (long) (1e9 / frameRate);
+			worker.nextFrameTime = System.nanoTime() + frameInterval;
+			worker.intermediateLayoutPublisher = () -> {
+				// the copies are changed by the worker, so that their state
+				// is copied before it is applied
+				final Point[] locations = getLocations(copies);
+				final Dimension[] sizes = getSizes(copies);
+				worker.framePending = true;
+				worker.nextFrameTime = System.nanoTime() + frameInterval;
+				frameExecutor.execute(() -> {
+					worker.framePending = false;
+					if (result.isDone()) {
+						return;
+					}
+					try {
+						setLayout(nodes, locations, sizes);
+						postLayout();
+					} catch (Throwable t) {
+						result.completeExceptionally(t);
+					}
+				});
+			};
+		}
+		if (frameExecutor != null && progressListener != null) {
+			// coalesce progress notifications that are not yet delivered
+			final AtomicReference<Double> progress = new AtomicReference<>();
+			worker.progressListener = p -> {
+				if (progress.getAndSet(p) == null) {
+					frameExecutor.execute(() -> {
+						Double latest = progress.getAndSet(null);
+						if (!result.isDone()) {
+							progressListener.accept(latest);
+						}
+					});
+				}
+			};
+		}
+		result.whenComplete((r, t) -> {
+			if (result.isCancelled()) {
+				worker.layoutCancelled = true;
+			}
+		});
+
+		Runnable layout = () -> {
+			if (result.isDone()) {
+				return;
+			}
+			try {
+				layoutAlgorithm.applyLayout(worker, clear);
+			} catch (Throwable t) {
+				result.completeExceptionally(t);
+				return;
+			}
+			applyExecutor.execute(() -> {
+				if (result.isDone()) {
+					return;
+				}
+				try {
+					setLayout(nodes, getLocations(copies), getSizes(copies));
+					// the result of a stopped layout is not complete
+					if (cache != null && !worker.layoutStopped) {
+						cache.store(fingerprint);
+					}
+					postLayout();
+					result.complete(null);
+				} catch (Throwable t) {
+					result.completeExceptionally(t);
+				}
+			});
+		};
+		asyncWorker = asyncWorker.handle((r, t) -> (Void) null)
+				.thenRunAsync(layout, runnable -> {
+					Thread thread = new Thread(runnable, "GEF Layout");
+					thread.setDaemon(true);
+					thread.start();
+				});
+	}
+
+	private static Point[] getLocations(Node[] nodes) {
+		Point[] locations = new Point[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			Point location = LayoutProperties.getLocation(nodes[i]);
+			locations[i] = location == null ? null : location.getCopy();
+		}
+		return locations;
+	}
+
+	private static Dimension[] getSizes(Node[] nodes) {
+		Dimension[] sizes = new Dimension[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			Dimension size = LayoutProperties.getSize(nodes[i]);
+			sizes[i] = size == null ? null : size.getCopy();
+		}
+		return sizes;
+	}
+
+	/**
+	 * Sets the given locations and sizes (where not <code>null</code>) on the
+	 * given {@link Node}s, unless they are equal to the current ones.
+	 */
+	private static void setLayout(Node[] nodes, Point[] locations,
+			Dimension[] sizes) {
+		for (int i = 0; i < nodes.length; i++) {
+			if (locations[i] != null && !locations[i]
+					.equals(LayoutProperties.getLocation(nodes[i]))) {
+				LayoutProperties.setLocation(nodes[i], locations[i]);
+			}
+			if (sizes[i] != null
+					&& !sizes[i].equals(LayoutProperties.getSize(nodes[i]))) {
+				LayoutProperties.setSize(nodes[i], sizes[i]);
+			}
+		}
+	}
+
+	/**
+	 * Returns the maximum number of intermediate results per second that are
+	 * applied during an asynchronous layout.
+	 *
+	 * @return The frame rate of asynchronous layouts.
+	 * @since 5.1
+	 */
+	public double getFrameRate() {
+		return frameRate;
+	}
+
+	/**
+	 * Returns <code>true</code> if the layout algorithm should publish its
+	 * intermediate result (see {@link #publishIntermediateLayout()}), i.e. if
+	 * the layout is performed asynchronously with a positive
+	 * {@link #setFrameRate(double) frame rate}, the frame interval has
+	 * elapsed since the last intermediate result was published, and that
+	 * result has been applied. Layout algorithms that support anytime layout
+	 * should check this after each iteration, so that they only prepare an
+	 * intermediate result when it is due.
+	 *
+	 * @return <code>true</code> if an intermediate result is due, otherwise
+	 *         <code>false</code>.
+	 * @since 5.1
+	 */
+	public boolean isIntermediateLayoutDue() {
+		return intermediateLayoutPublisher != null && !framePending
+				&& System.nanoTime() - nextFrameTime >= 0;
+	}
+
+	/**
+	 * Initiated by an {@link ILayoutAlgorithm} to publish the locations and
+	 * sizes that it has set on the layout relevant {@link Node}s so far, as an
+	 * intermediate result of an asynchronous layout. The intermediate result
+	 * is applied to the original {@link Node}s using the {@link Executor}
+	 * that was passed into
+	 * {@link #applyLayoutAsync(boolean, Executor, DoubleConsumer)}, followed
+	 * by the post layout pass. Has no effect if no intermediate result is due
+	 * (see {@link #isIntermediateLayoutDue()}).
+	 *
+	 * @since 5.1
+	 */
+	public void publishIntermediateLayout() {
+		if (isIntermediateLayoutDue()) {
+			intermediateLayoutPublisher.run();
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the layout pass that is currently
+	 * performed within this {@link LayoutContext} has been cancelled, see
+	 * {@link #applyLayoutAsync(boolean, Executor, DoubleConsumer)}, or
+	 * {@link #stopLayout() stopped}. Layout algorithms that run for a long
+	 * time should check this regularly and return early if the layout has
+	 * been cancelled, because their results are discarded anyway. Iterative
+	 * algorithms should set their current result on the {@link Node}s before
+	 * returning, because the result is applied if the layout was stopped.
+	 *
+	 * @return <code>true</code> if the current layout pass has been
+	 *         cancelled or stopped, otherwise <code>false</code>.
+	 * @since 5.1
+	 */
+	public boolean isLayoutCancelled() {
+		return layoutCancelled;
+	}
+
+	/**
+	 * Initiated by an {@link ILayoutAlgorithm} to report the progress of the
+	 * current layout pass, which is forwarded to the listener passed into
+	 * {@link #applyLayoutAsync(boolean, Executor, DoubleConsumer)}, if any.
+	 *
+	 * @param progress
+	 *            The fraction of the layout pass that is completed, between
+	 *            <code>0</code> and <code>1</code>.
+	 * @since 5.1
+	 */
+	public void reportLayoutProgress(double progress) {
+		if (progressListener != null) {
+			progressListener.accept(progress);
+		}
+	}
+
 	/**
 	 * Initiated by the context or by an {@link ILayoutAlgorithm} to perform
 	 * steps that are scheduled to be run after the layout pass. Should not be
@@ -157,6 +583,36 @@ public class LayoutContext {
 		return layoutRelevantEdges.toArray(new Edge[] {});
 	}
 
+	/**
+	 * Creates a new {@link GraphSnapshot} of the layout relevant {@link Node}s
+	 * and {@link Edge}s (as returned by {@link #getNodes()} and
+	 * {@link #getEdges()}), using {@link LayoutProperties#getWeight(Edge)} to
+	 * determine the edge weights. The snapshot is meant to be created once per
+	 * layout pass; it does not reflect later changes.
+	 *
+	 * @return A new {@link GraphSnapshot} of the layout relevant part of the
+	 *         {@link #getGraph() graph}.
+	 * @since 5.1
+	 */
+	public GraphSnapshot createGraphSnapshot() {
+		return new GraphSnapshot(Arrays.asList(getNodes()),
+				Arrays.asList(getEdges()), LayoutProperties::getWeight);
+	}
+
+	/**
+	 * Creates a new {@link LayoutBuffer} for the layout relevant {@link Node}s
+	 * (as returned by {@link #getNodes()}, in the same order as within a
+	 * {@link #createGraphSnapshot() graph snapshot}). Layout algorithms may
+	 * compute their results within the buffer and write them to the
+	 * {@link Node}s using a single {@link LayoutBuffer#commit()}.
+	 *
+	 * @return A new {@link LayoutBuffer} for the layout relevant {@link Node}s.
+	 * @since 5.1
+	 */
+	public LayoutBuffer createLayoutBuffer() {
+		return new LayoutBuffer(getNodes());
+	}
+
 	/**
 	 * Returns the static layout algorithm used to layout a newly initialized
 	 * graph or after heavy changes to it.
@@ -167,6 +623,19 @@ public class LayoutContext {
 		return layoutAlgorithmProperty.get();
 	}
 
+	/**
+	 * Returns the {@link LayoutCache} that is used to store and restore the
+	 * results of clean layout passes, or <code>null</code> if no cache is
+	 * used.
+	 *
+	 * @return The {@link LayoutCache} of this {@link LayoutContext}, or
+	 *         <code>null</code>.
+	 * @since 5.1
+	 */
+	public LayoutCache getLayoutCache() {
+		return layoutCache;
+	}
+
 	/**
 	 * Returns <code>true</code> when the given {@link Edge} is not relevant for
 	 * layout according to the configured {@link ILayoutFilter layout filters}.
@@ -277,6 +746,57 @@ public class LayoutContext {
 		layoutAlgorithmProperty.set(algorithm);
 	}
 
+	/**
+	 * Sets the {@link LayoutCache} that is used to store and restore the
+	 * results of clean layout passes. A cache may be shared by multiple
+	 * {@link LayoutContext}s. By default, no cache is used.
+	 *
+	 * @param layoutCache
+	 *            The {@link LayoutCache} to use, or <code>null</code> to
+	 *            disable caching.
+	 * @since 5.1
+	 */
+	public void setLayoutCache(LayoutCache layoutCache) {
+		this.layoutCache = layoutCache;
+	}
+
+	/**
+	 * Sets the maximum number of intermediate results per second that are
+	 * applied during an asynchronous layout, see
+	 * {@link #publishIntermediateLayout()}. The default value is
+	 * <code>0</code>, i.e. only the final result is applied.
+	 *
+	 * @param frameRate
+	 *            The frame rate of asynchronous layouts, which may not be
+	 *            negative.
+	 * @since 5.1
+	 */
+	public void setFrameRate(double frameRate) {
+		if (!(frameRate >= 0)) {
+			throw new IllegalArgumentException(
+					"Frame rate may not be negative: " + frameRate);
+		}
+		this.frameRate = frameRate;
+	}
+
+	/**
+	 * Stops the pending asynchronous layout (see
+	 * {@link #applyLayoutAsync(boolean, Executor, DoubleConsumer)}), if any.
+	 * The layout algorithm is notified via {@link #isLayoutCancelled()}, but
+	 * in contrast to cancelling the layout, the result that the algorithm has
+	 * computed until it returns is applied (and not cached). This allows to
+	 * end an anytime layout once its intermediate result is good enough.
+	 *
+	 * @since 5.1
+	 */
+	public void stopLayout() {
+		if (asyncLayout != null && !asyncLayout.isDone()
+				&& asyncLayoutContext != null) {
+			asyncLayoutContext.layoutStopped = true;
+			asyncLayoutContext.layoutCancelled = true;
+		}
+	}
+
 	/**
 	 * Removes the given {@link Runnable} from the list of runnables which are
 	 * called when this {@link LayoutContext} is asked to apply all changes made
@@ -12,10 +12,15 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.graph.algorithms.GraphAlgorithms;
+import org.eclipse.gef.layout.LayoutBuffer;
 import org.eclipse.gef.layout.LayoutProperties;
 
 /**
@@ -92,6 +97,80 @@ class AlgorithmHelper {
 		}
 	}
 
+	/**
+	 * Fits the entities of the given {@link LayoutBuffer} within the given
+	 * bounds, preserving their relative locations, in the same manner as
+	 * {@link #fitWithinBounds(Node[], Rectangle, boolean)}. Only the buffer is
+	 * modified.
+	 * 
+	 * @param buffer
+	 *            The {@link LayoutBuffer} holding the entities to fit.
+	 * @param destinationBounds
+	 *            The {@link Rectangle} representing the layout bounds.
+	 * @param resize
+	 *            <code>true</code> to indicate that the entities can be
+	 *            resized, otherwise <code>false</code>.
+	 */
+	public static void fitWithinBounds(LayoutBuffer buffer,
+			Rectangle destinationBounds, boolean resize) {
+		if (buffer.getNodeCount() == 1) {
+			fitSingleEntity(buffer, destinationBounds, resize);
+			return;
+		}
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		double[] width = buffer.getWidth();
+		double[] height = buffer.getHeight();
+		boolean[] movable = buffer.getMovable();
+		boolean[] resizable = buffer.getResizable();
+		Rectangle startingBounds = getLayoutBounds(buffer, false);
+		double sizeScale = Math.min(
+				destinationBounds.getWidth() / startingBounds.getWidth(),
+				destinationBounds.getHeight() / startingBounds.getHeight());
+		for (int i = 0; i < x.length; i++) {
+			if (resize && resizable[i]) {
+				width[i] *= sizeScale;
+				height[i] *= sizeScale;
+			}
+			if (movable[i]) {
+				double percentX = startingBounds.getWidth() == 0 ? 0
+						: (x[i] - startingBounds.getX())
+								/ (startingBounds.getWidth());
+				double percentY = startingBounds.getHeight() == 0 ? 0
+						: (y[i] - startingBounds.getY())
+								/ (startingBounds.getHeight());
+				x[i] = destinationBounds.getX() + width[i] / 2 + percentX
+						* (destinationBounds.getWidth() - width[i]);
+				y[i] = destinationBounds.getY() + height[i] / 2 + percentY
+						* (destinationBounds.getHeight() - height[i]);
+			}
+		}
+	}
+
+	private static void fitSingleEntity(LayoutBuffer buffer,
+			Rectangle destinationBounds, boolean resize) {
+		if (buffer.getMovable()[0]) {
+			buffer.getX()[0] = destinationBounds.getX()
+					+ destinationBounds.getWidth() / 2;
+			buffer.getY()[0] = destinationBounds.getY()
+					+ destinationBounds.getHeight() / 2;
+		}
+		if (resize && buffer.getResizable()[0]) {
+			double width = destinationBounds.getWidth();
+			double height = destinationBounds.getHeight();
+			double preferredAspectRatio = LayoutProperties
+					.getPreferredAspectRatio(buffer.getNode(0));
+			if (preferredAspectRatio > 0) {
+				Dimension size = fixAspectRatio(width, height,
+						preferredAspectRatio);
+				width = size.width;
+				height = size.height;
+			}
+			buffer.getWidth()[0] = width;
+			buffer.getHeight()[0] = height;
+		}
+	}
+
 	private static void fitSingleEntity(Node entity,
 			Rectangle destinationBounds, boolean resize) {
 		if (LayoutProperties.isMovable(entity)) {
@@ -148,6 +227,39 @@ class AlgorithmHelper {
 		}
 	}
 
+	/**
+	 * Resizes the entities of the given {@link LayoutBuffer} in the same
+	 * manner as {@link #maximizeSizes(Node[])}. Only the buffer is modified.
+	 * 
+	 * @param buffer
+	 *            The {@link LayoutBuffer} holding the entities of which the
+	 *            sizes are maximized.
+	 */
+	public static void maximizeSizes(LayoutBuffer buffer) {
+		int n = buffer.getNodeCount();
+		if (n > 1) {
+			Dimension minDistance = getMinimumDistance(buffer);
+			double nodeSize = Math.max(minDistance.width, minDistance.height)
+					* PADDING_PERCENT;
+			for (int i = 0; i < n; i++) {
+				if (buffer.getResizable()[i]) {
+					double width = nodeSize;
+					double height = nodeSize;
+					double preferredRatio = LayoutProperties
+							.getPreferredAspectRatio(buffer.getNode(i));
+					if (preferredRatio > 0) {
+						Dimension size = fixAspectRatio(width, height,
+								preferredRatio);
+						width = size.width;
+						height = size.height;
+					}
+					buffer.getWidth()[i] = width;
+					buffer.getHeight()[i] = height;
+				}
+			}
+		}
+	}
+
 	private static Dimension fixAspectRatio(double width, double height,
 			double preferredRatio) {
 		double actualRatio = width / height;
@@ -209,6 +321,41 @@ class AlgorithmHelper {
 				bottomSide - topSide);
 	}
 
+	/**
+	 * Find the bounds in which the entities of the given {@link LayoutBuffer}
+	 * are located, in the same manner as
+	 * {@link #getLayoutBounds(Node[], boolean)}.
+	 * 
+	 * @param buffer
+	 *            The {@link LayoutBuffer} holding the entities for which the
+	 *            layout bounds are computed.
+	 * @param includeNodeSize
+	 *            <code>true</code> to indicate that the entities' sizes should
+	 *            be taken into consideration, otherwise <code>false</code>.
+	 * @return A {@link Rectangle} representing the layout bounds of the
+	 *         entities of the given {@link LayoutBuffer}.
+	 */
+	public static Rectangle getLayoutBounds(LayoutBuffer buffer,
+			boolean includeNodeSize) {
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		double rightSide = Double.NEGATIVE_INFINITY;
+		double bottomSide = Double.NEGATIVE_INFINITY;
+		double leftSide = Double.POSITIVE_INFINITY;
+		double topSide = Double.POSITIVE_INFINITY;
+		for (int i = 0; i < x.length; i++) {
+			double halfWidth = includeNodeSize ? buffer.getWidth()[i] / 2 : 0;
+			double halfHeight = includeNodeSize ? buffer.getHeight()[i] / 2
+					: 0;
+			leftSide = Math.min(x[i] - halfWidth, leftSide);
+			topSide = Math.min(y[i] - halfHeight, topSide);
+			rightSide = Math.max(x[i] + halfWidth, rightSide);
+			bottomSide = Math.max(y[i] + halfHeight, bottomSide);
+		}
+		return new Rectangle(leftSide, topSide, rightSide - leftSide,
+				bottomSide - topSide);
+	}
+
 	/**
 	 * minDistance is the closest that any two points are together. These two
 	 * points become the center points for the two closest nodes, which we wish
@@ -259,4 +406,116 @@ class AlgorithmHelper {
 		}
 		return horAndVertdistance;
 	}
+
+	private static Dimension getMinimumDistance(LayoutBuffer buffer) {
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		Dimension horAndVertdistance = new Dimension(Double.MAX_VALUE,
+				Double.MAX_VALUE);
+		double minDistance = Double.MAX_VALUE;
+		for (int i = 0; i < x.length; i++) {
+			for (int j = i + 1; j < x.length; j++) {
+				double distanceX = x[i] - x[j];
+				double distanceY = y[i] - y[j];
+				double distance = distanceX * distanceX + distanceY * distanceY;
+				if (distance < minDistance) {
+					minDistance = distance;
+					horAndVertdistance.width = Math.abs(distanceX);
+					horAndVertdistance.height = Math.abs(distanceY);
+				}
+			}
+		}
+		return horAndVertdistance;
+	}
+
+	/**
+	 * Scales the locations of the entities of the given {@link LayoutBuffer}
+	 * uniformly, so that the entities fit into the given bounds (considering
+	 * their sizes), and centers them. In contrast to
+	 * {@link #fitWithinBounds(LayoutBuffer, Rectangle, boolean)}, the aspect
+	 * ratio of the layout is preserved. Only the buffer is modified.
+	 * 
+	 * @param buffer
+	 *            The {@link LayoutBuffer} holding the entities to scale.
+	 * @param bounds
+	 *            The {@link Rectangle} representing the layout bounds.
+	 */
+	public static void scaleWithinBounds(LayoutBuffer buffer,
+			Rectangle bounds) {
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		double maxW = 0, maxH = 0;
+		for (int i = 0; i < x.length; i++) {
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+			maxW = Math.max(maxW, buffer.getWidth()[i]);
+			maxH = Math.max(maxH, buffer.getHeight()[i]);
+		}
+		double width = maxX - minX;
+		double height = maxY - minY;
+		double availableWidth = Math.max(0, bounds.getWidth() - maxW);
+		double availableHeight = Math.max(0, bounds.getHeight() - maxH);
+		double scale = Math.min(
+				width == 0 ? Double.POSITIVE_INFINITY : availableWidth / width,
+				height == 0 ? Double.POSITIVE_INFINITY
+						: availableHeight / height);
+		if (Double.isInfinite(scale)) {
+			scale = 1;
+		}
+		double offsetX = bounds.getX() + bounds.getWidth() / 2
+				- (minX + width / 2) * scale;
+		double offsetY = bounds.getY() + bounds.getHeight() / 2
+				- (minY + height / 2) * scale;
+		for (int i = 0; i < x.length; i++) {
+			x[i] = x[i] * scale + offsetX;
+			y[i] = y[i] * scale + offsetY;
+		}
+	}
+
+	/**
+	 * Moves the movable entities of the given {@link LayoutBuffer} into the
+	 * given bounds (considering their sizes). Only the buffer is modified.
+	 * 
+	 * @param buffer
+	 *            The {@link LayoutBuffer} holding the entities to move.
+	 * @param bounds
+	 *            The {@link Rectangle} representing the layout bounds.
+	 */
+	public static void keepWithinBounds(LayoutBuffer buffer,
+			Rectangle bounds) {
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		double[] w = buffer.getWidth();
+		double[] h = buffer.getHeight();
+		for (int i = 0; i < x.length; i++) {
+			if (buffer.getMovable()[i]) {
+				x[i] = Math.max(bounds.getX() + w[i] / 2, Math.min(
+						bounds.getX() + bounds.getWidth() - w[i] / 2, x[i]));
+				y[i] = Math.max(bounds.getY() + h[i] / 2, Math.min(
+						bounds.getY() + bounds.getHeight() - h[i] / 2, y[i]));
+			}
+		}
+	}
+
+	/**
+	 * Executes the given action for each of the given number of blocks in
+	 * parallel, using the common {@link ForkJoinPool}, and returns when all
+	 * blocks have been processed. The caller is responsible for dividing the
+	 * work into the blocks, so that the result does not depend on the number
+	 * of threads.
+	 *
+	 * @param blocks
+	 *            The number of blocks.
+	 * @param action
+	 *            The action to execute for each block index.
+	 */
+	public static void forEachBlock(int blocks, IntConsumer action) {
+		GraphAlgorithms.forEach(null, blocks, action);
+	}
 }
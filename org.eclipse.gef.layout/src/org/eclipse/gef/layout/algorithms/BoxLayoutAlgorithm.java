@@ -12,6 +12,8 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.Arrays;
+
 /**
  * Layout algorithm that places all elements in one column or one row, depending
  * on set orientation.
@@ -53,6 +55,11 @@ public class BoxLayoutAlgorithm extends GridLayoutAlgorithm {
 		setOrientation(orientation);
 	}
 
+	@Override
+	public Object getCacheKey() {
+		return Arrays.asList(super.getCacheKey(), orientation);
+	}
+
 	/**
 	 * Returns the orientation of this {@link BoxLayoutAlgorithm}, either
 	 * {@link #HORIZONTAL} or {@link #VERTICAL}.
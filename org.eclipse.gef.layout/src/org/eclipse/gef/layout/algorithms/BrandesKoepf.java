@@ -0,0 +1,355 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * Computes the coordinates of the nodes of a layered drawing within their
+ * layers, following Brandes and K&ouml;pf, "Fast and Simple Horizontal
+ * Coordinate Assignment" (http://dx.doi.org/10.1007/3-540-45848-4_3). Four
+ * candidate assignments are computed by aligning each node with a median
+ * neighbor (upwards or downwards, preferring left or right) and compacting the
+ * resulting blocks, which are then balanced. Nodes may have different widths,
+ * and inner segments (edges between two dummy nodes) are kept straight if
+ * possible.
+ * <p>
+ * Nodes are identified by consecutive indices, which are assigned layer by
+ * layer in the order of the nodes within their layer, so that the position of
+ * a node within its layer is its index minus the index of the first node of
+ * that layer. All computations take time linear in the number of nodes and
+ * edges.
+ */
+class BrandesKoepf {
+
+	private final int[] layerStart;
+	private final int[] layer;
+	private final boolean[] dummy;
+	private final double[] width;
+	private final double spacing;
+
+	// adjacency to the previous and next layer, sorted by position
+	private final int[] upStart;
+	private final int[] upAdjacency;
+	private final int[] upEdges;
+	private final int[] downStart;
+	private final int[] downAdjacency;
+	private final int[] downEdges;
+
+	// edges that must not be used for alignment
+	private final boolean[] marked;
+
+	private final int[] root;
+	private final int[] align;
+	private final int[] sink;
+	private final double[] shift;
+	private final int[] current;
+	private final int[] stack;
+
+	/**
+	 * Creates a new {@link BrandesKoepf} for the given layered graph.
+	 *
+	 * @param layerStart
+	 *            The index of the first node of each layer, followed by the
+	 *            number of nodes.
+	 * @param dummy
+	 *            Whether each node is a dummy node.
+	 * @param width
+	 *            The extent of each node along its layer.
+	 * @param spacing
+	 *            The minimum gap between two nodes of the same layer.
+	 * @param edgeUpper
+	 *            The node of each edge that is on the upper layer.
+	 * @param edgeLower
+	 *            The node of each edge that is on the following layer.
+	 * @param edgeCount
+	 *            The number of edges.
+	 */
+	public BrandesKoepf(int[] layerStart, boolean[] dummy, double[] width,
+			double spacing, int[] edgeUpper, int[] edgeLower,
+			int edgeCount) {
+		this.layerStart = layerStart;
+		this.dummy = dummy;
+		this.width = width;
+		this.spacing = spacing;
+		int n = dummy.length;
+		layer = new int[n];
+		for (int l = 0; l + 1 < layerStart.length; l++) {
+			Arrays.fill(layer, layerStart[l], layerStart[l + 1], l);
+		}
+
+		// the downward adjacency in arbitrary order is used to build the
+		// upward adjacency sorted by upper node, which is used to build the
+		// downward adjacency sorted by lower node
+		int[] unsortedStart = new int[n + 1];
+		int[] unsortedEdges = new int[edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			unsortedStart[edgeUpper[e] + 1]++;
+		}
+		accumulate(unsortedStart);
+		int[] next = Arrays.copyOf(unsortedStart, n);
+		for (int e = 0; e < edgeCount; e++) {
+			unsortedEdges[next[edgeUpper[e]]++] = e;
+		}
+		upStart = new int[n + 1];
+		upAdjacency = new int[edgeCount];
+		upEdges = new int[edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			upStart[edgeLower[e] + 1]++;
+		}
+		accumulate(upStart);
+		next = Arrays.copyOf(upStart, n);
+		for (int k = 0; k < edgeCount; k++) {
+			int e = unsortedEdges[k];
+			int i = next[edgeLower[e]]++;
+			upAdjacency[i] = edgeUpper[e];
+			upEdges[i] = e;
+		}
+		downStart = unsortedStart;
+		downAdjacency = new int[edgeCount];
+		downEdges = new int[edgeCount];
+		next = Arrays.copyOf(downStart, n);
+		for (int v = 0; v < n; v++) {
+			for (int i = upStart[v]; i < upStart[v + 1]; i++) {
+				int k = next[upAdjacency[i]]++;
+				downAdjacency[k] = v;
+				downEdges[k] = upEdges[i];
+			}
+		}
+
+		marked = new boolean[edgeCount];
+		markConflicts();
+
+		root = new int[n];
+		align = new int[n];
+		sink = new int[n];
+		shift = new double[n];
+		current = new int[n];
+		stack = new int[n];
+	}
+
+	private static void accumulate(int[] start) {
+		for (int i = 1; i < start.length; i++) {
+			start[i] += start[i - 1];
+		}
+	}
+
+	/**
+	 * Computes the balanced coordinates of the centers of all nodes.
+	 *
+	 * @return The coordinate of the center of each node within its layer.
+	 */
+	public double[] computeCoordinates() {
+		int n = layer.length;
+		double[][] candidates = new double[4][];
+		double[] min = new double[4];
+		double[] max = new double[4];
+		int smallest = 0;
+		for (int c = 0; c < 4; c++) {
+			boolean down = c < 2;
+			boolean left = (c & 1) == 0;
+			alignVertically(down, left);
+			double[] x = compactHorizontally(left);
+			candidates[c] = x;
+			min[c] = Double.POSITIVE_INFINITY;
+			max[c] = Double.NEGATIVE_INFINITY;
+			for (int v = 0; v < n; v++) {
+				min[c] = Math.min(min[c], x[v] - width[v] / 2);
+				max[c] = Math.max(max[c], x[v] + width[v] / 2);
+			}
+			if (max[c] - min[c] < max[smallest] - min[smallest]) {
+				smallest = c;
+			}
+		}
+
+		// align to the candidate with the smallest width and balance
+		double[] values = new double[4];
+		double[] x = new double[n];
+		for (int v = 0; v < n; v++) {
+			for (int c = 0; c < 4; c++) {
+				double offset = (c & 1) == 0 ? min[smallest] - min[c]
+						: max[smallest] - max[c];
+				values[c] = candidates[c][v] + offset;
+			}
+			Arrays.sort(values);
+			x[v] = (values[1] + values[2]) / 2;
+		}
+		return x;
+	}
+
+	/**
+	 * Marks the edges that cross an inner segment (type 1 conflicts), so that
+	 * inner segments are preferred for alignment.
+	 */
+	private void markConflicts() {
+		for (int l = 0; l + 2 < layerStart.length; l++) {
+			int upperSize = layerStart[l + 1] - layerStart[l];
+			int from = layerStart[l + 1];
+			int to = layerStart[l + 2];
+			int k0 = 0;
+			int w = from;
+			for (int v = from; v < to; v++) {
+				int innerUpper = -1;
+				if (dummy[v]) {
+					for (int i = upStart[v]; i < upStart[v + 1]; i++) {
+						if (dummy[upAdjacency[i]]) {
+							innerUpper = upAdjacency[i] - layerStart[l];
+						}
+					}
+				}
+				if (v == to - 1 || innerUpper >= 0) {
+					int k1 = innerUpper >= 0 ? innerUpper : upperSize - 1;
+					for (; w <= v; w++) {
+						for (int i = upStart[w]; i < upStart[w + 1]; i++) {
+							int k = upAdjacency[i] - layerStart[l];
+							if (k < k0 || k > k1) {
+								marked[upEdges[i]] = true;
+							}
+						}
+					}
+					k0 = k1;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Aligns each node with a median neighbor on the previous layer (in the
+	 * given direction), forming blocks of vertically aligned nodes.
+	 */
+	private void alignVertically(boolean down, boolean left) {
+		for (int v = 0; v < root.length; v++) {
+			root[v] = v;
+			align[v] = v;
+		}
+		int[] start = down ? upStart : downStart;
+		int[] adjacency = down ? upAdjacency : downAdjacency;
+		int[] edges = down ? upEdges : downEdges;
+		int height = layerStart.length - 1;
+		for (int j = 1; j < height; j++) {
+			int l = down ? j : height - 1 - j;
+			int neighborStart = layerStart[down ? l - 1 : l + 1];
+			int r = left ? -1 : Integer.MAX_VALUE;
+			int size = layerStart[l + 1] - layerStart[l];
+			for (int k = 0; k < size; k++) {
+				int v = left ? layerStart[l] + k : layerStart[l + 1] - 1 - k;
+				int d = start[v + 1] - start[v];
+				if (d == 0) {
+					continue;
+				}
+				int lower = (d - 1) / 2;
+				int upper = d / 2;
+				for (int m = 0; m < 2 && align[v] == v; m++) {
+					int i = start[v] + ((m == 0) == left ? lower : upper);
+					int u = adjacency[i];
+					int position = u - neighborStart;
+					if (!marked[edges[i]]
+							&& (left ? r < position : r > position)) {
+						align[u] = v;
+						root[v] = root[u];
+						align[v] = root[v];
+						r = position;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Places the blocks as close as possible to the left (or right) side,
+	 * respecting the widths of the nodes. Returns mirrored coordinates for
+	 * the right side.
+	 */
+	private double[] compactHorizontally(boolean left) {
+		int n = root.length;
+		double[] x = new double[n];
+		Arrays.fill(x, Double.NaN);
+		for (int v = 0; v < n; v++) {
+			sink[v] = v;
+			shift[v] = Double.POSITIVE_INFINITY;
+		}
+		for (int v = 0; v < n; v++) {
+			if (root[v] == v && Double.isNaN(x[v])) {
+				placeBlock(v, x, left);
+			}
+		}
+		for (int v = 0; v < n; v++) {
+			x[v] = x[root[v]];
+			double s = shift[sink[root[v]]];
+			if (s < Double.POSITIVE_INFINITY) {
+				x[v] += s;
+			}
+		}
+
+		// ensure the minimum separation, which the class shifts of the
+		// original algorithm do not guarantee in all cases
+		for (int l = 0; l + 1 < layerStart.length; l++) {
+			int size = layerStart[l + 1] - layerStart[l];
+			for (int k = 1; k < size; k++) {
+				int w = left ? layerStart[l] + k : layerStart[l + 1] - 1 - k;
+				int p = left ? w - 1 : w + 1;
+				x[w] = Math.max(x[w],
+						x[p] + (width[p] + width[w]) / 2 + spacing);
+			}
+		}
+
+		if (!left) {
+			for (int v = 0; v < n; v++) {
+				x[v] = -x[v];
+			}
+		}
+		return x;
+	}
+
+	/**
+	 * Places the block of the given root and, before that, all blocks that
+	 * contain a predecessor of one of its nodes (within the layer), using an
+	 * explicit stack instead of recursion.
+	 */
+	private void placeBlock(int block, double[] x, boolean left) {
+		int top = 0;
+		x[block] = 0;
+		current[block] = block;
+		stack[top++] = block;
+		while (top > 0) {
+			int v = stack[top - 1];
+			int w = current[v];
+			int p = left ? w - 1 : w + 1;
+			if (p >= layerStart[layer[w]] && p < layerStart[layer[w] + 1]) {
+				int u = root[p];
+				if (Double.isNaN(x[u])) {
+					x[u] = 0;
+					current[u] = u;
+					stack[top++] = u;
+					continue;
+				}
+				if (sink[v] == v) {
+					sink[v] = sink[u];
+				}
+				double delta = (width[p] + width[w]) / 2 + spacing;
+				if (sink[v] != sink[u]) {
+					shift[sink[u]] = Math.min(shift[sink[u]],
+							x[v] - x[u] - delta);
+				} else {
+					x[v] = Math.max(x[v], x[u] + delta);
+				}
+			}
+			w = align[w];
+			if (w == v) {
+				top--;
+			} else {
+				current[v] = w;
+			}
+		}
+	}
+
+}
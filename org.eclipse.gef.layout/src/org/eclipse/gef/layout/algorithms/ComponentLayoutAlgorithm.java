@@ -0,0 +1,360 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+import org.eclipse.gef.geometry.planar.Dimension;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.graph.algorithms.GraphAlgorithms;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The {@link ComponentLayoutAlgorithm} lays out each (weakly) connected
+ * component of a graph separately, using a delegate {@link ILayoutAlgorithm},
+ * and packs the resulting drawings into the graph bounds. The components are
+ * laid out in parallel, within bounds whose area is proportional to their
+ * number of nodes. Their bounding boxes are then packed using a skyline
+ * heuristic, into a strip whose width matches the aspect ratio of the graph
+ * bounds. If the packing does not fit into the graph bounds, the locations
+ * are scaled (uniformly) to fit.
+ * <p>
+ * As the runtime of most layout algorithms grows super-linearly with the size
+ * of the graph, laying out the components separately is considerably faster
+ * for graphs that consist of many components. As the delegate algorithms run
+ * concurrently, a new delegate is created for each component (and layout
+ * pass). Components that contain a node that is not movable (see
+ * {@link LayoutProperties#isMovable(Node)}) are laid out, but not moved by
+ * the packing.
+ *
+ * @since 5.1
+ */
+public class ComponentLayoutAlgorithm implements ILayoutAlgorithm {
+
+	/**
+	 * The default spacing between two components.
+	 */
+	private static final double DEFAULT_COMPONENT_SPACING = 20;
+
+	/**
+	 * The result of the layout of a single component.
+	 */
+	private static class ComponentLayout {
+		int[] nodes;
+		Node[] copies;
+		Rectangle box;
+		boolean fixed;
+		// the index within the packing, or -1 if not packed
+		int packedIndex = -1;
+	}
+
+	private final Supplier<? extends ILayoutAlgorithm> algorithmFactory;
+	private double componentSpacing = DEFAULT_COMPONENT_SPACING;
+
+	/**
+	 * Constructs a new {@link ComponentLayoutAlgorithm} that lays out each
+	 * connected component using an {@link ILayoutAlgorithm} provided by the
+	 * given factory.
+	 *
+	 * @param algorithmFactory
+	 *            Provides a new {@link ILayoutAlgorithm} for each component.
+	 *            It may be called concurrently.
+	 */
+	public ComponentLayoutAlgorithm(
+			Supplier<? extends ILayoutAlgorithm> algorithmFactory) {
+		if (algorithmFactory == null) {
+			throw new IllegalArgumentException(
+					"Algorithm factory may not be null.");
+		}
+		this.algorithmFactory = algorithmFactory;
+	}
+
+	@Override
+	public void applyLayout(final LayoutContext layoutContext,
+			final boolean clean) {
+		if (!clean) {
+			return;
+		}
+		final GraphSnapshot snapshot = layoutContext.createGraphSnapshot();
+		int n = snapshot.getNodeCount();
+		if (n == 0) {
+			return;
+		}
+		final Graph graph = layoutContext.getGraph();
+		final Rectangle bounds = LayoutProperties.getBounds(graph);
+		final int[][] groups = GraphAlgorithms.groupByComponent(
+				GraphAlgorithms.computeConnectedComponents(snapshot));
+		if (groups.length == 1) {
+			algorithmFactory.get().applyLayout(layoutContext, clean);
+			return;
+		}
+
+		// layout the components in parallel; as the components are disjoint,
+		// they can share an array that maps nodes to their index within
+		// their component; once the layout is cancelled (or stopped), the
+		// remaining components are packed without being laid out, so that
+		// the current result is committed
+		final int[] positions = new int[n];
+		final AtomicInteger completed = new AtomicInteger();
+		final ComponentLayout[] components = new ComponentLayout[groups.length];
+		GraphAlgorithms.forEach(null, groups.length, new IntConsumer() {
+			@Override
+			public void accept(int c) {
+				components[c] = layoutComponent(snapshot, groups[c],
+						positions, graph, bounds,
+						!layoutContext.isLayoutCancelled());
+				layoutContext.reportLayoutProgress(
+						(double) completed.incrementAndGet() / groups.length);
+			}
+		});
+
+		// pack the bounding boxes of the components that may be moved, and
+		// determine the bounding box of the fixed ones
+		List<ComponentLayout> packed = new ArrayList<>();
+		Rectangle fixedBox = null;
+		double halfWidth = 0;
+		double halfHeight = 0;
+		for (ComponentLayout component : components) {
+			if (component.fixed) {
+				fixedBox = fixedBox == null ? component.box.getCopy()
+						: fixedBox.union(component.box);
+			} else {
+				component.packedIndex = packed.size();
+				packed.add(component);
+				for (Node copy : component.copies) {
+					Dimension size = LayoutProperties.getSize(copy);
+					if (size != null) {
+						halfWidth = Math.max(halfWidth, size.width / 2);
+						halfHeight = Math.max(halfHeight, size.height / 2);
+					}
+				}
+			}
+		}
+		Rectangle region = fixedBox == null ? bounds
+				: getFreeRegion(bounds, fixedBox.getExpanded(
+						componentSpacing, componentSpacing));
+		int m = packed.size();
+		double[] width = new double[m];
+		double[] height = new double[m];
+		double area = 0;
+		double maxWidth = 0;
+		for (int c = 0; c < m; c++) {
+			Rectangle box = packed.get(c).box;
+			width[c] = box.getWidth() + componentSpacing;
+			height[c] = box.getHeight() + componentSpacing;
+			area += width[c] * height[c];
+			maxWidth = Math.max(maxWidth, width[c]);
+		}
+		double aspectRatio = region.getHeight() > 0
+				? region.getWidth() / region.getHeight() : 1;
+		double stripWidth = Math.max(maxWidth, Math.sqrt(area * aspectRatio));
+		double[] x = new double[m];
+		double[] y = new double[m];
+		double stripHeight = new SkylinePacker().pack(width, height,
+				stripWidth, x, y);
+		double usedWidth = 0;
+		for (int c = 0; c < m; c++) {
+			usedWidth = Math.max(usedWidth, x[c] + width[c]);
+		}
+		usedWidth -= componentSpacing;
+		stripHeight -= componentSpacing;
+
+		// center the packing within the region, scaling the distances of the
+		// node centers from the border of the packing down if needed, so
+		// that the nodes (which are not resized) stay within the region
+		double scale = Math.min(1,
+				Math.min(getScale(region.getWidth(), usedWidth, halfWidth),
+						getScale(region.getHeight(), stripHeight,
+								halfHeight)));
+		double offsetX = region.getX() + (region.getWidth() - 2 * halfWidth
+				- scale * (usedWidth - 2 * halfWidth)) / 2;
+		double offsetY = region.getY() + (region.getHeight() - 2 * halfHeight
+				- scale * (stripHeight - 2 * halfHeight)) / 2;
+		LayoutBuffer buffer = layoutContext.createLayoutBuffer();
+		for (ComponentLayout component : components) {
+			int c = component.packedIndex;
+			for (int k = 0; k < component.nodes.length; k++) {
+				int i = component.nodes[k];
+				Point location = LayoutProperties
+						.getLocation(component.copies[k]);
+				Dimension size = LayoutProperties
+						.getSize(component.copies[k]);
+				if (size != null) {
+					buffer.getWidth()[i] = size.width;
+					buffer.getHeight()[i] = size.height;
+				}
+				if (location == null) {
+					continue;
+				}
+				if (c < 0) {
+					buffer.getX()[i] = location.x;
+					buffer.getY()[i] = location.y;
+				} else {
+					Rectangle box = component.box;
+					buffer.getX()[i] = offsetX + halfWidth + scale
+							* (x[c] + location.x - box.getX() - halfWidth);
+					buffer.getY()[i] = offsetY + halfHeight + scale
+							* (y[c] + location.y - box.getY() - halfHeight);
+				}
+			}
+		}
+		buffer.commit();
+	}
+
+	/**
+	 * Returns the largest of the regions of the given bounds to the left, to
+	 * the right, above and below the given box, in which the packed
+	 * components are placed. If the box covers the bounds, the bounds are
+	 * returned.
+	 */
+	private static Rectangle getFreeRegion(Rectangle bounds, Rectangle box) {
+		Rectangle[] regions = {
+				new Rectangle(bounds.getX(), bounds.getY(),
+						box.getX() - bounds.getX(), bounds.getHeight()),
+				new Rectangle(box.getRight().x, bounds.getY(),
+						bounds.getRight().x - box.getRight().x,
+						bounds.getHeight()),
+				new Rectangle(bounds.getX(), bounds.getY(), bounds.getWidth(),
+						box.getY() - bounds.getY()),
+				new Rectangle(bounds.getX(), box.getBottom().y,
+						bounds.getWidth(),
+						bounds.getBottom().y - box.getBottom().y) };
+		Rectangle region = null;
+		double maxArea = 0;
+		for (Rectangle r : regions) {
+			double area = r.getWidth() * r.getHeight();
+			if (r.getWidth() > 0 && r.getHeight() > 0 && area > maxArea) {
+				region = r;
+				maxArea = area;
+			}
+		}
+		return region == null ? bounds : region;
+	}
+
+	/**
+	 * Returns the factor by which the distances of the node centers from the
+	 * border of a packing of the given extent have to be scaled, so that the
+	 * packing fits into the given available extent.
+	 */
+	private static double getScale(double available, double extent,
+			double half) {
+		if (extent <= available || extent <= 2 * half) {
+			return 1;
+		}
+		return Math.max(0, available - 2 * half) / (extent - 2 * half);
+	}
+
+	/**
+	 * Lays out the given component within a copy of the graph, using bounds
+	 * whose area is proportional to the number of nodes of the component. If
+	 * the layout is to be skipped, the copies keep their current locations.
+	 */
+	private ComponentLayout layoutComponent(GraphSnapshot snapshot,
+			int[] nodes, int[] positions, Graph graph, Rectangle bounds,
+			boolean layout) {
+		ComponentLayout component = new ComponentLayout();
+		component.nodes = nodes;
+		component.copies = new Node[nodes.length];
+		for (int k = 0; k < nodes.length; k++) {
+			Node node = snapshot.getNode(nodes[k]);
+			Node copy = new Node(node.getAttributes());
+			Point location = LayoutProperties.getLocation(node);
+			if (location != null) {
+				LayoutProperties.setLocation(copy, location.getCopy());
+			}
+			Dimension size = LayoutProperties.getSize(node);
+			if (size != null) {
+				LayoutProperties.setSize(copy, size.getCopy());
+			}
+			component.copies[k] = copy;
+			component.fixed |= !LayoutProperties.isMovable(node);
+			positions[nodes[k]] = k;
+		}
+		List<Edge> edges = new ArrayList<>();
+		for (int k = 0; k < nodes.length; k++) {
+			for (int j = 0; j < snapshot.getOutDegree(nodes[k]); j++) {
+				int e = snapshot.getOutEdge(nodes[k], j);
+				edges.add(new Edge(snapshot.getEdge(e).getAttributes(),
+						component.copies[k],
+						component.copies[positions[snapshot.getTarget(e)]]));
+			}
+		}
+		Graph copy = new Graph(graph.getAttributes(),
+				Arrays.asList(component.copies), edges);
+		double share = Math
+				.sqrt((double) nodes.length / snapshot.getNodeCount());
+		LayoutProperties.setBounds(copy,
+				new Rectangle(bounds.getX(), bounds.getY(),
+						bounds.getWidth() * share,
+						bounds.getHeight() * share));
+		if (layout) {
+			LayoutContext context = new LayoutContext();
+			context.setGraph(copy);
+			algorithmFactory.get().applyLayout(context, true);
+		}
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (Node node : component.copies) {
+			Point location = LayoutProperties.getLocation(node);
+			if (location == null) {
+				continue;
+			}
+			Dimension size = LayoutProperties.getSize(node);
+			double w = size == null ? 0 : size.width / 2;
+			double h = size == null ? 0 : size.height / 2;
+			minX = Math.min(minX, location.x - w);
+			minY = Math.min(minY, location.y - h);
+			maxX = Math.max(maxX, location.x + w);
+			maxY = Math.max(maxY, location.y + h);
+		}
+		component.box = minX > maxX ? new Rectangle()
+				: new Rectangle(minX, minY, maxX - minX, maxY - minY);
+		return component;
+	}
+
+	/**
+	 * Returns the spacing between two components.
+	 *
+	 * @return The spacing between two components.
+	 */
+	public double getComponentSpacing() {
+		return componentSpacing;
+	}
+
+	/**
+	 * Sets the spacing between two components. The default value is
+	 * <code>20</code>.
+	 *
+	 * @param componentSpacing
+	 *            The spacing between two components.
+	 */
+	public void setComponentSpacing(double componentSpacing) {
+		this.componentSpacing = componentSpacing;
+	}
+
+}
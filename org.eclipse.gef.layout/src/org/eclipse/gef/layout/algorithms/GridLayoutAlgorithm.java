@@ -12,11 +12,13 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.Arrays;
+
 import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -29,7 +31,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class GridLayoutAlgorithm implements ILayoutAlgorithm {
+public class GridLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	private static final double PADDING_PERCENTAGE = 0.95;
 	private static final int MIN_ENTITY_SIZE = 5;
@@ -117,6 +119,11 @@ public class GridLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 	}
 
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(aspectRatio, rowPadding, resize);
+	}
+
 	/**
 	 * Calculates all the dimensions of grid that layout entities will be fit
 	 * in.
@@ -0,0 +1,551 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The {@link MultilevelLayoutAlgorithm} is a force-directed layout algorithm
+ * for large graphs. The graph is repeatedly coarsened by collapsing matched
+ * pairs of adjacent nodes (as well as nodes of degree one into their
+ * neighbor), until only a small graph remains. The coarsest graph is laid out
+ * from scratch, and the layout is then interpolated to the next finer graph
+ * and refined, level by level. Repulsive forces are approximated using a
+ * Barnes-Hut quadtree, so that an iteration takes <code>O(n log n + e)</code>
+ * time.
+ * <p>
+ * Nodes that are not movable (see {@link LayoutProperties#isMovable(Node)})
+ * are never collapsed and keep their location, so that the other nodes are
+ * laid out around them. In this case, the movable nodes are kept within the
+ * graph bounds; otherwise, the layout is scaled (uniformly) to fit the bounds.
+ * The algorithm is deterministic, i.e. it computes the same layout for the
+ * same graph.
+ *
+ * @since 5.1
+ */
+public class MultilevelLayoutAlgorithm implements ICacheableLayoutAlgorithm {
+
+	/**
+	 * The default number of iterations performed on each level.
+	 */
+	private static final int DEFAULT_ITERATIONS = 30;
+
+	/**
+	 * The default value for the Barnes-Hut approximation parameter.
+	 */
+	private static final double DEFAULT_BARNES_HUT_THETA = 1.0d;
+
+	/**
+	 * Coarsening stops when a graph has at most this number of nodes.
+	 */
+	private static final int COARSEST_SIZE = 16;
+
+	/**
+	 * Coarsening stops when a level reduces the number of nodes by less than
+	 * this ratio.
+	 */
+	private static final double MIN_COARSENING_RATIO = 0.05d;
+
+	/**
+	 * The number of iterations used to layout the coarsest graph.
+	 */
+	private static final int COARSEST_ITERATIONS = 300;
+
+	/**
+	 * The ratio of the natural spring lengths of two subsequent levels (see
+	 * C. Walshaw: A Multilevel Algorithm for Force-Directed Graph Drawing).
+	 */
+	private static final double SPRING_LENGTH_RATIO = Math.sqrt(7d / 4d);
+
+	/**
+	 * The number of nodes from which on forces are computed in parallel.
+	 */
+	private static final int PARALLEL_THRESHOLD = 4096;
+
+	/**
+	 * The number of blocks the nodes are divided into when forces are computed
+	 * in parallel.
+	 */
+	private static final int PARALLEL_BLOCKS = 64;
+
+	/**
+	 * A coarsening level, i.e. an undirected, weighted graph in compressed
+	 * adjacency form, together with the locations of its nodes.
+	 */
+	private static class Level {
+		int size;
+		int[] adjacencyStart;
+		int[] adjacentNodes;
+		double[] adjacentWeights;
+		double[] mass;
+		boolean[] fixed;
+		double[] x;
+		double[] y;
+		// the index of the node of the next coarser level that a node of
+		// this level is collapsed into
+		int[] parent;
+	}
+
+	private int iterations = DEFAULT_ITERATIONS;
+	private double barnesHutTheta = DEFAULT_BARNES_HUT_THETA;
+
+	/**
+	 * Default constructor.
+	 */
+	public MultilevelLayoutAlgorithm() {
+	}
+
+	@Override
+	public void applyLayout(LayoutContext layoutContext, boolean clean) {
+		if (!clean) {
+			return;
+		}
+		GraphSnapshot snapshot = layoutContext.createGraphSnapshot();
+		Node[] entities = snapshot.getNodes();
+		int n = entities.length;
+		if (n == 0) {
+			return;
+		}
+		Rectangle bounds = LayoutProperties.getBounds(layoutContext.getGraph())
+				.getCopy();
+		int insets = 4;
+		bounds.setX(bounds.getX() + insets);
+		bounds.setY(bounds.getY() + insets);
+		bounds.setWidth(bounds.getWidth() - 2 * insets);
+		bounds.setHeight(bounds.getHeight() - 2 * insets);
+
+		// the natural spring length of the finest level corresponds to the
+		// space available per node
+		double unit = Math.max(1,
+				Math.sqrt(bounds.getWidth() * bounds.getHeight() / n));
+		Level finest = createFinestLevel(snapshot, unit);
+		boolean anyFixed = false;
+		for (int i = 0; i < n; i++) {
+			anyFixed |= finest.fixed[i];
+		}
+
+		// coarsen
+		List<Level> levels = new ArrayList<>();
+		levels.add(finest);
+		Level level = finest;
+		while (level.size > COARSEST_SIZE) {
+			Level coarser = coarsen(level);
+			if (coarser.size > (1 - MIN_COARSENING_RATIO) * level.size) {
+				level.parent = null;
+				break;
+			}
+			levels.add(coarser);
+			level = coarser;
+		}
+
+		// layout the coarsest level, placing the movable nodes randomly
+		// within the bounds
+		Random random = new Random(0);
+		Level coarsest = levels.get(levels.size() - 1);
+		double k = Math.pow(SPRING_LENGTH_RATIO, levels.size() - 1);
+		for (int i = 0; i < coarsest.size; i++) {
+			if (!coarsest.fixed[i]) {
+				coarsest.x[i] = (bounds.getX()
+						+ random.nextDouble() * bounds.getWidth()) / unit;
+				coarsest.y[i] = (bounds.getY()
+						+ random.nextDouble() * bounds.getHeight()) / unit;
+			}
+		}
+		refine(coarsest, COARSEST_ITERATIONS, k,
+				Math.max(bounds.getWidth(), bounds.getHeight()) / unit / 4);
+
+		// interpolate and refine level by level; once the layout is cancelled
+		// (or stopped), the remaining levels are only interpolated, so that
+		// the current result is committed
+		for (int l = levels.size() - 2; l >= 0; l--) {
+			layoutContext.reportLayoutProgress(
+					1 - (double) (l + 1) / levels.size());
+			Level finer = levels.get(l);
+			Level coarser = levels.get(l + 1);
+			for (int i = 0; i < finer.size; i++) {
+				if (!finer.fixed[i]) {
+					// place the collapsed nodes around their common location
+					int p = finer.parent[i];
+					double angle = random.nextDouble() * 2 * Math.PI;
+					finer.x[i] = coarser.x[p] + 0.1 * k * Math.cos(angle);
+					finer.y[i] = coarser.y[p] + 0.1 * k * Math.sin(angle);
+				}
+			}
+			k /= SPRING_LENGTH_RATIO;
+			if (!layoutContext.isLayoutCancelled()) {
+				refine(finer, iterations, k, k);
+			}
+			// the coarser level is no longer needed
+			levels.set(l + 1, null);
+		}
+
+		// transfer the locations
+		LayoutBuffer buffer = new LayoutBuffer(entities);
+		for (int i = 0; i < n; i++) {
+			if (!finest.fixed[i]) {
+				buffer.getX()[i] = finest.x[i] * unit;
+				buffer.getY()[i] = finest.y[i] * unit;
+			}
+		}
+		if (anyFixed) {
+			AlgorithmHelper.keepWithinBounds(buffer, bounds);
+		} else {
+			AlgorithmHelper.scaleWithinBounds(buffer, bounds);
+		}
+		buffer.commit();
+	}
+
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(iterations, barnesHutTheta);
+	}
+
+	/**
+	 * Creates the finest level from the given {@link GraphSnapshot}, merging
+	 * parallel edges and dropping self-loops. The locations of the nodes that
+	 * are not movable are converted into the given unit.
+	 */
+	private Level createFinestLevel(GraphSnapshot snapshot, double unit) {
+		int n = snapshot.getNodeCount();
+		int edgeCount = snapshot.getEdgeCount();
+		int[] sources = new int[edgeCount];
+		int[] targets = new int[edgeCount];
+		double[] weights = new double[edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			sources[e] = snapshot.getSource(e);
+			targets[e] = snapshot.getTarget(e);
+			double weight = snapshot.getWeight(e);
+			weights[e] = weight <= 0 ? 1 : weight;
+		}
+		Level level = createLevel(n, sources, targets, weights, edgeCount);
+		Arrays.fill(level.mass, 1);
+		for (int i = 0; i < n; i++) {
+			Node node = snapshot.getNode(i);
+			if (!LayoutProperties.isMovable(node)) {
+				Point location = LayoutProperties.getLocation(node);
+				if (location != null) {
+					level.fixed[i] = true;
+					level.x[i] = location.x / unit;
+					level.y[i] = location.y / unit;
+				}
+			}
+		}
+		return level;
+	}
+
+	/**
+	 * Creates a new {@link Level} with the given number of nodes and the
+	 * given edges, building symmetric adjacency lists in which parallel edges
+	 * are merged (summing up their weights) and self-loops are dropped.
+	 */
+	private static Level createLevel(int n, int[] sources, int[] targets,
+			double[] weights, int edgeCount) {
+		int[] degree = new int[n + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			if (sources[e] != targets[e]) {
+				degree[sources[e] + 1]++;
+				degree[targets[e] + 1]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			degree[i + 1] += degree[i];
+		}
+		int[] start = degree;
+		int[] fill = Arrays.copyOf(start, n);
+		int[] nodes = new int[start[n]];
+		double[] nodeWeights = new double[start[n]];
+		for (int e = 0; e < edgeCount; e++) {
+			int s = sources[e];
+			int t = targets[e];
+			if (s != t) {
+				nodes[fill[s]] = t;
+				nodeWeights[fill[s]++] = weights[e];
+				nodes[fill[t]] = s;
+				nodeWeights[fill[t]++] = weights[e];
+			}
+		}
+
+		// merge parallel edges in place
+		Level level = new Level();
+		level.size = n;
+		level.adjacencyStart = new int[n + 1];
+		int[] position = new int[n];
+		Arrays.fill(position, -1);
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			int first = count;
+			for (int a = start[i]; a < start[i + 1]; a++) {
+				int j = nodes[a];
+				if (position[j] >= first) {
+					nodeWeights[position[j]] += nodeWeights[a];
+				} else {
+					position[j] = count;
+					nodes[count] = j;
+					nodeWeights[count++] = nodeWeights[a];
+				}
+			}
+			level.adjacencyStart[i + 1] = count;
+		}
+		level.adjacentNodes = Arrays.copyOf(nodes, count);
+		level.adjacentWeights = Arrays.copyOf(nodeWeights, count);
+		level.mass = new double[n];
+		level.fixed = new boolean[n];
+		level.x = new double[n];
+		level.y = new double[n];
+		return level;
+	}
+
+	/**
+	 * Creates the next coarser level by collapsing matched pairs of adjacent
+	 * movable nodes (preferring heavy edges between light nodes), as well as
+	 * unmatched movable nodes of degree one into their neighbor.
+	 */
+	private static Level coarsen(Level level) {
+		int n = level.size;
+		int[] start = level.adjacencyStart;
+		int[] match = new int[n];
+		Arrays.fill(match, -1);
+		for (int i = 0; i < n; i++) {
+			if (match[i] >= 0 || level.fixed[i]) {
+				continue;
+			}
+			int best = -1;
+			double bestRating = 0;
+			for (int a = start[i]; a < start[i + 1]; a++) {
+				int j = level.adjacentNodes[a];
+				if (match[j] < 0 && !level.fixed[j]) {
+					double rating = level.adjacentWeights[a]
+							/ (level.mass[i] + level.mass[j]);
+					if (rating > bestRating) {
+						best = j;
+						bestRating = rating;
+					}
+				}
+			}
+			if (best >= 0) {
+				match[i] = best;
+				match[best] = i;
+			}
+		}
+
+		// number the coarse nodes
+		int[] parent = new int[n];
+		Arrays.fill(parent, -1);
+		int size = 0;
+		for (int i = 0; i < n; i++) {
+			if (parent[i] >= 0) {
+				continue;
+			}
+			if (match[i] < 0 && !level.fixed[i]
+					&& start[i + 1] - start[i] == 1) {
+				// collapse into the neighbor, unless that is a leaf as well
+				int j = level.adjacentNodes[start[i]];
+				if (!level.fixed[j] && (match[j] >= 0
+						|| start[j + 1] - start[j] > 1)) {
+					continue;
+				}
+			}
+			parent[i] = size;
+			if (match[i] >= 0) {
+				parent[match[i]] = size;
+			}
+			size++;
+		}
+		for (int i = 0; i < n; i++) {
+			if (parent[i] < 0) {
+				parent[i] = parent[level.adjacentNodes[start[i]]];
+			}
+		}
+		level.parent = parent;
+
+		// aggregate edges (createLevel merges parallel ones)
+		int edgeCount = level.adjacentNodes.length;
+		int[] sources = new int[edgeCount];
+		int[] targets = new int[edgeCount];
+		double[] weights = new double[edgeCount];
+		int count = 0;
+		for (int i = 0; i < n; i++) {
+			for (int a = start[i]; a < start[i + 1]; a++) {
+				int j = level.adjacentNodes[a];
+				// each undirected edge is listed twice
+				if (i < j && parent[i] != parent[j]) {
+					sources[count] = parent[i];
+					targets[count] = parent[j];
+					weights[count++] = level.adjacentWeights[a];
+				}
+			}
+		}
+		Level coarser = createLevel(size, sources, targets, weights, count);
+		for (int i = 0; i < n; i++) {
+			int p = parent[i];
+			coarser.mass[p] += level.mass[i];
+			if (level.fixed[i]) {
+				coarser.fixed[p] = true;
+				coarser.x[p] = level.x[i];
+				coarser.y[p] = level.y[i];
+			}
+		}
+		return coarser;
+	}
+
+	/**
+	 * Performs the given number of iterations on the given level, using the
+	 * given natural spring length, and starting with the given temperature,
+	 * which limits the movement of a node within an iteration.
+	 */
+	private void refine(Level level, int iterations, double k,
+			double temperature) {
+		int n = level.size;
+		double[] x = level.x;
+		double[] y = level.y;
+		double[] forcesX = new double[n];
+		double[] forcesY = new double[n];
+		double minTemperature = 0.01 * k;
+		double cooling = Math.pow(minTemperature / temperature,
+				1d / Math.max(1, iterations));
+		for (int iteration = 0; iteration < iterations; iteration++) {
+			final double t = temperature;
+			QuadTree tree = new QuadTree(x, y, level.mass);
+			if (n >= PARALLEL_THRESHOLD) {
+				AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, b -> {
+					int[] stack = tree.createStack();
+					int from = (int) ((long) b * n / PARALLEL_BLOCKS);
+					int to = (int) ((long) (b + 1) * n / PARALLEL_BLOCKS);
+					computeForces(level, tree, stack, k, from, to, forcesX,
+							forcesY);
+				});
+				AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, b -> {
+					int from = (int) ((long) b * n / PARALLEL_BLOCKS);
+					int to = (int) ((long) (b + 1) * n / PARALLEL_BLOCKS);
+					move(level, t, from, to, forcesX, forcesY);
+				});
+			} else {
+				computeForces(level, tree, tree.createStack(), k, 0, n,
+						forcesX, forcesY);
+				move(level, t, 0, n, forcesX, forcesY);
+			}
+			temperature = Math.max(minTemperature, temperature * cooling);
+		}
+	}
+
+	/**
+	 * Computes the forces acting on the given range of nodes (in the order of
+	 * the given {@link QuadTree}), i.e. the repulsion of all nodes (weighted
+	 * by their mass) and the attraction of adjacent nodes (weighted by the
+	 * edge weight). Both are in balance at the natural spring length
+	 * <code>k</code>.
+	 */
+	private void computeForces(Level level, QuadTree tree, int[] stack,
+			double k, int from, int to, double[] forcesX, double[] forcesY) {
+		double[] x = level.x;
+		double[] y = level.y;
+		for (int p = from; p < to; p++) {
+			int i = tree.getPoint(p);
+			forcesX[i] = 0;
+			forcesY[i] = 0;
+			if (level.fixed[i]) {
+				continue;
+			}
+			tree.accumulateRepulsion(i, barnesHutTheta, k * k * k, 0.01 * k,
+					forcesX, forcesY, stack);
+			for (int a = level.adjacencyStart[i]; a < level.adjacencyStart[i
+					+ 1]; a++) {
+				int j = level.adjacentNodes[a];
+				double dx = x[j] - x[i];
+				double dy = y[j] - y[i];
+				double f = level.adjacentWeights[a]
+						* Math.sqrt(dx * dx + dy * dy) / k;
+				forcesX[i] += f * dx;
+				forcesY[i] += f * dy;
+			}
+		}
+	}
+
+	/**
+	 * Moves the movable nodes of the given range in direction of the force
+	 * acting on them, by at most the given temperature.
+	 */
+	private static void move(Level level, double temperature, int from,
+			int to, double[] forcesX, double[] forcesY) {
+		for (int i = from; i < to; i++) {
+			if (level.fixed[i]) {
+				continue;
+			}
+			double f = Math.sqrt(
+					forcesX[i] * forcesX[i] + forcesY[i] * forcesY[i]);
+			if (f > 0) {
+				double step = Math.min(f, temperature) / f;
+				level.x[i] += forcesX[i] * step;
+				level.y[i] += forcesY[i] * step;
+			}
+		}
+	}
+
+	/**
+	 * Sets the number of iterations that are performed to refine the layout
+	 * on each level. The default value is <code>30</code>.
+	 *
+	 * @param iterations
+	 *            The number of iterations per level.
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+	/**
+	 * Returns the number of iterations that are performed to refine the layout
+	 * on each level.
+	 *
+	 * @return The number of iterations per level.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Sets the Barnes-Hut approximation parameter, which controls the
+	 * accuracy of the repulsive forces. A group of distant nodes is treated as
+	 * a single node if the extent of the group divided by its distance is
+	 * smaller than the given value. The default value is <code>1</code>.
+	 *
+	 * @param theta
+	 *            The Barnes-Hut approximation parameter.
+	 */
+	public void setBarnesHutTheta(double theta) {
+		if (theta < 0) {
+			throw new IllegalArgumentException(
+					"theta may not be negative: " + theta);
+		}
+		barnesHutTheta = theta;
+	}
+
+	/**
+	 * Returns the Barnes-Hut approximation parameter.
+	 *
+	 * @return The Barnes-Hut approximation parameter.
+	 */
+	public double getBarnesHutTheta() {
+		return barnesHutTheta;
+	}
+}
@@ -0,0 +1,354 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The {@link OverlapRemovalAlgorithm} removes the overlaps between the nodes
+ * of an existing layout (considering their sizes), while preserving the
+ * relative positions of the nodes as far as possible. It is intended to be
+ * applied after another {@link ILayoutAlgorithm}, either by combining both
+ * within a {@link CompositeLayoutAlgorithm}, or by scheduling it as a post
+ * layout pass:
+ *
+ * <pre>
+ * context.schedulePostLayoutPass(
+ * 		() -&gt; new OverlapRemovalAlgorithm().applyLayout(context, true));
+ * </pre>
+ * <p>
+ * Similar to the PRISM algorithm of Gansner and Hu, "Efficient, Proximity
+ * Preserving Node Overlap Removal" (http://dx.doi.org/10.7155/jgaa.00198),
+ * each overlapping pair of nodes is pushed apart along the line through their
+ * centers, by the (bounded) factor that is needed to separate them. This is
+ * repeated until no overlaps remain or the maximum number of iterations is
+ * reached. If the nodes are packed too densely to be separated by local
+ * moves, the layout is scaled up uniformly first.
+ * <p>
+ * The overlapping pairs are found by a sweep-line over the horizontal extents
+ * of the nodes, which keeps the active nodes in a balanced search tree
+ * ordered by their upper edge, so that an iteration takes
+ * <code>O((n + k) log n)</code> time for <code>k</code> overlaps, instead of
+ * the <code>O(n&sup2;)</code> time needed to check all pairs.
+ * <p>
+ * Nodes that are not movable (see {@link LayoutProperties#isMovable(Node)})
+ * are not moved; overlaps between two of them are not removed. The algorithm
+ * is applied on both clean and incremental layout passes. As the nodes are
+ * only moved apart, the resulting layout may exceed the graph bounds.
+ *
+ * @since 5.1
+ */
+public class OverlapRemovalAlgorithm implements ICacheableLayoutAlgorithm {
+
+	/**
+	 * The default spacing between two nodes.
+	 */
+	private static final double DEFAULT_NODE_SPACING = 5;
+
+	/**
+	 * The default maximum number of iterations.
+	 */
+	private static final int DEFAULT_MAX_ITERATIONS = 1000;
+
+	/**
+	 * The maximum factor by which the distance between two overlapping nodes
+	 * is expanded in one iteration, which prevents nodes that (almost)
+	 * coincide from being moved far apart.
+	 */
+	private static final double MAX_EXPANSION = 1.5;
+
+	/**
+	 * The minimum distance between the centers of two overlapping nodes that
+	 * is used to derive the direction in which they are pushed apart.
+	 */
+	private static final double MIN_DISTANCE = 1e-3;
+
+	/**
+	 * Overlapping nodes are moved apart by this factor times the distance
+	 * that is needed to separate them, so that they do not overlap again
+	 * after small displacements (or due to rounding errors).
+	 */
+	private static final double SEPARATION_FACTOR = 1.1;
+
+	/**
+	 * The maximum ratio of the total area of the nodes to the area of their
+	 * bounding box, above which the layout is expanded before removing the
+	 * overlaps locally.
+	 */
+	private static final double MAX_DENSITY = 0.5;
+
+	private double nodeSpacing = DEFAULT_NODE_SPACING;
+	private int maxIterations = DEFAULT_MAX_ITERATIONS;
+
+	// the overlapping pairs found by the last sweep
+	private int[] pairs = new int[16];
+	private int pairCount;
+
+	/**
+	 * Default constructor.
+	 */
+	public OverlapRemovalAlgorithm() {
+	}
+
+	@Override
+	public void applyLayout(LayoutContext layoutContext, boolean clean) {
+		LayoutBuffer buffer = layoutContext.createLayoutBuffer();
+		int n = buffer.getNodeCount();
+		if (n < 2) {
+			return;
+		}
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		boolean[] movable = buffer.getMovable();
+		// the half extents, including half of the spacing
+		double[] halfWidth = new double[n];
+		double[] halfHeight = new double[n];
+		for (int i = 0; i < n; i++) {
+			halfWidth[i] = (buffer.getWidth()[i] + nodeSpacing) / 2;
+			halfHeight[i] = (buffer.getHeight()[i] + nodeSpacing) / 2;
+		}
+		findOverlaps(x, y, halfWidth, halfHeight);
+		if (pairCount == 0) {
+			return;
+		}
+		expand(x, y, halfWidth, halfHeight, movable);
+		// a cancelled (or stopped) layout commits the current locations
+		for (int iteration = 0; iteration < maxIterations
+				&& !layoutContext.isLayoutCancelled(); iteration++) {
+			findOverlaps(x, y, halfWidth, halfHeight);
+			boolean moved = false;
+			for (int p = 0; p < pairCount; p++) {
+				int i = pairs[2 * p];
+				int j = pairs[2 * p + 1];
+				if (!movable[i] && !movable[j]) {
+					continue;
+				}
+				double dx = x[j] - x[i];
+				double dy = y[j] - y[i];
+				if (Math.abs(dx) >= halfWidth[i] + halfWidth[j]
+						|| Math.abs(dy) >= halfHeight[i] + halfHeight[j]) {
+					// already separated by a previous pair
+					continue;
+				}
+				if (Math.sqrt(dx * dx + dy * dy) < MIN_DISTANCE) {
+					// push (almost) coincident nodes apart in a direction
+					// that depends on their indices, so that the result is
+					// deterministic
+					double angle = (i + 1) * 2.399963229728653;
+					dx = MIN_DISTANCE * Math.cos(angle);
+					dy = MIN_DISTANCE * Math.sin(angle);
+				}
+				// the factor by which the distance has to be expanded to
+				// separate the nodes horizontally or vertically
+				double expansion = Math.min(
+						dx == 0 ? Double.POSITIVE_INFINITY
+								: (halfWidth[i] + halfWidth[j]) / Math.abs(dx),
+						dy == 0 ? Double.POSITIVE_INFINITY
+								: (halfHeight[i] + halfHeight[j])
+										/ Math.abs(dy));
+				expansion = Math.min(SEPARATION_FACTOR * expansion,
+						MAX_EXPANSION);
+				double shiftX = (expansion - 1) * dx;
+				double shiftY = (expansion - 1) * dy;
+				moved = true;
+				if (movable[i] && movable[j]) {
+					shiftX /= 2;
+					shiftY /= 2;
+				}
+				if (movable[i]) {
+					x[i] -= shiftX;
+					y[i] -= shiftY;
+				}
+				if (movable[j]) {
+					x[j] += shiftX;
+					y[j] += shiftY;
+				}
+			}
+			if (!moved) {
+				break;
+			}
+		}
+		buffer.commit();
+	}
+
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(nodeSpacing, maxIterations);
+	}
+
+	/**
+	 * Scales the locations of the movable nodes uniformly (around their
+	 * center), if the total area of the nodes (including the spacing) exceeds
+	 * the maximum density, as local moves cannot resolve the overlaps
+	 * efficiently if there is not enough free space.
+	 */
+	private static void expand(double[] x, double[] y, double[] halfWidth,
+			double[] halfHeight, boolean[] movable) {
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		double area = 0;
+		for (int i = 0; i < x.length; i++) {
+			if (movable[i]) {
+				minX = Math.min(minX, x[i] - halfWidth[i]);
+				minY = Math.min(minY, y[i] - halfHeight[i]);
+				maxX = Math.max(maxX, x[i] + halfWidth[i]);
+				maxY = Math.max(maxY, y[i] + halfHeight[i]);
+				area += 4 * halfWidth[i] * halfHeight[i];
+			}
+		}
+		double boxArea = (maxX - minX) * (maxY - minY);
+		if (!(boxArea > 0) || area <= MAX_DENSITY * boxArea) {
+			return;
+		}
+		double scale = Math.sqrt(area / (MAX_DENSITY * boxArea));
+		double centerX = (minX + maxX) / 2;
+		double centerY = (minY + maxY) / 2;
+		for (int i = 0; i < x.length; i++) {
+			if (movable[i]) {
+				x[i] = centerX + scale * (x[i] - centerX);
+				y[i] = centerY + scale * (y[i] - centerY);
+			}
+		}
+	}
+
+	/**
+	 * Finds all overlapping pairs of the given boxes (given by their centers
+	 * and half extents) by sweeping a vertical line from left to right. The
+	 * boxes that intersect the sweep-line are kept in a tree that is ordered
+	 * by their upper edge, so that the candidates for an overlap with a new
+	 * box can be enumerated starting at the upper edge of the new box minus
+	 * the maximum height.
+	 */
+	private void findOverlaps(double[] x, double[] y, double[] halfWidth,
+			double[] halfHeight) {
+		int n = x.length;
+		final double[] left = new double[n];
+		final double[] right = new double[n];
+		// the last slot is used for queries
+		final double[] top = new double[n + 1];
+		double maxHeight = 0;
+		Integer[] byLeft = new Integer[n];
+		Integer[] byRight = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			left[i] = x[i] - halfWidth[i];
+			right[i] = x[i] + halfWidth[i];
+			top[i] = y[i] - halfHeight[i];
+			maxHeight = Math.max(maxHeight, 2 * halfHeight[i]);
+			byLeft[i] = i;
+			byRight[i] = i;
+		}
+		Arrays.sort(byLeft, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				return Double.compare(left[i], left[j]);
+			}
+		});
+		Arrays.sort(byRight, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				return Double.compare(right[i], right[j]);
+			}
+		});
+		TreeSet<Integer> active = new TreeSet<>(new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				int c = Double.compare(top[i], top[j]);
+				return c != 0 ? c : Integer.compare(i, j);
+			}
+		});
+		pairCount = 0;
+		int removed = 0;
+		for (int i : byLeft) {
+			// remove the boxes that end before the new one starts
+			while (removed < n && right[byRight[removed]] <= left[i]) {
+				active.remove(byRight[removed++]);
+			}
+			double bottom = top[i] + 2 * halfHeight[i];
+			// the candidates start at or below the upper edge of the new box
+			// minus the maximum height (as the query slot has the highest
+			// index, boxes that start exactly there are skipped, but they end
+			// at or above the upper edge of the new box)
+			top[n] = top[i] - maxHeight;
+			for (int j : active.tailSet(n, false)) {
+				if (top[j] >= bottom) {
+					break;
+				}
+				if (top[j] + 2 * halfHeight[j] > top[i]) {
+					addPair(Math.min(i, j), Math.max(i, j));
+				}
+			}
+			active.add(i);
+		}
+	}
+
+	private void addPair(int i, int j) {
+		if (2 * pairCount + 2 > pairs.length) {
+			pairs = Arrays.copyOf(pairs, 2 * pairs.length);
+		}
+		pairs[2 * pairCount] = i;
+		pairs[2 * pairCount + 1] = j;
+		pairCount++;
+	}
+
+	/**
+	 * Returns the spacing between two nodes.
+	 *
+	 * @return The spacing between two nodes.
+	 */
+	public double getNodeSpacing() {
+		return nodeSpacing;
+	}
+
+	/**
+	 * Sets the spacing between two nodes, i.e. nodes overlap if their
+	 * distance is smaller than this value. The default value is
+	 * <code>5</code>.
+	 *
+	 * @param nodeSpacing
+	 *            The spacing between two nodes.
+	 */
+	public void setNodeSpacing(double nodeSpacing) {
+		this.nodeSpacing = nodeSpacing;
+	}
+
+	/**
+	 * Returns the maximum number of iterations.
+	 *
+	 * @return The maximum number of iterations.
+	 */
+	public int getMaxIterations() {
+		return maxIterations;
+	}
+
+	/**
+	 * Sets the maximum number of iterations. The default value is
+	 * <code>1000</code>.
+	 *
+	 * @param maxIterations
+	 *            The maximum number of iterations.
+	 */
+	public void setMaxIterations(int maxIterations) {
+		this.maxIterations = maxIterations;
+	}
+
+}
@@ -0,0 +1,309 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+
+/**
+ * A Barnes-Hut quadtree over a set of weighted points, which is used to
+ * approximate the repulsive forces between all pairs of points in
+ * <code>O(n log n)</code>. The tree is built once for the given coordinates and
+ * is read-only afterwards, so that forces may be accumulated concurrently
+ * (using a separate traversal stack per thread).
+ * <p>
+ * Cells are stored in parallel arrays, and the points of a cell occupy a
+ * contiguous range of a permutation array, so that no objects are allocated
+ * per point or cell.
+ */
+class QuadTree {
+
+	// bounds the depth for coincident points
+	private static final int MAX_DEPTH = 32;
+
+	// the maximum number of points in a leaf cell (unless at the maximum
+	// depth); summing up a few points directly is cheaper than descending
+	private static final int LEAF_SIZE = 8;
+
+	private final double[] x;
+	private final double[] y;
+	private final double[] mass;
+	private final int[] points;
+	// the coordinates and masses in the order of the permutation, so that
+	// the points of a leaf are accessed sequentially
+	private double[] sortedX;
+	private double[] sortedY;
+	private double[] sortedMass;
+
+	private int cellCount;
+	private double[] cellX;
+	private double[] cellY;
+	private double[] cellMass;
+	private double[] cellSize;
+	private int[] cellFrom;
+	private int[] cellTo;
+	private int[] cellFirstChild;
+	private int[] cellChildCount;
+
+	/**
+	 * Builds a new {@link QuadTree} for the given coordinates.
+	 *
+	 * @param x
+	 *            The x coordinates of the points.
+	 * @param y
+	 *            The y coordinates of the points.
+	 * @param mass
+	 *            The masses of the points, or <code>null</code> if all points
+	 *            have a mass of <code>1</code>.
+	 */
+	public QuadTree(double[] x, double[] y, double[] mass) {
+		this.x = x;
+		this.y = y;
+		this.mass = mass;
+		int n = x.length;
+		points = new int[n];
+		for (int i = 0; i < n; i++) {
+			points[i] = i;
+		}
+		int capacity = Math.max(16, 2 * n);
+		cellX = new double[capacity];
+		cellY = new double[capacity];
+		cellMass = new double[capacity];
+		cellSize = new double[capacity];
+		cellFrom = new int[capacity];
+		cellTo = new int[capacity];
+		cellFirstChild = new int[capacity];
+		cellChildCount = new int[capacity];
+		if (n == 0) {
+			return;
+		}
+
+		double minX = Double.POSITIVE_INFINITY;
+		double minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY;
+		double maxY = Double.NEGATIVE_INFINITY;
+		for (int i = 0; i < n; i++) {
+			minX = Math.min(minX, x[i]);
+			minY = Math.min(minY, y[i]);
+			maxX = Math.max(maxX, x[i]);
+			maxY = Math.max(maxY, y[i]);
+		}
+		double size = Math.max(maxX - minX, maxY - minY);
+		if (!(size > 0)) {
+			size = 1;
+		}
+		cellCount = 1;
+		build(0, 0, n, minX, minY, size, 0);
+		sortedX = new double[n];
+		sortedY = new double[n];
+		sortedMass = new double[n];
+		for (int k = 0; k < n; k++) {
+			int p = points[k];
+			sortedX[k] = x[p];
+			sortedY[k] = y[p];
+			sortedMass[k] = mass == null ? 1 : mass[p];
+		}
+	}
+
+	/**
+	 * Adds the repulsive force that all other points exert on the given point
+	 * to the given force arrays. A point <code>j</code> contributes a force of
+	 * <code>strength * mass(j) / d&sup2;</code> in direction from
+	 * <code>j</code> to <code>i</code>, where <code>d</code> is the distance
+	 * between both points, which is not considered to be smaller than
+	 * <code>minDistance</code>. Cells whose size divided by their distance is
+	 * smaller than <code>theta</code> are approximated by their center of mass.
+	 *
+	 * @param i
+	 *            The index of the point for which to compute the force.
+	 * @param theta
+	 *            The Barnes-Hut approximation parameter.
+	 * @param strength
+	 *            The strength of the repulsion.
+	 * @param minDistance
+	 *            The minimum distance considered between two points.
+	 * @param forcesX
+	 *            The array to which the x component of the force is added.
+	 * @param forcesY
+	 *            The array to which the y component of the force is added.
+	 * @param stack
+	 *            A traversal stack, as returned by {@link #createStack()}.
+	 */
+	public void accumulateRepulsion(int i, double theta, double strength,
+			double minDistance, double[] forcesX, double[] forcesY,
+			int[] stack) {
+		if (cellCount == 0) {
+			return;
+		}
+		double xi = x[i];
+		double yi = y[i];
+		double theta_sq = theta * theta;
+		double minDistance_sq = minDistance * minDistance;
+		double fx = 0;
+		double fy = 0;
+		int top = 0;
+		stack[top++] = 0;
+		while (top > 0) {
+			int cell = stack[--top];
+			int childCount = cellChildCount[cell];
+			if (childCount == 0) {
+				for (int k = cellFrom[cell]; k < cellTo[cell]; k++) {
+					if (points[k] == i) {
+						continue;
+					}
+					double dx = xi - sortedX[k];
+					double dy = yi - sortedY[k];
+					double distance_sq = Math.max(minDistance_sq,
+							dx * dx + dy * dy);
+					double f = strength * sortedMass[k]
+							/ (distance_sq * Math.sqrt(distance_sq));
+					fx += f * dx;
+					fy += f * dy;
+				}
+				continue;
+			}
+			double dx = xi - cellX[cell];
+			double dy = yi - cellY[cell];
+			double d_sq = dx * dx + dy * dy;
+			double size = cellSize[cell];
+			if (size * size < theta_sq * d_sq) {
+				double distance_sq = Math.max(minDistance_sq, d_sq);
+				double f = strength * cellMass[cell]
+						/ (distance_sq * Math.sqrt(distance_sq));
+				fx += f * dx;
+				fy += f * dy;
+			} else {
+				int firstChild = cellFirstChild[cell];
+				for (int c = 0; c < childCount; c++) {
+					stack[top++] = firstChild + c;
+				}
+			}
+		}
+		forcesX[i] += fx;
+		forcesY[i] += fy;
+	}
+
+	/**
+	 * Returns the index of the point at the given position in the order of
+	 * the tree. Iterating over the points in this order when accumulating
+	 * forces improves the locality of memory accesses, because subsequent
+	 * points are close to each other and visit the same cells.
+	 *
+	 * @param k
+	 *            The position of a point in the order of the tree.
+	 * @return The index of the point.
+	 */
+	public int getPoint(int k) {
+		return points[k];
+	}
+
+	/**
+	 * Creates a new stack that can be passed into
+	 * {@link #accumulateRepulsion(int, double, double, double, double[], double[], int[])}.
+	 *
+	 * @return A new traversal stack.
+	 */
+	public int[] createStack() {
+		// each level pushes at most 4 cells while popping one
+		return new int[3 * (MAX_DEPTH + 1) + 2];
+	}
+
+	private void build(int cell, int from, int to, double minX, double minY,
+			double size, int depth) {
+		double m = 0, mx = 0, my = 0;
+		for (int k = from; k < to; k++) {
+			int p = points[k];
+			double pm = mass == null ? 1 : mass[p];
+			m += pm;
+			mx += pm * x[p];
+			my += pm * y[p];
+		}
+		cellMass[cell] = m;
+		cellX[cell] = m > 0 ? mx / m : x[points[from]];
+		cellY[cell] = m > 0 ? my / m : y[points[from]];
+		cellSize[cell] = size;
+		cellFrom[cell] = from;
+		cellTo[cell] = to;
+		cellChildCount[cell] = 0;
+		if (to - from <= LEAF_SIZE || depth >= MAX_DEPTH) {
+			return;
+		}
+
+		// partition into quadrants: [from, a) [a, mid) [mid, b) [b, to)
+		double half = size / 2;
+		double midX = minX + half;
+		double midY = minY + half;
+		int mid = partition(from, to, y, midY);
+		int a = partition(from, mid, x, midX);
+		int b = partition(mid, to, x, midX);
+		int[] bounds = { from, a, mid, b, to };
+
+		int childCount = 0;
+		for (int q = 0; q < 4; q++) {
+			if (bounds[q] < bounds[q + 1]) {
+				childCount++;
+			}
+		}
+		int firstChild = cellCount;
+		ensureCapacity(cellCount + childCount);
+		cellCount += childCount;
+		cellFirstChild[cell] = firstChild;
+		cellChildCount[cell] = childCount;
+		int child = firstChild;
+		for (int q = 0; q < 4; q++) {
+			if (bounds[q] < bounds[q + 1]) {
+				build(child++, bounds[q], bounds[q + 1],
+						(q & 1) == 0 ? minX : midX, q < 2 ? minY : midY,
+						half, depth + 1);
+			}
+		}
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity <= cellX.length) {
+			return;
+		}
+		int newCapacity = Math.max(capacity, cellX.length * 3 / 2);
+		cellX = Arrays.copyOf(cellX, newCapacity);
+		cellY = Arrays.copyOf(cellY, newCapacity);
+		cellMass = Arrays.copyOf(cellMass, newCapacity);
+		cellSize = Arrays.copyOf(cellSize, newCapacity);
+		cellFrom = Arrays.copyOf(cellFrom, newCapacity);
+		cellTo = Arrays.copyOf(cellTo, newCapacity);
+		cellFirstChild = Arrays.copyOf(cellFirstChild,
+				newCapacity);
+		cellChildCount = Arrays.copyOf(cellChildCount,
+				newCapacity);
+	}
+
+	/**
+	 * Reorders the given range of the permutation so that all points with a
+	 * coordinate smaller than the given split value come first, and returns
+	 * the index of the first point that is not.
+	 */
+	private int partition(int from, int to, double[] coordinates,
+			double split) {
+		int i = from;
+		int j = to - 1;
+		while (i <= j) {
+			if (coordinates[points[i]] < split) {
+				i++;
+			} else {
+				int tmp = points[i];
+				points[i] = points[j];
+				points[j] = tmp;
+				j--;
+			}
+		}
+		return i;
+	}
+
+}
@@ -0,0 +1,156 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Packs rectangles into a strip of fixed width using the skyline heuristic:
+ * the upper contour of the packed rectangles (the skyline) is maintained as a
+ * sequence of horizontal segments, and each rectangle is placed at the lowest
+ * (and then leftmost) position at which it rests on the skyline. Rectangles
+ * are placed in order of decreasing height, which keeps the skyline flat.
+ */
+class SkylinePacker {
+
+	// the segments of the skyline, ordered from left to right
+	private double[] segmentX;
+	private double[] segmentY;
+	private double[] segmentWidth;
+	private int segmentCount;
+
+	/**
+	 * Packs the given rectangles into a strip of the given width, storing the
+	 * top-left corner of each rectangle in the given arrays.
+	 *
+	 * @param width
+	 *            The width of each rectangle.
+	 * @param height
+	 *            The height of each rectangle.
+	 * @param stripWidth
+	 *            The width of the strip, which has to be at least the width
+	 *            of the widest rectangle.
+	 * @param x
+	 *            The array in which the x coordinates are stored.
+	 * @param y
+	 *            The array in which the y coordinates are stored.
+	 * @return The height of the packing.
+	 */
+	public double pack(final double[] width, final double[] height,
+			double stripWidth, double[] x, double[] y) {
+		int n = width.length;
+		Integer[] order = new Integer[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer i, Integer j) {
+				int c = Double.compare(height[j], height[i]);
+				return c != 0 ? c : Double.compare(width[j], width[i]);
+			}
+		});
+
+		segmentX = new double[2 * n + 1];
+		segmentY = new double[2 * n + 1];
+		segmentWidth = new double[2 * n + 1];
+		segmentCount = 1;
+		segmentWidth[0] = stripWidth;
+		double packingHeight = 0;
+		for (int i : order) {
+			int best = -1;
+			double bestY = Double.POSITIVE_INFINITY;
+			for (int s = 0; s < segmentCount; s++) {
+				if (s > 0 && segmentX[s] + width[i] > stripWidth) {
+					break;
+				}
+				double top = getTop(s, width[i]);
+				if (top < bestY) {
+					best = s;
+					bestY = top;
+				}
+			}
+			x[i] = segmentX[best];
+			y[i] = bestY;
+			packingHeight = Math.max(packingHeight, bestY + height[i]);
+			raise(best, width[i], bestY + height[i]);
+		}
+		return packingHeight;
+	}
+
+	/**
+	 * Returns the maximum height of the skyline over the given width,
+	 * starting at the given segment.
+	 */
+	private double getTop(int segment, double width) {
+		double right = segmentX[segment] + width;
+		double top = segmentY[segment];
+		for (int s = segment + 1; s < segmentCount
+				&& segmentX[s] < right; s++) {
+			top = Math.max(top, segmentY[s]);
+		}
+		return top;
+	}
+
+	/**
+	 * Replaces the skyline over the given width, starting at the given
+	 * segment, with a new segment of the given height, and merges adjacent
+	 * segments of equal height.
+	 */
+	private void raise(int segment, double width, double top) {
+		double left = segmentX[segment];
+		double right = left + width;
+		// find the first segment that is not completely covered
+		int end = segment;
+		while (end < segmentCount
+				&& segmentX[end] + segmentWidth[end] <= right) {
+			end++;
+		}
+		if (end < segmentCount && segmentX[end] < right) {
+			segmentWidth[end] -= right - segmentX[end];
+			segmentX[end] = right;
+		}
+		// replace the covered segments [segment, end) by the new one
+		int shift = segment + 1 - end;
+		System.arraycopy(segmentX, end, segmentX, end + shift,
+				segmentCount - end);
+		System.arraycopy(segmentY, end, segmentY, end + shift,
+				segmentCount - end);
+		System.arraycopy(segmentWidth, end, segmentWidth, end + shift,
+				segmentCount - end);
+		segmentCount += shift;
+		segmentX[segment] = left;
+		segmentY[segment] = top;
+		segmentWidth[segment] = width;
+		// merge with the neighbors
+		if (segment + 1 < segmentCount
+				&& segmentY[segment + 1] == top) {
+			segmentWidth[segment] += segmentWidth[segment + 1];
+			remove(segment + 1);
+		}
+		if (segment > 0 && segmentY[segment - 1] == top) {
+			segmentWidth[segment - 1] += segmentWidth[segment];
+			remove(segment);
+		}
+	}
+
+	private void remove(int segment) {
+		int count = segmentCount - segment - 1;
+		System.arraycopy(segmentX, segment + 1, segmentX, segment, count);
+		System.arraycopy(segmentY, segment + 1, segmentY, segment, count);
+		System.arraycopy(segmentWidth, segment + 1, segmentWidth, segment,
+				count);
+		segmentCount--;
+	}
+
+}
@@ -14,14 +14,22 @@
  ******************************************************************************/
 package org.eclipse.gef.layout.algorithms;
 
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
 
-import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.GraphSnapshot;
 import org.eclipse.gef.graph.Node;
-import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 
@@ -29,6 +37,12 @@ import org.eclipse.gef.layout.LayoutProperties;
  * The SpringLayoutAlgorithm has its own data repository and relation
  * repository. A user can populate the repository, specify the layout
  * conditions, do the computation and query the computed results.
+ * <p>
+ * When the layout is applied asynchronously with a frame rate (see
+ * {@link LayoutContext#setFrameRate(double)}), intermediate results are
+ * published while iterating, and a stopped layout (see
+ * {@link LayoutContext#stopLayout()}) applies the result of the last
+ * iteration.
  * 
  * @author Jingwei Wu
  * @author Rob Lintern
@@ -37,7 +51,7 @@ import org.eclipse.gef.layout.LayoutProperties;
  * @author Mateusz Matela
  * @author mwienand
  */
-public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
+public class SpringLayoutAlgorithm implements ICacheableLayoutAlgorithm {
 
 	/**
 	 * The default value for the spring layout number of iterations.
@@ -79,6 +93,37 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private static final double MIN_DISTANCE = 1.0d;
 
+	/**
+	 * The default value for the Barnes-Hut approximation parameter, which
+	 * disables the approximation.
+	 */
+	private static final double DEFAULT_BARNES_HUT_THETA = 0;
+
+	/**
+	 * The number of blocks the nodes are divided into when forces are computed
+	 * in parallel. It does not depend on the number of available threads, so
+	 * that the results are reproducible.
+	 */
+	private static final int PARALLEL_BLOCKS = 64;
+
+	/**
+	 * The default value for the total displacement (in pixels) of an
+	 * incremental iteration below which the incremental layout stops.
+	 */
+	private static final double DEFAULT_DISPLACEMENT_THRESHOLD = 1.0d;
+
+	/**
+	 * The number of hops around changed nodes within which nodes are moved by
+	 * an incremental layout.
+	 */
+	private static final int INCREMENTAL_NEIGHBORHOOD = 2;
+
+	/**
+	 * The factor by which the maximum movement of a node is decreased after
+	 * each incremental iteration.
+	 */
+	private static final double INCREMENTAL_COOLING = 0.85d;
+
 	/**
 	 * The variable can be customized to set the number of iterations used.
 	 */
@@ -122,9 +167,47 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 	 */
 	private boolean resize = false;
 
+	/**
+	 * The variable can be customized to set the Barnes-Hut approximation
+	 * parameter. A value of <code>0</code> selects the exact computation of
+	 * forces between all pairs of nodes.
+	 */
+	private double barnesHutTheta = DEFAULT_BARNES_HUT_THETA;
+
+	/**
+	 * Variable indicating whether forces and positions are computed in
+	 * parallel.
+	 */
+	private boolean parallel = false;
+
+	/**
+	 * Variable indicating whether non-clean layout passes are performed
+	 * incrementally.
+	 */
+	private boolean incremental = false;
+
+	/**
+	 * The variable can be customized to set the total displacement (in pixels)
+	 * of an incremental iteration below which the incremental layout stops.
+	 */
+	private double displacementThreshold = DEFAULT_DISPLACEMENT_THRESHOLD;
+
+	// locations and edges as of the last layout pass, used to determine the
+	// changed nodes when performing an incremental layout
+	private Map<Node, Point> previousLocations;
+	private Set<Edge> previousEdges;
+
 	private int iteration;
 	private double[][] srcDestToSumOfWeights;
+	// related node pairs (i < j) and their sum of weights, used when the
+	// Barnes-Hut approximation is enabled
+	private int[] pairSources, pairTargets;
+	private double[] pairWeights;
+	// per-block force accumulators for the parallel exact computation
+	private double[] blockForcesX, blockForcesY;
 	private Node[] entities;
+	// the locations and sizes are the arrays of the buffer
+	private LayoutBuffer buffer;
 	private double[] forcesX, forcesY;
 	private double[] locationsX, locationsY;
 	private double[] sizeW, sizeH;
@@ -140,30 +223,75 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 
 	public void applyLayout(LayoutContext layoutContext, boolean clean) {
 		this.layoutContext = layoutContext;
+		if (!clean && incremental && previousLocations != null) {
+			applyIncrementalLayout(layoutContext);
+			return;
+		}
 		initLayout(layoutContext);
 		if (!clean) {
 			return;
 		}
 
-		while (performAnotherNonContinuousIteration()) {
+		// a stopped layout (see LayoutContext#stopLayout()) applies the
+		// current locations, so that they are fitted and committed as well
+		while (performAnotherNonContinuousIteration()
+				&& !layoutContext.isLayoutCancelled()) {
 			computeOneIteration();
+			layoutContext.reportLayoutProgress(
+					Math.min(1, (double) iteration / sprIterations));
+			if (layoutContext.isIntermediateLayoutDue()) {
+				publishIntermediateLayout();
+			}
 		}
 
-		saveLocations();
+		sanitizeLocations();
 		if (resize)
-			AlgorithmHelper.maximizeSizes(entities);
+			AlgorithmHelper.maximizeSizes(buffer);
 
 		if (fitWithinBounds) {
-			Rectangle bounds2 = new Rectangle(bounds);
-			int insets = 4;
-			bounds2.setX(bounds2.getX() + insets);
-			bounds2.setY(bounds2.getY() + insets);
-			bounds2.setWidth(bounds2.getWidth() - 2 * insets);
-			bounds2.setHeight(bounds2.getHeight() - 2 * insets);
-			AlgorithmHelper.fitWithinBounds(entities, bounds2, resize);
+			AlgorithmHelper.fitWithinBounds(buffer, getInsetBounds(), resize);
+		}
+		buffer.commit();
+		if (incremental) {
+			rememberLayout(layoutContext.createGraphSnapshot());
 		}
 	}
 
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(resize, sprMove, sprStrain, sprLength,
+				maxTimeMS, sprGravitation, sprIterations, sprRandom,
+				barnesHutTheta, parallel, incremental, displacementThreshold);
+	}
+
+	/**
+	 * Commits the current locations, fitted into the bounds (without changing
+	 * the locations that are used for the next iteration), and publishes them
+	 * as an intermediate result.
+	 */
+	private void publishIntermediateLayout() {
+		sanitizeLocations();
+		double[] x = locationsX.clone();
+		double[] y = locationsY.clone();
+		if (fitWithinBounds) {
+			AlgorithmHelper.fitWithinBounds(buffer, getInsetBounds(), false);
+		}
+		buffer.commit();
+		layoutContext.publishIntermediateLayout();
+		System.arraycopy(x, 0, locationsX, 0, x.length);
+		System.arraycopy(y, 0, locationsY, 0, y.length);
+	}
+
+	private Rectangle getInsetBounds() {
+		Rectangle insetBounds = new Rectangle(bounds);
+		int insets = 4;
+		insetBounds.setX(insetBounds.getX() + insets);
+		insetBounds.setY(insetBounds.getY() + insets);
+		insetBounds.setWidth(insetBounds.getWidth() - 2 * insets);
+		insetBounds.setHeight(insetBounds.getHeight() - 2 * insets);
+		return insetBounds;
+	}
+
 	/**
 	 * Performs the given number of iterations.
 	 * 
@@ -360,78 +488,606 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		return sprRandom;
 	}
 
+	/**
+	 * Sets the Barnes-Hut approximation parameter. If set to a value greater
+	 * than <code>0</code>, the repulsion between nodes is approximated using a
+	 * quadtree, treating a group of distant nodes as a single node if the
+	 * extent of the group divided by its distance is smaller than the given
+	 * value, and the attraction is only computed for related nodes. An
+	 * iteration then takes <code>O(n log n + e)</code> time and
+	 * <code>O(n + e)</code> memory, instead of <code>O(n&sup2;)</code>, which
+	 * allows to layout large graphs. Typical values are between
+	 * <code>0.5</code> (more exact) and <code>1.2</code> (faster). The
+	 * default value is <code>0</code>, which selects the exact computation.
+	 *
+	 * @param theta
+	 *            The Barnes-Hut approximation parameter, or <code>0</code> to
+	 *            compute the forces between all pairs of nodes exactly.
+	 * @since 5.1
+	 */
+	public void setBarnesHutTheta(double theta) {
+		if (theta < 0) {
+			throw new IllegalArgumentException(
+					"theta may not be negative: " + theta);
+		}
+		barnesHutTheta = theta;
+	}
+
+	/**
+	 * Returns the Barnes-Hut approximation parameter of this
+	 * {@link SpringLayoutAlgorithm}.
+	 *
+	 * @return The Barnes-Hut approximation parameter, or <code>0</code> if
+	 *         forces are computed exactly.
+	 * @see #setBarnesHutTheta(double)
+	 * @since 5.1
+	 */
+	public double getBarnesHutTheta() {
+		return barnesHutTheta;
+	}
+
+	/**
+	 * Sets whether forces and positions are computed in parallel, using the
+	 * common {@link java.util.concurrent.ForkJoinPool}. The nodes are divided
+	 * into a fixed number of blocks, whose partial results are merged in a
+	 * fixed order, so that the computed layout does not depend on the number
+	 * of threads and is reproducible if the nodes are not placed randomly
+	 * (see {@link #setRandom(boolean)}). The default value is
+	 * <code>false</code>.
+	 *
+	 * @param parallel
+	 *            <code>true</code> to compute forces and positions in
+	 *            parallel, otherwise <code>false</code>.
+	 * @since 5.1
+	 */
+	public void setParallel(boolean parallel) {
+		this.parallel = parallel;
+	}
+
+	/**
+	 * Returns whether this {@link SpringLayoutAlgorithm} computes forces and
+	 * positions in parallel.
+	 *
+	 * @return <code>true</code> if forces and positions are computed in
+	 *         parallel, otherwise <code>false</code>.
+	 * @see #setParallel(boolean)
+	 * @since 5.1
+	 */
+	public boolean isParallel() {
+		return parallel;
+	}
+
+	/**
+	 * Sets whether layout passes that are not clean (see
+	 * {@link #applyLayout(LayoutContext, boolean)}) are performed
+	 * incrementally. An incremental layout starts from the current locations
+	 * and only moves the nodes that changed since the last layout pass of this
+	 * algorithm (i.e. nodes that were added or moved, and nodes whose edges
+	 * were added or removed) together with their neighborhood. It stops as
+	 * soon as the total displacement of an iteration falls below the
+	 * displacement threshold (see {@link #setDisplacementThreshold(double)}).
+	 * Nodes that were added without a laid out neighbor are initially placed
+	 * at the center of the layout bounds, other added nodes at the center of
+	 * their laid out neighbors. An incremental layout requires a previous
+	 * clean layout pass of this algorithm; otherwise, a layout pass that is
+	 * not clean does not change the locations. Note that incremental layouts
+	 * only take effect if the caller performs non-clean layout passes, e.g.
+	 * by calling <code>GraphLayoutBehavior#applyLayout(false, null)</code> in
+	 * Zest, whose own layout passes are clean. The default value is
+	 * <code>false</code>.
+	 *
+	 * @param incremental
+	 *            <code>true</code> to perform non-clean layout passes
+	 *            incrementally, otherwise <code>false</code>.
+	 * @since 5.1
+	 */
+	public void setIncremental(boolean incremental) {
+		this.incremental = incremental;
+		if (!incremental) {
+			previousLocations = null;
+			previousEdges = null;
+		}
+	}
+
+	/**
+	 * Returns whether this {@link SpringLayoutAlgorithm} performs non-clean
+	 * layout passes incrementally.
+	 *
+	 * @return <code>true</code> if non-clean layout passes are performed
+	 *         incrementally, otherwise <code>false</code>.
+	 * @see #setIncremental(boolean)
+	 * @since 5.1
+	 */
+	public boolean isIncremental() {
+		return incremental;
+	}
+
+	/**
+	 * Sets the total displacement (in pixels) of an incremental iteration
+	 * below which an incremental layout stops. The default value is
+	 * <code>1</code>.
+	 *
+	 * @param threshold
+	 *            The displacement threshold.
+	 * @see #setIncremental(boolean)
+	 * @since 5.1
+	 */
+	public void setDisplacementThreshold(double threshold) {
+		displacementThreshold = threshold;
+	}
+
+	/**
+	 * Returns the total displacement (in pixels) of an incremental iteration
+	 * below which an incremental layout stops.
+	 *
+	 * @return The displacement threshold.
+	 * @see #setDisplacementThreshold(double)
+	 * @since 5.1
+	 */
+	public double getDisplacementThreshold() {
+		return displacementThreshold;
+	}
+
 	private long startTime = 0;
 
 	private void initLayout(LayoutContext context) {
-		entities = context.getNodes();
+		GraphSnapshot snapshot = context.createGraphSnapshot();
+		entities = snapshot.getNodes();
 		bounds = LayoutProperties.getBounds(context.getGraph());
 		loadLocations();
 
-		srcDestToSumOfWeights = new double[entities.length][entities.length];
-		HashMap<Node, Integer> entityToPosition = new HashMap<>();
-		for (int i = 0; i < entities.length; i++) {
-			entityToPosition.put(entities[i], new Integer(i));
+		if (barnesHutTheta > 0) {
+			srcDestToSumOfWeights = null;
+			initPairs(snapshot);
+		} else {
+			pairSources = pairTargets = null;
+			pairWeights = null;
+			srcDestToSumOfWeights = new double[entities.length][entities.length];
+			for (int i = 0; i < snapshot.getEdgeCount(); i++) {
+				int source = snapshot.getSource(i);
+				int target = snapshot.getTarget(i);
+				double weight = snapshot.getWeight(i);
+				weight = (weight <= 0 ? 0.1 : weight);
+				srcDestToSumOfWeights[source][target] += weight;
+				srcDestToSumOfWeights[target][source] += weight;
+			}
 		}
 
-		Edge[] connections = context.getEdges();
-		for (int i = 0; i < connections.length; i++) {
-			Edge connection = connections[i];
-			Integer source = entityToPosition.get(connection.getSource());
-			Integer target = entityToPosition.get(connection.getTarget());
-			if (source == null || target == null)
+		if (sprRandom)
+			placeRandomly(); // put vertices in random places
+
+		iteration = 1;
+
+		startTime = System.currentTimeMillis();
+	}
+
+	/**
+	 * Collects the related node pairs and their sum of weights, i.e. the
+	 * non-zero entries of the upper triangle of
+	 * {@link #srcDestToSumOfWeights}, without allocating the full matrix.
+	 */
+	private void initPairs(GraphSnapshot snapshot) {
+		long n = entities.length;
+		Map<Long, Integer> pairIndices = new HashMap<>();
+		int edgeCount = snapshot.getEdgeCount();
+		pairSources = new int[edgeCount];
+		pairTargets = new int[edgeCount];
+		pairWeights = new double[edgeCount];
+		int pairCount = 0;
+		for (int i = 0; i < edgeCount; i++) {
+			int source = Math.min(snapshot.getSource(i), snapshot.getTarget(i));
+			int target = Math.max(snapshot.getSource(i), snapshot.getTarget(i));
+			if (source == target) {
 				continue;
-			double weight = LayoutProperties.getWeight(connection);
+			}
+			double weight = snapshot.getWeight(i);
 			weight = (weight <= 0 ? 0.1 : weight);
-			srcDestToSumOfWeights[source.intValue()][target
-					.intValue()] += weight;
-			srcDestToSumOfWeights[target.intValue()][source
-					.intValue()] += weight;
+			Integer pair = pairIndices.putIfAbsent(source * n + target,
+					pairCount);
+			if (pair == null) {
+				pairSources[pairCount] = source;
+				pairTargets[pairCount] = target;
+				pairWeights[pairCount++] = weight;
+			} else {
+				pairWeights[pair] += weight;
+			}
 		}
+		if (pairCount < edgeCount) {
+			pairSources = Arrays.copyOf(pairSources, pairCount);
+			pairTargets = Arrays.copyOf(pairTargets, pairCount);
+			pairWeights = Arrays.copyOf(pairWeights, pairCount);
+		}
+	}
 
-		if (sprRandom)
-			placeRandomly(); // put vertices in random places
+	/**
+	 * Stores the current locations and edges, so that the changed nodes can be
+	 * determined by a subsequent incremental layout.
+	 */
+	private void rememberLayout(GraphSnapshot snapshot) {
+		previousLocations = new IdentityHashMap<>();
+		for (Node node : snapshot.getNodes()) {
+			Point location = LayoutProperties.getLocation(node);
+			if (location != null) {
+				previousLocations.put(node, location.getCopy());
+			}
+		}
+		previousEdges = Collections.newSetFromMap(new IdentityHashMap<>());
+		for (int i = 0; i < snapshot.getEdgeCount(); i++) {
+			previousEdges.add(snapshot.getEdge(i));
+		}
+	}
 
-		iteration = 1;
+	/**
+	 * Performs an incremental layout, moving only the nodes in the
+	 * neighborhood of the nodes that changed since the last layout pass.
+	 */
+	private void applyIncrementalLayout(LayoutContext context) {
+		GraphSnapshot snapshot = context.createGraphSnapshot();
+		entities = snapshot.getNodes();
+		bounds = LayoutProperties.getBounds(context.getGraph());
+		loadLocations();
+		initPairs(snapshot);
+		int n = entities.length;
+
+		// build symmetric adjacency lists from the related pairs
+		int[] adjacencyStart = new int[n + 1];
+		for (int p = 0; p < pairSources.length; p++) {
+			adjacencyStart[pairSources[p] + 1]++;
+			adjacencyStart[pairTargets[p] + 1]++;
+		}
+		for (int i = 0; i < n; i++) {
+			adjacencyStart[i + 1] += adjacencyStart[i];
+		}
+		int[] adjacentNodes = new int[adjacencyStart[n]];
+		double[] adjacentWeights = new double[adjacencyStart[n]];
+		int[] fill = Arrays.copyOf(adjacencyStart, n);
+		for (int p = 0; p < pairSources.length; p++) {
+			int i = pairSources[p];
+			int j = pairTargets[p];
+			adjacentNodes[fill[i]] = j;
+			adjacentWeights[fill[i]++] = pairWeights[p];
+			adjacentNodes[fill[j]] = i;
+			adjacentWeights[fill[j]++] = pairWeights[p];
+		}
+
+		// determine the changed nodes, as well as the previous locations and
+		// weights
+		int[] hops = new int[n];
+		Arrays.fill(hops, -1);
+		ArrayDeque<Integer> queue = new ArrayDeque<>();
+		boolean[] added = new boolean[n];
+		double[] previousX = Arrays.copyOf(locationsX, n);
+		double[] previousY = Arrays.copyOf(locationsY, n);
+		for (int i = 0; i < n; i++) {
+			Point previous = previousLocations.get(entities[i]);
+			added[i] = previous == null;
+			if (added[i] || !previous.equals(locationsX[i], locationsY[i])) {
+				hops[i] = 0;
+				queue.add(i);
+			}
+			if (!added[i]) {
+				previousX[i] = previous.x;
+				previousY[i] = previous.y;
+			}
+		}
+		double[] previousWeights = Arrays.copyOf(adjacentWeights,
+				adjacentWeights.length);
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			if (!previousEdges.remove(snapshot.getEdge(e))) {
+				int source = snapshot.getSource(e);
+				int target = snapshot.getTarget(e);
+				for (int i : new int[] { source, target }) {
+					if (hops[i] < 0) {
+						hops[i] = 0;
+						queue.add(i);
+					}
+				}
+				double weight = snapshot.getWeight(e);
+				weight = (weight <= 0 ? 0.1 : weight);
+				for (int a = adjacencyStart[source]; a < adjacencyStart[source
+						+ 1]; a++) {
+					if (adjacentNodes[a] == target) {
+						previousWeights[a] -= weight;
+					}
+				}
+				for (int a = adjacencyStart[target]; a < adjacencyStart[target
+						+ 1]; a++) {
+					if (adjacentNodes[a] == source) {
+						previousWeights[a] -= weight;
+					}
+				}
+			}
+		}
+		// the remaining previous edges have been removed
+		for (Edge edge : previousEdges) {
+			for (Node node : new Node[] { edge.getSource(),
+					edge.getTarget() }) {
+				int i = snapshot.indexOf(node);
+				if (i >= 0 && hops[i] < 0) {
+					hops[i] = 0;
+					queue.add(i);
+				}
+			}
+		}
+
+		// place added nodes at the center of their laid out neighbors
+		for (int i = 0; i < n; i++) {
+			if (added[i] && buffer.getMovable()[i]) {
+				double x = 0, y = 0;
+				int count = 0;
+				for (int a = adjacencyStart[i]; a < adjacencyStart[i
+						+ 1]; a++) {
+					int j = adjacentNodes[a];
+					if (!added[j]) {
+						x += locationsX[j];
+						y += locationsY[j];
+						count++;
+					}
+				}
+				if (count > 0) {
+					// offset slightly, so that the node is not placed on top
+					// of a single neighbor
+					locationsX[i] = x / count + sizeW[i];
+					locationsY[i] = y / count + sizeH[i];
+				} else {
+					locationsX[i] = bounds.getX() + bounds.getWidth() / 2;
+					locationsY[i] = bounds.getY() + bounds.getHeight() / 2;
+				}
+			}
+		}
 
+		// extend to the neighborhood and collect the movable nodes
+		int[] active = new int[n];
+		int activeCount = 0;
+		while (!queue.isEmpty()) {
+			int i = queue.poll();
+			if (buffer.getMovable()[i]) {
+				active[activeCount++] = i;
+			}
+			if (hops[i] < INCREMENTAL_NEIGHBORHOOD) {
+				for (int a = adjacencyStart[i]; a < adjacencyStart[i
+						+ 1]; a++) {
+					int j = adjacentNodes[a];
+					if (hops[j] < 0) {
+						hops[j] = hops[i] + 1;
+						queue.add(j);
+					}
+				}
+			}
+		}
+		active = Arrays.copyOf(active, activeCount);
+		Arrays.sort(active);
+
+		// The layout computed by a clean pass is not in equilibrium, as all
+		// nodes are pushed outwards and the layout is re-scaled to the bounds
+		// instead. Therefore, only the change of the forces with respect to
+		// the previous layout is considered, so that the previous layout is a
+		// fixed point and the nodes only respond to the changes. Added nodes
+		// adopt the previous forces of their neighbors.
+		double[] previousForcesX = new double[n];
+		double[] previousForcesY = new double[n];
+		computeIncrementalForces(active, previousX, previousY, added,
+				adjacencyStart, adjacentNodes, previousWeights,
+				previousForcesX, previousForcesY);
+		for (int i : active) {
+			if (added[i]) {
+				double fx = 0, fy = 0;
+				int count = 0;
+				for (int a = adjacencyStart[i]; a < adjacencyStart[i
+						+ 1]; a++) {
+					int j = adjacentNodes[a];
+					if (!added[j]) {
+						if (hops[j] < 0 || !buffer.getMovable()[j]) {
+							// not computed as not active
+							continue;
+						}
+						fx += previousForcesX[j];
+						fy += previousForcesY[j];
+						count++;
+					}
+				}
+				previousForcesX[i] = count == 0 ? 0 : fx / count;
+				previousForcesY[i] = count == 0 ? 0 : fy / count;
+			}
+		}
+
+		// iterate until the displacement falls below the threshold
+		double[] trialX = Arrays.copyOf(locationsX, n);
+		double[] trialY = Arrays.copyOf(locationsY, n);
+		double[][] activeForcesX = new double[2][n];
+		double[][] activeForcesY = new double[2][n];
+		double temperature = 1;
 		startTime = System.currentTimeMillis();
+		// as for a clean pass, a stopped layout commits the current locations
+		for (iteration = 1; activeCount > 0
+				&& performAnotherNonContinuousIteration()
+				&& !layoutContext.isLayoutCancelled(); iteration++) {
+			for (int k = 0; k < 2; k++) {
+				computeIncrementalForces(active, k == 0 ? locationsX : trialX,
+						k == 0 ? locationsY : trialY, null, adjacencyStart,
+						adjacentNodes, adjacentWeights, activeForcesX[k],
+						activeForcesY[k]);
+				for (int i : active) {
+					activeForcesX[k][i] -= previousForcesX[i];
+					activeForcesY[k][i] -= previousForcesY[i];
+				}
+				if (k == 0) {
+					moveIncrementally(active, activeForcesX[0],
+							activeForcesY[0], temperature, trialX, trialY);
+				}
+			}
+			for (int i : active) {
+				forcesX[i] = activeForcesX[0][i] * activeForcesX[1][i] < 0 ? 0
+						: activeForcesX[1][i];
+				forcesY[i] = activeForcesY[0][i] * activeForcesY[1][i] < 0 ? 0
+						: activeForcesY[1][i];
+			}
+			double displacement = moveIncrementally(active, forcesX, forcesY,
+					temperature, locationsX, locationsY);
+			temperature *= INCREMENTAL_COOLING;
+			for (int i : active) {
+				trialX[i] = locationsX[i];
+				trialY[i] = locationsY[i];
+			}
+			if (displacement < displacementThreshold) {
+				break;
+			}
+		}
+
+		// only the locations of the moved nodes are stored
+		buffer.commit();
+		rememberLayout(snapshot);
 	}
 
-	private void loadLocations() {
-		if (locationsX == null || locationsX.length != entities.length) {
-			int length = entities.length;
-			locationsX = new double[length];
-			locationsY = new double[length];
-			sizeW = new double[length];
-			sizeH = new double[length];
-			forcesX = new double[length];
-			forcesY = new double[length];
+	/**
+	 * Computes the forces acting on the given nodes, i.e. the repulsion from
+	 * all other nodes that are not excluded and the attraction of related
+	 * nodes (with a positive weight).
+	 */
+	private void computeIncrementalForces(int[] active, double[] locationsX,
+			double[] locationsY, boolean[] excluded, int[] adjacencyStart,
+			int[] adjacentNodes, double[] adjacentWeights, double[] forcesX,
+			double[] forcesY) {
+		int n = locationsX.length;
+		double scaleX = bounds.getWidth() * boundsScaleX;
+		double scaleY = bounds.getHeight() * boundsScaleY;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = locationsX[i] / scaleX;
+			y[i] = locationsY[i] / scaleY;
 		}
-		for (int i = 0; i < entities.length; i++) {
-			Point location = LayoutProperties.getLocation(entities[i]);
-			locationsX[i] = location.x;
-			locationsY[i] = location.y;
-			Dimension size = LayoutProperties.getSize(entities[i]);
-			sizeW[i] = size.width;
-			sizeH[i] = size.height;
+		QuadTree tree = barnesHutTheta > 0 && excluded == null
+				? new QuadTree(x, y, null) : null;
+
+		IntConsumer block = b -> {
+			int[] stack = tree == null ? null : tree.createStack();
+			int from = isParallel(active.length)
+					? getBlockStart(b, active.length) : 0;
+			int to = isParallel(active.length)
+					? getBlockStart(b + 1, active.length) : active.length;
+			for (int a = from; a < to; a++) {
+				int i = active[a];
+				forcesX[i] = 0;
+				forcesY[i] = 0;
+				// nodes are repelled from each other
+				if (tree != null) {
+					tree.accumulateRepulsion(i, barnesHutTheta,
+							sprGravitation, MIN_DISTANCE, forcesX, forcesY,
+							stack);
+				} else {
+					for (int j = 0; j < n; j++) {
+						if (j != i && (excluded == null || !excluded[j])) {
+							double dx = x[i] - x[j];
+							double dy = y[i] - y[j];
+							double distance_sq = Math.max(
+									MIN_DISTANCE * MIN_DISTANCE,
+									dx * dx + dy * dy);
+							double distance = Math.sqrt(distance_sq);
+							double f = sprGravitation / distance_sq;
+							forcesX[i] += f * dx / distance;
+							forcesY[i] += f * dy / distance;
+						}
+					}
+				}
+				// related nodes are pulled towards each other instead
+				for (int e = adjacencyStart[i]; e < adjacencyStart[i
+						+ 1]; e++) {
+					int j = adjacentNodes[e];
+					if (adjacentWeights[e] <= 0
+							|| excluded != null && excluded[j]) {
+						continue;
+					}
+					double dx = x[i] - x[j];
+					double dy = y[i] - y[j];
+					double distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+							dx * dx + dy * dy);
+					double distance = Math.sqrt(distance_sq);
+					double f = -sprStrain * Math.log(distance / sprLength)
+							* adjacentWeights[e]
+							- sprGravitation / distance_sq;
+					forcesX[i] += f * dx / distance;
+					forcesY[i] += f * dy / distance;
+				}
+			}
+		};
+		if (isParallel(active.length)) {
+			AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, block);
+		} else {
+			block.accept(0);
 		}
 	}
 
-	private void saveLocations() {
-		if (entities == null)
-			return;
-		for (int i = 0; i < entities.length; i++) {
-			// TODO ensure no dynamic layout passes are triggered as a result of
-			// storing the positions
+	/**
+	 * Moves the given active nodes by the given forces, limiting the movement
+	 * by the given temperature and keeping the nodes within the layout bounds,
+	 * and returns their total displacement.
+	 */
+	private double moveIncrementally(int[] active, double[] forcesX,
+			double[] forcesY, double temperature, double[] locationsX,
+			double[] locationsY) {
+		double displacement = 0;
+		for (int i : active) {
+			double x = locationsX[i];
+			double y = locationsY[i];
+			double deltaX = sprMove * forcesX[i];
+			double deltaY = sprMove * forcesY[i];
+
+			// constrain movement, so that nodes don't shoot way off to the
+			// edge
+			double dist = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
+			double maxMovement = 0.2d * sprMove * temperature;
+			if (dist > maxMovement) {
+				deltaX *= maxMovement / dist;
+				deltaY *= maxMovement / dist;
+			}
+			x += deltaX * bounds.getWidth() * boundsScaleX;
+			y += deltaY * bounds.getHeight() * boundsScaleY;
+			x = Math.max(bounds.getX() + sizeW[i] / 2, Math.min(
+					bounds.getX() + bounds.getWidth() - sizeW[i] / 2, x));
+			y = Math.max(bounds.getY() + sizeH[i] / 2, Math.min(
+					bounds.getY() + bounds.getHeight() - sizeH[i] / 2, y));
+			displacement += Math.abs(x - locationsX[i])
+					+ Math.abs(y - locationsY[i]);
+			locationsX[i] = x;
+			locationsY[i] = y;
+		}
+		return displacement;
+	}
+
+	private void loadLocations() {
+		// nodes added since an incremental layout may lack location and size,
+		// which the buffer reads as 0
+		buffer = new LayoutBuffer(entities);
+		locationsX = buffer.getX();
+		locationsY = buffer.getY();
+		sizeW = buffer.getWidth();
+		sizeH = buffer.getHeight();
+		if (forcesX == null || forcesX.length != entities.length) {
+			forcesX = new double[entities.length];
+			forcesY = new double[entities.length];
+		}
+	}
+
+	private void sanitizeLocations() {
+		for (int i = 0; i < locationsX.length; i++) {
 			// TODO: check where NaN values originate from
 			if (Double.isNaN(locationsX[i]) || Double.isNaN(locationsY[i])) {
 				locationsX[i] = 0;
 				locationsY[i] = 0;
 			}
-			LayoutProperties.setLocation(entities[i],
-					new Point(locationsX[i], locationsY[i]));
 		}
 	}
 
+	private void saveLocations() {
+		if (buffer == null)
+			return;
+		// TODO ensure no dynamic layout passes are triggered as a result of
+		// storing the positions
+		sanitizeLocations();
+		buffer.commit();
+	}
+
 	/**
 	 * Scales the current iteration counter based on how long the algorithm has
 	 * been running for. You can set the MaxTime in maxTimeMS!
@@ -543,66 +1199,15 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		// TODO: Again really really slow!
 
 		for (int k = 0; k < 2; k++) {
-			for (int i = 0; i < this.locationsX.length; i++) {
-
-				for (int j = i + 1; j < locationsX.length; j++) {
-					double dx = (locationsX[i] - locationsX[j])
-							/ bounds.getWidth() / boundsScaleX;
-					double dy = (locationsY[i] - locationsY[j])
-							/ bounds.getHeight() / boundsScaleY;
-					double distance_sq = dx * dx + dy * dy;
-					// make sure distance and distance squared not too small
-					distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
-							distance_sq);
-					double distance = Math.sqrt(distance_sq);
-
-					// If there are relationships between srcObj and destObj
-					// then decrease force on srcObj (a pull) in direction of
-					// destObj
-					// If no relation between srcObj and destObj then increase
-					// force on srcObj (a push) from direction of destObj.
-					double sumOfWeights = srcDestToSumOfWeights[i][j];
-
-					double f;
-					if (sumOfWeights > 0) {
-						// nodes are pulled towards each other
-						f = -sprStrain * Math.log(distance / sprLength)
-								* sumOfWeights;
-					} else {
-						// nodes are repelled from each other
-						f = sprGravitation / (distance_sq);
-					}
-					double dfx = f * dx / distance;
-					double dfy = f * dy / distance;
-
-					forcesX[k][i] += dfx;
-					forcesY[k][i] += dfy;
-
-					forcesX[k][j] -= dfx;
-					forcesY[k][j] -= dfy;
-				}
-			}
-
-			for (int i = 0; i < entities.length; i++) {
-				if (LayoutProperties.isMovable(entities[i])) {
-					double deltaX = sprMove * forcesX[k][i];
-					double deltaY = sprMove * forcesY[k][i];
-
-					// constrain movement, so that nodes don't shoot way off to
-					// the
-					// edge
-					double dist = Math.sqrt(deltaX * deltaX + deltaY * deltaY);
-					double maxMovement = 0.2d * sprMove;
-					if (dist > maxMovement) {
-						deltaX *= maxMovement / dist;
-						deltaY *= maxMovement / dist;
-					}
-
-					locationsX[i] += deltaX * bounds.getWidth() * boundsScaleX;
-					locationsY[i] += deltaY * bounds.getHeight() * boundsScaleY;
-				}
+			if (barnesHutTheta > 0) {
+				computeApproximatedForces(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
+			} else {
+				computeExactForces(locationsX, locationsY, forcesX[k],
+						forcesY[k]);
 			}
 
+			move(forcesX[k], forcesY[k], locationsX, locationsY);
 		}
 		// // initialize all forces to zero
 		for (int i = 0; i < this.entities.length; i++) {
@@ -622,14 +1227,202 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
+	/**
+	 * Computes the forces between all pairs of nodes for the given locations.
+	 */
+	private void computeExactForces(double[] locationsX, double[] locationsY,
+			double[] forcesX, double[] forcesY) {
+		int n = locationsX.length;
+		if (!isParallel(n)) {
+			computeExactForces(locationsX, locationsY, 0, n, forcesX, forcesY,
+					0);
+			return;
+		}
+
+		// divide the rows of the upper triangle, so that each block
+		// considers about the same number of pairs
+		int[] rows = new int[PARALLEL_BLOCKS + 1];
+		double pairsPerBlock = (double) n * (n - 1) / 2 / PARALLEL_BLOCKS;
+		double pairs = 0;
+		int block = 1;
+		for (int i = 0; i < n && block < PARALLEL_BLOCKS; i++) {
+			pairs += n - 1 - i;
+			while (block < PARALLEL_BLOCKS && pairs >= block * pairsPerBlock) {
+				rows[block++] = i + 1;
+			}
+		}
+		while (block <= PARALLEL_BLOCKS) {
+			rows[block++] = n;
+		}
+
+		// accumulate the forces of each block separately
+		if (blockForcesX == null || blockForcesX.length != PARALLEL_BLOCKS * n) {
+			blockForcesX = new double[PARALLEL_BLOCKS * n];
+			blockForcesY = new double[PARALLEL_BLOCKS * n];
+		}
+		AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, b -> {
+			Arrays.fill(blockForcesX, b * n, (b + 1) * n, 0);
+			Arrays.fill(blockForcesY, b * n, (b + 1) * n, 0);
+			computeExactForces(locationsX, locationsY, rows[b], rows[b + 1],
+					blockForcesX, blockForcesY, b * n);
+		});
+
+		// merge the accumulated forces in block order
+		AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, b -> {
+			for (int i = getBlockStart(b, n); i < getBlockStart(b + 1,
+					n); i++) {
+				double fx = 0;
+				double fy = 0;
+				for (int c = 0; c < PARALLEL_BLOCKS; c++) {
+					fx += blockForcesX[c * n + i];
+					fy += blockForcesY[c * n + i];
+				}
+				forcesX[i] += fx;
+				forcesY[i] += fy;
+			}
+		});
+	}
+
+	/**
+	 * Computes the forces between the nodes of the given rows and all nodes
+	 * with a greater index, adding them to the given force arrays at the given
+	 * offset.
+	 */
+	private void computeExactForces(double[] locationsX, double[] locationsY,
+			int fromRow, int toRow, double[] forcesX, double[] forcesY,
+			int offset) {
+		for (int i = fromRow; i < toRow; i++) {
+			for (int j = i + 1; j < locationsX.length; j++) {
+				double dx = (locationsX[i] - locationsX[j])
+						/ bounds.getWidth() / boundsScaleX;
+				double dy = (locationsY[i] - locationsY[j])
+						/ bounds.getHeight() / boundsScaleY;
+				double distance_sq = dx * dx + dy * dy;
+				// make sure distance and distance squared not too small
+				distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+						distance_sq);
+				double distance = Math.sqrt(distance_sq);
+
+				// If there are relationships between srcObj and destObj
+				// then decrease force on srcObj (a pull) in direction of
+				// destObj
+				// If no relation between srcObj and destObj then increase
+				// force on srcObj (a push) from direction of destObj.
+				double sumOfWeights = srcDestToSumOfWeights[i][j];
+
+				double f;
+				if (sumOfWeights > 0) {
+					// nodes are pulled towards each other
+					f = -sprStrain * Math.log(distance / sprLength)
+							* sumOfWeights;
+				} else {
+					// nodes are repelled from each other
+					f = sprGravitation / (distance_sq);
+				}
+				double dfx = f * dx / distance;
+				double dfy = f * dy / distance;
+
+				forcesX[offset + i] += dfx;
+				forcesY[offset + i] += dfy;
+
+				forcesX[offset + j] -= dfx;
+				forcesY[offset + j] -= dfy;
+			}
+		}
+	}
+
+	/**
+	 * Computes the forces for the given locations, approximating the repulsion
+	 * between all nodes by means of a {@link QuadTree} and computing the
+	 * attraction between related nodes only. The forces are the same as
+	 * computed by {@link #computeExactForces(double[], double[], double[], double[])}
+	 * up to the approximation error, i.e. related nodes do not repel each
+	 * other.
+	 */
+	private void computeApproximatedForces(double[] locationsX,
+			double[] locationsY, double[] forcesX, double[] forcesY) {
+		int n = locationsX.length;
+		double scaleX = bounds.getWidth() * boundsScaleX;
+		double scaleY = bounds.getHeight() * boundsScaleY;
+		double[] x = new double[n];
+		double[] y = new double[n];
+		for (int i = 0; i < n; i++) {
+			x[i] = locationsX[i] / scaleX;
+			y[i] = locationsY[i] / scaleY;
+		}
+
+		// nodes are repelled from each other
+		QuadTree tree = new QuadTree(x, y, null);
+		if (isParallel(n)) {
+			AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS, b -> {
+				int[] stack = tree.createStack();
+				for (int p = getBlockStart(b, n); p < getBlockStart(b + 1,
+						n); p++) {
+					tree.accumulateRepulsion(tree.getPoint(p), barnesHutTheta,
+							sprGravitation, MIN_DISTANCE, forcesX, forcesY,
+							stack);
+				}
+			});
+		} else {
+			int[] stack = tree.createStack();
+			for (int p = 0; p < n; p++) {
+				tree.accumulateRepulsion(tree.getPoint(p), barnesHutTheta,
+						sprGravitation, MIN_DISTANCE, forcesX, forcesY, stack);
+			}
+		}
+
+		// related nodes are pulled towards each other instead
+		for (int p = 0; p < pairSources.length; p++) {
+			int i = pairSources[p];
+			int j = pairTargets[p];
+			double dx = x[i] - x[j];
+			double dy = y[i] - y[j];
+			double distance_sq = Math.max(MIN_DISTANCE * MIN_DISTANCE,
+					dx * dx + dy * dy);
+			double distance = Math.sqrt(distance_sq);
+			double f = -sprStrain * Math.log(distance / sprLength)
+					* pairWeights[p] - sprGravitation / distance_sq;
+			double dfx = f * dx / distance;
+			double dfy = f * dy / distance;
+
+			forcesX[i] += dfx;
+			forcesY[i] += dfy;
+
+			forcesX[j] -= dfx;
+			forcesY[j] -= dfy;
+		}
+	}
+
 	/**
 	 * Computes the position for each node in this SpringLayoutAlgorithm. The
 	 * computed position will be stored in the data repository. position =
 	 * position + sprMove * force
 	 */
 	protected void computePositions() {
-		for (int i = 0; i < entities.length; i++) {
-			if (LayoutProperties.isMovable(entities[i])) {
+		move(forcesX, forcesY, locationsX, locationsY);
+	}
+
+	/**
+	 * Moves the movable nodes by the given forces. position = position +
+	 * sprMove * force
+	 */
+	private void move(double[] forcesX, double[] forcesY, double[] locationsX,
+			double[] locationsY) {
+		int n = entities.length;
+		if (isParallel(n)) {
+			AlgorithmHelper.forEachBlock(PARALLEL_BLOCKS,
+					b -> move(forcesX, forcesY, locationsX, locationsY,
+							getBlockStart(b, n), getBlockStart(b + 1, n)));
+		} else {
+			move(forcesX, forcesY, locationsX, locationsY, 0, n);
+		}
+	}
+
+	private void move(double[] forcesX, double[] forcesY, double[] locationsX,
+			double[] locationsY, int from, int to) {
+		boolean[] movable = buffer.getMovable();
+		for (int i = from; i < to; i++) {
+			if (movable[i]) {
 				double deltaX = sprMove * forcesX[i];
 				double deltaY = sprMove * forcesY[i];
 
@@ -648,6 +1441,23 @@ public class SpringLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * Returns <code>true</code> if the computation for the given number of
+	 * nodes is to be divided into {@link #PARALLEL_BLOCKS} blocks.
+	 */
+	private boolean isParallel(int n) {
+		return parallel && n >= 2 * PARALLEL_BLOCKS;
+	}
+
+	/**
+	 * Returns the index of the first node of the given block, dividing the
+	 * given number of nodes into {@link #PARALLEL_BLOCKS} blocks of equal
+	 * size.
+	 */
+	private static int getBlockStart(int block, int n) {
+		return (int) ((long) block * n / PARALLEL_BLOCKS);
+	}
+
 	private Rectangle getLayoutBounds() {
 		double minX, maxX, minY, maxY;
 		minX = minY = Double.POSITIVE_INFINITY;
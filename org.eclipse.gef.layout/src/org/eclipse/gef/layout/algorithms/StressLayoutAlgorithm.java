@@ -0,0 +1,641 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The {@link StressLayoutAlgorithm} computes an undirected layout by
+ * minimizing the stress, i.e. the weighted squared differences between the
+ * distances of the nodes in the layout and their graph-theoretical distances,
+ * using the sparse stress model of Ortmann, Klimenta and Brandes, "A Sparse
+ * Stress Model" (http://dx.doi.org/10.7155/jgaa.00473).
+ * <p>
+ * A number of pivot nodes is selected by a max-min strategy, and the shortest
+ * paths from each pivot are computed. The initial layout is computed by pivot
+ * multidimensional scaling (Brandes and Pich, "Eigensolver Methods for
+ * Progressive Multidimensional Scaling of Large Data"), and refined by stress
+ * majorization, considering the adjacent nodes as well as the pivots (each
+ * representing the nodes that are closer to it than to any other pivot) for
+ * each node. An iteration therefore takes <code>O(k(n + e))</code> time for
+ * <code>k</code> pivots, instead of the <code>O(n&sup2;)</code> time needed
+ * for the full stress model.
+ * <p>
+ * The length of an edge is given by its weight (see
+ * {@link LayoutProperties#getWeight(Edge)}); edges without a positive weight
+ * have a length of <code>1</code>. Edge directions are ignored. Nodes that are
+ * not movable (see {@link LayoutProperties#isMovable(Node)}) keep their
+ * location, and the movable nodes are kept within the graph bounds; otherwise,
+ * the layout is scaled (uniformly) to fit the bounds. The algorithm is
+ * deterministic.
+ *
+ * @since 5.1
+ */
+public class StressLayoutAlgorithm implements ICacheableLayoutAlgorithm {
+
+	/**
+	 * The default number of pivots.
+	 */
+	private static final int DEFAULT_PIVOT_COUNT = 50;
+
+	/**
+	 * The default maximum number of majorization iterations.
+	 */
+	private static final int DEFAULT_ITERATIONS = 100;
+
+	/**
+	 * The majorization stops when the average movement of a node (relative
+	 * to the average edge length) falls below this value.
+	 */
+	private static final double TOLERANCE = 1e-4;
+
+	/**
+	 * The number of power iterations used to compute the eigenvectors for the
+	 * pivot multidimensional scaling.
+	 */
+	private static final int POWER_ITERATIONS = 100;
+
+	private int pivotCount = DEFAULT_PIVOT_COUNT;
+	private int iterations = DEFAULT_ITERATIONS;
+
+	// undirected adjacency with edge lengths, without self-loops and with
+	// parallel edges merged (keeping the shortest length)
+	private int[] adjacencyStart;
+	private int[] adjacentNodes;
+	private double[] adjacentLengths;
+
+	/**
+	 * Default constructor.
+	 */
+	public StressLayoutAlgorithm() {
+	}
+
+	@Override
+	public void applyLayout(LayoutContext layoutContext, boolean clean) {
+		if (!clean) {
+			return;
+		}
+		GraphSnapshot snapshot = layoutContext.createGraphSnapshot();
+		int n = snapshot.getNodeCount();
+		if (n == 0) {
+			return;
+		}
+		Rectangle bounds = LayoutProperties.getBounds(layoutContext.getGraph())
+				.getCopy();
+		int insets = 4;
+		bounds.setX(bounds.getX() + insets);
+		bounds.setY(bounds.getY() + insets);
+		bounds.setWidth(bounds.getWidth() - 2 * insets);
+		bounds.setHeight(bounds.getHeight() - 2 * insets);
+		LayoutBuffer buffer = layoutContext.createLayoutBuffer();
+		boolean[] fixed = new boolean[n];
+		boolean anyFixed = false;
+		for (int i = 0; i < n; i++) {
+			fixed[i] = !buffer.getMovable()[i] && LayoutProperties
+					.getLocation(snapshot.getNode(i)) != null;
+			anyFixed |= fixed[i];
+		}
+		createAdjacency(snapshot);
+		double averageLength = 1;
+		if (adjacentLengths.length > 0) {
+			averageLength = 0;
+			for (double length : adjacentLengths) {
+				averageLength += length;
+			}
+			averageLength /= adjacentLengths.length;
+		}
+
+		// select the pivots and compute the distances from them; the
+		// distances are stored node by node
+		int k = Math.min(pivotCount, n);
+		int[] pivots = new int[k];
+		double[] distances = new double[n * k];
+		selectPivots(pivots, distances, averageLength);
+
+		// compute the initial layout, in units of edge lengths
+		double[] x = new double[n];
+		double[] y = new double[n];
+		computePivotMDS(distances, k, x, y);
+		scaleToEdgeLengths(x, y);
+
+		// the locations of the fixed nodes are converted into the unit of
+		// the graph-theoretical distances, such that the natural edge length
+		// corresponds to the space available per node
+		double unit = Math.max(1,
+				Math.sqrt(bounds.getWidth() * bounds.getHeight() / n))
+				/ averageLength;
+		for (int i = 0; i < n; i++) {
+			if (fixed[i]) {
+				x[i] = buffer.getX()[i] / unit;
+				y[i] = buffer.getY()[i] / unit;
+			}
+		}
+
+		// a cancelled (or stopped) layout commits the current locations
+		majorize(pivots, distances, fixed, x, y,
+				TOLERANCE * averageLength, layoutContext);
+
+		// transfer the locations
+		for (int i = 0; i < n; i++) {
+			if (!fixed[i]) {
+				buffer.getX()[i] = x[i] * unit;
+				buffer.getY()[i] = y[i] * unit;
+			}
+		}
+		if (anyFixed) {
+			AlgorithmHelper.keepWithinBounds(buffer, bounds);
+		} else {
+			AlgorithmHelper.scaleWithinBounds(buffer, bounds);
+		}
+		buffer.commit();
+	}
+
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(pivotCount, iterations);
+	}
+
+	/**
+	 * Builds the undirected adjacency of the given {@link GraphSnapshot}.
+	 */
+	private void createAdjacency(GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] start = new int[n + 1];
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			int s = snapshot.getSource(e);
+			int t = snapshot.getTarget(e);
+			if (s != t) {
+				start[s + 1]++;
+				start[t + 1]++;
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] nodes = new int[start[n]];
+		double[] lengths = new double[start[n]];
+		int[] next = Arrays.copyOf(start, n);
+		for (int e = 0; e < snapshot.getEdgeCount(); e++) {
+			int s = snapshot.getSource(e);
+			int t = snapshot.getTarget(e);
+			if (s != t) {
+				double weight = snapshot.getWeight(e);
+				double length = weight > 0 ? weight : 1;
+				nodes[next[s]] = t;
+				lengths[next[s]++] = length;
+				nodes[next[t]] = s;
+				lengths[next[t]++] = length;
+			}
+		}
+
+		// merge parallel edges
+		adjacencyStart = new int[n + 1];
+		int[] last = new int[n];
+		Arrays.fill(last, -1);
+		int size = 0;
+		for (int i = 0; i < n; i++) {
+			adjacencyStart[i] = size;
+			for (int a = start[i]; a < start[i + 1]; a++) {
+				int j = nodes[a];
+				if (last[j] >= adjacencyStart[i]) {
+					lengths[last[j]] = Math.min(lengths[last[j]], lengths[a]);
+				} else {
+					last[j] = size;
+					nodes[size] = j;
+					lengths[size++] = lengths[a];
+				}
+			}
+		}
+		adjacencyStart[n] = size;
+		adjacentNodes = Arrays.copyOf(nodes, size);
+		adjacentLengths = Arrays.copyOf(lengths, size);
+	}
+
+	/**
+	 * Selects the pivots using a max-min strategy, i.e. each pivot is the node
+	 * that is farthest from the previously selected pivots, and stores the
+	 * distances from the pivots. Infinite distances (between components) are
+	 * replaced by the maximum finite distance plus the average edge length.
+	 */
+	private void selectPivots(int[] pivots, double[] distances,
+			double averageLength) {
+		int n = adjacencyStart.length - 1;
+		int k = pivots.length;
+		double[] distance = new double[n];
+		double[] minDistance = new double[n];
+		Arrays.fill(minDistance, Double.POSITIVE_INFINITY);
+		int[] heap = new int[n];
+		int[] positions = new int[n];
+		int pivot = 0;
+		double maxDistance = 0;
+		for (int p = 0; p < k; p++) {
+			pivots[p] = pivot;
+			computeShortestPaths(pivot, distance, heap, positions);
+			int next = -1;
+			for (int i = 0; i < n; i++) {
+				distances[i * k + p] = distance[i];
+				if (distance[i] < Double.POSITIVE_INFINITY) {
+					maxDistance = Math.max(maxDistance, distance[i]);
+				}
+				minDistance[i] = Math.min(minDistance[i], distance[i]);
+				if (next < 0 || minDistance[i] > minDistance[next]) {
+					next = i;
+				}
+			}
+			pivot = next;
+		}
+		double replacement = maxDistance + averageLength;
+		for (int i = 0; i < distances.length; i++) {
+			if (distances[i] == Double.POSITIVE_INFINITY) {
+				distances[i] = replacement;
+			}
+		}
+	}
+
+	/**
+	 * Computes the shortest paths from the given source using Dijkstra's
+	 * algorithm with a binary heap.
+	 */
+	private void computeShortestPaths(int source, double[] distance,
+			int[] heap, int[] positions) {
+		Arrays.fill(distance, Double.POSITIVE_INFINITY);
+		Arrays.fill(positions, -1);
+		int size = 0;
+		distance[source] = 0;
+		heap[size] = source;
+		positions[source] = size++;
+		while (size > 0) {
+			int v = heap[0];
+			positions[v] = -2;
+			int last = heap[--size];
+			if (size > 0) {
+				// sift the last node down from the top
+				int position = 0;
+				while (true) {
+					int child = 2 * position + 1;
+					if (child >= size) {
+						break;
+					}
+					if (child + 1 < size && distance[heap[child
+							+ 1]] < distance[heap[child]]) {
+						child++;
+					}
+					if (distance[heap[child]] >= distance[last]) {
+						break;
+					}
+					heap[position] = heap[child];
+					positions[heap[position]] = position;
+					position = child;
+				}
+				heap[position] = last;
+				positions[last] = position;
+			}
+			for (int a = adjacencyStart[v]; a < adjacencyStart[v + 1]; a++) {
+				int w = adjacentNodes[a];
+				double d = distance[v] + adjacentLengths[a];
+				if (positions[w] != -2 && d < distance[w]) {
+					distance[w] = d;
+					int position = positions[w];
+					if (position == -1) {
+						position = size++;
+					}
+					// sift the node up
+					while (position > 0) {
+						int parent = (position - 1) >>> 1;
+						if (distance[heap[parent]] <= d) {
+							break;
+						}
+						heap[position] = heap[parent];
+						positions[heap[position]] = position;
+						position = parent;
+					}
+					heap[position] = w;
+					positions[w] = position;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes an initial layout by pivot multidimensional scaling: the
+	 * double-centered matrix <code>C</code> of the squared distances to the
+	 * pivots is projected onto the two dominant eigenvectors of
+	 * <code>C<sup>T</sup>C</code>.
+	 */
+	private static void computePivotMDS(double[] distances, int k, double[] x,
+			double[] y) {
+		int n = x.length;
+		double[] rowMean = new double[n];
+		double[] columnMean = new double[k];
+		double mean = 0;
+		for (int i = 0; i < n; i++) {
+			for (int p = 0; p < k; p++) {
+				double d2 = distances[i * k + p] * distances[i * k + p];
+				rowMean[i] += d2;
+				columnMean[p] += d2;
+			}
+			mean += rowMean[i];
+			rowMean[i] /= k;
+		}
+		for (int p = 0; p < k; p++) {
+			columnMean[p] /= n;
+		}
+		mean /= (double) n * k;
+
+		// B = C^T C
+		double[] b = new double[k * k];
+		double[] c = new double[k];
+		for (int i = 0; i < n; i++) {
+			for (int p = 0; p < k; p++) {
+				double d2 = distances[i * k + p] * distances[i * k + p];
+				c[p] = -0.5 * (d2 - rowMean[i] - columnMean[p] + mean);
+			}
+			for (int p = 0; p < k; p++) {
+				for (int q = p; q < k; q++) {
+					b[p * k + q] += c[p] * c[q];
+				}
+			}
+		}
+		for (int p = 0; p < k; p++) {
+			for (int q = 0; q < p; q++) {
+				b[p * k + q] = b[q * k + p];
+			}
+		}
+
+		// the dominant eigenvectors by power iteration (with deflation)
+		Random random = new Random(0);
+		double[][] vectors = new double[2][k];
+		double[] values = new double[2];
+		double[] product = new double[k];
+		for (int e = 0; e < 2; e++) {
+			double[] v = vectors[e];
+			for (int p = 0; p < k; p++) {
+				v[p] = random.nextDouble() - 0.5;
+			}
+			for (int iteration = 0; iteration < POWER_ITERATIONS; iteration++) {
+				if (e == 1) {
+					orthogonalize(v, vectors[0]);
+				}
+				double norm = normalize(v);
+				if (norm == 0) {
+					break;
+				}
+				for (int p = 0; p < k; p++) {
+					double sum = 0;
+					for (int q = 0; q < k; q++) {
+						sum += b[p * k + q] * v[q];
+					}
+					product[p] = sum;
+				}
+				System.arraycopy(product, 0, v, 0, k);
+			}
+			if (e == 1) {
+				orthogonalize(v, vectors[0]);
+			}
+			values[e] = normalize(v);
+		}
+
+		// project, scaling the axes by the fourth root of the eigenvalues of
+		// C^T C (i.e. the square root of the singular values of C), which
+		// approximates the classical scaling
+		for (int i = 0; i < n; i++) {
+			double px = 0, py = 0;
+			for (int p = 0; p < k; p++) {
+				double d2 = distances[i * k + p] * distances[i * k + p];
+				double cp = -0.5 * (d2 - rowMean[i] - columnMean[p] + mean);
+				px += cp * vectors[0][p];
+				py += cp * vectors[1][p];
+			}
+			x[i] = values[0] > 0 ? px / Math.sqrt(Math.sqrt(values[0])) : 0;
+			y[i] = values[1] > 0 ? py / Math.sqrt(Math.sqrt(values[1])) : 0;
+		}
+	}
+
+	private static void orthogonalize(double[] v, double[] u) {
+		double dot = 0;
+		for (int p = 0; p < v.length; p++) {
+			dot += v[p] * u[p];
+		}
+		for (int p = 0; p < v.length; p++) {
+			v[p] -= dot * u[p];
+		}
+	}
+
+	private static double normalize(double[] v) {
+		double norm = 0;
+		for (double value : v) {
+			norm += value * value;
+		}
+		norm = Math.sqrt(norm);
+		if (norm > 0) {
+			for (int p = 0; p < v.length; p++) {
+				v[p] /= norm;
+			}
+		}
+		return norm;
+	}
+
+	/**
+	 * Scales the given layout uniformly, so that the stress of the edges is
+	 * minimal.
+	 */
+	private void scaleToEdgeLengths(double[] x, double[] y) {
+		double numerator = 0;
+		double denominator = 0;
+		for (int i = 0; i < x.length; i++) {
+			for (int a = adjacencyStart[i]; a < adjacencyStart[i + 1]; a++) {
+				int j = adjacentNodes[a];
+				double dx = x[i] - x[j];
+				double dy = y[i] - y[j];
+				double length = Math.sqrt(dx * dx + dy * dy);
+				double target = adjacentLengths[a];
+				numerator += length / target;
+				denominator += length * length / (target * target);
+			}
+		}
+		if (denominator > 0) {
+			double scale = numerator / denominator;
+			for (int i = 0; i < x.length; i++) {
+				x[i] *= scale;
+				y[i] *= scale;
+			}
+		}
+	}
+
+	/**
+	 * Refines the given layout by localized stress majorization (updating the
+	 * nodes one after another), based on the terms of the adjacent nodes and
+	 * of the pivots. The weight of the term of a pivot is the number of nodes
+	 * of its region that are closer to it than half the distance to the
+	 * updated node, divided by the squared distance.
+	 */
+	private void majorize(int[] pivots, double[] distances, boolean[] fixed,
+			double[] x, double[] y, double tolerance,
+			LayoutContext layoutContext) {
+		int n = x.length;
+		int k = pivots.length;
+
+		// assign each node to its closest pivot, and sort the distances of
+		// the nodes of each region to the pivot
+		int[] regionStart = new int[k + 1];
+		int[] region = new int[n];
+		for (int i = 0; i < n; i++) {
+			int closest = 0;
+			for (int p = 1; p < k; p++) {
+				if (distances[i * k + p] < distances[i * k + closest]) {
+					closest = p;
+				}
+			}
+			region[i] = closest;
+			regionStart[closest + 1]++;
+		}
+		for (int p = 0; p < k; p++) {
+			regionStart[p + 1] += regionStart[p];
+		}
+		double[] regionDistances = new double[n];
+		int[] next = Arrays.copyOf(regionStart, k);
+		for (int i = 0; i < n; i++) {
+			int p = region[i];
+			regionDistances[next[p]++] = distances[i * k + p];
+		}
+		for (int p = 0; p < k; p++) {
+			Arrays.sort(regionDistances, regionStart[p], regionStart[p + 1]);
+		}
+		double[] weights = new double[n * k];
+		for (int i = 0; i < n; i++) {
+			for (int p = 0; p < k; p++) {
+				double d = distances[i * k + p];
+				if (pivots[p] == i || d == 0) {
+					continue;
+				}
+				// count the region members within half the distance
+				int low = regionStart[p];
+				int high = regionStart[p + 1];
+				while (low < high) {
+					int middle = (low + high) >>> 1;
+					if (regionDistances[middle] <= d / 2) {
+						low = middle + 1;
+					} else {
+						high = middle;
+					}
+				}
+				weights[i * k + p] = (low - regionStart[p]) / (d * d);
+			}
+		}
+
+		for (int iteration = 0; iteration < iterations
+				&& !layoutContext.isLayoutCancelled(); iteration++) {
+			layoutContext.reportLayoutProgress((double) iteration / iterations);
+			double movement = 0;
+			for (int i = 0; i < n; i++) {
+				if (fixed[i]) {
+					continue;
+				}
+				double xi = x[i];
+				double yi = y[i];
+				double sumX = 0, sumY = 0, sumWeights = 0;
+				for (int a = adjacencyStart[i]; a < adjacencyStart[i
+						+ 1]; a++) {
+					int j = adjacentNodes[a];
+					double d = adjacentLengths[a];
+					double w = 1 / (d * d);
+					double dx = xi - x[j];
+					double dy = yi - y[j];
+					double length = Math.sqrt(dx * dx + dy * dy);
+					double f = length > 0 ? d / length : 0;
+					sumX += w * (x[j] + f * dx);
+					sumY += w * (y[j] + f * dy);
+					sumWeights += w;
+				}
+				for (int p = 0; p < k; p++) {
+					double w = weights[i * k + p];
+					if (w == 0) {
+						continue;
+					}
+					int j = pivots[p];
+					double d = distances[i * k + p];
+					double dx = xi - x[j];
+					double dy = yi - y[j];
+					double length = Math.sqrt(dx * dx + dy * dy);
+					double f = length > 0 ? d / length : 0;
+					sumX += w * (x[j] + f * dx);
+					sumY += w * (y[j] + f * dy);
+					sumWeights += w;
+				}
+				if (sumWeights > 0) {
+					x[i] = sumX / sumWeights;
+					y[i] = sumY / sumWeights;
+					movement += Math.abs(x[i] - xi) + Math.abs(y[i] - yi);
+				}
+			}
+			if (movement / n < tolerance) {
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of pivots.
+	 *
+	 * @return The number of pivots.
+	 */
+	public int getPivotCount() {
+		return pivotCount;
+	}
+
+	/**
+	 * Sets the number of pivots. More pivots improve the quality of the
+	 * layout, but increase the time needed per iteration. The default value
+	 * is <code>50</code>.
+	 *
+	 * @param pivotCount
+	 *            The number of pivots, which has to be positive.
+	 */
+	public void setPivotCount(int pivotCount) {
+		if (pivotCount < 1) {
+			throw new IllegalArgumentException(
+					"Pivot count has to be positive: " + pivotCount);
+		}
+		this.pivotCount = pivotCount;
+	}
+
+	/**
+	 * Returns the maximum number of majorization iterations.
+	 *
+	 * @return The maximum number of majorization iterations.
+	 */
+	public int getIterations() {
+		return iterations;
+	}
+
+	/**
+	 * Sets the maximum number of majorization iterations. The default value
+	 * is <code>100</code>.
+	 *
+	 * @param iterations
+	 *            The maximum number of majorization iterations.
+	 */
+	public void setIterations(int iterations) {
+		this.iterations = iterations;
+	}
+
+}
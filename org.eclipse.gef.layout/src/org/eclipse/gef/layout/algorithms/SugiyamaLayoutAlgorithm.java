@@ -18,13 +18,13 @@
 package org.eclipse.gef.layout.algorithms;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashSet;
 import java.util.IdentityHashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
@@ -34,7 +34,9 @@ import org.eclipse.gef.geometry.planar.Dimension;
 import org.eclipse.gef.geometry.planar.Point;
 import org.eclipse.gef.geometry.planar.Rectangle;
 import org.eclipse.gef.graph.Edge;
+import org.eclipse.gef.graph.GraphSnapshot;
 import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.graph.algorithms.GraphAlgorithms;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
@@ -75,6 +77,28 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		VERTICAL
 	}
 
+	/**
+	 * Specifies how the {@link SugiyamaLayoutAlgorithm} computes the
+	 * coordinates of the nodes once the layers are ordered.
+	 *
+	 * @since 5.1
+	 */
+	public enum CoordinateAssignment {
+		/**
+		 * The layout bounds are divided into a uniform grid, with one row
+		 * (column) per layer, and one column (row) per position within the
+		 * widest layer.
+		 */
+		GRID,
+
+		/**
+		 * The nodes are placed with their actual sizes, aligning each node
+		 * with a median neighbor and compacting the layers (Brandes and
+		 * K&ouml;pf). The drawing is not scaled to fit the layout bounds.
+		 */
+		BRANDES_KOEPF
+	}
+
 	/**
 	 * 
 	 * An interface for heuristics that reduces edge crossings.
@@ -634,6 +658,443 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		}
 	}
 
+	/**
+	 * A {@link CrossingReducer} that orders the layers by repeated layer sweeps.
+	 * In every sweep, the nodes of a layer are sorted by the median (or
+	 * barycenter) of the positions of their neighbors on the previous layer,
+	 * which is kept fixed. Afterwards, adjacent nodes are exchanged as long as
+	 * this reduces the number of crossings. The total number of crossings is
+	 * counted using an accumulator tree (Barth, J&uuml;nger, and Mutzel,
+	 * http://dx.doi.org/10.7155/jgaa.00088) in <code>O(e log v)</code>, and the
+	 * ordering with the least crossings is retained.
+	 * <p>
+	 * All computations work on <code>int</code> arrays that are built once per
+	 * invocation. Only edges between consecutive layers are considered. If the
+	 * {@link LayerProvider} did not link the {@link NodeWrapper}s (i.e. it did
+	 * not insert dummy nodes), the edges of the wrapped {@link Node}s are used
+	 * instead, ignoring their direction.
+	 *
+	 * @since 5.1
+	 */
+	public static class LayerSweepCrossingReducer implements CrossingReducer {
+
+		private static final int MAX_SWEEPS = 24;
+		// number of sweeps without improvement after which to stop
+		private static final int MAX_FAILED_SWEEPS = 4;
+		// number of passes of adjacent exchanges after each sweep
+		private static final int MAX_TRANSPOSE_PASSES = 4;
+
+		private final boolean median;
+
+		// adjacency of layer l to layer l + 1, indexed by the initial index
+		private int[][] downStart;
+		private int[][] downAdjacency;
+		// adjacency of layer l to layer l - 1, indexed by the initial index
+		private int[][] upStart;
+		private int[][] upAdjacency;
+		// the initial index of the node at a position, and vice versa
+		private int[][] order;
+		private int[][] position;
+
+		// the edges of the current layer while building the adjacency
+		private int[] edges;
+		private int edgeCount;
+
+		private double[] keys;
+		private int[] buffer;
+		private int[] otherBuffer;
+		private int[] sorted;
+		private int[] tree;
+
+		/**
+		 * Constructs a new {@link LayerSweepCrossingReducer} that sorts the
+		 * nodes by the median position of their neighbors.
+		 */
+		public LayerSweepCrossingReducer() {
+			this(true);
+		}
+
+		/**
+		 * Constructs a new {@link LayerSweepCrossingReducer}.
+		 *
+		 * @param median
+		 *            <code>true</code> to sort the nodes by the median position
+		 *            of their neighbors, <code>false</code> to sort them by the
+		 *            barycenter.
+		 */
+		public LayerSweepCrossingReducer(boolean median) {
+			this.median = median;
+		}
+
+		public void crossReduction(List<List<NodeWrapper>> nodes) {
+			int height = nodes.size();
+			if (height == 0) {
+				return;
+			}
+			buildAdjacency(nodes);
+
+			int[][] best = new int[height][];
+			for (int l = 0; l < height; l++) {
+				best[l] = order[l].clone();
+			}
+			long bestCrossings = countCrossings();
+			int failedSweeps = 0;
+			for (int sweep = 0; sweep < MAX_SWEEPS && bestCrossings > 0
+					&& failedSweeps < MAX_FAILED_SWEEPS; sweep++) {
+				if ((sweep & 1) == 0) {
+					for (int l = 1; l < height; l++) {
+						orderLayer(l, upStart[l], upAdjacency[l],
+								position[l - 1]);
+					}
+				} else {
+					for (int l = height - 2; l >= 0; l--) {
+						orderLayer(l, downStart[l], downAdjacency[l],
+								position[l + 1]);
+					}
+				}
+				transpose();
+				long crossings = countCrossings();
+				if (crossings < bestCrossings) {
+					bestCrossings = crossings;
+					for (int l = 0; l < height; l++) {
+						System.arraycopy(order[l], 0, best[l], 0,
+								order[l].length);
+					}
+					failedSweeps = 0;
+				} else {
+					failedSweeps++;
+				}
+			}
+
+			for (int l = 0; l < height; l++) {
+				List<NodeWrapper> layer = nodes.get(l);
+				NodeWrapper[] wrappers = layer
+						.toArray(new NodeWrapper[layer.size()]);
+				for (int p = 0; p < wrappers.length; p++) {
+					NodeWrapper nw = wrappers[best[l][p]];
+					layer.set(p, nw);
+					nw.index = p;
+				}
+			}
+		}
+
+		private void buildAdjacency(List<List<NodeWrapper>> nodes) {
+			int height = nodes.size();
+			order = new int[height][];
+			position = new int[height][];
+			boolean linked = false;
+			int width = 0;
+			for (int l = 0; l < height; l++) {
+				List<NodeWrapper> layer = nodes.get(l);
+				int n = layer.size();
+				width = Math.max(width, n);
+				order[l] = new int[n];
+				position[l] = new int[n];
+				int p = 0;
+				for (NodeWrapper nw : layer) {
+					order[l][p] = p;
+					position[l][p] = p;
+					nw.index = p++;
+					linked |= !nw.pred.isEmpty() || !nw.succ.isEmpty();
+				}
+			}
+			Map<Node, NodeWrapper> wrappers = new IdentityHashMap<>();
+			if (!linked) {
+				for (List<NodeWrapper> layer : nodes) {
+					for (NodeWrapper nw : layer) {
+						if (nw.node != null) {
+							wrappers.put(nw.node, nw);
+						}
+					}
+				}
+			}
+
+			downStart = new int[height][];
+			downAdjacency = new int[height][];
+			upStart = new int[height][];
+			upAdjacency = new int[height][];
+			upStart[0] = new int[order[0].length + 1];
+			upAdjacency[0] = new int[0];
+			edges = new int[16];
+			int maxDegree = 0;
+			for (int l = 0; l < height; l++) {
+				int[] start = new int[order[l].length + 1];
+				edgeCount = 0;
+				if (l + 1 < height) {
+					List<NodeWrapper> lower = nodes.get(l + 1);
+					int p = 0;
+					for (NodeWrapper nw : nodes.get(l)) {
+						start[p++] = edgeCount;
+						if (linked) {
+							for (NodeWrapper neighbor : nw.succ) {
+								addEdge(lower, neighbor);
+							}
+							for (NodeWrapper neighbor : nw.pred) {
+								addEdge(lower, neighbor);
+							}
+						} else if (nw.node != null) {
+							for (Edge e : nw.node.getOutgoingEdges()) {
+								addEdge(lower, wrappers.get(e.getTarget()));
+							}
+							for (Edge e : nw.node.getIncomingEdges()) {
+								addEdge(lower, wrappers.get(e.getSource()));
+							}
+						}
+						maxDegree = Math.max(maxDegree,
+								edgeCount - start[p - 1]);
+					}
+				}
+				int m = edgeCount;
+				int[] adjacency = edges;
+				start[order[l].length] = m;
+				downStart[l] = start;
+				downAdjacency[l] = Arrays.copyOf(adjacency, m);
+				if (l + 1 < height) {
+					// transpose into the adjacency of layer l + 1 to layer l
+					int n = order[l + 1].length;
+					int[] degree = new int[n + 1];
+					for (int k = 0; k < m; k++) {
+						degree[adjacency[k] + 1]++;
+					}
+					for (int v = 0; v < n; v++) {
+						degree[v + 1] += degree[v];
+						maxDegree = Math.max(maxDegree,
+								degree[v + 1] - degree[v]);
+					}
+					int[] up = new int[m];
+					int[] next = Arrays.copyOf(degree, n);
+					for (int u = 0; u < order[l].length; u++) {
+						for (int k = start[u]; k < start[u + 1]; k++) {
+							up[next[adjacency[k]]++] = u;
+						}
+					}
+					upStart[l + 1] = degree;
+					upAdjacency[l + 1] = up;
+				}
+			}
+
+			keys = new double[width];
+			sorted = new int[width];
+			buffer = new int[Math.max(maxDegree, width)];
+			otherBuffer = new int[maxDegree];
+			int leaves = 1;
+			while (leaves < width) {
+				leaves <<= 1;
+			}
+			tree = new int[2 * leaves];
+			edges = null;
+		}
+
+		/**
+		 * Adds an edge to the given {@link NodeWrapper} if it is part of the
+		 * given layer.
+		 */
+		private void addEdge(List<NodeWrapper> layer, NodeWrapper nw) {
+			if (nw == null || nw.index >= layer.size()
+					|| layer.get(nw.index) != nw) {
+				return;
+			}
+			if (edgeCount == edges.length) {
+				edges = Arrays.copyOf(edges, 2 * edgeCount);
+			}
+			edges[edgeCount++] = nw.index;
+		}
+
+		/**
+		 * Exchanges adjacent nodes within the layers as long as this reduces
+		 * the number of crossings with both adjacent layers.
+		 */
+		private void transpose() {
+			boolean improved = true;
+			for (int pass = 0; improved
+					&& pass < MAX_TRANSPOSE_PASSES; pass++) {
+				improved = false;
+				for (int l = 0; l < order.length; l++) {
+					int[] layerOrder = order[l];
+					for (int p = 0; p + 1 < layerOrder.length; p++) {
+						int u = layerOrder[p];
+						int v = layerOrder[p + 1];
+						long delta = 0;
+						if (l > 0) {
+							delta += countCrossingsDelta(u, v, upStart[l],
+									upAdjacency[l], position[l - 1]);
+						}
+						if (l + 1 < order.length) {
+							delta += countCrossingsDelta(u, v, downStart[l],
+									downAdjacency[l], position[l + 1]);
+						}
+						if (delta > 0) {
+							layerOrder[p] = v;
+							layerOrder[p + 1] = u;
+							position[l][v] = p;
+							position[l][u] = p + 1;
+							improved = true;
+						}
+					}
+				}
+			}
+		}
+
+		/**
+		 * Returns by how many crossings with the given adjacent layer the
+		 * ordering <code>u, v</code> exceeds the ordering <code>v, u</code>.
+		 */
+		private long countCrossingsDelta(int u, int v, int[] start,
+				int[] adjacency, int[] fixedPosition) {
+			int degreeU = start[u + 1] - start[u];
+			int degreeV = start[v + 1] - start[v];
+			if (degreeU == 0 || degreeV == 0) {
+				return 0;
+			}
+			for (int k = 0; k < degreeU; k++) {
+				buffer[k] = fixedPosition[adjacency[start[u] + k]];
+			}
+			for (int k = 0; k < degreeV; k++) {
+				otherBuffer[k] = fixedPosition[adjacency[start[v] + k]];
+			}
+			Arrays.sort(buffer, 0, degreeU);
+			Arrays.sort(otherBuffer, 0, degreeV);
+			// count the pairs where the neighbor of u is right of (uv) or
+			// left of (vu) the neighbor of v
+			long uv = 0;
+			long vu = 0;
+			int lower = 0;
+			int upper = 0;
+			for (int k = 0; k < degreeV; k++) {
+				int b = otherBuffer[k];
+				while (lower < degreeU && buffer[lower] < b) {
+					lower++;
+				}
+				while (upper < degreeU && buffer[upper] <= b) {
+					upper++;
+				}
+				uv += degreeU - upper;
+				vu += lower;
+			}
+			return uv - vu;
+		}
+
+		/**
+		 * Sorts the nodes of the given layer by the median or barycenter of
+		 * the positions of their neighbors on the adjacent (fixed) layer.
+		 * Nodes without neighbors keep their position.
+		 */
+		private void orderLayer(int l, int[] start, int[] adjacency,
+				int[] fixedPosition) {
+			int[] layerOrder = order[l];
+			int m = 0;
+			for (int p = 0; p < layerOrder.length; p++) {
+				int u = layerOrder[p];
+				int degree = start[u + 1] - start[u];
+				if (degree == 0) {
+					continue;
+				}
+				for (int k = 0; k < degree; k++) {
+					buffer[k] = fixedPosition[adjacency[start[u] + k]];
+				}
+				if (median) {
+					Arrays.sort(buffer, 0, degree);
+					keys[u] = (degree & 1) == 1 ? buffer[degree / 2]
+							: (buffer[degree / 2 - 1] + buffer[degree / 2])
+									/ 2d;
+				} else {
+					double sum = 0;
+					for (int k = 0; k < degree; k++) {
+						sum += buffer[k];
+					}
+					keys[u] = sum / degree;
+				}
+				sorted[m++] = u;
+			}
+			mergeSort(sorted, buffer, keys, 0, m);
+
+			// fill the positions of the nodes with neighbors in sorted order
+			int k = 0;
+			int[] layerPosition = position[l];
+			for (int p = 0; p < layerOrder.length; p++) {
+				int u = layerOrder[p];
+				if (start[u + 1] > start[u]) {
+					layerOrder[p] = sorted[k++];
+				}
+				layerPosition[layerOrder[p]] = p;
+			}
+		}
+
+		/**
+		 * Stably sorts the given range of node indices by the given keys.
+		 */
+		private static void mergeSort(int[] a, int[] tmp, double[] keys,
+				int from, int to) {
+			if (to - from < 2) {
+				return;
+			}
+			int mid = (from + to) >>> 1;
+			mergeSort(a, tmp, keys, from, mid);
+			mergeSort(a, tmp, keys, mid, to);
+			if (keys[a[mid - 1]] <= keys[a[mid]]) {
+				return;
+			}
+			System.arraycopy(a, from, tmp, from, to - from);
+			int i = from;
+			int j = mid;
+			for (int k = from; k < to; k++) {
+				if (j >= to || (i < mid && keys[tmp[i]] <= keys[tmp[j]])) {
+					a[k] = tmp[i++];
+				} else {
+					a[k] = tmp[j++];
+				}
+			}
+		}
+
+		private long countCrossings() {
+			long crossings = 0;
+			for (int l = 0; l + 1 < order.length; l++) {
+				crossings += countCrossings(l);
+			}
+			return crossings;
+		}
+
+		/**
+		 * Counts the crossings between layer l and layer l + 1. The edges are
+		 * inserted into an accumulator tree over the positions of layer l + 1
+		 * in lexicographical order, and every inserted edge crosses all
+		 * previously inserted edges with a greater lower position.
+		 */
+		private long countCrossings(int l) {
+			int q = order[l + 1].length;
+			int firstIndex = 1;
+			while (firstIndex < q) {
+				firstIndex <<= 1;
+			}
+			int treeSize = 2 * firstIndex - 1;
+			firstIndex--;
+			Arrays.fill(tree, 0, treeSize, 0);
+			int[] start = downStart[l];
+			int[] adjacency = downAdjacency[l];
+			int[] lowerPosition = position[l + 1];
+			long crossings = 0;
+			for (int u : order[l]) {
+				int degree = start[u + 1] - start[u];
+				for (int k = 0; k < degree; k++) {
+					buffer[k] = lowerPosition[adjacency[start[u] + k]];
+				}
+				Arrays.sort(buffer, 0, degree);
+				for (int k = 0; k < degree; k++) {
+					int index = buffer[k] + firstIndex;
+					tree[index]++;
+					while (index > 0) {
+						if ((index & 1) == 1) {
+							crossings += tree[index + 1];
+						}
+						index = (index - 1) >> 1;
+						tree[index]++;
+					}
+				}
+			}
+			return crossings;
+		}
+	}
+
 	/**
 	 * Structure to store nodes and their positions in the layers. Furthermore
 	 * predecessors and successors can be assigned to the nodes.
@@ -657,11 +1118,11 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		 * A {@link List} containing the predecessors of this
 		 * {@link NodeWrapper}.
 		 */
-		final List<NodeWrapper> pred = new LinkedList<>();
+		final List<NodeWrapper> pred = new ArrayList<>(2);
 		/**
 		 * A {@link List} containing the successors of this {@link NodeWrapper}.
 		 */
-		final List<NodeWrapper> succ = new LinkedList<>();
+		final List<NodeWrapper> succ = new ArrayList<>(2);
 
 		private static final int PADDING = -1;
 
@@ -1210,6 +1671,296 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 
 	}
 
+	/**
+	 * A {@link LayerProvider} that works on a {@link GraphSnapshot} of the
+	 * given nodes and runs in time linear in the number of nodes and edges
+	 * (plus the number of inserted dummy nodes):
+	 * <ol>
+	 * <li>Cycles are removed by reversing the backward edges of a vertex
+	 * sequence computed by the greedy heuristic of Eades, Lin, and Smyth
+	 * (http://dx.doi.org/10.1016/0020-0190(93)90079-O), which is applied to
+	 * the strongly connected components only.
+	 * <li>Layers are assigned by a longest path from the sources, after which
+	 * each source is moved down to the layer right above its nearest
+	 * successor.
+	 * <li>Edges that span multiple layers are split by dummy nodes, and the
+	 * {@link NodeWrapper}s are linked to their predecessors and successors.
+	 * </ol>
+	 * Self-loops are ignored, and multiple edges between the same nodes are
+	 * merged.
+	 *
+	 * @since 5.1
+	 */
+	public static class LongestPathLayerProvider implements LayerProvider {
+
+		public List<List<NodeWrapper>> calculateLayers(List<Node> nodes) {
+			List<Edge> edges = new ArrayList<>();
+			for (Node node : nodes) {
+				edges.addAll(node.getOutgoingEdges());
+			}
+			GraphSnapshot snapshot = new GraphSnapshot(nodes, edges, null);
+			int n = snapshot.getNodeCount();
+			boolean[] reversed = computeReversedEdges(snapshot);
+
+			// build the acyclic graph without self-loops and multiple edges
+			int m = snapshot.getEdgeCount();
+			int[] sources = new int[m];
+			int[] targets = new int[m];
+			int[] inDegrees = new int[n];
+			int dagEdgeCount = 0;
+			for (int e = 0; e < m; e++) {
+				int s = snapshot.getSource(e);
+				int t = snapshot.getTarget(e);
+				if (s == t) {
+					continue;
+				}
+				sources[dagEdgeCount] = reversed[e] ? t : s;
+				targets[dagEdgeCount++] = reversed[e] ? s : t;
+			}
+			int[] outStart = new int[n + 1];
+			for (int e = 0; e < dagEdgeCount; e++) {
+				outStart[sources[e] + 1]++;
+			}
+			for (int v = 0; v < n; v++) {
+				outStart[v + 1] += outStart[v];
+			}
+			int[] successors = new int[dagEdgeCount];
+			int[] next = Arrays.copyOf(outStart, n);
+			int[] marks = new int[n];
+			Arrays.fill(marks, -1);
+			for (int e = 0; e < dagEdgeCount; e++) {
+				successors[next[sources[e]]++] = targets[e];
+			}
+			// remove duplicates in place
+			int[] successorCount = new int[n];
+			for (int v = 0; v < n; v++) {
+				int k = outStart[v];
+				for (int i = outStart[v]; i < next[v]; i++) {
+					int w = successors[i];
+					if (marks[w] != v) {
+						marks[w] = v;
+						successors[k++] = w;
+						inDegrees[w]++;
+					}
+				}
+				successorCount[v] = k - outStart[v];
+			}
+
+			// longest path layering in topological order
+			int[] order = new int[n];
+			int[] remaining = inDegrees.clone();
+			int head = 0;
+			int tail = 0;
+			for (int v = 0; v < n; v++) {
+				if (remaining[v] == 0) {
+					order[tail++] = v;
+				}
+			}
+			int[] layer = new int[n];
+			while (head < tail) {
+				int v = order[head++];
+				for (int i = outStart[v]; i < outStart[v]
+						+ successorCount[v]; i++) {
+					int w = successors[i];
+					layer[w] = Math.max(layer[w], layer[v] + 1);
+					if (--remaining[w] == 0) {
+						order[tail++] = w;
+					}
+				}
+			}
+			// move sources down towards their successors
+			int height = 0;
+			for (int v = 0; v < n; v++) {
+				if (inDegrees[v] == 0 && successorCount[v] > 0) {
+					int min = Integer.MAX_VALUE;
+					for (int i = outStart[v]; i < outStart[v]
+							+ successorCount[v]; i++) {
+						min = Math.min(min, layer[successors[i]]);
+					}
+					layer[v] = min - 1;
+				}
+				height = Math.max(height, layer[v] + 1);
+			}
+
+			// create the layers and link the wrappers
+			List<List<NodeWrapper>> layers = new ArrayList<>(height);
+			for (int l = 0; l < height; l++) {
+				layers.add(new ArrayList<NodeWrapper>());
+			}
+			NodeWrapper[] wrappers = new NodeWrapper[n];
+			for (int v = 0; v < n; v++) {
+				wrappers[v] = new NodeWrapper(snapshot.getNode(v), layer[v]);
+				layers.get(layer[v]).add(wrappers[v]);
+			}
+			for (int v = 0; v < n; v++) {
+				for (int i = outStart[v]; i < outStart[v]
+						+ successorCount[v]; i++) {
+					NodeWrapper predecessor = wrappers[v];
+					NodeWrapper successor = wrappers[successors[i]];
+					for (int l = predecessor.layer
+							+ 1; l < successor.layer; l++) {
+						NodeWrapper dummy = new NodeWrapper(l);
+						dummy.addPredecessor(predecessor);
+						predecessor.addSuccessor(dummy);
+						layers.get(l).add(dummy);
+						predecessor = dummy;
+					}
+					successor.addPredecessor(predecessor);
+					predecessor.addSuccessor(successor);
+				}
+			}
+			for (List<NodeWrapper> l : layers) {
+				for (int index = 0; index < l.size(); index++) {
+					l.get(index).index = index;
+				}
+			}
+			return layers;
+		}
+
+		/**
+		 * Determines a set of edges whose reversal makes the given graph
+		 * acyclic. Only edges within strongly connected components are
+		 * considered, which are ordered by the greedy heuristic of Eades,
+		 * Lin, and Smyth, using bucket lists for the degree differences.
+		 */
+		private static boolean[] computeReversedEdges(GraphSnapshot snapshot) {
+			int n = snapshot.getNodeCount();
+			int m = snapshot.getEdgeCount();
+			boolean[] reversed = new boolean[m];
+			if (GraphAlgorithms.computeTopologicalOrder(snapshot) != null) {
+				return reversed;
+			}
+			int[] components = GraphAlgorithms
+					.computeStronglyConnectedComponents(snapshot);
+
+			// degrees with respect to the edges within the components
+			int[] outDegrees = new int[n];
+			int[] inDegrees = new int[n];
+			for (int e = 0; e < m; e++) {
+				int s = snapshot.getSource(e);
+				int t = snapshot.getTarget(e);
+				if (s != t && components[s] == components[t]) {
+					outDegrees[s]++;
+					inDegrees[t]++;
+				}
+			}
+			// nodes are kept in doubly linked lists: sinks, sources, and one
+			// bucket per degree difference (out - in), offset by n
+			int bucketCount = 2 * n + 1;
+			int sinks = bucketCount;
+			int sources = bucketCount + 1;
+			int[] first = new int[bucketCount + 2];
+			Arrays.fill(first, -1);
+			int[] previous = new int[n];
+			int[] nextInList = new int[n];
+			int[] list = new int[n];
+			int maxBucket = -1;
+			for (int v = 0; v < n; v++) {
+				int b = getBucket(v, outDegrees, inDegrees, n, sinks,
+						sources);
+				insert(v, b, first, previous, nextInList, list);
+				if (b < bucketCount) {
+					maxBucket = Math.max(maxBucket, b);
+				}
+			}
+
+			// the sequence is built from both ends
+			int[] position = new int[n];
+			int left = 0;
+			int right = n - 1;
+			boolean[] removed = new boolean[n];
+			for (int count = 0; count < n; count++) {
+				int v;
+				if (first[sinks] >= 0) {
+					v = first[sinks];
+					position[v] = right--;
+				} else if (first[sources] >= 0) {
+					v = first[sources];
+					position[v] = left++;
+				} else {
+					while (first[maxBucket] < 0) {
+						maxBucket--;
+					}
+					v = first[maxBucket];
+					position[v] = left++;
+				}
+				remove(v, first, previous, nextInList, list);
+				removed[v] = true;
+				// update the neighbors within the same component
+				for (int i = 0, d = snapshot.getOutDegree(v); i < d; i++) {
+					int e = snapshot.getOutEdge(v, i);
+					int w = snapshot.getTarget(e);
+					if (!removed[w] && components[w] == components[v]) {
+						remove(w, first, previous, nextInList, list);
+						inDegrees[w]--;
+						int b = getBucket(w, outDegrees, inDegrees, n,
+								sinks, sources);
+						insert(w, b, first, previous, nextInList, list);
+						if (b < bucketCount) {
+							maxBucket = Math.max(maxBucket, b);
+						}
+					}
+				}
+				for (int i = 0, d = snapshot.getInDegree(v); i < d; i++) {
+					int e = snapshot.getInEdge(v, i);
+					int w = snapshot.getSource(e);
+					if (!removed[w] && components[w] == components[v]) {
+						remove(w, first, previous, nextInList, list);
+						outDegrees[w]--;
+						int b = getBucket(w, outDegrees, inDegrees, n,
+								sinks, sources);
+						insert(w, b, first, previous, nextInList, list);
+						if (b < bucketCount) {
+							maxBucket = Math.max(maxBucket, b);
+						}
+					}
+				}
+			}
+
+			for (int e = 0; e < m; e++) {
+				int s = snapshot.getSource(e);
+				int t = snapshot.getTarget(e);
+				reversed[e] = components[s] == components[t]
+						&& position[s] > position[t];
+			}
+			return reversed;
+		}
+
+		private static int getBucket(int v, int[] outDegrees,
+				int[] inDegrees, int n, int sinks, int sources) {
+			if (outDegrees[v] == 0) {
+				return sinks;
+			}
+			if (inDegrees[v] == 0) {
+				return sources;
+			}
+			return outDegrees[v] - inDegrees[v] + n;
+		}
+
+		private static void insert(int v, int bucket, int[] first,
+				int[] previous, int[] next, int[] list) {
+			list[v] = bucket;
+			previous[v] = -1;
+			next[v] = first[bucket];
+			if (first[bucket] >= 0) {
+				previous[first[bucket]] = v;
+			}
+			first[bucket] = v;
+		}
+
+		private static void remove(int v, int[] first, int[] previous,
+				int[] next, int[] list) {
+			if (previous[v] >= 0) {
+				next[previous[v]] = next[v];
+			} else {
+				first[list[v]] = next[v];
+			}
+			if (next[v] >= 0) {
+				previous[next[v]] = previous[v];
+			}
+		}
+	}
+
 	private List<List<NodeWrapper>> layers = new ArrayList<>();
 	private Map<Node, NodeWrapper> map = new IdentityHashMap<>();
 	private final Direction direction;
@@ -1220,6 +1971,11 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 
 	private LayerProvider layerProvider;
 	private CrossingReducer crossingReducer;
+	private CoordinateAssignment coordinateAssignment;
+
+	// gaps used by the Brandes-Koepf coordinate assignment
+	private static final double NODE_SPACING = 10;
+	private static final double LAYER_SPACING = 40;
 
 	/**
 	 * Constructs a tree-like, layered layout of a directed graph.
@@ -1247,6 +2003,7 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				: layering;
 		crossingReducer = (crossing == null) ? new BarycentricCrossingReducer()
 				: crossing;
+		coordinateAssignment = CoordinateAssignment.GRID;
 	}
 
 	/**
@@ -1330,6 +2087,35 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 		this(Direction.VERTICAL, null, null, null);
 	}
 
+	/**
+	 * Returns the {@link CoordinateAssignment} that is used by this
+	 * {@link SugiyamaLayoutAlgorithm}.
+	 *
+	 * @return The {@link CoordinateAssignment} that is used.
+	 * @since 5.1
+	 */
+	public CoordinateAssignment getCoordinateAssignment() {
+		return coordinateAssignment;
+	}
+
+	/**
+	 * Sets the {@link CoordinateAssignment} that is used by this
+	 * {@link SugiyamaLayoutAlgorithm}. Defaults to
+	 * {@link CoordinateAssignment#GRID}.
+	 *
+	 * @param coordinateAssignment
+	 *            The {@link CoordinateAssignment} to use.
+	 * @since 5.1
+	 */
+	public void setCoordinateAssignment(
+			CoordinateAssignment coordinateAssignment) {
+		if (coordinateAssignment == null) {
+			throw new IllegalArgumentException(
+					"The coordinate assignment may not be null.");
+		}
+		this.coordinateAssignment = coordinateAssignment;
+	}
+
 	public void applyLayout(LayoutContext layoutContext, boolean clean) {
 		if (!clean)
 			return;
@@ -1352,7 +2138,10 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 				map.put(nw.node, nw);
 			}
 		}
-		calculatePositions(layoutContext);
+		if (coordinateAssignment == CoordinateAssignment.BRANDES_KOEPF)
+			calculateCompactPositions(layoutContext);
+		else
+			calculatePositions(layoutContext);
 	}
 
 	private void calculatePositions(LayoutContext context) {
@@ -1376,4 +2165,89 @@ public class SugiyamaLayoutAlgorithm implements ILayoutAlgorithm {
 			}
 	}
 
+	private void calculateCompactPositions(LayoutContext context) {
+		Rectangle boundary = LayoutProperties.getBounds(context.getGraph());
+		if (dimension != null)
+			boundary = new Rectangle(0, 0, dimension.getWidth(),
+					dimension.getHeight());
+		boolean horizontal = direction == Direction.HORIZONTAL;
+
+		// number the wrappers layer by layer
+		int height = layers.size();
+		int[] layerStart = new int[height + 1];
+		Map<NodeWrapper, Integer> ids = new IdentityHashMap<>();
+		boolean linked = false;
+		for (int l = 0; l < height; l++) {
+			layerStart[l + 1] = layerStart[l] + layers.get(l).size();
+			int id = layerStart[l];
+			for (NodeWrapper nw : layers.get(l)) {
+				ids.put(nw, id++);
+				linked |= !nw.pred.isEmpty() || !nw.succ.isEmpty();
+			}
+		}
+		int n = layerStart[height];
+		boolean[] dummy = new boolean[n];
+		double[] width = new double[n];
+		double[] thickness = new double[height];
+		int[] edgeUpper = new int[16];
+		int[] edgeLower = new int[16];
+		int edgeCount = 0;
+		for (int l = 0; l < height; l++) {
+			for (NodeWrapper nw : layers.get(l)) {
+				int id = ids.get(nw);
+				dummy[id] = nw.node == null;
+				if (nw.node != null) {
+					Dimension size = LayoutProperties.getSize(nw.node);
+					if (size != null) {
+						width[id] = horizontal ? size.height : size.width;
+						thickness[l] = Math.max(thickness[l],
+								horizontal ? size.width : size.height);
+					}
+				}
+				// edges to the next layer
+				List<NodeWrapper> lower = new ArrayList<>();
+				if (linked) {
+					lower.addAll(nw.succ);
+				} else if (nw.node != null) {
+					for (Node successor : nw.node.getSuccessorNodes())
+						lower.add(map.get(successor));
+					for (Node predecessor : nw.node.getPredecessorNodes())
+						lower.add(map.get(predecessor));
+				}
+				for (NodeWrapper other : lower) {
+					if (other == null || other.layer != l + 1
+							|| !ids.containsKey(other))
+						continue;
+					if (edgeCount == edgeUpper.length) {
+						edgeUpper = Arrays.copyOf(edgeUpper, 2 * edgeCount);
+						edgeLower = Arrays.copyOf(edgeLower, 2 * edgeCount);
+					}
+					edgeUpper[edgeCount] = id;
+					edgeLower[edgeCount++] = ids.get(other);
+				}
+			}
+		}
+		double[] x = new BrandesKoepf(layerStart, dummy, width, NODE_SPACING,
+				edgeUpper, edgeLower, edgeCount).computeCoordinates();
+
+		double min = Double.POSITIVE_INFINITY;
+		for (int v = 0; v < n; v++)
+			min = Math.min(min, x[v] - width[v] / 2);
+		double offset = 0;
+		for (int l = 0; l < height; l++) {
+			double layerCenter = offset + thickness[l] / 2;
+			for (NodeWrapper nw : layers.get(l)) {
+				if (nw.node == null)
+					continue;
+				double center = x[ids.get(nw)] - min;
+				LayoutProperties.setLocation(nw.node, horizontal
+						? new Point(boundary.getX() + layerCenter,
+								boundary.getY() + center)
+						: new Point(boundary.getX() + center,
+								boundary.getY() + layerCenter));
+			}
+			offset += thickness[l] + LAYER_SPACING;
+		}
+	}
+
 }
\ No newline at end of file
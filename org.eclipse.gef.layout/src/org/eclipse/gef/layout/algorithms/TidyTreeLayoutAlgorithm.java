@@ -0,0 +1,416 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.layout.algorithms;
+
+import java.util.Arrays;
+
+import org.eclipse.gef.geometry.planar.Rectangle;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.GraphSnapshot;
+import org.eclipse.gef.graph.algorithms.GraphAlgorithms;
+import org.eclipse.gef.layout.ICacheableLayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutBuffer;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+
+/**
+ * The {@link TidyTreeLayoutAlgorithm} arranges the nodes of a graph as a tidy
+ * tree, following Buchheim, J&uuml;nger and Leipert, "Improving Walker's
+ * Algorithm to Run in Linear Time" (http://dx.doi.org/10.1007/3-540-36151-0_32).
+ * Each subtree is drawn as compactly as possible, a parent is centered above
+ * its children, and isomorphic subtrees are drawn identically. The
+ * computations take time linear in the number of nodes and are implemented
+ * without recursion, so that deep trees are supported.
+ * <p>
+ * A spanning forest of the graph is computed by a breadth-first search from
+ * the roots determined by {@link GraphAlgorithms#computeRoots(GraphSnapshot)},
+ * so that graphs that are not trees are laid out as well. The children of a
+ * node are ordered like its outgoing edges. The extent of each node along its
+ * layer is respected, and each layer is as deep as its deepest node. The
+ * layout is placed at the top-left corner of the graph bounds without
+ * scaling.
+ * <p>
+ * Unless a direction is passed into the constructor, the direction is
+ * determined by the {@link LayoutProperties#DIRECTION_PROPERTY} of the graph.
+ *
+ * @since 5.1
+ */
+public class TidyTreeLayoutAlgorithm implements ICacheableLayoutAlgorithm {
+
+	/**
+	 * The default gap between two adjacent nodes of the same layer.
+	 */
+	private static final double DEFAULT_NODE_SPACING = 10;
+
+	/**
+	 * The default gap between two subsequent layers.
+	 */
+	private static final double DEFAULT_LAYER_SPACING = 40;
+
+	private Integer direction;
+	private double nodeSpacing = DEFAULT_NODE_SPACING;
+	private double layerSpacing = DEFAULT_LAYER_SPACING;
+
+	// the forest in compressed form; the virtual root (with index n) has the
+	// roots of the forest as its children
+	private int[] parent;
+	private int[] childStart;
+	private int[] children;
+	// the position of each node among its siblings
+	private int[] number;
+	// the extent of each node along its layer
+	private double[] breadth;
+
+	private double[] prelim;
+	private double[] mod;
+	private double[] shift;
+	private double[] change;
+	private int[] thread;
+	private int[] ancestor;
+
+	/**
+	 * Constructs a new {@link TidyTreeLayoutAlgorithm} that uses the direction
+	 * specified by the {@link LayoutProperties#DIRECTION_PROPERTY} of the
+	 * graph.
+	 */
+	public TidyTreeLayoutAlgorithm() {
+	}
+
+	/**
+	 * Constructs a new {@link TidyTreeLayoutAlgorithm} that uses the given
+	 * direction.
+	 *
+	 * @param direction
+	 *            The direction, one of
+	 *            {@link LayoutProperties#DIRECTION_TOP_DOWN},
+	 *            {@link LayoutProperties#DIRECTION_BOTTOM_UP},
+	 *            {@link LayoutProperties#DIRECTION_LEFT_RIGHT}, or
+	 *            {@link LayoutProperties#DIRECTION_RIGHT_LEFT}.
+	 */
+	public TidyTreeLayoutAlgorithm(int direction) {
+		if (direction != LayoutProperties.DIRECTION_TOP_DOWN
+				&& direction != LayoutProperties.DIRECTION_BOTTOM_UP
+				&& direction != LayoutProperties.DIRECTION_LEFT_RIGHT
+				&& direction != LayoutProperties.DIRECTION_RIGHT_LEFT) {
+			throw new IllegalArgumentException(
+					"Invalid direction: " + direction);
+		}
+		this.direction = direction;
+	}
+
+	@Override
+	public void applyLayout(LayoutContext layoutContext, boolean clean) {
+		if (!clean) {
+			return;
+		}
+		GraphSnapshot snapshot = layoutContext.createGraphSnapshot();
+		int n = snapshot.getNodeCount();
+		if (n == 0) {
+			return;
+		}
+		Graph graph = layoutContext.getGraph();
+		int dir = getDirection(graph);
+		boolean vertical = dir == LayoutProperties.DIRECTION_TOP_DOWN
+				|| dir == LayoutProperties.DIRECTION_BOTTOM_UP;
+		LayoutBuffer buffer = layoutContext.createLayoutBuffer();
+		// the virtual root has no extent
+		breadth = Arrays.copyOf(
+				vertical ? buffer.getWidth() : buffer.getHeight(), n + 1);
+		double[] depthExtent = vertical ? buffer.getHeight()
+				: buffer.getWidth();
+
+		int[] order = computeForest(snapshot);
+		int[] depth = new int[n + 1];
+		int height = 0;
+		for (int k = 1; k <= n; k++) {
+			int v = order[k];
+			depth[v] = depth[parent[v]] + 1;
+			height = Math.max(height, depth[v]);
+		}
+
+		// first walk (bottom-up) and second walk (top-down)
+		prelim = new double[n + 1];
+		mod = new double[n + 1];
+		shift = new double[n + 1];
+		change = new double[n + 1];
+		thread = new int[n + 1];
+		ancestor = new int[n + 1];
+		Arrays.fill(thread, -1);
+		for (int v = 0; v <= n; v++) {
+			ancestor[v] = v;
+		}
+		for (int k = n; k >= 0; k--) {
+			firstWalk(order[k]);
+		}
+		double[] position = new double[n + 1];
+		double[] modSum = new double[n + 1];
+		double minPosition = Double.POSITIVE_INFINITY;
+		for (int k = 1; k <= n; k++) {
+			int v = order[k];
+			int p = parent[v];
+			modSum[v] = p == n ? 0 : modSum[p] + mod[p];
+			position[v] = prelim[v] + modSum[v];
+			minPosition = Math.min(minPosition, position[v] - breadth[v] / 2);
+		}
+
+		// each layer is as deep as its deepest node
+		double[] layerExtent = new double[height + 1];
+		for (int v = 0; v < n; v++) {
+			layerExtent[depth[v]] = Math.max(layerExtent[depth[v]],
+					depthExtent[v]);
+		}
+		double[] layerCenter = new double[height + 1];
+		double total = 0;
+		for (int d = 1; d <= height; d++) {
+			layerCenter[d] = total + layerExtent[d] / 2;
+			total += layerExtent[d] + layerSpacing;
+		}
+		total -= layerSpacing;
+
+		Rectangle bounds = LayoutProperties.getBounds(graph);
+		double[] x = buffer.getX();
+		double[] y = buffer.getY();
+		for (int v = 0; v < n; v++) {
+			double b = position[v] - minPosition;
+			double d = layerCenter[depth[v]];
+			if (dir == LayoutProperties.DIRECTION_BOTTOM_UP
+					|| dir == LayoutProperties.DIRECTION_RIGHT_LEFT) {
+				d = total - d;
+			}
+			x[v] = bounds.getX() + (vertical ? b : d);
+			y[v] = bounds.getY() + (vertical ? d : b);
+		}
+		buffer.commit();
+	}
+
+	@Override
+	public Object getCacheKey() {
+		return Arrays.<Object> asList(direction, nodeSpacing, layerSpacing);
+	}
+
+	/**
+	 * Computes a spanning forest of the given {@link GraphSnapshot} by a
+	 * breadth-first search from its roots, and returns the nodes in
+	 * breadth-first order, starting with the virtual root.
+	 */
+	private int[] computeForest(GraphSnapshot snapshot) {
+		int n = snapshot.getNodeCount();
+		int[] roots = GraphAlgorithms.computeRoots(snapshot);
+		parent = new int[n + 1];
+		Arrays.fill(parent, -1);
+		int[] order = new int[n + 1];
+		order[0] = n;
+		int size = 1;
+		for (int r : roots) {
+			parent[r] = n;
+			order[size++] = r;
+		}
+		for (int k = 1; k < size; k++) {
+			int v = order[k];
+			for (int i = 0; i < snapshot.getOutDegree(v); i++) {
+				int w = snapshot.getSuccessor(v, i);
+				if (parent[w] < 0) {
+					parent[w] = v;
+					order[size++] = w;
+				}
+			}
+		}
+
+		// as the children of a node are discovered consecutively, the
+		// breadth-first order lists them in order
+		childStart = new int[n + 2];
+		for (int k = 1; k <= n; k++) {
+			childStart[parent[order[k]] + 1]++;
+		}
+		for (int v = 0; v <= n; v++) {
+			childStart[v + 1] += childStart[v];
+		}
+		children = new int[n];
+		number = new int[n + 1];
+		int[] next = Arrays.copyOf(childStart, n + 1);
+		for (int k = 1; k <= n; k++) {
+			int v = order[k];
+			int p = parent[v];
+			number[v] = next[p] - childStart[p];
+			children[next[p]++] = v;
+		}
+		return order;
+	}
+
+	/**
+	 * Positions the children of the given node (whose subtrees have been
+	 * processed already) relative to each other, and stores the preliminary
+	 * position of the node (relative to its children) within its mod value,
+	 * which is finalized when the node itself is positioned among its
+	 * siblings.
+	 */
+	private void firstWalk(int v) {
+		int from = childStart[v];
+		int to = childStart[v + 1];
+		if (from == to) {
+			mod[v] = 0;
+			return;
+		}
+		int defaultAncestor = children[from];
+		for (int c = from; c < to; c++) {
+			int w = children[c];
+			// the midpoint of the children of w is stored in mod[w] (and is 0
+			// for a leaf, which keeps a mod value of 0)
+			double midpoint = mod[w];
+			if (c == from) {
+				prelim[w] = midpoint;
+			} else {
+				int left = children[c - 1];
+				prelim[w] = prelim[left] + getDistance(left, w);
+			}
+			boolean leaf = childStart[w] == childStart[w + 1];
+			mod[w] = leaf ? 0 : prelim[w] - midpoint;
+			if (c > from) {
+				defaultAncestor = apportion(w, defaultAncestor);
+			}
+		}
+		executeShifts(v);
+		mod[v] = (prelim[children[from]] + prelim[children[to - 1]]) / 2;
+	}
+
+	/**
+	 * Moves the subtree of the given node away from the subtrees of its left
+	 * siblings, so that their contours do not overlap, and distributes the
+	 * shift among the subtrees in between.
+	 */
+	private int apportion(int v, int defaultAncestor) {
+		int vip = v;
+		int vop = v;
+		int vim = children[childStart[parent[v]] + number[v] - 1];
+		int vom = children[childStart[parent[v]]];
+		double sip = mod[vip];
+		double sop = mod[vop];
+		double sim = mod[vim];
+		double som = mod[vom];
+		while (nextRight(vim) >= 0 && nextLeft(vip) >= 0) {
+			vim = nextRight(vim);
+			vip = nextLeft(vip);
+			vom = nextLeft(vom);
+			vop = nextRight(vop);
+			ancestor[vop] = v;
+			double s = (prelim[vim] + sim) - (prelim[vip] + sip)
+					+ getDistance(vim, vip);
+			if (s > 0) {
+				int a = parent[ancestor[vim]] == parent[v] ? ancestor[vim]
+						: defaultAncestor;
+				moveSubtree(a, v, s);
+				sip += s;
+				sop += s;
+			}
+			sim += mod[vim];
+			sip += mod[vip];
+			som += mod[vom];
+			sop += mod[vop];
+		}
+		if (nextRight(vim) >= 0 && nextRight(vop) < 0) {
+			thread[vop] = nextRight(vim);
+			mod[vop] += sim - sop;
+		}
+		if (nextLeft(vip) >= 0 && nextLeft(vom) < 0) {
+			thread[vom] = nextLeft(vip);
+			mod[vom] += sip - som;
+			defaultAncestor = v;
+		}
+		return defaultAncestor;
+	}
+
+	private void moveSubtree(int wm, int wp, double s) {
+		int subtrees = number[wp] - number[wm];
+		change[wp] -= s / subtrees;
+		shift[wp] += s;
+		change[wm] += s / subtrees;
+		prelim[wp] += s;
+		mod[wp] += s;
+	}
+
+	private void executeShifts(int v) {
+		double s = 0;
+		double c = 0;
+		for (int i = childStart[v + 1] - 1; i >= childStart[v]; i--) {
+			int w = children[i];
+			prelim[w] += s;
+			mod[w] += s;
+			c += change[w];
+			s += shift[w] + c;
+		}
+	}
+
+	private int nextLeft(int v) {
+		return childStart[v] < childStart[v + 1] ? children[childStart[v]]
+				: thread[v];
+	}
+
+	private int nextRight(int v) {
+		return childStart[v] < childStart[v + 1]
+				? children[childStart[v + 1] - 1] : thread[v];
+	}
+
+	private double getDistance(int v, int w) {
+		return (breadth[v] + breadth[w]) / 2 + nodeSpacing;
+	}
+
+	private int getDirection(Graph graph) {
+		if (direction != null) {
+			return direction;
+		}
+		Object value = graph.getAttributes()
+				.get(LayoutProperties.DIRECTION_PROPERTY);
+		return value instanceof Integer ? (Integer) value
+				: LayoutProperties.DEFAULT_DIRECTION;
+	}
+
+	/**
+	 * Returns the gap between two adjacent nodes of the same layer.
+	 *
+	 * @return The gap between two adjacent nodes of the same layer.
+	 */
+	public double getNodeSpacing() {
+		return nodeSpacing;
+	}
+
+	/**
+	 * Sets the gap between two adjacent nodes of the same layer. The default
+	 * value is <code>10</code>.
+	 *
+	 * @param nodeSpacing
+	 *            The gap between two adjacent nodes of the same layer.
+	 */
+	public void setNodeSpacing(double nodeSpacing) {
+		this.nodeSpacing = nodeSpacing;
+	}
+
+	/**
+	 * Returns the gap between two subsequent layers.
+	 *
+	 * @return The gap between two subsequent layers.
+	 */
+	public double getLayerSpacing() {
+		return layerSpacing;
+	}
+
+	/**
+	 * Sets the gap between two subsequent layers. The default value is
+	 * <code>40</code>.
+	 *
+	 * @param layerSpacing
+	 *            The gap between two subsequent layers.
+	 */
+	public void setLayerSpacing(double layerSpacing) {
+		this.layerSpacing = layerSpacing;
+	}
+
+}
@@ -13,8 +13,13 @@
  *******************************************************************************/
 package org.eclipse.gef.zest.fx.behaviors;
 
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
 
 import org.eclipse.gef.fx.nodes.InfiniteCanvas;
 import org.eclipse.gef.geometry.planar.Rectangle;
@@ -22,6 +27,7 @@ import org.eclipse.gef.graph.Edge;
 import org.eclipse.gef.graph.Graph;
 import org.eclipse.gef.layout.ILayoutAlgorithm;
 import org.eclipse.gef.layout.ILayoutFilter;
+import org.eclipse.gef.layout.LayoutCache;
 import org.eclipse.gef.layout.LayoutContext;
 import org.eclipse.gef.layout.LayoutProperties;
 import org.eclipse.gef.mvc.fx.parts.IContentPart;
@@ -36,6 +42,7 @@ import org.eclipse.gef.zest.fx.models.NavigationModel.ViewportState;
 import org.eclipse.gef.zest.fx.parts.GraphPart;
 import org.eclipse.gef.zest.fx.parts.NodePart;
 
+import javafx.application.Platform;
 import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
 import javafx.collections.ListChangeListener;
@@ -48,6 +55,23 @@ import javafx.scene.Scene;
 /**
  * The {@link GraphLayoutBehavior} is responsible for initiating layout passes.
  * It is only applicable to {@link GraphPart}.
+ * <p>
+ * The layouts of nested graphs are coordinated by the behavior of the root
+ * graph: they are computed concurrently (as their {@link LayoutContext}s are
+ * independent) and applied together in a single pulse, after which a layout of
+ * the root graph that was requested in the meantime is applied, so that it is
+ * based on the nested layouts. Therefore, the locations of the nodes of nested
+ * graphs are updated in a later pulse. As an {@link ILayoutAlgorithm} keeps
+ * state during a layout pass, a nested graph whose {@link ILayoutAlgorithm}
+ * instance is shared with another graph (e.g. when the same instance is set
+ * on all graphs) is laid out synchronously instead. In order to lay out nested
+ * graphs concurrently, a separate {@link ILayoutAlgorithm} instance has to be
+ * set on each of them.
+ * <p>
+ * No {@link LayoutCache} is used by default. To restore the results of
+ * previous layout passes (e.g. when toggling the visibility of a node), a
+ * {@link LayoutCache} can be set on the {@link LayoutContext} of the
+ * {@link GraphPart}.
  *
  * @author mwienand
  *
@@ -103,27 +127,39 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 
 	private boolean skipNextLayout;
 
+	// the behaviors of nested graphs that requested a layout (root graph only)
+	private Set<GraphLayoutBehavior> nestedLayoutRequests = new LinkedHashSet<>();
+
+	// the behaviors of the active nested graphs (root graph only)
+	private Set<GraphLayoutBehavior> nestedLayoutBehaviors = new LinkedHashSet<>();
+
+	// whether nested layouts are scheduled or running (root graph only)
+	private boolean nestedLayoutsPending;
+
+	// whether a layout of the root graph is deferred until the nested layouts
+	// are applied (root graph only)
+	private boolean rootLayoutPending;
+
+	// whether the requested (nested) or deferred (root) layout has to be clean
+	private boolean pendingLayoutClean;
+
 	/**
 	 * Performs one layout pass using the static layout algorithm that is configured
-	 * for the layout context.
+	 * for the layout context. The layout passes that are triggered by this
+	 * behavior (e.g. when children are added or the bounds change) are clean. In
+	 * order to perform an incremental layout (see
+	 * {@link org.eclipse.gef.layout.algorithms.SpringLayoutAlgorithm#setIncremental(boolean)}),
+	 * this method has to be called with <code>clean</code> set to
+	 * <code>false</code>. If several layout passes of a nested graph (or the root
+	 * graph) are combined into one, the combined pass is clean if any of them is.
 	 *
 	 * @param clean Whether to fully re-compute the layout or not.
 	 * @param extra An extra {@link Object} that is passed-on to the
 	 *              {@link ILayoutAlgorithm}.
 	 */
-	@SuppressWarnings("unchecked")
 	public void applyLayout(boolean clean, Object extra) {
-		// check child parts exist for all content children
-		if (getHost().getChildrenUnmodifiable().size() != getHost().getContentChildrenUnmodifiable().size()) {
+		if (!isLayoutApplicable()) {
 			return;
-		} else {
-			List<IContentPart<? extends Node>> childContentParts = PartUtils
-					.filterParts(getHost().getChildrenUnmodifiable(), IContentPart.class);
-			for (IContentPart<? extends Node> cp : childContentParts) {
-				if (!getHost().getContentChildrenUnmodifiable().contains(cp.getContent())) {
-					return;
-				}
-			}
 		}
 
 		if (skipNextLayout) {
@@ -151,8 +187,83 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 			layoutContext.setGraph(graph);
 		}
 
-		// apply layout (if no algorithm is set, will be a no-op)
-		layoutContext.applyLayout(true);
+		GraphLayoutBehavior rootLayoutBehavior = getRootLayoutBehavior();
+		if (rootLayoutBehavior != null && rootLayoutBehavior != this) {
+			if (rootLayoutBehavior.isLayoutAlgorithmShared(this)) {
+				// a shared layout algorithm may not be used concurrently
+				layoutContext.applyLayout(clean);
+			} else {
+				// nested graphs are laid out concurrently by the root graph
+				pendingLayoutClean |= clean;
+				rootLayoutBehavior.requestNestedLayout(this);
+			}
+		} else if (nestedLayoutsPending) {
+			// the root graph is laid out after the nested graphs
+			rootLayoutPending = true;
+			pendingLayoutClean |= clean;
+		} else {
+			// apply layout (if no algorithm is set, will be a no-op)
+			layoutContext.applyLayout(clean);
+		}
+	}
+
+	/**
+	 * Computes the layouts of the nested graphs that requested a layout
+	 * concurrently, and applies them together in a single pulse, followed by a
+	 * pending layout of the root graph.
+	 */
+	private void applyNestedLayouts() {
+		List<GraphLayoutBehavior> behaviors = new ArrayList<>(nestedLayoutRequests);
+		nestedLayoutRequests.clear();
+		List<CompletableFuture<Runnable>> results = new ArrayList<>();
+		if (isActive()) {
+			for (GraphLayoutBehavior behavior : behaviors) {
+				boolean clean = behavior.pendingLayoutClean;
+				behavior.pendingLayoutClean = false;
+				if (!behavior.isActive() || !behavior.isLayoutApplicable()) {
+					continue;
+				}
+				if (isLayoutAlgorithmShared(behavior)) {
+					// the layout algorithm was shared in the meantime
+					behavior.getLayoutContext().applyLayout(clean);
+					continue;
+				}
+				// the results are only computed, so that they can be applied
+				// together
+				results.add(behavior.getLayoutContext().computeLayoutAsync(clean));
+			}
+		}
+		CompletableFuture.allOf(results.toArray(new CompletableFuture<?>[results.size()]))
+				.handle((r, t) -> (Void) null).thenRun(() -> Platform.runLater(() -> {
+					for (CompletableFuture<Runnable> result : results) {
+						// a failed layout does not prevent the others from
+						// being applied
+						try {
+							Runnable task = result.join();
+							if (task != null) {
+								task.run();
+							}
+						} catch (CancellationException e) {
+							// the layout was superseded
+						} catch (RuntimeException e) {
+							Thread.currentThread().getUncaughtExceptionHandler()
+									.uncaughtException(Thread.currentThread(), e);
+						}
+					}
+					nestedLayoutsPending = false;
+					if (!nestedLayoutRequests.isEmpty()) {
+						// nested layouts were requested in the meantime
+						nestedLayoutsPending = true;
+						Platform.runLater(this::applyNestedLayouts);
+					} else if (rootLayoutPending) {
+						rootLayoutPending = false;
+						boolean clean = pendingLayoutClean;
+						pendingLayoutClean = false;
+						if (isActive()) {
+							getLayoutContext().applyLayout(clean);
+						}
+					}
+				}));
 	}
 
 	/**
@@ -189,6 +300,11 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		layoutContext.schedulePreLayoutPass(preLayout);
 		layoutContext.schedulePostLayoutPass(postLayout);
 
+		GraphLayoutBehavior rootLayoutBehavior = getRootLayoutBehavior();
+		if (rootLayoutBehavior != null && rootLayoutBehavior != this) {
+			rootLayoutBehavior.nestedLayoutBehaviors.add(this);
+		}
+
 		// register listener for bounds changes
 		if (getHost().getParent() == getHost().getRoot()) {
 			/*
@@ -266,6 +382,20 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 	protected void doDeactivate() {
 		getHost().getChildrenUnmodifiable().removeListener(childrenObserver);
 
+		GraphLayoutBehavior rootLayoutBehavior = getRootLayoutBehavior();
+		if (rootLayoutBehavior != null && rootLayoutBehavior != this) {
+			rootLayoutBehavior.nestedLayoutRequests.remove(this);
+			rootLayoutBehavior.nestedLayoutBehaviors.remove(this);
+		} else {
+			// running nested layouts are still applied
+			for (GraphLayoutBehavior behavior : nestedLayoutRequests) {
+				behavior.pendingLayoutClean = false;
+			}
+			nestedLayoutRequests.clear();
+			rootLayoutPending = false;
+		}
+		pendingLayoutClean = false;
+
 		final HidingModel hidingModel = getHost().getRoot().getViewer().getAdapter(HidingModel.class);
 		if (hidingModel != null) {
 			hidingModel.hiddenProperty().removeListener(hidingModelObserver);
@@ -305,6 +435,70 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		return getHost().getAdapter(LayoutContext.class);
 	}
 
+	/**
+	 * Returns the {@link GraphLayoutBehavior} of the root graph, which
+	 * coordinates the layouts of the nested graphs.
+	 *
+	 * @return The {@link GraphLayoutBehavior} of the root graph, or
+	 *         <code>null</code> if the host is not attached to a root part.
+	 */
+	private GraphLayoutBehavior getRootLayoutBehavior() {
+		IVisualPart<? extends Node> part = getHost();
+		while (part.getParent() != null && part.getParent() != part.getRoot()) {
+			part = part.getParent();
+		}
+		return part.getParent() == null ? null : part.getAdapter(GraphLayoutBehavior.class);
+	}
+
+	/**
+	 * Returns <code>true</code> if the {@link ILayoutAlgorithm} of the given
+	 * nested graph is also used by the root graph or by another nested graph
+	 * (root graph only).
+	 *
+	 * @param nestedLayoutBehavior The {@link GraphLayoutBehavior} of the nested
+	 *                             graph.
+	 * @return <code>true</code> if the {@link ILayoutAlgorithm} is shared,
+	 *         otherwise <code>false</code>.
+	 */
+	private boolean isLayoutAlgorithmShared(GraphLayoutBehavior nestedLayoutBehavior) {
+		ILayoutAlgorithm layoutAlgorithm = nestedLayoutBehavior.getLayoutContext().getLayoutAlgorithm();
+		if (layoutAlgorithm == null) {
+			return false;
+		}
+		if (usesLayoutAlgorithm(layoutAlgorithm)) {
+			return true;
+		}
+		for (GraphLayoutBehavior behavior : nestedLayoutBehaviors) {
+			if (behavior != nestedLayoutBehavior && behavior.usesLayoutAlgorithm(layoutAlgorithm)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Returns <code>true</code> if child parts exist for all content children of
+	 * the host, so that a layout can be applied.
+	 *
+	 * @return <code>true</code> if a layout can be applied, otherwise
+	 *         <code>false</code>.
+	 */
+	@SuppressWarnings("unchecked")
+	private boolean isLayoutApplicable() {
+		// check child parts exist for all content children
+		if (getHost().getChildrenUnmodifiable().size() != getHost().getContentChildrenUnmodifiable().size()) {
+			return false;
+		}
+		List<IContentPart<? extends Node>> childContentParts = PartUtils.filterParts(getHost().getChildrenUnmodifiable(),
+				IContentPart.class);
+		for (IContentPart<? extends Node> cp : childContentParts) {
+			if (!getHost().getContentChildrenUnmodifiable().contains(cp.getContent())) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * Returns the {@link NodePart} that contains the nested graph to which the
 	 * behavior corresponds, if this behavior is related to a nested graph.
@@ -351,6 +545,36 @@ public class GraphLayoutBehavior extends AbstractLayoutBehavior {
 		}
 	}
 
+	/**
+	 * Requests a layout of the given nested graph, which is computed
+	 * concurrently with the other nested layouts that are requested in the same
+	 * pulse (root graph only).
+	 *
+	 * @param nestedLayoutBehavior The {@link GraphLayoutBehavior} of the nested
+	 *                             graph.
+	 */
+	private void requestNestedLayout(GraphLayoutBehavior nestedLayoutBehavior) {
+		nestedLayoutRequests.add(nestedLayoutBehavior);
+		if (!nestedLayoutsPending) {
+			nestedLayoutsPending = true;
+			Platform.runLater(this::applyNestedLayouts);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if the given {@link ILayoutAlgorithm} is set on
+	 * the graph of this behavior, or used by its {@link LayoutContext}.
+	 *
+	 * @param layoutAlgorithm The {@link ILayoutAlgorithm} to test.
+	 * @return <code>true</code> if the given {@link ILayoutAlgorithm} is used,
+	 *         otherwise <code>false</code>.
+	 */
+	private boolean usesLayoutAlgorithm(ILayoutAlgorithm layoutAlgorithm) {
+		// the attribute is read directly, so that a provider is not called
+		return getLayoutContext().getLayoutAlgorithm() == layoutAlgorithm
+				|| getHost().getContent().getAttributes().get(ZestProperties.LAYOUT_ALGORITHM__G) == layoutAlgorithm;
+	}
+
 	/**
 	 * Updates the bounds property from the visual (viewport or nesting node)
 	 */
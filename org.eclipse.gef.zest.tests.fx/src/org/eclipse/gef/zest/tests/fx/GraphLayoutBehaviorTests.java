@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2026 itemis AG and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *     itemis AG - initial API and implementation
+ *
+ *******************************************************************************/
+package org.eclipse.gef.zest.tests.fx;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.eclipse.gef.common.adapt.AdapterKey;
+import org.eclipse.gef.common.adapt.inject.AdaptableScopes;
+import org.eclipse.gef.geometry.planar.Point;
+import org.eclipse.gef.graph.Graph;
+import org.eclipse.gef.graph.Node;
+import org.eclipse.gef.layout.ILayoutAlgorithm;
+import org.eclipse.gef.layout.LayoutContext;
+import org.eclipse.gef.layout.LayoutProperties;
+import org.eclipse.gef.mvc.fx.domain.IDomain;
+import org.eclipse.gef.mvc.fx.parts.IContentPart;
+import org.eclipse.gef.mvc.fx.parts.IContentPartFactory;
+import org.eclipse.gef.mvc.fx.viewer.IViewer;
+import org.eclipse.gef.mvc.tests.fx.rules.FXNonApplicationThreadRule;
+import org.eclipse.gef.zest.fx.ZestFxModule;
+import org.eclipse.gef.zest.fx.ZestProperties;
+import org.eclipse.gef.zest.fx.behaviors.GraphLayoutBehavior;
+import org.eclipse.gef.zest.fx.parts.NodePart;
+import org.eclipse.gef.zest.fx.parts.ZestFxContentPartFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import com.google.inject.Guice;
+
+import javafx.application.Platform;
+
+/**
+ * Tests for the {@link GraphLayoutBehavior}.
+ */
+public class GraphLayoutBehaviorTests {
+
+	/**
+	 * Moves all nodes to the same location, and records whether each layout
+	 * pass is performed on the JavaFX application thread, and whether it is
+	 * clean.
+	 */
+	private static class RecordingLayoutAlgorithm implements ILayoutAlgorithm {
+
+		private final List<Boolean> passes = new CopyOnWriteArrayList<>();
+		private final List<Boolean> cleanPasses = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void applyLayout(LayoutContext layoutContext, boolean clean) {
+			passes.add(Platform.isFxApplicationThread());
+			cleanPasses.add(clean);
+			for (Node node : layoutContext.getNodes()) {
+				LayoutProperties.setLocation(node, new Point(42, 42));
+			}
+		}
+	}
+
+	/**
+	 * Shows nested graphs independent of the zoom level.
+	 */
+	static class NestedGraphContentPartFactory extends ZestFxContentPartFactory {
+
+		@Override
+		public IContentPart<? extends javafx.scene.Node> createContentPart(Object content,
+				Map<Object, Object> contextMap) {
+			if (content instanceof Node && ((Node) content).getNestedGraph() != null) {
+				NodePart part = new NodePart() {
+					@Override
+					protected List<? extends Object> doGetContentChildren() {
+						return Collections.singletonList(getContent().getNestedGraph());
+					}
+				};
+				getInjector().injectMembers(part);
+				return part;
+			}
+			return super.createContentPart(content, contextMap);
+		}
+	}
+
+	private static final long TIMEOUT = 10000;
+
+	@Rule
+	public FXNonApplicationThreadRule ctx = new FXNonApplicationThreadRule();
+
+	private IDomain domain;
+	private IViewer viewer;
+
+	@Before
+	public void activate() throws Throwable {
+		domain = Guice.createInjector(new ZestFxModule() {
+			@Override
+			protected void bindIContentPartFactory() {
+				binder().bind(IContentPartFactory.class).to(NestedGraphContentPartFactory.class)
+						.in(AdaptableScopes.typed(IViewer.class));
+			}
+		}).getInstance(IDomain.class);
+		viewer = domain.getAdapter(AdapterKey.get(IViewer.class, IDomain.CONTENT_VIEWER_ROLE));
+		ctx.createScene(viewer.getCanvas(), 400, 400);
+		ctx.runAndWait(() -> {
+			domain.activate();
+		});
+	}
+
+	@After
+	public void deactivate() throws Throwable {
+		ctx.runAndWait(() -> {
+			viewer.getContents().clear();
+			domain.deactivate();
+		});
+	}
+
+	private Graph createGraph(ILayoutAlgorithm rootLayoutAlgorithm, ILayoutAlgorithm... nestedLayoutAlgorithms) {
+		Graph graph = new Graph();
+		ZestProperties.setLayoutAlgorithm(graph, rootLayoutAlgorithm);
+		for (ILayoutAlgorithm layoutAlgorithm : nestedLayoutAlgorithms) {
+			Graph nestedGraph = new Graph.Builder().nodes(new Node(), new Node()).build();
+			ZestProperties.setLayoutAlgorithm(nestedGraph, layoutAlgorithm);
+			Node nestingNode = new Node();
+			nestingNode.setNestedGraph(nestedGraph);
+			graph.getNodes().add(nestingNode);
+		}
+		return graph;
+	}
+
+	private GraphLayoutBehavior getLayoutBehavior(Graph graph) {
+		return viewer.getContentPartMap().get(graph).getAdapter(GraphLayoutBehavior.class);
+	}
+
+	private boolean isLaidOut(Graph graph) throws Throwable {
+		return ctx.runAndWait(() -> {
+			for (Node node : graph.getNodes()) {
+				Graph nestedGraph = node.getNestedGraph();
+				for (Node nestedNode : nestedGraph.getNodes()) {
+					if (!new Point(42, 42).equals(LayoutProperties.getLocation(nestedNode))) {
+						return false;
+					}
+				}
+			}
+			return true;
+		});
+	}
+
+	@Test
+	public void separateLayoutAlgorithms() throws Throwable {
+		RecordingLayoutAlgorithm rootLayoutAlgorithm = new RecordingLayoutAlgorithm();
+		RecordingLayoutAlgorithm first = new RecordingLayoutAlgorithm();
+		RecordingLayoutAlgorithm second = new RecordingLayoutAlgorithm();
+		Graph graph = createGraph(rootLayoutAlgorithm, first, second);
+		ctx.runAndWait(() -> {
+			viewer.getContents().setAll(Collections.singletonList(graph));
+		});
+
+		// the nested graphs are laid out concurrently, and applied later
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!isLaidOut(graph)) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+		assertFalse(first.passes.isEmpty());
+		assertFalse(first.passes.contains(true));
+		assertFalse(second.passes.isEmpty());
+		assertFalse(second.passes.contains(true));
+		assertFalse(rootLayoutAlgorithm.passes.contains(false));
+	}
+
+	@Test
+	public void nonCleanLayout() throws Throwable {
+		RecordingLayoutAlgorithm rootLayoutAlgorithm = new RecordingLayoutAlgorithm();
+		RecordingLayoutAlgorithm nestedLayoutAlgorithm = new RecordingLayoutAlgorithm();
+		Graph graph = createGraph(rootLayoutAlgorithm, nestedLayoutAlgorithm);
+		ctx.runAndWait(() -> {
+			viewer.getContents().setAll(Collections.singletonList(graph));
+		});
+		long deadline = System.currentTimeMillis() + TIMEOUT;
+		while (!isLaidOut(graph)) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+		assertFalse(rootLayoutAlgorithm.cleanPasses.contains(false));
+		assertFalse(nestedLayoutAlgorithm.cleanPasses.contains(false));
+
+		// the root graph is laid out synchronously
+		ctx.runAndWait(() -> {
+			getLayoutBehavior(graph).applyLayout(false, null);
+		});
+		assertEquals(false, rootLayoutAlgorithm.cleanPasses.get(rootLayoutAlgorithm.cleanPasses.size() - 1));
+
+		// the nested graph is laid out concurrently
+		int nestedPasses = nestedLayoutAlgorithm.cleanPasses.size();
+		ctx.runAndWait(() -> {
+			getLayoutBehavior(graph.getNodes().get(0).getNestedGraph()).applyLayout(false, null);
+		});
+		while (nestedLayoutAlgorithm.cleanPasses.size() == nestedPasses) {
+			assertTrue(System.currentTimeMillis() < deadline);
+			Thread.sleep(10);
+		}
+		assertEquals(false, nestedLayoutAlgorithm.cleanPasses.get(nestedPasses));
+	}
+
+	@Test
+	public void sharedLayoutAlgorithm() throws Throwable {
+		RecordingLayoutAlgorithm layoutAlgorithm = new RecordingLayoutAlgorithm();
+		Graph graph = createGraph(layoutAlgorithm, layoutAlgorithm, layoutAlgorithm);
+		ctx.runAndWait(() -> {
+			viewer.getContents().setAll(Collections.singletonList(graph));
+		});
+
+		// a shared layout algorithm is applied synchronously
+		assertTrue(isLaidOut(graph));
+		assertFalse(layoutAlgorithm.passes.isEmpty());
+		assertFalse(layoutAlgorithm.passes.contains(false));
+	}
+
+}